@@ -4,6 +4,7 @@ plugins {
 	id("org.springframework.boot") version "3.5.3"
 	id("io.spring.dependency-management") version "1.1.7"
 	id("com.diffplug.spotless") version "6.19.0"
+	id("me.champeau.jmh") version "0.7.2"
 }
 
 group = "com.chromascape"
@@ -63,6 +64,28 @@ tasks.test {
 	useJUnitPlatform()
 }
 
+// The SIMD image kernels use the incubating Vector API. Only the "vector" source set is compiled
+// against it, and ImageKernels loads those kernels by name when the JVM is started with
+// --add-modules jdk.incubator.vector, falling back to plain Java loops otherwise.
+val vectorApiArgs = listOf("--add-modules", "jdk.incubator.vector")
+
+val vector by sourceSets.creating {
+	compileClasspath += sourceSets.main.get().output
+}
+
+tasks.named<JavaCompile>(vector.compileJavaTaskName) {
+	options.compilerArgs.addAll(vectorApiArgs)
+}
+
+dependencies {
+	runtimeOnly(vector.output)
+	"jmhRuntimeOnly"(vector.output)
+}
+
+jmh {
+	jvmArgsAppend.addAll(vectorApiArgs)
+}
+
 checkstyle {
 	toolVersion = "10.26.1"
 	configFile = file("config/checkstyle/google_checks.xml")
@@ -3,8 +3,10 @@ package com.chromascape.controller;
 import com.chromascape.utils.core.input.keyboard.VirtualKeyboardUtils;
 import com.chromascape.utils.core.input.mouse.VirtualMouseUtils;
 import com.chromascape.utils.core.input.remoteinput.Kinput;
+import com.chromascape.utils.core.screen.capture.CaptureService;
 import com.chromascape.utils.core.screen.window.ScreenManager;
 import com.chromascape.utils.core.screen.window.WindowHandler;
+import com.chromascape.utils.domain.inventory.InventoryEngine;
 import com.chromascape.utils.domain.walker.Walker;
 import com.chromascape.utils.domain.zones.ZoneManager;
 import org.apache.logging.log4j.LogManager;
@@ -31,9 +33,11 @@ public class Controller {
   private final boolean isFixed;
 
   private Kinput kinput;
+  private CaptureService captureService;
   private VirtualMouseUtils virtualMouseUtils;
   private VirtualKeyboardUtils virtualKeyboardUtils;
   private ZoneManager zoneManager;
+  private InventoryEngine inventoryEngine;
   private Walker walker;
   private static final Logger logger = LogManager.getLogger(Controller.class);
 
@@ -59,12 +63,21 @@ public class Controller {
     // Obtain process ID of the target window to initialize input injection
     kinput = new Kinput(WindowHandler.getPid(WindowHandler.getTargetWindow()));
 
+    // Drop any window placement cached by a previous run before mapping zones
+    ScreenManager.invalidateGeometry();
+
+    // Share one background capture between every screen consumer of the script
+    captureService = new CaptureService();
+    captureService.start();
+    ScreenManager.setCaptureService(captureService);
+
     // Initialize virtual input utilities with current window bounds and fullscreen status
     virtualMouseUtils = new VirtualMouseUtils(kinput, ScreenManager.getWindowBounds());
     virtualKeyboardUtils = new VirtualKeyboardUtils(kinput);
 
     // Initialize zone management with fixed mode option
     zoneManager = new ZoneManager(isFixed);
+    inventoryEngine = new InventoryEngine(zoneManager);
 
     state = ControllerState.RUNNING;
 
@@ -81,6 +94,8 @@ public class Controller {
   public void shutdown() {
     mouse().getMouseOverlay().eraseOverlay();
     kinput.destroy();
+    ScreenManager.setCaptureService(null);
+    captureService.stop();
     state = ControllerState.STOPPED;
     logger.info("Shutting down");
   }
@@ -107,6 +122,20 @@ public class Controller {
     return virtualKeyboardUtils;
   }
 
+  /**
+   * Provides access to the shared background capture.
+   *
+   * <p>Hold {@link CaptureService#latest()} for the length of a decision so every check refers to
+   * the same instant.
+   *
+   * @return The running capture service.
+   * @throws IllegalStateException if called while the controller is not running.
+   */
+  public CaptureService capture() {
+    assertRunning("CaptureService");
+    return captureService;
+  }
+
   /**
    * Provides access to the zone manager utility.
    *
@@ -121,6 +150,20 @@ public class Controller {
     return zoneManager;
   }
 
+  /**
+   * Provides access to the inventory engine.
+   *
+   * <p>Register the items a script cares about once, then take an {@link
+   * InventoryEngine#snapshot()} whenever the inventory needs checking.
+   *
+   * @return The inventory engine bound to this controller's zones.
+   * @throws IllegalStateException if called while the controller is not running.
+   */
+  public InventoryEngine inventory() {
+    assertRunning("InventoryEngine");
+    return inventoryEngine;
+  }
+
   /**
    * Provides access to the walker domain utility.
    *
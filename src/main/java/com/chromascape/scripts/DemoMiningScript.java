@@ -4,8 +4,6 @@ import com.chromascape.base.BaseScript;
 import com.chromascape.utils.actions.Idler;
 import com.chromascape.utils.actions.PointSelector;
 import com.chromascape.utils.core.input.distribution.ClickDistribution;
-import com.chromascape.utils.core.screen.topology.TemplateMatching;
-import com.chromascape.utils.core.screen.window.ScreenManager;
 import java.awt.Point;
 import java.awt.Rectangle;
 import java.awt.image.BufferedImage;
@@ -31,6 +29,8 @@ public class DemoMiningScript extends BaseScript {
   private static final Logger logger = LogManager.getLogger(DemoMiningScript.class);
   private static final String ironOre = "/images/user/Iron_ore.png";
 
+  private boolean itemsRegistered = false;
+
   /**
    * Constructs a new mining script.
    *
@@ -48,6 +48,11 @@ public class DemoMiningScript extends BaseScript {
    */
   @Override
   protected void cycle() {
+    if (!itemsRegistered) {
+      // The inventory engine only exists once the controller is running
+      controller().inventory().register(ironOre, ironOre, 0.05);
+      itemsRegistered = true;
+    }
     if (isInventoryFull()) {
       dropIronOre();
     }
@@ -64,7 +69,7 @@ public class DemoMiningScript extends BaseScript {
   private void clickOre() {
     try {
       BufferedImage gameView = controller().zones().getGameView();
-      Point clickLoc = PointSelector.getRandomPointInColour(gameView, "Cyan", 15);
+      Point clickLoc = PointSelector.getRandomPointInColour(gameView, "Cyan");
       if (clickLoc == null) {
         stop();
         return;
@@ -79,16 +84,13 @@ public class DemoMiningScript extends BaseScript {
 
   /**
    * Checks whether the player’s inventory is full by examining the final inventory slot for the
-   * presence of an iron ore image.
+   * presence of iron ore.
    *
    * @return {@code true} if the inventory is full, otherwise {@code false}
    */
   private boolean isInventoryFull() {
     try {
-      Rectangle invSlot = controller().zones().getInventorySlots().get(27);
-      BufferedImage invSlotImg = ScreenManager.captureZone(invSlot);
-      Rectangle match = TemplateMatching.match(ironOre, invSlotImg, 0.05, false);
-      return match != null;
+      return controller().inventory().snapshot().contains(27, ironOre);
     } catch (Exception e) {
       logger.error(e);
     }
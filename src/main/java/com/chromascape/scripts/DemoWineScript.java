@@ -3,11 +3,13 @@ package com.chromascape.scripts;
 import com.chromascape.base.BaseScript;
 import com.chromascape.utils.actions.PointSelector;
 import com.chromascape.utils.core.input.distribution.ClickDistribution;
+import com.chromascape.utils.core.screen.topology.MatchStrategy;
 import com.chromascape.utils.core.screen.topology.TemplateMatching;
-import com.chromascape.utils.core.screen.window.ScreenManager;
 import java.awt.Point;
 import java.awt.Rectangle;
 import java.awt.image.BufferedImage;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -30,7 +32,6 @@ public class DemoWineScript extends BaseScript {
   private static final String dumpBank = "/images/user/Dump_bank.png";
   private static final String unfermented = "/images/user/Unfermented.png";
 
-  private static final int MAX_ATTEMPTS = 15;
   private static final int INVENT_SLOT_GRAPES = 13;
   private static final int INVENT_SLOT_JUGS = 14;
 
@@ -56,17 +57,14 @@ public class DemoWineScript extends BaseScript {
   @Override
   protected void cycle() {
     if (bankFlag) {
+      controller().inventory().register(unfermented, unfermented, 0.055);
       clickBank(); // Open the bank once at the start of the script
       waitRandomMillis(700, 900);
       bankFlag = false;
       // Cannot start in bank because UI needs to initialise
     }
 
-    clickImage(grapes, "fast", 0.07); // Take out grapes
-    waitRandomMillis(300, 600);
-
-    clickImage(jugs, "slow", 0.065); // Take out water jugs
-    waitRandomMillis(400, 500);
+    withdrawSupplies(); // Take out grapes and water jugs
 
     pressEscape(); // Exit bank UI
     waitRandomMillis(600, 800);
@@ -86,7 +84,7 @@ public class DemoWineScript extends BaseScript {
     clickImage(dumpBank, "medium", 0.055); // Put the fermenting wines in the bank to repeat
     waitRandomMillis(650, 750);
 
-    if (checkIfImageInv(unfermented, 0.055)) { // Repeating because bank is weird
+    if (checkIfImageInv(unfermented)) { // Repeating because bank is weird
       controller().mouse().leftClick();
       waitRandomMillis(600, 800);
     }
@@ -122,8 +120,7 @@ public class DemoWineScript extends BaseScript {
     Point clickLocation = new Point();
     try {
       clickLocation =
-          PointSelector.getRandomPointInColour(
-              controller().zones().getGameView(), "Purple", MAX_ATTEMPTS);
+          PointSelector.getRandomPointInColour(controller().zones().getGameView(), "Purple");
     } catch (Exception e) {
       logger.error("Failed while generating bank click location: {}", String.valueOf(e));
       stop();
@@ -172,6 +169,41 @@ public class DemoWineScript extends BaseScript {
     }
   }
 
+  /**
+   * Locates both the grapes and the water jugs in the open bank with a single batched template
+   * match, then withdraws them one after the other. The bank layout does not change between the two
+   * clicks, so one lookup serves both.
+   */
+  private void withdrawSupplies() {
+    try {
+      BufferedImage gameView = controller().zones().getGameView();
+      Map<String, Double> supplies = new LinkedHashMap<>();
+      supplies.put(grapes, 0.07);
+      supplies.put(jugs, 0.065);
+      Map<String, Rectangle> found =
+          TemplateMatching.matchBatch(gameView, supplies, MatchStrategy.HINTED);
+
+      if (found.containsValue(null)) {
+        logger.error("withdrawSupplies could not find every supply in the bank: {}", found);
+        stop();
+        return;
+      }
+
+      controller().mouse().moveTo(ClickDistribution.generateRandomPoint(found.get(grapes)), "fast");
+      controller().mouse().leftClick();
+      waitRandomMillis(300, 600);
+
+      controller().mouse().moveTo(ClickDistribution.generateRandomPoint(found.get(jugs)), "slow");
+      controller().mouse().leftClick();
+      waitRandomMillis(400, 500);
+      logger.info("Withdrew supplies from {}", found.values());
+
+    } catch (Exception e) {
+      logger.error("withdrawSupplies failed: {}", e.getMessage());
+      stop();
+    }
+  }
+
   /**
    * Clicks a random point within the bounding box of a given inventory slot.
    *
@@ -205,19 +237,15 @@ public class DemoWineScript extends BaseScript {
   }
 
   /**
-   * Checks if an image exists on the screen and returns a boolean referring to if it was detected.
+   * Checks if an item exists in the first inventory slot and returns a boolean referring to if it
+   * was detected.
    *
-   * @param imagePath the path to the image being searched
-   * @param threshold the openCV threshold to decide if a match exists
-   * @return true if the image exists in the inventory slot 1, else false
+   * @param itemId the id the item was registered under with the inventory engine
+   * @return true if the item exists in the inventory slot 1, else false
    */
-  private boolean checkIfImageInv(String imagePath, double threshold) {
+  private boolean checkIfImageInv(String itemId) {
     try {
-      BufferedImage inventorySlot1 =
-          ScreenManager.captureZone(controller().zones().getInventorySlots().get(0));
-      Rectangle boundingBox = TemplateMatching.match(imagePath, inventorySlot1, threshold, false);
-
-      if (boundingBox == null || boundingBox.isEmpty()) {
+      if (!controller().inventory().snapshot().contains(0, itemId)) {
         logger.error("Template match failed: No valid inventory bounding box.");
         return false;
       }
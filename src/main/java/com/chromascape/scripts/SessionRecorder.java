@@ -0,0 +1,70 @@
+package com.chromascape.scripts;
+
+import com.chromascape.base.BaseScript;
+import com.chromascape.utils.core.screen.capture.CaptureService;
+import com.chromascape.utils.core.screen.capture.FrameRecorder;
+import com.chromascape.utils.core.screen.window.ScreenManager;
+import java.awt.Rectangle;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Records the client at the capture rate into a raw ring file under {@code
+ * .chromascape/cache/recordings} until stopped. Unlike the {@link Screenshotter}, frames are not
+ * encoded while recording, so footage can be captured for profiling or for replay through {@link
+ * com.chromascape.utils.core.screen.capture.RecordingFrameSource} without slowing the client down.
+ * The ring keeps the most recent {@value #RING_MEGABYTES} MB of frames: about half a minute of a
+ * fixed-mode client, or a few seconds of a 1080p window. The recording is compressed in the
+ * background once the script is stopped. Served as a "user script" in the web UI.
+ */
+public class SessionRecorder extends BaseScript {
+
+  private final Logger logger = LogManager.getLogger(SessionRecorder.class);
+
+  /** Disk space the raw ring may take, in megabytes. */
+  private static final int RING_MEGABYTES = 1024;
+
+  /**
+   * Same constructor as super (BaseScript).
+   *
+   * @param isFixed whether the client is in classic fixed or classic resizable
+   */
+  public SessionRecorder(boolean isFixed) {
+    super(isFixed);
+  }
+
+  /**
+   * Attaches a recorder to the running capture service and idles until the script is stopped, then
+   * detaches it and compresses the recording. Runs as a single cycle.
+   */
+  @Override
+  protected void cycle() {
+    Rectangle bounds = ScreenManager.getWindowBounds();
+    String name =
+        "session-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+    CaptureService capture = controller().capture();
+    FrameRecorder recorder;
+    try {
+      int capacity =
+          FrameRecorder.capacityFor(bounds.width, bounds.height, (long) RING_MEGABYTES << 20);
+      recorder = FrameRecorder.inCache(name, bounds.width, bounds.height, capacity);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    capture.addFrameListener(recorder);
+    try {
+      while (true) {
+        waitMillis(5000);
+        logger.info("Recorded {} frames to {}", recorder.written(), recorder.file());
+      }
+    } finally {
+      capture.removeFrameListener(recorder);
+      recorder.compressAsync();
+      stop();
+    }
+  }
+}
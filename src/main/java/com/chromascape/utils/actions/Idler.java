@@ -44,8 +44,8 @@ public class Idler {
         Rectangle latestMessage = base.controller().zones().getChatTabs().get("Latest Message");
         ColourObj red = ColourInstances.getByName("ChatRed");
         ColourObj black = ColourInstances.getByName("Black");
-        String idleText = Ocr.extractText(latestMessage, "Plain 12", red, true);
-        String timeStamp = Ocr.extractText(latestMessage, "Plain 12", black, true);
+        String idleText = Ocr.extractText(latestMessage, "Plain 12", red);
+        String timeStamp = Ocr.extractText(latestMessage, "Plain 12", black);
         if ((idleText.contains("moving") || idleText.contains("idle"))
             && !timeStamp.equals(lastMessage)) {
           lastMessage = timeStamp;
@@ -1,18 +1,34 @@
 package com.chromascape.utils.actions;
 
+import static org.bytedeco.opencv.global.opencv_core.CV_8UC1;
+import static org.bytedeco.opencv.global.opencv_imgproc.FILLED;
+import static org.bytedeco.opencv.global.opencv_imgproc.LINE_8;
+import static org.bytedeco.opencv.global.opencv_imgproc.boundingRect;
+import static org.bytedeco.opencv.global.opencv_imgproc.drawContours;
+
 import com.chromascape.base.BaseScript;
 import com.chromascape.utils.core.input.distribution.ClickDistribution;
+import com.chromascape.utils.core.input.distribution.MaskDistribution;
+import com.chromascape.utils.core.screen.capture.Frame;
 import com.chromascape.utils.core.screen.colour.ColourInstances;
 import com.chromascape.utils.core.screen.colour.ColourObj;
+import com.chromascape.utils.core.screen.topology.Blob;
+import com.chromascape.utils.core.screen.topology.BlobSet;
 import com.chromascape.utils.core.screen.topology.ChromaObj;
 import com.chromascape.utils.core.screen.topology.ColourContours;
+import com.chromascape.utils.core.screen.topology.MatchStrategy;
 import com.chromascape.utils.core.screen.topology.TemplateMatching;
 import java.awt.Point;
 import java.awt.Rectangle;
 import java.awt.image.BufferedImage;
+import java.nio.ByteBuffer;
 import java.util.List;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.bytedeco.opencv.opencv_core.Mat;
+import org.bytedeco.opencv.opencv_core.MatVector;
+import org.bytedeco.opencv.opencv_core.Rect;
+import org.bytedeco.opencv.opencv_core.Scalar;
 
 /**
  * The {@code PointSelector} class provides utility methods for selecting random points within
@@ -24,6 +40,7 @@ import org.apache.logging.log4j.Logger;
  * <ul>
  *   <li>Finds a random point within the bounding box of a detected image template.
  *   <li>Finds a random point inside the contour of the first detected object of a specified colour.
+ *   <li>Finds a random point on the largest detected object of a specified colour.
  * </ul>
  *
  * <p>These utilities are commonly reused across scripts written for the ChromaScape automation
@@ -34,7 +51,7 @@ import org.apache.logging.log4j.Logger;
  *
  * <pre>
  * Point pointInImage = PointSelector.getRandomPointInImage(templatePath, gameView, threshold);
- * Point pointInColour = PointSelector.getRandomPointInColour(gameView, "Purple", maxAttempts);
+ * Point pointInColour = PointSelector.getRandomPointInColour(gameView, "Purple");
  * </pre>
  *
  * <p>All methods are static and thread-safe.
@@ -47,6 +64,8 @@ public class PointSelector {
    * Searches for the provided image template within the current game view, then returns a random
    * point within the detected bounding box if the match exceeds the defined threshold.
    *
+   * <p>The template's last known location is checked before the whole image is searched.
+   *
    * @param templatePath the BufferedImage template to locate and click within the larger image view
    * @param image the larger image, what you're searching in
    * @param threshold the openCV threshold to decide if a match exists
@@ -56,7 +75,8 @@ public class PointSelector {
       String templatePath, BufferedImage image, double threshold) {
     BaseScript.checkInterrupted();
     try {
-      Rectangle boundingBox = TemplateMatching.match(templatePath, image, threshold, false);
+      Rectangle boundingBox =
+          TemplateMatching.match(templatePath, image, threshold, false, MatchStrategy.HINTED);
 
       if (boundingBox == null || boundingBox.isEmpty()) {
         logger.error("getRandomPointInImage failed: No valid bounding box.");
@@ -72,23 +92,77 @@ public class PointSelector {
   }
 
   /**
-   * Attempts to find a random point inside the contour of the first object of the specified colour.
+   * Picks a random point on the first object of the specified colour.
    *
    * @param image the image to search in (e.g. game view from controller)
    * @param colourName the name of the colour (must match ColourInstances key, e.g. "Purple")
-   * @param maxAttempts maximum number of attempts to find a point inside the contour
-   * @return a random Point inside the contour, or null if not found/error
+   * @return a random Point on the object, or null if not found/error
    */
+  public static Point getRandomPointInColour(BufferedImage image, String colourName) {
+    return getRandomPointByColour(image, ColourInstances.getByName(colourName));
+  }
+
+  /**
+   * Picks a random point on the first object of the specified colour.
+   *
+   * @param image the image to search in (e.g. game view from controller)
+   * @param colourName the name of the colour (must match ColourInstances key, e.g. "Purple")
+   * @param maxAttempts ignored
+   * @return a random Point on the object, or null if not found/error
+   * @deprecated points are drawn from the object's pixels and need no retries; use {@link
+   *     #getRandomPointInColour(BufferedImage, String)}.
+   */
+  @Deprecated
   public static Point getRandomPointInColour(
       BufferedImage image, String colourName, int maxAttempts) {
-    return getRandomPointByColour(image, ColourInstances.getByName(colourName), maxAttempts);
+    return getRandomPointInColour(image, colourName);
   }
 
+  /**
+   * Picks a random point on the first object of a colour.
+   *
+   * @param image the image to search in (e.g. game view from controller)
+   * @param colourName the colour to look for
+   * @return a random Point on the object, or null if not found/error
+   */
+  public static Point getRandomPointByColour(BufferedImage image, ColourObj colourName) {
+    try (Frame frame = Frame.of(image)) {
+      return getRandomPointByColour(frame, colourName);
+    }
+  }
+
+  /**
+   * Picks a random point on the first object of a colour.
+   *
+   * @param image the image to search in (e.g. game view from controller)
+   * @param colourName the colour to look for
+   * @param maxAttempts ignored
+   * @return a random Point on the object, or null if not found/error
+   * @deprecated points are drawn from the object's pixels and need no retries; use {@link
+   *     #getRandomPointByColour(BufferedImage, ColourObj)}.
+   */
+  @Deprecated
   public static Point getRandomPointByColour(
       BufferedImage image, ColourObj colourName, int maxAttempts) {
+    return getRandomPointByColour(image, colourName);
+  }
+
+  /**
+   * Picks a random point inside the contour of the first object of a colour in a {@link Frame}.
+   * Looking for several colours in the same frame converts it to HSV only once.
+   *
+   * <p>The contour is filled into a mask and the point is drawn straight from its pixels with a
+   * centre-biased {@link MaskDistribution}, so it always lands on the object, however thin or
+   * concave it is.
+   *
+   * @param frame the frame to search in
+   * @param colourName the colour to look for
+   * @return a random Point on the object, or null if the colour was not found/error
+   */
+  public static Point getRandomPointByColour(Frame frame, ColourObj colourName) {
     List<ChromaObj> objs;
     try {
-      objs = ColourContours.getChromaObjsInColour(image, colourName);
+      objs = ColourContours.getChromaObjsInColour(frame, colourName);
     } catch (Exception e) {
       logger.error(e.getMessage());
       logger.error(e.getStackTrace());
@@ -101,20 +175,69 @@ public class PointSelector {
     }
 
     ChromaObj obj = objs.get(0);
-    int attempts = 0;
-    Point p = ClickDistribution.generateRandomPoint(obj.boundingBox());
-    while (!ColourContours.isPointInContour(p, obj.contour()) && attempts < maxAttempts) {
-      BaseScript.checkInterrupted();
-      p = ClickDistribution.generateRandomPoint(obj.boundingBox());
-      attempts++;
+    return new MaskDistribution(obj.boundingBox(), contourPixels(obj.contour())).sample();
+  }
+
+  /**
+   * Picks a random point inside the contour of the first object of a colour in a {@link Frame}.
+   *
+   * @param frame the frame to search in
+   * @param colourName the colour to look for
+   * @param maxAttempts ignored
+   * @return a random Point on the object, or null if the colour was not found/error
+   * @deprecated points are drawn from the object's pixels and need no retries; use {@link
+   *     #getRandomPointByColour(Frame, ColourObj)}.
+   */
+  @Deprecated
+  public static Point getRandomPointByColour(Frame frame, ColourObj colourName, int maxAttempts) {
+    return getRandomPointByColour(frame, colourName);
+  }
+
+  /**
+   * Picks a random point on the largest object of a colour in a {@link Frame}, found with one
+   * connected-components pass instead of tracing a contour per object.
+   *
+   * @param frame the frame to search in
+   * @param colourName the colour to look for
+   * @return a random Point on the object, or null if the colour was not found/error
+   */
+  public static Point getRandomPointOnLargestObject(Frame frame, ColourObj colourName) {
+    BlobSet blobs;
+    try {
+      blobs = ColourContours.getBlobsInColour(frame, colourName, 1);
+    } catch (Exception e) {
+      logger.error(e.getMessage());
+      logger.error(e.getStackTrace());
+      return null;
     }
-    logger.info("Attempts to find point in colour '{}': {}", colourName, attempts);
-    if (attempts >= maxAttempts) {
-      logger.error(
-          "Failed to find a valid point in {} contour after {} attempts.", colourName, maxAttempts);
+
+    if (blobs.isEmpty()) {
+      logger.error("No objects found for colour: {}", colourName);
       return null;
     }
 
-    return p;
+    Blob obj = blobs.sortedByArea().get(0);
+    return new MaskDistribution(obj.bounds(), blobs.maskPixels(obj)).sample();
+  }
+
+  /**
+   * Fills a contour into a mask cropped to its bounding box.
+   *
+   * @param contour the contour, in canvas co-ordinates
+   * @return one byte per pixel of the contour's bounding box, row-major, 255 inside the contour
+   */
+  private static byte[] contourPixels(Mat contour) {
+    try (Rect rect = boundingRect(contour);
+        Mat mask = new Mat(rect.height(), rect.width(), CV_8UC1, Scalar.all(0));
+        MatVector contours = new MatVector(contour);
+        Mat hierarchy = new Mat();
+        org.bytedeco.opencv.opencv_core.Point offset =
+            new org.bytedeco.opencv.opencv_core.Point(-rect.x(), -rect.y())) {
+      drawContours(
+          mask, contours, 0, Scalar.all(255), FILLED, LINE_8, hierarchy, Integer.MAX_VALUE, offset);
+      byte[] pixels = new byte[rect.width() * rect.height()];
+      ((ByteBuffer) mask.createBuffer()).get(pixels);
+      return pixels;
+    }
   }
 }
@@ -82,7 +82,7 @@ public class ClickDistribution {
    * @param length the width or height (in pixels) of a side of the rectangle
    * @return a divisor used to calculate standard deviation
    */
-  private static double deviation(double length) {
+  static double deviation(double length) {
     if (length >= 50) {
       return 4.0;
     } else if (length >= 25) {
@@ -3,6 +3,7 @@ package com.chromascape.utils.core.input.mouse;
 import com.chromascape.base.BaseScript;
 import com.chromascape.utils.core.input.remoteinput.Kinput;
 import com.chromascape.utils.core.screen.window.ScreenManager;
+import com.chromascape.utils.core.screen.window.WindowGeometry;
 import java.awt.Point;
 import java.awt.Rectangle;
 import java.util.List;
@@ -74,8 +75,10 @@ public class VirtualMouseUtils {
       return;
     }
     List<Point> path = mousePathing.generateCubicBezierPath(currentPosition, target, speed);
+    // One window snapshot per path keeps every point in the same co-ordinate space
+    WindowGeometry geometry = ScreenManager.geometry();
     for (Point p : path) {
-      Point clientPoint = ScreenManager.toClientCoords(p);
+      Point clientPoint = geometry.toClientCoords(p);
       kinput.moveMouse(clientPoint.x, clientPoint.y);
       currentPosition = p;
       SwingUtilities.invokeLater(() -> overlay.setMousePoint(p));
@@ -0,0 +1,271 @@
+package com.chromascape.utils.core.screen.capture;
+
+import com.chromascape.utils.core.screen.window.ScreenManager;
+import java.awt.Rectangle;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Background capture loop that grabs the game view on its own thread and publishes the result as
+ * immutable, sequence-numbered {@link CapturedFrame}s.
+ *
+ * <p>Without this service every consumer captures the screen for itself, so a single script cycle
+ * can trigger several overlapping grabs. With the service attached to {@link ScreenManager} (see
+ * {@link ScreenManager#setCaptureService(CaptureService)}), {@code captureWindow} and {@code
+ * captureZone} are served from the latest published frame instead, and consumers that need all of
+ * their decisions to refer to the same instant can hold one frame explicitly:
+ *
+ * <pre>{@code
+ * CapturedFrame frame = capture.latest();
+ * BufferedImage inventory = frame.crop(inventoryBounds);
+ * BufferedImage chat = frame.crop(chatBounds);
+ * }</pre>
+ *
+ * <p>Consumers that must observe the screen after an action (for example after a click) can wait
+ * for a frame newer than one they already hold with {@link #awaitNewerThan(long, Duration)}.
+ *
+ * <p>Every frame is also run through a {@link TileTracker}, so consumers can skip regions that have
+ * not changed since a frame they already processed ({@link #changedSince(long, Rectangle)}), and
+ * scripts can wait for a zone to change without polling pixels themselves ({@link
+ * #awaitChange(Rectangle, long, Duration)}).
+ *
+ * <p>Frames are grabbed from the active {@link FrameSource}, which is advanced once per frame, so
+ * the service also paces replays of recorded sessions. Listeners registered with {@link
+ * #addFrameListener(Consumer)}, such as a {@link FrameRecorder}, see every published frame.
+ */
+public class CaptureService implements AutoCloseable {
+
+  private static final Logger logger = LogManager.getLogger(CaptureService.class);
+
+  /** Default capture interval, roughly 30 frames per second. */
+  public static final Duration DEFAULT_INTERVAL = Duration.ofMillis(33);
+
+  private final long intervalNanos;
+  private final Object frameLock = new Object();
+  private final List<Consumer<CapturedFrame>> listeners = new CopyOnWriteArrayList<>();
+  private final TileTracker tiles = new TileTracker();
+
+  private volatile CapturedFrame latest;
+  private volatile DirtyTiles latestDirty;
+  private volatile boolean running;
+  private Thread thread;
+  private long nextSequence;
+
+  /**
+   * Creates a capture service that grabs one frame every {@code interval}.
+   *
+   * @param interval Target time between two captures. Captures that take longer than this simply
+   *     run back to back.
+   */
+  public CaptureService(Duration interval) {
+    if (interval.isNegative() || interval.isZero()) {
+      throw new IllegalArgumentException("Capture interval must be positive: " + interval);
+    }
+    this.intervalNanos = interval.toNanos();
+  }
+
+  /** Creates a capture service running at {@link #DEFAULT_INTERVAL}. */
+  public CaptureService() {
+    this(DEFAULT_INTERVAL);
+  }
+
+  /**
+   * Starts the capture thread. Does nothing if the service is already running.
+   *
+   * <p>The first frame is captured synchronously before this method returns, so {@link #latest()}
+   * never returns {@code null} while the service is running.
+   */
+  public synchronized void start() {
+    if (running) {
+      return;
+    }
+    publish(ScreenManager.grabFrame(nextSequence++));
+    running = true;
+    thread = new Thread(this::loop, "chromascape-capture");
+    thread.setDaemon(true);
+    thread.start();
+    logger.info("Capture service started at {} ms per frame", intervalNanos / 1_000_000L);
+  }
+
+  /** Stops the capture thread and waits for it to exit. The last frame stays available. */
+  public synchronized void stop() {
+    if (!running) {
+      return;
+    }
+    running = false;
+    thread.interrupt();
+    try {
+      thread.join(Duration.ofNanos(intervalNanos).multipliedBy(10).toMillis() + 1000L);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    thread = null;
+    logger.info("Capture service stopped");
+  }
+
+  /** Equivalent to {@link #stop()}. */
+  @Override
+  public void close() {
+    stop();
+  }
+
+  /**
+   * Whether the capture thread is currently publishing frames.
+   *
+   * @return true if running.
+   */
+  public boolean isRunning() {
+    return running;
+  }
+
+  /**
+   * Returns the most recently published frame without blocking.
+   *
+   * @return The latest frame, or {@code null} if the service has never been started.
+   */
+  public CapturedFrame latest() {
+    return latest;
+  }
+
+  /**
+   * Blocks until a frame with a sequence number greater than {@code sequence} has been published.
+   *
+   * @param sequence The sequence number of a frame the caller already holds, or {@code -1} to
+   *     accept any frame.
+   * @param timeout Maximum time to wait.
+   * @return The newer frame, or {@code null} if none was published within the timeout.
+   * @throws InterruptedException if the calling thread is interrupted while waiting.
+   */
+  public CapturedFrame awaitNewerThan(long sequence, Duration timeout)
+      throws InterruptedException {
+    long deadline = System.nanoTime() + timeout.toNanos();
+    synchronized (frameLock) {
+      while (latest == null || latest.sequence() <= sequence) {
+        long remaining = deadline - System.nanoTime();
+        if (remaining <= 0) {
+          return null;
+        }
+        frameLock.wait(Math.max(1L, remaining / 1_000_000L));
+      }
+      return latest;
+    }
+  }
+
+  /**
+   * The tiles of the latest frame that differ from the frame before it.
+   *
+   * @return The dirty-tile bitmap of {@link #latest()}, or {@code null} if the service has never
+   *     been started.
+   */
+  public DirtyTiles dirtyTiles() {
+    return latestDirty;
+  }
+
+  /**
+   * Whether a screen-space zone changed in any frame published after frame {@code sequence}.
+   *
+   * <p>Consumers that cache work derived from a frame can call this with that frame's sequence
+   * number and reuse their result while it returns false.
+   *
+   * @param sequence Sequence number of a frame the caller has already processed.
+   * @param screenZone The zone in absolute screen co-ordinates.
+   * @return true if the zone changed, or may have changed, since that frame.
+   */
+  public boolean changedSince(long sequence, Rectangle screenZone) {
+    return tiles.changedSince(sequence, screenZone);
+  }
+
+  /**
+   * Blocks until a screen-space zone changes after frame {@code sequence}.
+   *
+   * @param screenZone The zone to watch, in absolute screen co-ordinates.
+   * @param sequence Sequence number of the frame the caller last looked at.
+   * @param timeout Maximum time to wait.
+   * @return The first frame in which the zone differs, or {@code null} on timeout.
+   * @throws InterruptedException if the calling thread is interrupted while waiting.
+   */
+  public CapturedFrame awaitChange(Rectangle screenZone, long sequence, Duration timeout)
+      throws InterruptedException {
+    long deadline = System.nanoTime() + timeout.toNanos();
+    long seen = sequence;
+    while (true) {
+      long remaining = deadline - System.nanoTime();
+      CapturedFrame frame = awaitNewerThan(seen, Duration.ofNanos(Math.max(0L, remaining)));
+      if (frame == null) {
+        return null;
+      }
+      if (tiles.changedSince(sequence, screenZone)) {
+        return frame;
+      }
+      seen = frame.sequence();
+    }
+  }
+
+  /**
+   * Registers a listener that is handed every frame right after it is published.
+   *
+   * <p>Listeners run on the capture thread and delay the next capture for as long as they take, so
+   * they must not block.
+   *
+   * @param listener The listener to add.
+   */
+  public void addFrameListener(Consumer<CapturedFrame> listener) {
+    listeners.add(listener);
+  }
+
+  /**
+   * Removes a listener added with {@link #addFrameListener(Consumer)}.
+   *
+   * @param listener The listener to remove.
+   */
+  public void removeFrameListener(Consumer<CapturedFrame> listener) {
+    listeners.remove(listener);
+  }
+
+  /** Capture loop run on the service thread. */
+  private void loop() {
+    while (running) {
+      long start = System.nanoTime();
+      try {
+        // Recorded and synthetic sources step forward once per published frame
+        ScreenManager.getFrameSource().advance();
+        publish(ScreenManager.grabFrame(nextSequence++));
+      } catch (RuntimeException e) {
+        logger.error("Frame capture failed: {}", e.getMessage());
+      }
+      long sleepNanos = intervalNanos - (System.nanoTime() - start);
+      if (sleepNanos > 0) {
+        try {
+          Thread.sleep(sleepNanos / 1_000_000L, (int) (sleepNanos % 1_000_000L));
+        } catch (InterruptedException e) {
+          break;
+        }
+      }
+    }
+  }
+
+  /**
+   * Makes a frame visible to consumers, wakes up anyone waiting for it and notifies listeners.
+   *
+   * @param frame The newly captured frame.
+   */
+  private void publish(CapturedFrame frame) {
+    DirtyTiles dirty = tiles.update(frame);
+    synchronized (frameLock) {
+      latest = frame;
+      latestDirty = dirty;
+      frameLock.notifyAll();
+    }
+    for (Consumer<CapturedFrame> listener : listeners) {
+      try {
+        listener.accept(frame);
+      } catch (RuntimeException e) {
+        logger.error("Frame listener failed: {}", e.getMessage());
+      }
+    }
+  }
+}
@@ -0,0 +1,249 @@
+package com.chromascape.utils.core.screen.capture;
+
+import static org.bytedeco.opencv.global.opencv_core.CV_8UC3;
+
+import com.chromascape.utils.core.screen.window.WindowGeometry;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.nio.ByteBuffer;
+import org.bytedeco.opencv.opencv_core.Mat;
+
+/**
+ * An immutable, sequence-numbered capture of the RuneLite game-view canvas.
+ *
+ * <p>Frames are produced by {@link CaptureService} (or on demand by {@link
+ * com.chromascape.utils.core.screen.window.ScreenManager#grabFrame(long)}) and shared between every
+ * consumer of a cycle. Pixels are stored once as packed BGR bytes and never modified after
+ * construction; every accessor that hands out pixels returns a copy or a read-only view, so a
+ * consumer can never corrupt the frame another consumer is reading.
+ *
+ * <p>The frame remembers the {@link WindowGeometry} it was captured with, so screen-space zones can
+ * be cropped out of it consistently with the instant of capture.
+ */
+public final class CapturedFrame {
+
+  private final long sequence;
+  private final long timestampNanos;
+  private final WindowGeometry geometry;
+  private final int width;
+  private final int height;
+  private final byte[] bgr;
+
+  /**
+   * Creates a frame that takes ownership of {@code bgr}. The caller must not modify the array
+   * afterwards.
+   *
+   * @param sequence Monotonic sequence number assigned by the producer.
+   * @param timestampNanos {@link System#nanoTime()} at which the pixels were captured.
+   * @param geometry The canvas placement at capture time; its bounds give the frame size.
+   * @param bgr Packed BGR pixels, {@code width * height * 3} bytes, row-major without padding.
+   * @throws IllegalArgumentException if the array size does not match the geometry.
+   */
+  public CapturedFrame(long sequence, long timestampNanos, WindowGeometry geometry, byte[] bgr) {
+    this.sequence = sequence;
+    this.timestampNanos = timestampNanos;
+    this.geometry = geometry;
+    this.width = geometry.width();
+    this.height = geometry.height();
+    if (bgr.length != width * height * 3) {
+      throw new IllegalArgumentException(
+          "Expected " + width * height * 3 + " BGR bytes, got " + bgr.length);
+    }
+    this.bgr = bgr;
+  }
+
+  /**
+   * Sequence number of this frame. Later frames from the same producer have larger numbers.
+   *
+   * @return The sequence number.
+   */
+  public long sequence() {
+    return sequence;
+  }
+
+  /**
+   * Capture time of this frame.
+   *
+   * @return {@link System#nanoTime()} at capture.
+   */
+  public long timestampNanos() {
+    return timestampNanos;
+  }
+
+  /**
+   * Age of this frame.
+   *
+   * @return Milliseconds elapsed since the frame was captured.
+   */
+  public long ageMillis() {
+    return (System.nanoTime() - timestampNanos) / 1_000_000L;
+  }
+
+  /**
+   * The window placement this frame was captured with.
+   *
+   * @return The {@link WindowGeometry} snapshot at capture time.
+   */
+  public WindowGeometry geometry() {
+    return geometry;
+  }
+
+  /**
+   * Screen-space rectangle covered by this frame.
+   *
+   * @return A copy of the captured bounds.
+   */
+  public Rectangle bounds() {
+    return geometry.bounds();
+  }
+
+  /**
+   * Frame width in pixels.
+   *
+   * @return The width.
+   */
+  public int width() {
+    return width;
+  }
+
+  /**
+   * Frame height in pixels.
+   *
+   * @return The height.
+   */
+  public int height() {
+    return height;
+  }
+
+  /**
+   * Read-only view of the packed BGR pixels, {@code width * height * 3} bytes, row-major.
+   *
+   * @return A read-only {@link ByteBuffer} over the frame's pixels.
+   */
+  public ByteBuffer pixels() {
+    return ByteBuffer.wrap(bgr).asReadOnlyBuffer();
+  }
+
+  /**
+   * The backing pixel array, for readers inside this package that promise not to modify it.
+   *
+   * @return The packed BGR pixels.
+   */
+  byte[] pixelArray() {
+    return bgr;
+  }
+
+  /**
+   * Checks whether a screen-space zone lies entirely within this frame.
+   *
+   * @param screenZone The zone in absolute screen co-ordinates.
+   * @return true if the zone can be served by {@link #crop(Rectangle)}.
+   */
+  public boolean contains(Rectangle screenZone) {
+    return geometry.bounds().contains(screenZone);
+  }
+
+  /**
+   * Copies the whole frame into a new {@code TYPE_3BYTE_BGR} image.
+   *
+   * @return A BGR {@link BufferedImage} owned by the caller.
+   */
+  public BufferedImage toBufferedImage() {
+    return crop(geometry.bounds());
+  }
+
+  /**
+   * Copies a screen-space zone of this frame into a new {@code TYPE_3BYTE_BGR} image.
+   *
+   * @param screenZone The zone in absolute screen co-ordinates, see {@link #contains(Rectangle)}.
+   * @return A BGR {@link BufferedImage} of the zone owned by the caller.
+   * @throws IllegalArgumentException if the zone is not inside the frame.
+   */
+  public BufferedImage crop(Rectangle screenZone) {
+    Rectangle local = toLocal(screenZone);
+    BufferedImage image =
+        new BufferedImage(local.width, local.height, BufferedImage.TYPE_3BYTE_BGR);
+    copy(screenZone, ((DataBufferByte) image.getRaster().getDataBuffer()).getData());
+    return image;
+  }
+
+  /**
+   * Copies a screen-space zone of this frame into a byte array as packed BGR rows.
+   *
+   * @param screenZone The zone in absolute screen co-ordinates.
+   * @param dst Destination of at least {@code width * height * 3} bytes of the zone.
+   * @throws IllegalArgumentException if the zone is not inside the frame.
+   */
+  public void copy(Rectangle screenZone, byte[] dst) {
+    Rectangle local = toLocal(screenZone);
+    int rowBytes = local.width * 3;
+    for (int y = 0; y < local.height; y++) {
+      System.arraycopy(bgr, offset(local.x, local.y + y), dst, y * rowBytes, rowBytes);
+    }
+  }
+
+  /**
+   * Copies the whole frame into a 3-channel BGR {@link Mat}.
+   *
+   * @param dst A reusable destination, or {@code null} to allocate a new {@link Mat}.
+   * @return {@code dst}, or the new {@link Mat}.
+   */
+  public Mat toMat(Mat dst) {
+    return cropMat(geometry.bounds(), dst);
+  }
+
+  /**
+   * Copies a screen-space zone of this frame into a 3-channel BGR {@link Mat}.
+   *
+   * @param screenZone The zone in absolute screen co-ordinates.
+   * @param dst A reusable destination, or {@code null} to allocate a new {@link Mat}.
+   * @return {@code dst}, or the new {@link Mat}.
+   * @throws IllegalArgumentException if the zone is not inside the frame.
+   */
+  public Mat cropMat(Rectangle screenZone, Mat dst) {
+    Rectangle local = toLocal(screenZone);
+    Mat out = dst != null ? dst : new Mat();
+    out.create(local.height, local.width, CV_8UC3);
+    ByteBuffer buffer = out.createBuffer();
+    int rowBytes = local.width * 3;
+    for (int y = 0; y < local.height; y++) {
+      buffer.put(y * rowBytes, bgr, offset(local.x, local.y + y), rowBytes);
+    }
+    return out;
+  }
+
+  /**
+   * Converts a screen-space zone into frame-local co-ordinates, validating that it fits.
+   *
+   * @param screenZone The zone in absolute screen co-ordinates.
+   * @return The zone relative to the frame's top left corner.
+   */
+  private Rectangle toLocal(Rectangle screenZone) {
+    if (screenZone.isEmpty() || !contains(screenZone)) {
+      throw new IllegalArgumentException(
+          "Zone " + screenZone + " is outside the captured frame " + geometry.bounds());
+    }
+    return new Rectangle(
+        screenZone.x - geometry.x(),
+        screenZone.y - geometry.y(),
+        screenZone.width,
+        screenZone.height);
+  }
+
+  /**
+   * Index of the first byte of a pixel.
+   *
+   * @param x Frame-local x co-ordinate.
+   * @param y Frame-local y co-ordinate.
+   * @return The byte offset into the pixel array.
+   */
+  private int offset(int x, int y) {
+    return (y * width + x) * 3;
+  }
+
+  @Override
+  public String toString() {
+    return "CapturedFrame[sequence=" + sequence + ", bounds=" + geometry.bounds() + "]";
+  }
+}
@@ -0,0 +1,182 @@
+package com.chromascape.utils.core.screen.capture;
+
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Immutable bitmap of the tiles of a frame whose pixels differ from the previous frame.
+ *
+ * <p>Produced by {@link TileTracker} for every frame published by {@link CaptureService}. The frame
+ * is divided into a grid of {@code tileSize} square tiles, row-major, with the last column and row
+ * clipped to the frame edge. A tile is dirty when its content hash differs from the hash of the
+ * same tile in the previous frame; when the frame size or position changes every tile is dirty.
+ */
+public final class DirtyTiles {
+
+  private final long sequence;
+  private final Rectangle bounds;
+  private final int tileSize;
+  private final int columns;
+  private final int rows;
+  private final long[] bits;
+  private final int dirtyCount;
+
+  /**
+   * Creates a dirty-tile bitmap. Takes ownership of {@code bits}.
+   *
+   * @param sequence Sequence number of the frame the bitmap belongs to.
+   * @param bounds Screen-space bounds of the frame.
+   * @param tileSize Edge length of a tile in pixels.
+   * @param bits One bit per tile, row-major, set for dirty tiles.
+   */
+  DirtyTiles(long sequence, Rectangle bounds, int tileSize, long[] bits) {
+    this.sequence = sequence;
+    this.bounds = new Rectangle(bounds);
+    this.tileSize = tileSize;
+    this.columns = (bounds.width + tileSize - 1) / tileSize;
+    this.rows = (bounds.height + tileSize - 1) / tileSize;
+    this.bits = bits;
+    int count = 0;
+    for (long word : bits) {
+      count += Long.bitCount(word);
+    }
+    this.dirtyCount = count;
+  }
+
+  /**
+   * Sequence number of the frame this bitmap describes.
+   *
+   * @return The frame sequence number.
+   */
+  public long sequence() {
+    return sequence;
+  }
+
+  /**
+   * Edge length of a tile.
+   *
+   * @return The tile size in pixels.
+   */
+  public int tileSize() {
+    return tileSize;
+  }
+
+  /**
+   * Number of tile columns.
+   *
+   * @return The column count.
+   */
+  public int columns() {
+    return columns;
+  }
+
+  /**
+   * Number of tile rows.
+   *
+   * @return The row count.
+   */
+  public int rows() {
+    return rows;
+  }
+
+  /**
+   * Total number of tiles in the grid.
+   *
+   * @return {@code columns() * rows()}.
+   */
+  public int tileCount() {
+    return columns * rows;
+  }
+
+  /**
+   * Number of tiles that changed.
+   *
+   * @return The dirty tile count.
+   */
+  public int dirtyCount() {
+    return dirtyCount;
+  }
+
+  /**
+   * Whether no tile changed since the previous frame.
+   *
+   * @return true if the frame is identical to its predecessor.
+   */
+  public boolean isClean() {
+    return dirtyCount == 0;
+  }
+
+  /**
+   * Whether a single tile changed.
+   *
+   * @param column Tile column.
+   * @param row Tile row.
+   * @return true if the tile is dirty.
+   */
+  public boolean isDirty(int column, int row) {
+    int tile = row * columns + column;
+    return (bits[tile >>> 6] & (1L << tile)) != 0;
+  }
+
+  /**
+   * Whether any tile overlapping a screen-space zone changed. Zones reaching outside the frame are
+   * always reported as dirty.
+   *
+   * @param screenZone The zone in absolute screen co-ordinates.
+   * @return true if the zone may have changed.
+   */
+  public boolean intersects(Rectangle screenZone) {
+    if (!bounds.contains(screenZone)) {
+      return true;
+    }
+    int firstColumn = (screenZone.x - bounds.x) / tileSize;
+    int firstRow = (screenZone.y - bounds.y) / tileSize;
+    int lastColumn = (screenZone.x - bounds.x + screenZone.width - 1) / tileSize;
+    int lastRow = (screenZone.y - bounds.y + screenZone.height - 1) / tileSize;
+    for (int row = firstRow; row <= lastRow; row++) {
+      for (int column = firstColumn; column <= lastColumn; column++) {
+        if (isDirty(column, row)) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Screen-space rectangles covering every dirty tile. Horizontally adjacent dirty tiles of a row
+   * are merged into one rectangle.
+   *
+   * @return The dirty regions, empty if the frame is clean.
+   */
+  public List<Rectangle> dirtyRegions() {
+    List<Rectangle> regions = new ArrayList<>();
+    for (int row = 0; row < rows; row++) {
+      int column = 0;
+      while (column < columns) {
+        if (!isDirty(column, row)) {
+          column++;
+          continue;
+        }
+        int start = column;
+        while (column < columns && isDirty(column, row)) {
+          column++;
+        }
+        Rectangle run =
+            new Rectangle(
+                bounds.x + start * tileSize,
+                bounds.y + row * tileSize,
+                (column - start) * tileSize,
+                tileSize);
+        regions.add(run.intersection(bounds));
+      }
+    }
+    return regions;
+  }
+
+  @Override
+  public String toString() {
+    return "DirtyTiles[sequence=" + sequence + ", dirty=" + dirtyCount + "/" + tileCount() + "]";
+  }
+}
@@ -0,0 +1,273 @@
+package com.chromascape.utils.core.screen.capture;
+
+import static org.bytedeco.opencv.global.opencv_imgproc.COLOR_BGR2BGRA;
+import static org.bytedeco.opencv.global.opencv_imgproc.COLOR_BGR2GRAY;
+import static org.bytedeco.opencv.global.opencv_imgproc.COLOR_BGR2HSV;
+import static org.bytedeco.opencv.global.opencv_imgproc.COLOR_BGRA2BGR;
+import static org.bytedeco.opencv.global.opencv_imgproc.COLOR_GRAY2BGR;
+import static org.bytedeco.opencv.global.opencv_imgproc.cvtColor;
+
+import com.chromascape.utils.core.screen.window.ScreenManager;
+import com.chromascape.utils.core.screen.window.WindowGeometry;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import org.bytedeco.opencv.opencv_core.Mat;
+import org.bytedeco.opencv.opencv_core.Rect;
+
+/**
+ * One captured image together with every colour space the vision utilities work in.
+ *
+ * <p>Colour searches need HSV, template matching needs BGRA and text or similarity checks need
+ * grayscale. Converting the same capture again for every check of a cycle wastes most of the time
+ * those checks take. A frame converts lazily instead: each representation is computed the first
+ * time it is asked for, kept, and handed to every later caller, so it is computed at most once per
+ * frame. {@link #close()} releases all of them together.
+ *
+ * <p>A frame also remembers where its top left pixel was on screen, see {@link #geometry()}, so
+ * positions found in it are converted to screen co-ordinates with the window placement it was
+ * captured at rather than wherever the window is by the time the search finishes.
+ *
+ * <p>The {@link Mat}s returned by the accessors are shared and must be treated as read-only; they
+ * must not be released by the caller. Accessors are thread-safe, so one frame can be searched by
+ * several threads at once.
+ */
+public final class Frame implements AutoCloseable {
+
+  private final Mat source;
+  private WindowGeometry geometry;
+  private Mat bgr;
+  private Mat bgra;
+  private Mat hsv;
+  private Mat gray;
+  private boolean closed;
+
+  /**
+   * Creates a frame, taking ownership of {@code source}.
+   *
+   * @param source A 1-channel grayscale, 3-channel BGR or 4-channel BGRA image.
+   * @param geometry The screen placement of the image, or {@code null} if it is not known.
+   */
+  private Frame(Mat source, WindowGeometry geometry) {
+    int channels = source.channels();
+    if (channels != 1 && channels != 3 && channels != 4) {
+      throw new IllegalArgumentException("Unsupported number of channels: " + channels);
+    }
+    this.source = source;
+    this.geometry = geometry;
+    switch (channels) {
+      case 1 -> gray = source;
+      case 3 -> bgr = source;
+      default -> bgra = source;
+    }
+  }
+
+  /**
+   * Wraps an image, taking ownership of it. The image is released when the frame is closed.
+   *
+   * @param image A 1-channel grayscale, 3-channel BGR or 4-channel BGRA image.
+   * @return The frame.
+   * @throws IllegalArgumentException if the image has any other number of channels.
+   */
+  public static Frame wrap(Mat image) {
+    return new Frame(image, null);
+  }
+
+  /**
+   * Wraps an image whose screen placement is known, taking ownership of it.
+   *
+   * @param image A 1-channel grayscale, 3-channel BGR or 4-channel BGRA image.
+   * @param geometry The screen placement of the image's top left pixel.
+   * @return The frame.
+   * @throws IllegalArgumentException if the image has any other number of channels.
+   */
+  public static Frame wrap(Mat image, WindowGeometry geometry) {
+    return new Frame(image, geometry);
+  }
+
+  /**
+   * Creates a frame from a copy of an image.
+   *
+   * @param image The image, of any type.
+   * @return The frame.
+   */
+  public static Frame of(BufferedImage image) {
+    return new Frame(RasterConverter.toMat(image), null);
+  }
+
+  /**
+   * Creates a frame from a copy of a whole captured frame.
+   *
+   * @param frame The captured frame.
+   * @return The frame.
+   */
+  public static Frame of(CapturedFrame frame) {
+    return new Frame(frame.toMat(null), frame.geometry());
+  }
+
+  /**
+   * Creates a frame from a copy of a screen-space zone of a captured frame.
+   *
+   * @param frame The captured frame.
+   * @param screenZone The zone in absolute screen co-ordinates.
+   * @return The frame.
+   * @throws IllegalArgumentException if the zone is not inside the captured frame.
+   */
+  public static Frame of(CapturedFrame frame, Rectangle screenZone) {
+    WindowGeometry captured = frame.geometry();
+    return new Frame(
+        frame.cropMat(screenZone, null),
+        new WindowGeometry(screenZone, captured.generation(), captured.capturedAtNanos()));
+  }
+
+  /**
+   * Screen placement of the frame's top left pixel.
+   *
+   * <p>Frames created from a {@link CapturedFrame} carry the placement they were captured at. For
+   * other frames the current {@link ScreenManager#geometry()} is read on the first call and kept,
+   * so every conversion made with one frame uses the same origin.
+   *
+   * @return The placement snapshot.
+   */
+  public synchronized WindowGeometry geometry() {
+    if (geometry == null) {
+      geometry = ScreenManager.geometry();
+    }
+    return geometry;
+  }
+
+  /**
+   * Frame width.
+   *
+   * @return The width in pixels.
+   */
+  public int width() {
+    return source.cols();
+  }
+
+  /**
+   * Frame height.
+   *
+   * @return The height in pixels.
+   */
+  public int height() {
+    return source.rows();
+  }
+
+  /**
+   * The frame as a 3-channel BGR image. Must not be modified or released.
+   *
+   * @return The shared BGR {@link Mat}.
+   * @throws IllegalStateException if the frame has been closed.
+   */
+  public synchronized Mat bgr() {
+    assertOpen();
+    if (bgr == null) {
+      bgr = new Mat();
+      cvtColor(source, bgr, source.channels() == 4 ? COLOR_BGRA2BGR : COLOR_GRAY2BGR);
+    }
+    return bgr;
+  }
+
+  /**
+   * The frame as a 4-channel BGRA image with an opaque alpha channel. Must not be modified or
+   * released.
+   *
+   * @return The shared BGRA {@link Mat}.
+   * @throws IllegalStateException if the frame has been closed.
+   */
+  public synchronized Mat bgra() {
+    assertOpen();
+    if (bgra == null) {
+      bgra = new Mat();
+      cvtColor(bgr(), bgra, COLOR_BGR2BGRA);
+    }
+    return bgra;
+  }
+
+  /**
+   * The frame in OpenCV's 8-bit HSV colour space, hue 0-179. Must not be modified or released.
+   *
+   * @return The shared HSV {@link Mat}.
+   * @throws IllegalStateException if the frame has been closed.
+   */
+  public synchronized Mat hsv() {
+    assertOpen();
+    if (hsv == null) {
+      hsv = new Mat();
+      cvtColor(bgr(), hsv, COLOR_BGR2HSV);
+    }
+    return hsv;
+  }
+
+  /**
+   * A region of the frame in HSV, converting only that region unless the whole frame has already
+   * been converted.
+   *
+   * @param region The region, in frame co-ordinates, inside the frame.
+   * @return A Mat owned by the caller; it may share pixels with the frame, so it must not be
+   *     modified.
+   * @throws IllegalStateException if the frame has been closed.
+   */
+  public synchronized Mat hsv(Rectangle region) {
+    assertOpen();
+    try (Rect rect = new Rect(region.x, region.y, region.width, region.height)) {
+      if (hsv != null) {
+        return new Mat(hsv, rect);
+      }
+      Mat result = new Mat();
+      try (Mat view = new Mat(bgr(), rect)) {
+        cvtColor(view, result, COLOR_BGR2HSV);
+      }
+      return result;
+    }
+  }
+
+  /**
+   * The frame as a 1-channel grayscale image. Must not be modified or released.
+   *
+   * @return The shared grayscale {@link Mat}.
+   * @throws IllegalStateException if the frame has been closed.
+   */
+  public synchronized Mat gray() {
+    assertOpen();
+    if (gray == null) {
+      gray = new Mat();
+      cvtColor(bgr(), gray, COLOR_BGR2GRAY);
+    }
+    return gray;
+  }
+
+  /** Releases every representation computed so far. Closing a frame twice has no effect. */
+  @Override
+  public synchronized void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    for (Mat mat : new Mat[] {bgr, bgra, hsv, gray}) {
+      if (mat != null) {
+        mat.release();
+      }
+    }
+    bgr = null;
+    bgra = null;
+    hsv = null;
+    gray = null;
+  }
+
+  /**
+   * Fails if the frame has been closed.
+   *
+   * @throws IllegalStateException if it has.
+   */
+  private void assertOpen() {
+    if (closed) {
+      throw new IllegalStateException("Frame has been closed");
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "Frame[" + width() + "x" + height() + ", channels=" + source.channels() + "]";
+  }
+}
@@ -0,0 +1,345 @@
+package com.chromascape.utils.core.screen.capture;
+
+import com.chromascape.utils.core.constants.CacheFolderConstants;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.zip.GZIPOutputStream;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Records {@link CapturedFrame}s as raw BGR bytes into a memory-mapped ring file.
+ *
+ * <p>The file is sized once for a fixed frame budget and mapped into memory, so recording a frame
+ * is a single copy into the page cache: there is no encoding and no system call on the hot path.
+ * When the budget is used up the oldest frames are overwritten, so the file always holds the most
+ * recent {@code capacity} frames. Attach the recorder to a running {@link CaptureService} to record
+ * a session with negligible impact on the script:
+ *
+ * <pre>{@code
+ * int capacity = FrameRecorder.capacityFor(800, 600, 512L << 20);
+ * FrameRecorder recorder = FrameRecorder.inCache("session", 800, 600, capacity);
+ * capture.addFrameListener(recorder);
+ * // ... run the script ...
+ * capture.removeFrameListener(recorder);
+ * recorder.compressAsync();
+ * }</pre>
+ *
+ * <p>Raw frames are large, about 6 MB each for a 1080p window, so size the ring with {@link
+ * #capacityFor(int, int, long)} from the disk space it may take rather than from a duration.
+ *
+ * <p>Recordings are replayed with {@link RecordingFrameSource}.
+ *
+ * <p>File layout (big-endian): a {@value #HEADER_BYTES} byte header holding the magic number,
+ * format version, maximum frame size, frame budget, slot size and total number of frames written,
+ * followed by {@code capacity} fixed-size slots. Each slot holds the frame's sequence number,
+ * capture timestamp and screen bounds, then its packed BGR pixels.
+ */
+public class FrameRecorder implements Consumer<CapturedFrame>, AutoCloseable {
+
+  private static final Logger logger = LogManager.getLogger(FrameRecorder.class);
+
+  /** Sub-folder of the cache folder recordings are written to. */
+  public static final String RECORDINGS_FOLDER_NAME = "recordings";
+
+  /** File extension of raw recordings. */
+  public static final String EXTENSION = ".frames";
+
+  static final int MAGIC = 0x43534652; // "CSFR"
+  static final int VERSION = 1;
+  static final int HEADER_BYTES = 64;
+  static final int SLOT_HEADER_BYTES = 32;
+  static final int WRITTEN_OFFSET = 24;
+
+  private final Path file;
+  private final FileChannel channel;
+  private final MappedByteBuffer header;
+  private final MappedByteBuffer[] segments;
+  private final int maxWidth;
+  private final int maxHeight;
+  private final int capacity;
+  private final int slotBytes;
+  private final int slotsPerSegment;
+
+  private long written;
+  private long dropped;
+  private boolean closed;
+
+  /**
+   * Creates (or truncates) a ring file sized for {@code capacity} frames of at most {@code
+   * maxWidth} by {@code maxHeight} pixels.
+   *
+   * @param file The file to record into.
+   * @param maxWidth Largest frame width that can be recorded.
+   * @param maxHeight Largest frame height that can be recorded.
+   * @param capacity Number of frames the ring holds before overwriting the oldest.
+   * @throws IOException if the file cannot be created or mapped.
+   */
+  public FrameRecorder(Path file, int maxWidth, int maxHeight, int capacity) throws IOException {
+    if (maxWidth <= 0 || maxHeight <= 0 || capacity <= 0) {
+      throw new IllegalArgumentException("Recorder needs a positive frame size and capacity");
+    }
+    long slot = SLOT_HEADER_BYTES + (long) maxWidth * maxHeight * 3;
+    if (slot > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("Frame size too large: " + maxWidth + "x" + maxHeight);
+    }
+    this.file = file;
+    this.maxWidth = maxWidth;
+    this.maxHeight = maxHeight;
+    this.capacity = capacity;
+    this.slotBytes = (int) slot;
+    this.slotsPerSegment = Math.max(1, Integer.MAX_VALUE / slotBytes);
+
+    Path parent = file.toAbsolutePath().getParent();
+    if (parent != null) {
+      Files.createDirectories(parent);
+    }
+    channel =
+        FileChannel.open(
+            file,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.READ,
+            StandardOpenOption.WRITE);
+    header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+    header.putInt(0, MAGIC);
+    header.putInt(4, VERSION);
+    header.putInt(8, maxWidth);
+    header.putInt(12, maxHeight);
+    header.putInt(16, capacity);
+    header.putInt(20, slotBytes);
+    header.putLong(WRITTEN_OFFSET, 0L);
+
+    int segmentCount = (capacity + slotsPerSegment - 1) / slotsPerSegment;
+    segments = new MappedByteBuffer[segmentCount];
+    for (int i = 0; i < segmentCount; i++) {
+      int slots = Math.min(slotsPerSegment, capacity - i * slotsPerSegment);
+      long position = HEADER_BYTES + (long) i * slotsPerSegment * slotBytes;
+      segments[i] = channel.map(FileChannel.MapMode.READ_WRITE, position, (long) slots * slotBytes);
+    }
+    logger.info(
+        "Recording up to {} frames of {}x{} to {} ({} MB)",
+        capacity,
+        maxWidth,
+        maxHeight,
+        file,
+        (HEADER_BYTES + (long) capacity * slotBytes) >> 20);
+  }
+
+  /**
+   * Creates a recorder writing to {@code .chromascape/cache/recordings/<name>.frames} in the
+   * working directory.
+   *
+   * @param name Name of the recording, without extension.
+   * @param maxWidth Largest frame width that can be recorded.
+   * @param maxHeight Largest frame height that can be recorded.
+   * @param capacity Number of frames the ring holds before overwriting the oldest.
+   * @return The new recorder.
+   * @throws IOException if the file cannot be created or mapped.
+   */
+  public static FrameRecorder inCache(String name, int maxWidth, int maxHeight, int capacity)
+      throws IOException {
+    return new FrameRecorder(cachePath(name + EXTENSION), maxWidth, maxHeight, capacity);
+  }
+
+  /**
+   * Number of frames of at most {@code maxWidth} by {@code maxHeight} pixels that fit in a ring
+   * file of a given size.
+   *
+   * @param maxWidth Largest frame width that can be recorded.
+   * @param maxHeight Largest frame height that can be recorded.
+   * @param maxBytes Largest size the ring file may take.
+   * @return The frame budget, at least 1.
+   */
+  public static int capacityFor(int maxWidth, int maxHeight, long maxBytes) {
+    long slot = SLOT_HEADER_BYTES + (long) maxWidth * maxHeight * 3;
+    return (int) Math.max(1, Math.min(Integer.MAX_VALUE, (maxBytes - HEADER_BYTES) / slot));
+  }
+
+  /**
+   * Resolves a file inside the recordings cache folder.
+   *
+   * @param fileName The file name.
+   * @return {@code .chromascape/cache/recordings/<fileName>} under the working directory.
+   */
+  public static Path cachePath(String fileName) {
+    return Path.of(
+        System.getProperty("user.dir"),
+        CacheFolderConstants.CHROMA_CACHE_FOLDER_NAME,
+        CacheFolderConstants.CACHE_FOLDER_NAME,
+        RECORDINGS_FOLDER_NAME,
+        fileName);
+  }
+
+  /**
+   * Appends a frame to the ring, overwriting the oldest frame once the budget is used up. Frames
+   * larger than the recorder's maximum size are dropped and counted in {@link #dropped()}.
+   *
+   * <p>Called on the capture thread when the recorder is registered with {@link
+   * CaptureService#addFrameListener(Consumer)}.
+   *
+   * @param frame The frame to record.
+   */
+  @Override
+  public synchronized void accept(CapturedFrame frame) {
+    if (closed) {
+      return;
+    }
+    if (frame.width() > maxWidth || frame.height() > maxHeight) {
+      if (dropped++ == 0) {
+        logger.warn(
+            "Dropping {}x{} frames, recorder is sized for {}x{}",
+            frame.width(),
+            frame.height(),
+            maxWidth,
+            maxHeight);
+      }
+      return;
+    }
+    int slot = (int) (written % capacity);
+    ByteBuffer segment = segments[slot / slotsPerSegment];
+    int base = (slot % slotsPerSegment) * slotBytes;
+    segment.putLong(base, frame.sequence());
+    segment.putLong(base + 8, frame.timestampNanos());
+    segment.putInt(base + 16, frame.geometry().x());
+    segment.putInt(base + 20, frame.geometry().y());
+    segment.putInt(base + 24, frame.width());
+    segment.putInt(base + 28, frame.height());
+    segment.put(base + SLOT_HEADER_BYTES, frame.pixels(), 0, frame.width() * frame.height() * 3);
+    written++;
+    header.putLong(WRITTEN_OFFSET, written);
+  }
+
+  /**
+   * Total number of frames recorded, including frames that have since been overwritten.
+   *
+   * @return The number of frames written.
+   */
+  public synchronized long written() {
+    return written;
+  }
+
+  /**
+   * Number of frames rejected because they exceeded the recorder's maximum size.
+   *
+   * @return The number of dropped frames.
+   */
+  public synchronized long dropped() {
+    return dropped;
+  }
+
+  /**
+   * The ring file being recorded into.
+   *
+   * @return The file path.
+   */
+  public Path file() {
+    return file;
+  }
+
+  /**
+   * Flushes the mapped pages to disk and closes the file. Further frames are ignored.
+   *
+   * @throws UncheckedIOException if the file cannot be closed.
+   */
+  @Override
+  public synchronized void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    header.force();
+    for (MappedByteBuffer segment : segments) {
+      segment.force();
+    }
+    try {
+      channel.close();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    logger.info("Recorded {} frames to {}", written, file);
+  }
+
+  /**
+   * Closes the recorder and gzip-compresses the ring file to {@code <file>.gz} on a background
+   * thread, so archiving a long session never stalls the script. Only the header and the slots that
+   * were written are compressed, and the raw file is deleted once the compressed copy is complete.
+   *
+   * <p>The thread is not a daemon, so the JVM waits for the compressed file to be finished rather
+   * than leaving it truncated on exit.
+   *
+   * @return A future completing with the path of the compressed file.
+   */
+  public CompletableFuture<Path> compressAsync() {
+    close();
+    Path target = file.resolveSibling(file.getFileName() + ".gz");
+    long length = HEADER_BYTES + Math.min(written(), capacity) * slotBytes;
+    CompletableFuture<Path> result = new CompletableFuture<>();
+    Thread worker =
+        new Thread(
+            () -> {
+              try {
+                try (InputStream in = Files.newInputStream(file);
+                    OutputStream out =
+                        new GZIPOutputStream(Files.newOutputStream(target), 1 << 16)) {
+                  copy(in, out, length);
+                }
+                logger.info("Compressed recording to {}", target);
+              } catch (IOException e) {
+                logger.error("Failed to compress recording {}: {}", file, e.getMessage());
+                result.completeExceptionally(e);
+                return;
+              }
+              deleteRaw();
+              result.complete(target);
+            },
+            "chromascape-recording-compressor");
+    worker.setPriority(Thread.MIN_PRIORITY);
+    worker.start();
+    return result;
+  }
+
+  /**
+   * Copies the start of a stream.
+   *
+   * @param in The stream to read.
+   * @param out The stream to write.
+   * @param length Number of bytes to copy.
+   * @throws IOException if a stream fails or ends early.
+   */
+  private static void copy(InputStream in, OutputStream out, long length) throws IOException {
+    byte[] buffer = new byte[1 << 16];
+    long remaining = length;
+    while (remaining > 0) {
+      int read = in.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+      if (read < 0) {
+        throw new IOException("Recording ended " + remaining + " bytes early");
+      }
+      out.write(buffer, 0, read);
+      remaining -= read;
+    }
+  }
+
+  /**
+   * Deletes the raw ring file after it has been compressed. Some platforms refuse to delete a file
+   * that is still mapped, in which case it is deleted when the JVM exits instead.
+   */
+  private void deleteRaw() {
+    try {
+      Files.deleteIfExists(file);
+    } catch (IOException e) {
+      logger.warn("Could not delete raw recording {} yet: {}", file, e.getMessage());
+      file.toFile().deleteOnExit();
+    }
+  }
+}
@@ -0,0 +1,90 @@
+package com.chromascape.utils.core.screen.capture;
+
+import static org.bytedeco.opencv.global.opencv_core.CV_8UC3;
+
+import java.awt.Rectangle;
+import java.nio.ByteBuffer;
+import org.bytedeco.opencv.opencv_core.Mat;
+
+/**
+ * Where {@link com.chromascape.utils.core.screen.window.ScreenManager} gets its pixels from.
+ *
+ * <p>The vision stack ({@code ZoneManager}, {@code ColourContours}, {@code Ocr}, {@code Compass},
+ * {@code TemplateMatching}) only ever sees the screen through {@code ScreenManager}, so swapping
+ * the source with {@link
+ * com.chromascape.utils.core.screen.window.ScreenManager#setFrameSource(FrameSource)} lets the same
+ * code run against:
+ *
+ * <ul>
+ *   <li>the live RuneLite client ({@link
+ *       com.chromascape.utils.core.screen.window.RobotFrameSource}, the default),
+ *   <li>a directory of recorded screenshots ({@link ReplayFrameSource}),
+ *   <li>a raw session recorded by {@link FrameRecorder} ({@link RecordingFrameSource}),
+ *   <li>frames generated in memory ({@link SyntheticFrameSource}).
+ * </ul>
+ *
+ * <p>All co-ordinates are in screen space. Recorded and synthetic sources place their frames at a
+ * configurable screen origin so zones mapped against them behave exactly as on the live client.
+ */
+public interface FrameSource extends AutoCloseable {
+
+  /**
+   * Reads the screen-space bounds of the game view canvas. For the live source this is a native
+   * lookup; callers should go through the cache in {@code ScreenManager.geometry()}.
+   *
+   * @return The canvas bounds.
+   */
+  Rectangle queryBounds();
+
+  /**
+   * Bounds of the monitor showing the canvas.
+   *
+   * @return The monitor bounds. Sources without a monitor report the canvas bounds.
+   */
+  default Rectangle monitorBounds() {
+    return queryBounds();
+  }
+
+  /**
+   * Copies a screen-space region of the current frame as packed BGR bytes.
+   *
+   * @param region The region to grab, in screen co-ordinates.
+   * @param dst Destination of at least {@code region.width * region.height * 3} bytes; rows are
+   *     written back to back without padding.
+   */
+  void grab(Rectangle region, byte[] dst);
+
+  /**
+   * Copies a screen-space region of the current frame into a 3-channel BGR {@link Mat}.
+   *
+   * <p>The default implementation goes through {@link #grab(Rectangle, byte[])}; sources that can
+   * write into native memory directly override it.
+   *
+   * @param region The region to grab, in screen co-ordinates.
+   * @param dst A reusable destination, or {@code null} to allocate a new {@link Mat}.
+   * @return {@code dst}, or the new {@link Mat}.
+   */
+  default Mat grab(Rectangle region, Mat dst) {
+    byte[] bgr = new byte[region.width * region.height * 3];
+    grab(region, bgr);
+    Mat out = dst != null ? dst : new Mat();
+    out.create(region.height, region.width, CV_8UC3);
+    ByteBuffer buffer = out.createBuffer();
+    buffer.put(0, bgr);
+    return out;
+  }
+
+  /**
+   * Moves on to the next frame. Live sources always show the current screen and ignore this;
+   * recorded and synthetic sources step through their frames.
+   *
+   * @return false once a finite source has no further frames, true otherwise.
+   */
+  default boolean advance() {
+    return true;
+  }
+
+  /** Releases any resources held by the source. */
+  @Override
+  default void close() {}
+}
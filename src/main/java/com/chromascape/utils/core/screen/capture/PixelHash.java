@@ -0,0 +1,83 @@
+package com.chromascape.utils.core.screen.capture;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Fast, non-cryptographic 64-bit hashing of raw pixel data.
+ *
+ * <p>Used wherever the vision stack needs to know whether a region is byte-for-byte unchanged
+ * (dirty tiles, template location hints, inventory slots) without keeping the old pixels around.
+ * Data is consumed eight bytes at a time, so hashing a region costs about as much as copying it.
+ */
+public class PixelHash {
+
+  private static final VarHandle LONGS =
+      MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+  private static final long PRIME = 0x9E3779B97F4A7C15L;
+
+  /**
+   * Folds a range of bytes into a running hash, so non-contiguous regions (such as the rows of a
+   * rectangle inside a frame) can be hashed without copying them together first.
+   *
+   * @param h The hash so far, 0 to start a new hash.
+   * @param data The pixel data.
+   * @param from Index of the first byte to hash.
+   * @param to Index one past the last byte to hash.
+   * @return The updated hash.
+   */
+  public static long update(long h, byte[] data, int from, int to) {
+    int i = from;
+    for (; i + 8 <= to; i += 8) {
+      h = Long.rotateLeft((h ^ (long) LONGS.get(data, i)) * PRIME, 31);
+    }
+    for (; i < to; i++) {
+      h = Long.rotateLeft((h ^ data[i]) * PRIME, 31);
+    }
+    return h;
+  }
+
+  /**
+   * Hashes a whole array.
+   *
+   * @param data The pixel data.
+   * @return The hash.
+   */
+  public static long of(byte[] data) {
+    return update(0, data, 0, data.length);
+  }
+
+  /**
+   * Folds a range of a buffer into a running hash. Produces the same hash as {@link #update(long,
+   * byte[], int, int)} over the same bytes. Indices are absolute; the buffer position is ignored.
+   *
+   * @param h The hash so far, 0 to start a new hash.
+   * @param data The pixel data.
+   * @param from Index of the first byte to hash.
+   * @param to Index one past the last byte to hash.
+   * @return The updated hash.
+   */
+  public static long update(long h, ByteBuffer data, int from, int to) {
+    ByteBuffer buffer = data.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+    int i = from;
+    for (; i + 8 <= to; i += 8) {
+      h = Long.rotateLeft((h ^ buffer.getLong(i)) * PRIME, 31);
+    }
+    for (; i < to; i++) {
+      h = Long.rotateLeft((h ^ buffer.get(i)) * PRIME, 31);
+    }
+    return h;
+  }
+
+  /**
+   * Hashes the bytes between position 0 and the limit of a buffer.
+   *
+   * @param data The pixel data.
+   * @return The hash.
+   */
+  public static long of(ByteBuffer data) {
+    return update(0, data, 0, data.limit());
+  }
+}
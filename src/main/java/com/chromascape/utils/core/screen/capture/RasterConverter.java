@@ -0,0 +1,218 @@
+package com.chromascape.utils.core.screen.capture;
+
+import static org.bytedeco.opencv.global.opencv_core.CV_8UC3;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.awt.image.PixelInterleavedSampleModel;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.awt.image.WritableRaster;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import org.bytedeco.javacv.Java2DFrameUtils;
+import org.bytedeco.opencv.opencv_core.Mat;
+
+/**
+ * Converts captured {@link BufferedImage} rasters into tightly packed BGR bytes without going
+ * through Java2D compositing.
+ *
+ * <p>{@link java.awt.Robot} hands back a {@code TYPE_INT_RGB} image backed by an {@code int[]}.
+ * Instead of allocating a second {@code TYPE_3BYTE_BGR} image and repainting into it with {@link
+ * java.awt.Graphics#drawImage}, the methods in this class read that {@code int[]} once and write
+ * the BGR bytes straight into their destination: a byte array, a reusable OpenCV {@link Mat}, or
+ * the data buffer of a fresh BGR image.
+ *
+ * <p>Images that are not backed by a packed RGB or interleaved BGR raster fall back to {@link
+ * BufferedImage#getRGB(int, int, int, int, int[], int, int)} row by row, so any image type is
+ * accepted.
+ */
+public class RasterConverter {
+
+  /** Bit masks of a packed {@code 0x00RRGGBB} pixel, as produced by {@link java.awt.Robot}. */
+  private static final int[] RGB_MASKS = {0xFF0000, 0xFF00, 0xFF};
+
+  /** Band offsets of an interleaved BGR raster, indexed by R, G, B. */
+  private static final int[] BGR_OFFSETS = {2, 1, 0};
+
+  /**
+   * Writes the pixels of {@code image} into {@code dst} as packed BGR bytes, three bytes per pixel,
+   * row-major and without padding.
+   *
+   * @param image the source image, usually straight from {@link java.awt.Robot}.
+   * @param dst the destination array, at least {@code width * height * 3} bytes long.
+   * @throws IllegalArgumentException if {@code dst} is too small.
+   */
+  public static void toBgr(BufferedImage image, byte[] dst) {
+    int width = image.getWidth();
+    int height = image.getHeight();
+    int rowBytes = width * 3;
+    if (dst.length < rowBytes * height) {
+      throw new IllegalArgumentException(
+          "Destination holds " + dst.length + " bytes, need " + rowBytes * height);
+    }
+    ByteBuffer buffer = ByteBuffer.wrap(dst);
+    RowReader reader = rowReader(image);
+    for (int y = 0; y < height; y++) {
+      reader.read(y, buffer, y * rowBytes);
+    }
+  }
+
+  /**
+   * Writes the pixels of {@code image} into {@code dst} as an 8-bit, 3-channel BGR {@link Mat}.
+   *
+   * <p>{@code dst} is only reallocated when its size or type differs from the image, so passing the
+   * same {@link Mat} every cycle keeps the capture path allocation free. If {@code dst} is {@code
+   * null} a new {@link Mat} is created.
+   *
+   * @param image the source image.
+   * @param dst the reusable destination, or {@code null}.
+   * @return {@code dst}, or the newly created {@link Mat}.
+   */
+  public static Mat toBgr(BufferedImage image, Mat dst) {
+    int width = image.getWidth();
+    int height = image.getHeight();
+    Mat out = dst != null ? dst : new Mat();
+    out.create(height, width, CV_8UC3);
+
+    // Rows are written straight into the Mat's native memory, no intermediate array
+    int rowBytes = width * 3;
+    ByteBuffer buffer = out.createBuffer();
+    RowReader reader = rowReader(image);
+    for (int y = 0; y < height; y++) {
+      reader.read(y, buffer, y * rowBytes);
+    }
+    return out;
+  }
+
+  /**
+   * Creates a {@code TYPE_3BYTE_BGR} copy of {@code image} by writing directly into the new image's
+   * data buffer.
+   *
+   * @param image the source image.
+   * @return a BGR image with the same dimensions.
+   */
+  public static BufferedImage toBgrImage(BufferedImage image) {
+    BufferedImage bgr =
+        new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_3BYTE_BGR);
+    toBgr(image, ((DataBufferByte) bgr.getRaster().getDataBuffer()).getData());
+    return bgr;
+  }
+
+  /**
+   * Converts any {@link BufferedImage} to an OpenCV {@link Mat}.
+   *
+   * <p>BGR and packed RGB images, which is everything the capture path produces, are converted
+   * directly into a 3-channel BGR {@link Mat}. Other image types, such as images with an alpha
+   * channel or grayscale masks, are handed to {@link Java2DFrameUtils#toMat(BufferedImage)} so
+   * their channel layout is preserved.
+   *
+   * @param image the image to convert.
+   * @return a new {@link Mat} owned by the caller.
+   */
+  public static Mat toMat(BufferedImage image) {
+    if (isPackedRgb(image) || isInterleavedBgr(image)) {
+      return toBgr(image, (Mat) null);
+    }
+    return Java2DFrameUtils.toMat(image);
+  }
+
+  /**
+   * Picks the fastest row reader available for the raster layout of {@code image}.
+   *
+   * @param image the image to read.
+   * @return a reader writing one BGR row per call.
+   */
+  private static RowReader rowReader(BufferedImage image) {
+    int width = image.getWidth();
+    WritableRaster raster = image.getRaster();
+
+    if (isPackedRgb(image)) {
+      DataBufferInt buffer = (DataBufferInt) raster.getDataBuffer();
+      SinglePixelPackedSampleModel model = (SinglePixelPackedSampleModel) raster.getSampleModel();
+      int[] data = buffer.getData();
+      int scanline = model.getScanlineStride();
+      int origin =
+          buffer.getOffset()
+              - raster.getSampleModelTranslateY() * scanline
+              - raster.getSampleModelTranslateX();
+      return (y, dst, offset) -> {
+        int src = origin + y * scanline;
+        int end = src + width;
+        int out = offset;
+        while (src < end) {
+          int pixel = data[src++];
+          dst.put(out++, (byte) pixel); // B
+          dst.put(out++, (byte) (pixel >> 8)); // G
+          dst.put(out++, (byte) (pixel >> 16)); // R
+        }
+      };
+    }
+
+    if (isInterleavedBgr(image)) {
+      DataBufferByte buffer = (DataBufferByte) raster.getDataBuffer();
+      PixelInterleavedSampleModel model = (PixelInterleavedSampleModel) raster.getSampleModel();
+      byte[] data = buffer.getData();
+      int scanline = model.getScanlineStride();
+      int origin =
+          buffer.getOffset()
+              - raster.getSampleModelTranslateY() * scanline
+              - raster.getSampleModelTranslateX() * 3;
+      return (y, dst, offset) -> dst.put(offset, data, origin + y * scanline, width * 3);
+    }
+
+    int[] argb = new int[width];
+    return (y, dst, offset) -> {
+      image.getRGB(0, y, width, 1, argb, 0, width);
+      int out = offset;
+      for (int pixel : argb) {
+        dst.put(out++, (byte) pixel);
+        dst.put(out++, (byte) (pixel >> 8));
+        dst.put(out++, (byte) (pixel >> 16));
+      }
+    };
+  }
+
+  /**
+   * Checks whether the image stores one {@code 0x00RRGGBB} int per pixel, as Robot captures do.
+   *
+   * @param image the image to inspect.
+   * @return true if the packed int fast path applies.
+   */
+  private static boolean isPackedRgb(BufferedImage image) {
+    WritableRaster raster = image.getRaster();
+    return raster.getDataBuffer() instanceof DataBufferInt
+        && raster.getSampleModel() instanceof SinglePixelPackedSampleModel model
+        && !image.getColorModel().hasAlpha()
+        && Arrays.equals(model.getBitMasks(), RGB_MASKS);
+  }
+
+  /**
+   * Checks whether the image stores interleaved B, G, R bytes, as {@code TYPE_3BYTE_BGR} does.
+   *
+   * @param image the image to inspect.
+   * @return true if the byte copy fast path applies.
+   */
+  private static boolean isInterleavedBgr(BufferedImage image) {
+    WritableRaster raster = image.getRaster();
+    return raster.getDataBuffer() instanceof DataBufferByte
+        && raster.getSampleModel() instanceof PixelInterleavedSampleModel model
+        && model.getNumBands() == 3
+        && model.getPixelStride() == 3
+        && Arrays.equals(model.getBandOffsets(), BGR_OFFSETS);
+  }
+
+  /** Writes a single image row into a BGR byte buffer. */
+  @FunctionalInterface
+  private interface RowReader {
+
+    /**
+     * Reads row {@code y} and writes {@code width * 3} BGR bytes.
+     *
+     * @param y the row to read.
+     * @param dst the destination buffer, heap or direct; its position is ignored.
+     * @param offset the absolute index of the first byte to write in {@code dst}.
+     */
+    void read(int y, ByteBuffer dst, int offset);
+  }
+}
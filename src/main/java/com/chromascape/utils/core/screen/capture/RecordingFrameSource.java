@@ -0,0 +1,149 @@
+package com.chromascape.utils.core.screen.capture;
+
+import com.chromascape.utils.core.screen.window.WindowGeometry;
+import java.awt.Rectangle;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * {@link FrameSource} that replays a ring file written by {@link FrameRecorder}, oldest frame
+ * first.
+ *
+ * <p>The file is memory-mapped read-only, so opening even a multi-gigabyte recording is instant and
+ * only the frames actually replayed are paged in. Each frame keeps the sequence number, timestamp
+ * and screen bounds it was recorded with. Compressed recordings ({@code .frames.gz}) are inflated
+ * into a temporary file next to the original first.
+ */
+public class RecordingFrameSource extends SequenceFrameSource {
+
+  private final Path file;
+  private final FileChannel channel;
+  private final MappedByteBuffer[] segments;
+  private final int capacity;
+  private final int slotBytes;
+  private final int slotsPerSegment;
+  private final int frameCount;
+  private final int firstSlot;
+
+  /**
+   * Opens a recording.
+   *
+   * @param file A {@code .frames} ring file, or its gzip-compressed {@code .frames.gz} copy.
+   * @param loop Whether to start over after the last frame.
+   * @throws IOException if the file cannot be read or is not a recording.
+   */
+  public RecordingFrameSource(Path file, boolean loop) throws IOException {
+    super(loop);
+    this.file = file.getFileName().toString().endsWith(".gz") ? inflate(file) : file;
+    channel = FileChannel.open(this.file, StandardOpenOption.READ);
+    ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, FrameRecorder.HEADER_BYTES);
+    if (header.getInt(0) != FrameRecorder.MAGIC) {
+      channel.close();
+      throw new IOException("Not a frame recording: " + file);
+    }
+    if (header.getInt(4) != FrameRecorder.VERSION) {
+      channel.close();
+      throw new IOException("Unsupported recording version " + header.getInt(4) + ": " + file);
+    }
+    capacity = header.getInt(16);
+    slotBytes = header.getInt(20);
+    long written = header.getLong(FrameRecorder.WRITTEN_OFFSET);
+    if (written == 0) {
+      channel.close();
+      throw new IOException("Recording holds no frames: " + file);
+    }
+    frameCount = (int) Math.min(written, capacity);
+    firstSlot = written > capacity ? (int) (written % capacity) : 0;
+    slotsPerSegment = Math.max(1, Integer.MAX_VALUE / slotBytes);
+
+    // Only written slots are mapped; a compressed recording holds no others
+    int segmentCount = (frameCount + slotsPerSegment - 1) / slotsPerSegment;
+    segments = new MappedByteBuffer[segmentCount];
+    for (int i = 0; i < segmentCount; i++) {
+      int slots = Math.min(slotsPerSegment, frameCount - i * slotsPerSegment);
+      long position = FrameRecorder.HEADER_BYTES + (long) i * slotsPerSegment * slotBytes;
+      segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, position, (long) slots * slotBytes);
+    }
+    seek(0);
+  }
+
+  /**
+   * Opens a recording from the recordings cache folder, see {@link FrameRecorder#inCache}.
+   *
+   * @param name Name of the recording, without extension.
+   * @param loop Whether to start over after the last frame.
+   * @return The new source.
+   * @throws IOException if the recording cannot be read.
+   */
+  public static RecordingFrameSource fromCache(String name, boolean loop) throws IOException {
+    Path raw = FrameRecorder.cachePath(name + FrameRecorder.EXTENSION);
+    Path compressed = raw.resolveSibling(raw.getFileName() + ".gz");
+    return new RecordingFrameSource(Files.exists(raw) ? raw : compressed, loop);
+  }
+
+  /**
+   * The raw ring file being replayed.
+   *
+   * @return The file path.
+   */
+  public Path file() {
+    return file;
+  }
+
+  @Override
+  public int frameCount() {
+    return frameCount;
+  }
+
+  @Override
+  protected CapturedFrame loadFrame(int index) {
+    int slot = (firstSlot + index) % capacity;
+    ByteBuffer segment = segments[slot / slotsPerSegment];
+    int base = (slot % slotsPerSegment) * slotBytes;
+    long sequence = segment.getLong(base);
+    long timestamp = segment.getLong(base + 8);
+    Rectangle bounds =
+        new Rectangle(
+            segment.getInt(base + 16),
+            segment.getInt(base + 20),
+            segment.getInt(base + 24),
+            segment.getInt(base + 28));
+    byte[] bgr = new byte[bounds.width * bounds.height * 3];
+    segment.get(base + FrameRecorder.SLOT_HEADER_BYTES, bgr);
+    return new CapturedFrame(sequence, timestamp, new WindowGeometry(bounds, 0, timestamp), bgr);
+  }
+
+  @Override
+  public void close() {
+    try {
+      channel.close();
+    } catch (IOException e) {
+      // Nothing left to release
+    }
+  }
+
+  /**
+   * Decompresses a {@code .gz} recording into a temporary file that is removed when the JVM exits.
+   *
+   * @param compressed The compressed recording.
+   * @return The inflated ring file.
+   * @throws IOException if the file cannot be decompressed.
+   */
+  private static Path inflate(Path compressed) throws IOException {
+    Path directory = compressed.toAbsolutePath().getParent();
+    Path target = Files.createTempFile(directory, "replay-", FrameRecorder.EXTENSION);
+    target.toFile().deleteOnExit();
+    try (InputStream in = new GZIPInputStream(Files.newInputStream(compressed), 1 << 16)) {
+      Files.copy(in, target, StandardCopyOption.REPLACE_EXISTING);
+    }
+    return target;
+  }
+}
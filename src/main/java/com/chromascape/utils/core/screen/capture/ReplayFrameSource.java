@@ -0,0 +1,123 @@
+package com.chromascape.utils.core.screen.capture;
+
+import com.chromascape.utils.core.screen.window.WindowGeometry;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+import javax.imageio.ImageIO;
+
+/**
+ * {@link FrameSource} that replays a directory of recorded screenshots, one file per frame, in file
+ * name order.
+ *
+ * <p>Any format {@link ImageIO} can read is accepted ({@code .png}, {@code .bmp}, {@code .jpg}),
+ * which makes the {@code output/original.png} screenshots of the {@code Screenshotter} script
+ * directly replayable. Frames are decoded lazily as the source advances; call {@link #preload()}
+ * first when measuring throughput so decoding is not part of the measurement.
+ */
+public class ReplayFrameSource extends SequenceFrameSource {
+
+  private static final List<String> EXTENSIONS = List.of(".png", ".bmp", ".jpg", ".jpeg");
+
+  private final List<Path> files;
+  private final Point origin;
+  private CapturedFrame[] preloaded;
+
+  /**
+   * Creates a replay source over every image in {@code directory}.
+   *
+   * @param directory Directory holding the recorded frames.
+   * @param origin Screen position the frames are placed at, usually the canvas origin at recording
+   *     time so zone co-ordinates line up.
+   * @param loop Whether to start over after the last frame.
+   * @throws IOException if the directory cannot be listed or holds no images.
+   */
+  public ReplayFrameSource(Path directory, Point origin, boolean loop) throws IOException {
+    super(loop);
+    try (Stream<Path> listing = Files.list(directory)) {
+      files = listing.filter(ReplayFrameSource::isImage).sorted().toList();
+    }
+    if (files.isEmpty()) {
+      throw new IOException("No replayable images in " + directory);
+    }
+    this.origin = new Point(origin);
+    seek(0);
+  }
+
+  /**
+   * Creates a non-looping replay source placed at the screen origin.
+   *
+   * @param directory Directory holding the recorded frames.
+   * @throws IOException if the directory cannot be listed or holds no images.
+   */
+  public ReplayFrameSource(Path directory) throws IOException {
+    this(directory, new Point(0, 0), false);
+  }
+
+  /**
+   * Decodes every frame up front and keeps them in memory, so stepping through the sequence costs
+   * no I/O or decoding.
+   *
+   * @return This source.
+   */
+  public synchronized ReplayFrameSource preload() {
+    CapturedFrame[] frames = new CapturedFrame[files.size()];
+    for (int i = 0; i < frames.length; i++) {
+      frames[i] = decode(i);
+    }
+    preloaded = frames;
+    return this;
+  }
+
+  @Override
+  public int frameCount() {
+    return files.size();
+  }
+
+  @Override
+  protected CapturedFrame loadFrame(int index) {
+    CapturedFrame[] frames = preloaded;
+    return frames != null ? frames[index] : decode(index);
+  }
+
+  /**
+   * Reads and converts one recorded image.
+   *
+   * @param index Index of the file to decode.
+   * @return The decoded frame.
+   */
+  private CapturedFrame decode(int index) {
+    Path file = files.get(index);
+    try {
+      BufferedImage image = ImageIO.read(file.toFile());
+      if (image == null) {
+        throw new IOException("Unreadable image: " + file);
+      }
+      Rectangle bounds = new Rectangle(origin.x, origin.y, image.getWidth(), image.getHeight());
+      byte[] bgr = new byte[bounds.width * bounds.height * 3];
+      RasterConverter.toBgr(image, bgr);
+      long now = System.nanoTime();
+      return new CapturedFrame(index, now, new WindowGeometry(bounds, 0, now), bgr);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Checks whether a file has a supported image extension.
+   *
+   * @param file The file to check.
+   * @return true if the file should be replayed.
+   */
+  private static boolean isImage(Path file) {
+    String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+    return Files.isRegularFile(file) && EXTENSIONS.stream().anyMatch(name::endsWith);
+  }
+}
@@ -0,0 +1,105 @@
+package com.chromascape.utils.core.screen.capture;
+
+import java.awt.Rectangle;
+import org.bytedeco.opencv.opencv_core.Mat;
+
+/**
+ * Base class for {@link FrameSource}s that step through a finite, indexed sequence of frames, such
+ * as recorded sessions or generated test frames.
+ *
+ * <p>The source always shows exactly one frame; {@link #advance()} moves to the next one and every
+ * {@link #grab(Rectangle, byte[])} in between reads the same pixels, just like several captures
+ * within one instant on the live client. Once the last frame is reached the source either wraps
+ * around to the first frame or keeps showing the last one.
+ */
+public abstract class SequenceFrameSource implements FrameSource {
+
+  private final boolean loop;
+  private int index = -1;
+  private volatile CapturedFrame current;
+
+  /**
+   * Creates a sequence source. Subclasses must call {@link #seek(int)} once their frames are
+   * available to load the first one.
+   *
+   * @param loop Whether to wrap around to the first frame after the last one.
+   */
+  protected SequenceFrameSource(boolean loop) {
+    this.loop = loop;
+  }
+
+  /**
+   * Number of frames in the sequence.
+   *
+   * @return The frame count, at least one.
+   */
+  public abstract int frameCount();
+
+  /**
+   * Loads a frame of the sequence.
+   *
+   * @param index Index of the frame, {@code 0 <= index < frameCount()}.
+   * @return The frame at {@code index}.
+   */
+  protected abstract CapturedFrame loadFrame(int index);
+
+  /**
+   * Index of the frame currently shown.
+   *
+   * @return The current index.
+   */
+  public synchronized int index() {
+    return index;
+  }
+
+  /**
+   * The frame currently shown.
+   *
+   * @return The current frame.
+   */
+  public CapturedFrame current() {
+    return current;
+  }
+
+  /**
+   * Jumps to a specific frame.
+   *
+   * @param index Index of the frame to show.
+   * @throws IndexOutOfBoundsException if {@code index} is outside the sequence.
+   */
+  public synchronized void seek(int index) {
+    if (index < 0 || index >= frameCount()) {
+      throw new IndexOutOfBoundsException("Frame " + index + " of " + frameCount());
+    }
+    this.index = index;
+    current = loadFrame(index);
+  }
+
+  @Override
+  public synchronized boolean advance() {
+    if (index + 1 < frameCount()) {
+      seek(index + 1);
+      return true;
+    }
+    if (loop) {
+      seek(0);
+      return true;
+    }
+    return false;
+  }
+
+  @Override
+  public Rectangle queryBounds() {
+    return current.bounds();
+  }
+
+  @Override
+  public void grab(Rectangle region, byte[] dst) {
+    current.copy(region, dst);
+  }
+
+  @Override
+  public Mat grab(Rectangle region, Mat dst) {
+    return current.cropMat(region, dst);
+  }
+}
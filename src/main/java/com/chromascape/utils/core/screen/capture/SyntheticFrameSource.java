@@ -0,0 +1,104 @@
+package com.chromascape.utils.core.screen.capture;
+
+import com.chromascape.utils.core.screen.window.WindowGeometry;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.List;
+
+/**
+ * {@link FrameSource} backed entirely by memory, for tests and benchmarks that should not depend on
+ * a running client or on disk I/O.
+ *
+ * <p>Frames are either given up front as images, or produced on demand by a {@link FrameRenderer}
+ * that paints frame {@code n} into a BGR buffer.
+ *
+ * <pre>{@code
+ * ScreenManager.setFrameSource(
+ *     new SyntheticFrameSource(new Rectangle(0, 0, 765, 503), 100, true, (index, bgr) -> {
+ *       // paint frame "index" into bgr
+ *     }));
+ * }</pre>
+ */
+public class SyntheticFrameSource extends SequenceFrameSource {
+
+  /** Paints one synthetic frame. */
+  @FunctionalInterface
+  public interface FrameRenderer {
+
+    /**
+     * Paints frame {@code index} into {@code bgr}.
+     *
+     * @param index Index of the frame being rendered.
+     * @param bgr Zero-filled packed BGR buffer of the frame, row-major without padding.
+     */
+    void render(int index, byte[] bgr);
+  }
+
+  private final Rectangle bounds;
+  private final int frameCount;
+  private final FrameRenderer renderer;
+
+  /**
+   * Creates a source that renders its frames on demand.
+   *
+   * @param bounds Screen-space bounds of every frame.
+   * @param frameCount Number of frames in the sequence.
+   * @param loop Whether to start over after the last frame.
+   * @param renderer Paints each frame.
+   */
+  public SyntheticFrameSource(
+      Rectangle bounds, int frameCount, boolean loop, FrameRenderer renderer) {
+    super(loop);
+    if (frameCount <= 0 || bounds.isEmpty()) {
+      throw new IllegalArgumentException("Synthetic source needs frames and a non-empty size");
+    }
+    this.bounds = new Rectangle(bounds);
+    this.frameCount = frameCount;
+    this.renderer = renderer;
+    seek(0);
+  }
+
+  /**
+   * Creates a source that cycles through the given images. Every image must have the same size.
+   *
+   * @param images The frames, converted to BGR once up front.
+   * @param origin Screen position the frames are placed at.
+   * @param loop Whether to start over after the last frame.
+   * @return The new source.
+   */
+  public static SyntheticFrameSource of(List<BufferedImage> images, Point origin, boolean loop) {
+    if (images.isEmpty()) {
+      throw new IllegalArgumentException("Synthetic source needs at least one image");
+    }
+    BufferedImage first = images.get(0);
+    Rectangle bounds = new Rectangle(origin.x, origin.y, first.getWidth(), first.getHeight());
+    byte[][] frames = new byte[images.size()][];
+    for (int i = 0; i < frames.length; i++) {
+      BufferedImage image = images.get(i);
+      if (image.getWidth() != bounds.width || image.getHeight() != bounds.height) {
+        throw new IllegalArgumentException("Image " + i + " differs in size from the first");
+      }
+      frames[i] = new byte[bounds.width * bounds.height * 3];
+      RasterConverter.toBgr(image, frames[i]);
+    }
+    return new SyntheticFrameSource(
+        bounds,
+        frames.length,
+        loop,
+        (index, bgr) -> System.arraycopy(frames[index], 0, bgr, 0, bgr.length));
+  }
+
+  @Override
+  public int frameCount() {
+    return frameCount;
+  }
+
+  @Override
+  protected CapturedFrame loadFrame(int index) {
+    byte[] bgr = new byte[bounds.width * bounds.height * 3];
+    renderer.render(index, bgr);
+    long now = System.nanoTime();
+    return new CapturedFrame(index, now, new WindowGeometry(bounds, 0, now), bgr);
+  }
+}
@@ -0,0 +1,164 @@
+package com.chromascape.utils.core.screen.capture;
+
+import java.awt.Rectangle;
+import java.util.Arrays;
+
+/**
+ * Detects which parts of the game view changed between consecutive frames.
+ *
+ * <p>Each frame is split into square tiles and every tile is reduced to a 64-bit {@link PixelHash},
+ * read straight from the frame's pixel array. Comparing the hashes with those of the previous frame
+ * yields a {@link DirtyTiles} bitmap, and the tracker remembers the sequence number of the last
+ * frame in which each tile changed, which answers "has this zone changed since frame N?" without
+ * keeping old frames around.
+ *
+ * <p>Hashing a full 765x503 canvas touches every byte once and costs well under a millisecond, so
+ * {@link CaptureService} runs the tracker on its own thread for every published frame. Consumers
+ * then skip work on regions that are known not to have changed.
+ */
+public class TileTracker {
+
+  /** Default tile edge length in pixels. */
+  public static final int DEFAULT_TILE_SIZE = 32;
+
+  private final int tileSize;
+
+  private Rectangle bounds;
+  private int columns;
+  private long[] hashes;
+  private long[] lastChanged;
+  private long resetSequence = Long.MAX_VALUE;
+  private long lastSequence = -1;
+
+  /**
+   * Creates a tracker.
+   *
+   * @param tileSize Edge length of a tile in pixels.
+   */
+  public TileTracker(int tileSize) {
+    if (tileSize <= 0) {
+      throw new IllegalArgumentException("Tile size must be positive: " + tileSize);
+    }
+    this.tileSize = tileSize;
+  }
+
+  /** Creates a tracker using {@link #DEFAULT_TILE_SIZE} tiles. */
+  public TileTracker() {
+    this(DEFAULT_TILE_SIZE);
+  }
+
+  /**
+   * Hashes the tiles of a frame and compares them with the previous frame.
+   *
+   * @param frame The next frame; sequence numbers must increase between calls.
+   * @return The tiles that differ from the previous frame. The first frame, and any frame whose
+   *     bounds differ from its predecessor, is entirely dirty.
+   */
+  public synchronized DirtyTiles update(CapturedFrame frame) {
+    Rectangle frameBounds = frame.bounds();
+    int width = frame.width();
+    int height = frame.height();
+    int newColumns = (width + tileSize - 1) / tileSize;
+    int tileCount = newColumns * ((height + tileSize - 1) / tileSize);
+    long[] bits = new long[(tileCount + 63) >>> 6];
+
+    long[] newHashes = hashTiles(frame, newColumns, tileCount);
+    if (!frameBounds.equals(bounds)) {
+      bounds = frameBounds;
+      columns = newColumns;
+      lastChanged = new long[tileCount];
+      Arrays.fill(lastChanged, frame.sequence());
+      Arrays.fill(bits, -1L);
+      if ((tileCount & 63) != 0) {
+        bits[bits.length - 1] = (1L << tileCount) - 1;
+      }
+      resetSequence = frame.sequence();
+    } else {
+      for (int tile = 0; tile < tileCount; tile++) {
+        if (newHashes[tile] != hashes[tile]) {
+          bits[tile >>> 6] |= 1L << tile;
+          lastChanged[tile] = frame.sequence();
+        }
+      }
+    }
+    hashes = newHashes;
+    lastSequence = frame.sequence();
+    return new DirtyTiles(frame.sequence(), frameBounds, tileSize, bits);
+  }
+
+  /**
+   * Whether any pixel of a screen-space zone may have changed after frame {@code sequence}.
+   *
+   * <p>Answers conservatively: zones outside the tracked frame, and sequences older than the last
+   * time the frame bounds changed, always report a change.
+   *
+   * @param sequence Sequence number of a frame the caller has already processed.
+   * @param screenZone The zone in absolute screen co-ordinates.
+   * @return true if the zone changed, or may have changed, since that frame.
+   */
+  public synchronized boolean changedSince(long sequence, Rectangle screenZone) {
+    if (bounds == null || sequence < resetSequence || !bounds.contains(screenZone)) {
+      return true;
+    }
+    if (sequence >= lastSequence) {
+      return false;
+    }
+    int firstColumn = (screenZone.x - bounds.x) / tileSize;
+    int firstRow = (screenZone.y - bounds.y) / tileSize;
+    int lastColumn = (screenZone.x - bounds.x + screenZone.width - 1) / tileSize;
+    int lastRow = (screenZone.y - bounds.y + screenZone.height - 1) / tileSize;
+    for (int row = firstRow; row <= lastRow; row++) {
+      for (int column = firstColumn; column <= lastColumn; column++) {
+        if (lastChanged[row * columns + column] > sequence) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Whether anything in the tracked frame changed after frame {@code sequence}.
+   *
+   * @param sequence Sequence number of a frame the caller has already processed.
+   * @return true if any tile changed, or may have changed, since that frame.
+   */
+  public synchronized boolean changedSince(long sequence) {
+    return bounds == null || changedSince(sequence, bounds);
+  }
+
+  /**
+   * Edge length of the tiles.
+   *
+   * @return The tile size in pixels.
+   */
+  public int tileSize() {
+    return tileSize;
+  }
+
+  /**
+   * Computes one hash per tile of a frame.
+   *
+   * @param frame The frame to hash.
+   * @param columns Number of tile columns.
+   * @param tileCount Total number of tiles.
+   * @return The tile hashes, row-major.
+   */
+  private long[] hashTiles(CapturedFrame frame, int columns, int tileCount) {
+    byte[] bgr = frame.pixelArray();
+    int width = frame.width();
+    int height = frame.height();
+    int stride = width * 3;
+    long[] result = new long[tileCount];
+    for (int y = 0; y < height; y++) {
+      int tileRow = (y / tileSize) * columns;
+      int rowStart = y * stride;
+      for (int column = 0; column < columns; column++) {
+        int start = rowStart + column * tileSize * 3;
+        int end = rowStart + Math.min((column + 1) * tileSize, width) * 3;
+        result[tileRow + column] = PixelHash.update(result[tileRow + column], bgr, start, end);
+      }
+    }
+    return result;
+  }
+}
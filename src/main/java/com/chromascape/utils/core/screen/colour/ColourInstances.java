@@ -77,4 +77,13 @@ public class ColourInstances {
     }
     return null;
   }
+
+  /**
+   * Retrieves every loaded colour, in the order of the configuration file.
+   *
+   * @return An unmodifiable list of all {@link ColourObj} definitions.
+   */
+  public static List<ColourObj> getAll() {
+    return COLOURS;
+  }
 }
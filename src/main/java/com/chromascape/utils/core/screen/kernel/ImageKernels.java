@@ -0,0 +1,401 @@
+package com.chromascape.utils.core.screen.kernel;
+
+import java.awt.Rectangle;
+import java.nio.ByteBuffer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.bytedeco.opencv.global.opencv_core;
+import org.bytedeco.opencv.opencv_core.Mat;
+import org.bytedeco.opencv.opencv_core.Rect;
+import org.bytedeco.opencv.opencv_core.Scalar;
+
+/**
+ * Pixel kernels that run either through OpenCV or in pure Java, chosen per call.
+ *
+ * <p>Every OpenCV call from Java crosses JNI and, for data that lives on the Java heap, copies it
+ * into native memory first. On a full frame that overhead is noise, but most checks a script makes
+ * look at a few hundred or thousand pixels, where it is most of the cost. These kernels work on
+ * {@link ByteBuffer}s directly, heap or direct ({@code Mat.createBuffer()} gives a direct view of a
+ * Mat's pixels), and the {@link KernelBackend#VECTOR} implementations use SIMD instructions through
+ * the Vector API.
+ *
+ * <p>All buffer indices are absolute and start at 0; buffer positions are ignored. Images are
+ * tightly packed, row-major and interleaved. Calls without a backend argument use {@link
+ * #defaultBackend()}, and a backend that is not available falls back to {@link
+ * KernelBackend#SCALAR}. The {@code ImageKernelsBenchmark} JMH benchmark compares the backends.
+ */
+public class ImageKernels {
+
+  private static final Logger logger = LogManager.getLogger(ImageKernels.class);
+
+  private static volatile KernelBackend defaultBackend =
+      KernelBackend.VECTOR.isAvailable() ? KernelBackend.VECTOR : KernelBackend.SCALAR;
+
+  /**
+   * The backend used by calls that do not name one.
+   *
+   * @return The default backend, {@link KernelBackend#VECTOR} when the Vector API is available.
+   */
+  public static KernelBackend defaultBackend() {
+    return defaultBackend;
+  }
+
+  /**
+   * Sets the backend used by calls that do not name one.
+   *
+   * @param backend The new default.
+   */
+  public static void setDefaultBackend(KernelBackend backend) {
+    if (!backend.isAvailable()) {
+      logger.warn("{} kernels are not available, using {}", backend, KernelBackend.SCALAR);
+    }
+    defaultBackend = backend;
+  }
+
+  /**
+   * Marks the pixels of a 3-channel image whose channels all lie within inclusive bounds, like
+   * OpenCV's {@code inRange}.
+   *
+   * @param src The image, 3 bytes per pixel.
+   * @param dst Receives one byte per pixel, 255 inside the range and 0 outside it.
+   * @param pixels Number of pixels.
+   * @param lower Lower bound of each channel, 0-255.
+   * @param upper Upper bound of each channel, 0-255.
+   * @param backend The implementation to run.
+   */
+  public static void inRange(
+      ByteBuffer src,
+      ByteBuffer dst,
+      int pixels,
+      int[] lower,
+      int[] upper,
+      KernelBackend backend) {
+    checkLength(src, pixels * 3L);
+    checkLength(dst, pixels);
+    checkBounds(lower);
+    checkBounds(upper);
+    switch (resolve(backend)) {
+      case OPENCV -> OpenCvKernels.inRange(src, dst, pixels, lower, upper);
+      case VECTOR -> KernelBackend.vectorKernels().inRange(src, dst, pixels, lower, upper);
+      default -> ScalarKernels.inRange(src, dst, 0, pixels, lower, upper);
+    }
+  }
+
+  /**
+   * Runs {@link #inRange(ByteBuffer, ByteBuffer, int, int[], int[], KernelBackend)} on the default
+   * backend.
+   *
+   * @param src The image, 3 bytes per pixel.
+   * @param dst Receives one byte per pixel, 255 inside the range and 0 outside it.
+   * @param pixels Number of pixels.
+   * @param lower Lower bound of each channel, 0-255.
+   * @param upper Upper bound of each channel, 0-255.
+   */
+  public static void inRange(
+      ByteBuffer src, ByteBuffer dst, int pixels, int[] lower, int[] upper) {
+    inRange(src, dst, pixels, lower, upper, defaultBackend);
+  }
+
+  /**
+   * Thresholds a 3-channel 8-bit {@link Mat} by a range, with the same result as OpenCV's {@code
+   * inRange}. Images the buffer kernels cannot address, such as non-continuous ROI views, always go
+   * through OpenCV.
+   *
+   * @param src The image.
+   * @param lower Lower bound of each channel, fractional bounds rounded up.
+   * @param upper Upper bound of each channel, fractional bounds rounded down.
+   * @param backend The implementation to run.
+   * @return A new single-channel mask owned by the caller.
+   */
+  public static Mat inRange(Mat src, Scalar lower, Scalar upper, KernelBackend backend) {
+    Mat result = new Mat(src.rows(), src.cols(), opencv_core.CV_8UC1);
+    if (src.empty()) {
+      return result;
+    }
+    if (resolve(backend) == KernelBackend.OPENCV
+        || !src.isContinuous()
+        || src.type() != opencv_core.CV_8UC3) {
+      try (Mat low = new Mat(lower);
+          Mat high = new Mat(upper)) {
+        opencv_core.inRange(src, low, high, result);
+      }
+      return result;
+    }
+    int[] low = new int[3];
+    int[] high = new int[3];
+    for (int c = 0; c < 3; c++) {
+      low[c] = (int) Math.ceil(lower.get(c));
+      high[c] = (int) Math.floor(upper.get(c));
+      if (low[c] > 255 || high[c] < 0 || low[c] > high[c]) {
+        result.put(new Scalar(0));
+        return result;
+      }
+      low[c] = Math.max(low[c], 0);
+      high[c] = Math.min(high[c], 255);
+    }
+    inRange(src.createBuffer(), result.createBuffer(), (int) src.total(), low, high, backend);
+    return result;
+  }
+
+  /**
+   * Computes {@code dst[i] = a[i] & b[i]}.
+   *
+   * @param a The first operand.
+   * @param b The second operand.
+   * @param dst Receives the result; may be {@code a} or {@code b}.
+   * @param length Number of bytes.
+   * @param backend The implementation to run.
+   */
+  public static void bitwiseAnd(
+      ByteBuffer a, ByteBuffer b, ByteBuffer dst, int length, KernelBackend backend) {
+    checkLength(a, length);
+    checkLength(b, length);
+    checkLength(dst, length);
+    switch (resolve(backend)) {
+      case OPENCV -> OpenCvKernels.bitwiseAnd(a, b, dst, length);
+      case VECTOR -> KernelBackend.vectorKernels().bitwiseAnd(a, b, dst, length);
+      default -> ScalarKernels.bitwiseAnd(a, b, dst, 0, length);
+    }
+  }
+
+  /**
+   * Runs {@link #bitwiseAnd(ByteBuffer, ByteBuffer, ByteBuffer, int, KernelBackend)} on the default
+   * backend.
+   *
+   * @param a The first operand.
+   * @param b The second operand.
+   * @param dst Receives the result; may be {@code a} or {@code b}.
+   * @param length Number of bytes.
+   */
+  public static void bitwiseAnd(ByteBuffer a, ByteBuffer b, ByteBuffer dst, int length) {
+    bitwiseAnd(a, b, dst, length, defaultBackend);
+  }
+
+  /**
+   * Computes {@code dst[i] = |a[i] - b[i]|} on unsigned bytes, for frame differencing.
+   *
+   * @param a The first image.
+   * @param b The second image.
+   * @param dst Receives the result; may be {@code a} or {@code b}.
+   * @param length Number of bytes.
+   * @param backend The implementation to run.
+   */
+  public static void absDiff(
+      ByteBuffer a, ByteBuffer b, ByteBuffer dst, int length, KernelBackend backend) {
+    checkLength(a, length);
+    checkLength(b, length);
+    checkLength(dst, length);
+    switch (resolve(backend)) {
+      case OPENCV -> OpenCvKernels.absDiff(a, b, dst, length);
+      case VECTOR -> KernelBackend.vectorKernels().absDiff(a, b, dst, length);
+      default -> ScalarKernels.absDiff(a, b, dst, 0, length);
+    }
+  }
+
+  /**
+   * Runs {@link #absDiff(ByteBuffer, ByteBuffer, ByteBuffer, int, KernelBackend)} on the default
+   * backend.
+   *
+   * @param a The first image.
+   * @param b The second image.
+   * @param dst Receives the result; may be {@code a} or {@code b}.
+   * @param length Number of bytes.
+   */
+  public static void absDiff(ByteBuffer a, ByteBuffer b, ByteBuffer dst, int length) {
+    absDiff(a, b, dst, length, defaultBackend);
+  }
+
+  /**
+   * Sets every channel of every pixel in a rectangle of an image to one value, e.g. to mask out a
+   * UI zone.
+   *
+   * @param image The image; its height is taken from the buffer limit.
+   * @param width Image width in pixels.
+   * @param channels Bytes per pixel.
+   * @param region The rectangle to fill, inside the image.
+   * @param value The byte to write.
+   * @param backend The implementation to run.
+   * @throws IllegalArgumentException if the rectangle is empty or reaches outside the image.
+   */
+  public static void fill(
+      ByteBuffer image,
+      int width,
+      int channels,
+      Rectangle region,
+      byte value,
+      KernelBackend backend) {
+    int height = checkRegion(image, width, channels, region);
+    switch (resolve(backend)) {
+      case OPENCV -> OpenCvKernels.fill(image, width, height, channels, region, value);
+      case VECTOR -> fillRows(image, width, channels, region, value, true);
+      default -> fillRows(image, width, channels, region, value, false);
+    }
+  }
+
+  /**
+   * Runs {@link #fill(ByteBuffer, int, int, Rectangle, byte, KernelBackend)} on the default
+   * backend.
+   *
+   * @param image The image; its height is taken from the buffer limit.
+   * @param width Image width in pixels.
+   * @param channels Bytes per pixel.
+   * @param region The rectangle to fill, inside the image.
+   * @param value The byte to write.
+   * @throws IllegalArgumentException if the rectangle is empty or reaches outside the image.
+   */
+  public static void fill(
+      ByteBuffer image, int width, int channels, Rectangle region, byte value) {
+    fill(image, width, channels, region, value, defaultBackend);
+  }
+
+  /**
+   * Fills a rectangle of an 8-bit {@link Mat} in place, see {@link #fill(ByteBuffer, int, int,
+   * Rectangle, byte, KernelBackend)}. Non-continuous Mats are filled through OpenCV.
+   *
+   * @param image The image to modify.
+   * @param region The rectangle to fill, inside the image.
+   * @param value The byte to write.
+   * @throws IllegalArgumentException if the rectangle is empty or reaches outside the image.
+   */
+  public static void fill(Mat image, Rectangle region, byte value) {
+    if (image.isContinuous()) {
+      fill(image.createBuffer(), image.cols(), image.channels(), region, value);
+      return;
+    }
+    if (region.isEmpty() || !new Rectangle(0, 0, image.cols(), image.rows()).contains(region)) {
+      throw new IllegalArgumentException("Region out of bounds: " + region);
+    }
+    int v = value & 0xFF;
+    try (Rect rect = new Rect(region.x, region.y, region.width, region.height);
+        Mat roi = new Mat(image, rect);
+        Scalar scalar = new Scalar(v, v, v, v)) {
+      roi.put(scalar);
+    }
+  }
+
+  /**
+   * Hashes the pixels of a rectangle of an image into 64 bits, for cheap change detection.
+   *
+   * <p>The {@link KernelBackend#SCALAR} hash equals {@link
+   * com.chromascape.utils.core.screen.capture.PixelHash} over the rectangle's rows, so it can be
+   * compared with the hashes {@code TileTracker} computes. The {@link KernelBackend#VECTOR} hash
+   * mixes several lanes in parallel and gives different values; hashes are only comparable when
+   * they come from the same backend. OpenCV has no equivalent, so {@link KernelBackend#OPENCV} runs
+   * the scalar hash.
+   *
+   * @param image The image; its height is taken from the buffer limit.
+   * @param width Image width in pixels.
+   * @param channels Bytes per pixel.
+   * @param region The rectangle to hash, inside the image.
+   * @param backend The implementation to run.
+   * @return The hash.
+   * @throws IllegalArgumentException if the rectangle is empty or reaches outside the image.
+   */
+  public static long hash(
+      ByteBuffer image, int width, int channels, Rectangle region, KernelBackend backend) {
+    checkRegion(image, width, channels, region);
+    if (resolve(backend) == KernelBackend.VECTOR) {
+      return KernelBackend.vectorKernels().hash(image, width, channels, region);
+    }
+    return ScalarKernels.hash(image, width, channels, region);
+  }
+
+  /**
+   * Runs {@link #hash(ByteBuffer, int, int, Rectangle, KernelBackend)} on the default backend.
+   *
+   * @param image The image; its height is taken from the buffer limit.
+   * @param width Image width in pixels.
+   * @param channels Bytes per pixel.
+   * @param region The rectangle to hash, inside the image.
+   * @return The hash.
+   * @throws IllegalArgumentException if the rectangle is empty or reaches outside the image.
+   */
+  public static long hash(ByteBuffer image, int width, int channels, Rectangle region) {
+    return hash(image, width, channels, region, defaultBackend);
+  }
+
+  /**
+   * Fills a rectangle row by row with the Java kernels.
+   *
+   * @param image The image.
+   * @param width Image width in pixels.
+   * @param channels Bytes per pixel.
+   * @param region The rectangle to fill.
+   * @param value The byte to write.
+   * @param vector Whether to use the Vector API kernel.
+   */
+  private static void fillRows(
+      ByteBuffer image, int width, int channels, Rectangle region, byte value, boolean vector) {
+    int rowBytes = region.width * channels;
+    for (int y = region.y; y < region.y + region.height; y++) {
+      int start = (y * width + region.x) * channels;
+      if (vector) {
+        KernelBackend.vectorKernels().fill(image, start, start + rowBytes, value);
+      } else {
+        ScalarKernels.fill(image, start, start + rowBytes, value);
+      }
+    }
+  }
+
+  /**
+   * The backend a call will actually run on.
+   *
+   * @param requested The backend asked for.
+   * @return {@code requested}, or {@link KernelBackend#SCALAR} if it is not available.
+   */
+  private static KernelBackend resolve(KernelBackend requested) {
+    return requested.isAvailable() ? requested : KernelBackend.SCALAR;
+  }
+
+  /**
+   * Fails if a buffer is too short.
+   *
+   * @param buffer The buffer.
+   * @param length Number of bytes the call will touch.
+   * @throws IllegalArgumentException if the buffer's limit is below {@code length}.
+   */
+  private static void checkLength(ByteBuffer buffer, long length) {
+    if (length < 0 || buffer.limit() < length) {
+      throw new IllegalArgumentException(
+          "Buffer of " + buffer.limit() + " bytes is too short for " + length);
+    }
+  }
+
+  /**
+   * Fails if channel bounds are not three unsigned bytes.
+   *
+   * @param bounds The bounds.
+   * @throws IllegalArgumentException if they are not.
+   */
+  private static void checkBounds(int[] bounds) {
+    if (bounds.length != 3) {
+      throw new IllegalArgumentException("Expected 3 channel bounds, got " + bounds.length);
+    }
+    for (int bound : bounds) {
+      if (bound < 0 || bound > 255) {
+        throw new IllegalArgumentException("Channel bound out of range: " + bound);
+      }
+    }
+  }
+
+  /**
+   * Fails if a rectangle is empty or not inside an image.
+   *
+   * @param image The image.
+   * @param width Image width in pixels.
+   * @param channels Bytes per pixel.
+   * @param region The rectangle.
+   * @return The image height in pixels.
+   * @throws IllegalArgumentException if the rectangle is empty or reaches outside the image.
+   */
+  private static int checkRegion(ByteBuffer image, int width, int channels, Rectangle region) {
+    if (width <= 0 || channels <= 0) {
+      throw new IllegalArgumentException("Invalid image layout: " + width + "x" + channels);
+    }
+    int height = image.limit() / (width * channels);
+    if (region.isEmpty() || !new Rectangle(0, 0, width, height).contains(region)) {
+      throw new IllegalArgumentException("Region out of bounds: " + region);
+    }
+    return height;
+  }
+}
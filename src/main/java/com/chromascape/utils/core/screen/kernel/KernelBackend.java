@@ -0,0 +1,67 @@
+package com.chromascape.utils.core.screen.kernel;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Implementation an {@link ImageKernels} operation runs on.
+ *
+ * <p>The OpenCV backend pays a JNI round trip per call, and for heap buffers a copy into native
+ * memory, but is fastest on large images. The Java backends run on the calling thread without any
+ * native call or allocation, which is what small regions such as OCR zones or inventory slots need.
+ */
+public enum KernelBackend {
+  /** OpenCV through JavaCV. */
+  OPENCV,
+  /** Plain Java loops. */
+  SCALAR,
+  /**
+   * SIMD loops on the incubating Vector API. Opt-in: requires the JVM to be started with {@code
+   * --add-modules jdk.incubator.vector}; calls fall back to {@link #SCALAR} otherwise.
+   */
+  VECTOR;
+
+  private static final Logger logger = LogManager.getLogger(KernelBackend.class);
+
+  private static final SimdKernels VECTOR_KERNELS = loadVectorKernels();
+
+  /**
+   * Whether this backend can run in the current JVM.
+   *
+   * @return false only for {@link #VECTOR} when the Vector API module or its kernels are missing.
+   */
+  public boolean isAvailable() {
+    return this != VECTOR || VECTOR_KERNELS != null;
+  }
+
+  /**
+   * The {@link #VECTOR} kernels.
+   *
+   * @return The kernels, or {@code null} if {@link #VECTOR} is not available.
+   */
+  static SimdKernels vectorKernels() {
+    return VECTOR_KERNELS;
+  }
+
+  /**
+   * Loads the Vector API kernels by name, so that nothing outside the {@code vector} source set
+   * links against the incubating module.
+   *
+   * @return The kernels, or {@code null} if the module is not loaded or the kernels are not on the
+   *     classpath.
+   */
+  private static SimdKernels loadVectorKernels() {
+    if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+      return null;
+    }
+    try {
+      return (SimdKernels)
+          Class.forName(KernelBackend.class.getPackageName() + ".VectorKernels")
+              .getDeclaredConstructor()
+              .newInstance();
+    } catch (ReflectiveOperationException | LinkageError e) {
+      logger.warn("Vector API kernels could not be loaded: {}", e.toString());
+      return null;
+    }
+  }
+}
@@ -0,0 +1,95 @@
+package com.chromascape.utils.core.screen.kernel;
+
+import java.awt.Rectangle;
+import java.nio.ByteBuffer;
+import org.bytedeco.javacpp.BytePointer;
+import org.bytedeco.opencv.global.opencv_core;
+import org.bytedeco.opencv.opencv_core.Mat;
+import org.bytedeco.opencv.opencv_core.Rect;
+import org.bytedeco.opencv.opencv_core.Scalar;
+
+/**
+ * OpenCV implementations of the {@link ImageKernels} operations.
+ *
+ * <p>Direct buffers are wrapped as {@link Mat}s without copying. Heap buffers are copied into
+ * native memory before the call, and results copied back after it.
+ */
+final class OpenCvKernels {
+
+  private OpenCvKernels() {}
+
+  static void inRange(ByteBuffer src, ByteBuffer dst, int pixels, int[] lower, int[] upper) {
+    try (Mat in = wrap(src, pixels, 1, 3);
+        Mat out = wrap(dst, pixels, 1, 1);
+        Mat low = new Mat(new Scalar(lower[0], lower[1], lower[2], 0));
+        Mat high = new Mat(new Scalar(upper[0], upper[1], upper[2], 0))) {
+      opencv_core.inRange(in, low, high, out);
+      copyBack(out, dst);
+    }
+  }
+
+  static void bitwiseAnd(ByteBuffer a, ByteBuffer b, ByteBuffer dst, int length) {
+    try (Mat ma = wrap(a, length, 1, 1);
+        Mat mb = wrap(b, length, 1, 1);
+        Mat out = wrap(dst, length, 1, 1)) {
+      opencv_core.bitwise_and(ma, mb, out);
+      copyBack(out, dst);
+    }
+  }
+
+  static void absDiff(ByteBuffer a, ByteBuffer b, ByteBuffer dst, int length) {
+    try (Mat ma = wrap(a, length, 1, 1);
+        Mat mb = wrap(b, length, 1, 1);
+        Mat out = wrap(dst, length, 1, 1)) {
+      opencv_core.absdiff(ma, mb, out);
+      copyBack(out, dst);
+    }
+  }
+
+  static void fill(
+      ByteBuffer image, int width, int height, int channels, Rectangle region, byte value) {
+    int v = value & 0xFF;
+    try (Mat mat = wrap(image, height, width, channels);
+        Rect rect = new Rect(region.x, region.y, region.width, region.height);
+        Mat roi = new Mat(mat, rect);
+        Scalar scalar = new Scalar(v, v, v, v)) {
+      roi.put(scalar);
+      copyBack(mat, image);
+    }
+  }
+
+  /**
+   * Views a buffer as an image {@link Mat}, sharing the memory of direct buffers and copying heap
+   * buffers.
+   *
+   * @param buffer The pixel data, starting at index 0.
+   * @param rows Image height.
+   * @param cols Image width.
+   * @param channels Number of 8-bit channels.
+   * @return The Mat, owned by the caller.
+   */
+  private static Mat wrap(ByteBuffer buffer, int rows, int cols, int channels) {
+    int type = opencv_core.CV_8UC(channels);
+    if (buffer.isDirect()) {
+      return new Mat(rows, cols, type, new BytePointer(buffer.duplicate().position(0)));
+    }
+    Mat mat = new Mat(rows, cols, type);
+    ByteBuffer data = mat.createBuffer();
+    data.put(0, buffer, 0, data.capacity());
+    return mat;
+  }
+
+  /**
+   * Copies a result into a heap buffer. Direct buffers already hold the result.
+   *
+   * @param mat The Mat written by OpenCV.
+   * @param buffer The caller's buffer.
+   */
+  private static void copyBack(Mat mat, ByteBuffer buffer) {
+    if (buffer.isDirect()) {
+      return;
+    }
+    ByteBuffer data = mat.createBuffer();
+    buffer.put(0, data, 0, data.capacity());
+  }
+}
@@ -0,0 +1,57 @@
+package com.chromascape.utils.core.screen.kernel;
+
+import com.chromascape.utils.core.screen.capture.PixelHash;
+import java.awt.Rectangle;
+import java.nio.ByteBuffer;
+
+/** Plain Java implementations of the {@link ImageKernels} operations. */
+final class ScalarKernels {
+
+  private ScalarKernels() {}
+
+  static void inRange(
+      ByteBuffer src, ByteBuffer dst, int fromPixel, int toPixel, int[] lower, int[] upper) {
+    for (int p = fromPixel; p < toPixel; p++) {
+      int i = p * 3;
+      int c0 = src.get(i) & 0xFF;
+      int c1 = src.get(i + 1) & 0xFF;
+      int c2 = src.get(i + 2) & 0xFF;
+      boolean in =
+          c0 >= lower[0]
+              && c0 <= upper[0]
+              && c1 >= lower[1]
+              && c1 <= upper[1]
+              && c2 >= lower[2]
+              && c2 <= upper[2];
+      dst.put(p, in ? (byte) 255 : 0);
+    }
+  }
+
+  static void bitwiseAnd(ByteBuffer a, ByteBuffer b, ByteBuffer dst, int from, int to) {
+    for (int i = from; i < to; i++) {
+      dst.put(i, (byte) (a.get(i) & b.get(i)));
+    }
+  }
+
+  static void absDiff(ByteBuffer a, ByteBuffer b, ByteBuffer dst, int from, int to) {
+    for (int i = from; i < to; i++) {
+      dst.put(i, (byte) Math.abs((a.get(i) & 0xFF) - (b.get(i) & 0xFF)));
+    }
+  }
+
+  static void fill(ByteBuffer image, int from, int to, byte value) {
+    for (int i = from; i < to; i++) {
+      image.put(i, value);
+    }
+  }
+
+  static long hash(ByteBuffer image, int width, int channels, Rectangle region) {
+    long h = 0;
+    int rowBytes = region.width * channels;
+    for (int y = region.y; y < region.y + region.height; y++) {
+      int start = (y * width + region.x) * channels;
+      h = PixelHash.update(h, image, start, start + rowBytes);
+    }
+    return h;
+  }
+}
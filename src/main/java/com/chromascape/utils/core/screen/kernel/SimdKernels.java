@@ -0,0 +1,67 @@
+package com.chromascape.utils.core.screen.kernel;
+
+import java.awt.Rectangle;
+import java.nio.ByteBuffer;
+
+/**
+ * The {@link KernelBackend#VECTOR} implementations of the {@link ImageKernels} operations.
+ *
+ * <p>The implementation, {@code VectorKernels}, is built from the {@code vector} source set, the
+ * only code compiled against the incubating {@code jdk.incubator.vector} module. It is loaded by
+ * name when the module is present, so the rest of the application neither compiles nor runs
+ * against the module. Arguments have already been checked by {@link ImageKernels}.
+ */
+interface SimdKernels {
+
+  /**
+   * See {@link ImageKernels#inRange(ByteBuffer, ByteBuffer, int, int[], int[], KernelBackend)}.
+   *
+   * @param src The image, 3 bytes per pixel.
+   * @param dst Receives one byte per pixel, 255 inside the range and 0 outside it.
+   * @param pixels Number of pixels.
+   * @param lower Lower bound of each channel, 0-255.
+   * @param upper Upper bound of each channel, 0-255.
+   */
+  void inRange(ByteBuffer src, ByteBuffer dst, int pixels, int[] lower, int[] upper);
+
+  /**
+   * See {@link ImageKernels#bitwiseAnd(ByteBuffer, ByteBuffer, ByteBuffer, int, KernelBackend)}.
+   *
+   * @param a The first input.
+   * @param b The second input.
+   * @param dst Receives {@code a & b}.
+   * @param length Number of bytes.
+   */
+  void bitwiseAnd(ByteBuffer a, ByteBuffer b, ByteBuffer dst, int length);
+
+  /**
+   * See {@link ImageKernels#absDiff(ByteBuffer, ByteBuffer, ByteBuffer, int, KernelBackend)}.
+   *
+   * @param a The first input.
+   * @param b The second input.
+   * @param dst Receives {@code |a - b|} of every unsigned byte.
+   * @param length Number of bytes.
+   */
+  void absDiff(ByteBuffer a, ByteBuffer b, ByteBuffer dst, int length);
+
+  /**
+   * Sets a run of bytes to one value.
+   *
+   * @param image The buffer.
+   * @param from First index to write.
+   * @param to Index after the last one to write.
+   * @param value The byte to write.
+   */
+  void fill(ByteBuffer image, int from, int to, byte value);
+
+  /**
+   * See {@link ImageKernels#hash(ByteBuffer, int, int, Rectangle, KernelBackend)}.
+   *
+   * @param image The image.
+   * @param width Image width in pixels.
+   * @param channels Bytes per pixel.
+   * @param region The rectangle to hash, inside the image.
+   * @return The hash.
+   */
+  long hash(ByteBuffer image, int width, int channels, Rectangle region);
+}
@@ -0,0 +1,65 @@
+package com.chromascape.utils.core.screen.topology;
+
+import java.awt.Point;
+import java.awt.Rectangle;
+
+/**
+ * One connected region of a binary mask, as found by {@link BlobSet}.
+ *
+ * <p>Unlike {@link ChromaObj}, a blob holds no native memory: it is a handful of numbers taken from
+ * the statistics of a single connected-components pass. Its pixels stay addressable through the
+ * {@link BlobSet} it came from, which can also build its contour when one is really needed.
+ *
+ * @param label The blob's label in the {@link BlobSet}, starting at 1.
+ * @param bounds The bounding box in screen co-ordinates.
+ * @param area The number of pixels in the blob.
+ * @param centroidX The x co-ordinate of the blob's centre of mass, in screen co-ordinates.
+ * @param centroidY The y co-ordinate of the blob's centre of mass, in screen co-ordinates.
+ */
+public record Blob(int label, Rectangle bounds, int area, double centroidX, double centroidY) {
+
+  /**
+   * Creates a blob with a defensive copy of its bounds.
+   *
+   * @param label The blob's label.
+   * @param bounds The bounding box in screen co-ordinates.
+   * @param area The number of pixels.
+   * @param centroidX The centroid x co-ordinate in screen co-ordinates.
+   * @param centroidY The centroid y co-ordinate in screen co-ordinates.
+   */
+  public Blob {
+    bounds = new Rectangle(bounds);
+  }
+
+  /**
+   * The bounding box in screen co-ordinates.
+   *
+   * @return A copy of the bounds.
+   */
+  @Override
+  public Rectangle bounds() {
+    return new Rectangle(bounds);
+  }
+
+  /**
+   * The centre of mass rounded to the nearest pixel. For concave blobs this may lie outside the
+   * blob.
+   *
+   * @return The centroid in screen co-ordinates.
+   */
+  public Point centroid() {
+    return new Point((int) Math.round(centroidX), (int) Math.round(centroidY));
+  }
+
+  /**
+   * Squared distance from the centroid to a point, for ranking blobs by proximity.
+   *
+   * @param screenPoint The point in screen co-ordinates.
+   * @return The squared Euclidean distance in pixels.
+   */
+  public double distanceSq(Point screenPoint) {
+    double dx = centroidX - screenPoint.x;
+    double dy = centroidY - screenPoint.y;
+    return dx * dx + dy * dy;
+  }
+}
@@ -0,0 +1,265 @@
+package com.chromascape.utils.core.screen.topology;
+
+import static org.bytedeco.opencv.global.opencv_core.CV_32S;
+import static org.bytedeco.opencv.global.opencv_core.CV_8UC1;
+import static org.bytedeco.opencv.global.opencv_imgproc.CHAIN_APPROX_SIMPLE;
+import static org.bytedeco.opencv.global.opencv_imgproc.CV_RETR_EXTERNAL;
+import static org.bytedeco.opencv.global.opencv_imgproc.connectedComponentsWithStats;
+import static org.bytedeco.opencv.global.opencv_imgproc.findContours;
+
+import com.chromascape.utils.core.screen.window.WindowGeometry;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import org.bytedeco.opencv.opencv_core.Mat;
+import org.bytedeco.opencv.opencv_core.MatVector;
+
+/**
+ * The connected regions of a binary mask, found with one connected-components-with-stats pass.
+ *
+ * <p>{@link ColourContours#getChromaObjsInColour} traces a polygon for every region and keeps one
+ * native contour {@link Mat} per object alive, although most callers only need where an object is
+ * and how big it is. A blob set runs {@code connectedComponentsWithStats} once, copies the label
+ * image and per-region statistics into Java arrays and releases every native buffer before
+ * returning, so the {@link Blob}s it hands out are plain values. Membership tests read the label
+ * array directly, and a contour is only traced when {@link #toChromaObj(Blob)} asks for one.
+ *
+ * <p>Regions use 8-connectivity, matching the outer contours {@code findContours} would trace.
+ */
+public final class BlobSet {
+
+  private final WindowGeometry geometry;
+  private final Point origin;
+  private final int width;
+  private final int height;
+  private final int[] labels;
+  private final List<Blob> blobs;
+
+  /**
+   * Creates a blob set. Takes ownership of {@code labels}.
+   *
+   * @param geometry Screen placement of the image the mask was cut from.
+   * @param origin Screen co-ordinates of the mask's top left pixel.
+   * @param width Mask width.
+   * @param height Mask height.
+   * @param labels The label of every pixel, row-major, 0 for background.
+   * @param blobs The blobs kept after filtering.
+   */
+  private BlobSet(
+      WindowGeometry geometry,
+      Point origin,
+      int width,
+      int height,
+      int[] labels,
+      List<Blob> blobs) {
+    this.geometry = geometry;
+    this.origin = new Point(origin);
+    this.width = width;
+    this.height = height;
+    this.labels = labels;
+    this.blobs = List.copyOf(blobs);
+  }
+
+  /**
+   * Finds the connected regions of a binary mask.
+   *
+   * @param binaryMask A CV_8UC1 mask; any non-zero pixel is foreground. Left untouched.
+   * @param minArea Smallest number of pixels a region needs to be kept.
+   * @param geometry The window snapshot used to convert positions to screen co-ordinates.
+   * @return The regions of at least {@code minArea} pixels, in label order.
+   */
+  public static BlobSet of(Mat binaryMask, int minArea, WindowGeometry geometry) {
+    return of(binaryMask, minArea, geometry, new Point());
+  }
+
+  /**
+   * Finds the connected regions of a binary mask covering part of an image, such as a region of
+   * interest cut out of the game view.
+   *
+   * @param binaryMask A CV_8UC1 mask; any non-zero pixel is foreground. Left untouched.
+   * @param minArea Smallest number of pixels a region needs to be kept.
+   * @param geometry The screen placement of the whole image, such as a frame's {@link
+   *     com.chromascape.utils.core.screen.capture.Frame#geometry()}.
+   * @param offset Position of the mask's top left pixel within the image.
+   * @return The regions of at least {@code minArea} pixels, in label order.
+   */
+  public static BlobSet of(Mat binaryMask, int minArea, WindowGeometry geometry, Point offset) {
+    Point origin = new Point(geometry.x() + offset.x, geometry.y() + offset.y);
+    int width = binaryMask.cols();
+    int height = binaryMask.rows();
+    int[] labels = new int[width * height];
+    List<Blob> blobs = new ArrayList<>();
+    try (Mat labelMat = new Mat();
+        Mat stats = new Mat();
+        Mat centroids = new Mat()) {
+      int count = connectedComponentsWithStats(binaryMask, labelMat, stats, centroids, 8, CV_32S);
+      ((IntBuffer) labelMat.createBuffer()).get(labels);
+      IntBuffer stat = stats.createBuffer();
+      DoubleBuffer centre = centroids.createBuffer();
+      int statColumns = stats.cols();
+      for (int label = 1; label < count; label++) {
+        int row = label * statColumns;
+        int area = stat.get(row + 4);
+        if (area < minArea) {
+          continue;
+        }
+        Rectangle bounds =
+            new Rectangle(
+                origin.x + stat.get(row),
+                origin.y + stat.get(row + 1),
+                stat.get(row + 2),
+                stat.get(row + 3));
+        blobs.add(
+            new Blob(
+                label,
+                bounds,
+                area,
+                centre.get(label * 2) + origin.x,
+                centre.get(label * 2 + 1) + origin.y));
+      }
+    }
+    return new BlobSet(geometry, origin, width, height, labels, blobs);
+  }
+
+  /**
+   * A blob set without any blobs, for searches of regions that lie outside the frame.
+   *
+   * @return The empty set.
+   */
+  static BlobSet empty() {
+    return new BlobSet(
+        new WindowGeometry(new Rectangle(), 0, 0), new Point(), 0, 0, new int[0], List.of());
+  }
+
+  /**
+   * The blobs, in label order (top to bottom by first pixel).
+   *
+   * @return The unmodifiable list of blobs.
+   */
+  public List<Blob> blobs() {
+    return blobs;
+  }
+
+  /**
+   * Whether no blob was found.
+   *
+   * @return true if the set is empty.
+   */
+  public boolean isEmpty() {
+    return blobs.isEmpty();
+  }
+
+  /**
+   * The blobs ordered by area.
+   *
+   * @return The blobs, largest first.
+   */
+  public List<Blob> sortedByArea() {
+    List<Blob> sorted = new ArrayList<>(blobs);
+    sorted.sort(Comparator.comparingInt(Blob::area).reversed());
+    return sorted;
+  }
+
+  /**
+   * The blobs ordered by the distance of their centroid from a point, for example the player.
+   *
+   * @param screenPoint The point in screen co-ordinates.
+   * @return The blobs, nearest first.
+   */
+  public List<Blob> sortedByDistance(Point screenPoint) {
+    List<Blob> sorted = new ArrayList<>(blobs);
+    sorted.sort(Comparator.comparingDouble(blob -> blob.distanceSq(screenPoint)));
+    return sorted;
+  }
+
+  /**
+   * Whether a screen-space point lies on a pixel of a blob. Replaces {@code pointPolygonTest} for
+   * blobs, with a single array read.
+   *
+   * @param blob A blob of this set.
+   * @param screenPoint The point in screen co-ordinates.
+   * @return true if the pixel under the point belongs to the blob.
+   */
+  public boolean contains(Blob blob, Point screenPoint) {
+    int x = screenPoint.x - origin.x;
+    int y = screenPoint.y - origin.y;
+    if (x < 0 || y < 0 || x >= width || y >= height) {
+      return false;
+    }
+    return labels[y * width + x] == blob.label();
+  }
+
+  /**
+   * Binary mask of a single blob, cropped to its bounding box.
+   *
+   * @param blob A blob of this set.
+   * @return A new CV_8UC1 Mat the size of the blob's bounds, 255 on the blob and 0 elsewhere, owned
+   *     by the caller.
+   */
+  public Mat mask(Blob blob) {
+    Rectangle bounds = blob.bounds();
+    Mat mat = new Mat(bounds.height, bounds.width, CV_8UC1);
+    ((ByteBuffer) mat.createBuffer()).put(maskPixels(blob));
+    return mat;
+  }
+
+  /**
+   * Pixels of a single blob, cropped to its bounding box, without touching native memory.
+   *
+   * @param blob A blob of this set.
+   * @return One byte per pixel of the blob's bounds, row-major, 255 on the blob and 0 elsewhere.
+   */
+  public byte[] maskPixels(Blob blob) {
+    Rectangle local = toLocal(blob.bounds());
+    byte[] pixels = new byte[local.width * local.height];
+    for (int y = 0; y < local.height; y++) {
+      int row = (local.y + y) * width + local.x;
+      for (int x = 0; x < local.width; x++) {
+        if (labels[row + x] == blob.label()) {
+          pixels[y * local.width + x] = (byte) 255;
+        }
+      }
+    }
+    return pixels;
+  }
+
+  /**
+   * Traces the outer contour of a blob, for callers that need a {@link ChromaObj}.
+   *
+   * @param blob A blob of this set.
+   * @return A ChromaObj whose contour is relative to the image the set was built from, as with
+   *     {@link ColourContours#createChromaObjects}.
+   */
+  public ChromaObj toChromaObj(Blob blob) {
+    Rectangle bounds = blob.bounds();
+    Point canvas = geometry.toClientCoords(bounds.getLocation());
+    try (Mat mask = mask(blob);
+        MatVector contours = new MatVector();
+        Mat hierarchy = new Mat();
+        org.bytedeco.opencv.opencv_core.Point offset =
+            new org.bytedeco.opencv.opencv_core.Point(canvas.x, canvas.y)) {
+      findContours(mask, contours, hierarchy, CV_RETR_EXTERNAL, CHAIN_APPROX_SIMPLE, offset);
+      Mat contour = contours.size() > 0 ? contours.get(0).clone() : new Mat();
+      return new ChromaObj(blob.label(), contour, blob.bounds());
+    }
+  }
+
+  /**
+   * Converts screen-space bounds back to mask co-ordinates.
+   *
+   * @param screenBounds Bounds in screen co-ordinates.
+   * @return The bounds relative to the mask.
+   */
+  private Rectangle toLocal(Rectangle screenBounds) {
+    return new Rectangle(
+        screenBounds.x - origin.x,
+        screenBounds.y - origin.y,
+        screenBounds.width,
+        screenBounds.height);
+  }
+}
@@ -0,0 +1,136 @@
+package com.chromascape.utils.core.screen.topology;
+
+import static org.bytedeco.opencv.global.opencv_imgproc.INTER_AREA;
+import static org.bytedeco.opencv.global.opencv_imgproc.resize;
+
+import org.bytedeco.opencv.opencv_core.Mat;
+import org.bytedeco.opencv.opencv_core.Size;
+
+/**
+ * A decoded template image held by {@link TemplateCache}, ready to be passed to {@code
+ * matchTemplate}.
+ *
+ * <p>The image is always 4-channel BGRA and the mask is its alpha channel, extracted once when the
+ * template is decoded. Both {@link Mat}s are shared between every caller and thread, so they must
+ * be treated as read-only and must never be released by the caller; the cache frees them once they
+ * are evicted and no longer referenced.
+ */
+public final class CachedTemplate {
+
+  private final String resourcePath;
+  private final Mat image;
+  private final Mat mask;
+  private final CachedTemplate[] levels = new CachedTemplate[3];
+  private long nativeBytes;
+
+  /**
+   * Creates a cache entry, taking ownership of both {@link Mat}s.
+   *
+   * @param resourcePath The classpath resource the template was decoded from.
+   * @param image The BGRA template image.
+   * @param mask The single-channel alpha mask of {@code image}.
+   */
+  CachedTemplate(String resourcePath, Mat image, Mat mask) {
+    this.resourcePath = resourcePath;
+    this.image = image;
+    this.mask = mask;
+    this.nativeBytes = image.total() * image.elemSize() + mask.total() * mask.elemSize();
+  }
+
+  /**
+   * The classpath resource this template was decoded from.
+   *
+   * @return The resource path.
+   */
+  public String resourcePath() {
+    return resourcePath;
+  }
+
+  /**
+   * The template as a 4-channel BGRA image. Must not be modified or released.
+   *
+   * @return The shared template {@link Mat}.
+   */
+  public Mat image() {
+    return image;
+  }
+
+  /**
+   * The alpha channel of the template, used as the {@code matchTemplate} mask so transparent pixels
+   * are ignored. Must not be modified or released.
+   *
+   * @return The shared single-channel mask {@link Mat}.
+   */
+  public Mat mask() {
+    return mask;
+  }
+
+  /**
+   * Template width.
+   *
+   * @return The width in pixels.
+   */
+  public int width() {
+    return image.cols();
+  }
+
+  /**
+   * Template height.
+   *
+   * @return The height in pixels.
+   */
+  public int height() {
+    return image.rows();
+  }
+
+  /**
+   * The template halved {@code level} times in each dimension, for coarse pyramid searches. Levels
+   * are computed on first use and kept for the lifetime of this entry; each new level is reported
+   * to {@link TemplateCache} so it counts against the cache budget.
+   *
+   * @param level Number of halvings, 1 or 2.
+   * @return The downscaled template, with a downscaled (soft) alpha mask.
+   */
+  CachedTemplate downscaled(int level) {
+    if (level <= 0) {
+      return this;
+    }
+    CachedTemplate created;
+    synchronized (this) {
+      if (levels[level] != null) {
+        return levels[level];
+      }
+      int scale = 1 << level;
+      Size size = new Size(width() / scale, height() / scale);
+      Mat smallImage = new Mat();
+      Mat smallMask = new Mat();
+      resize(image, smallImage, size, 0, 0, INTER_AREA);
+      resize(mask, smallMask, size, 0, 0, INTER_AREA);
+      created = new CachedTemplate(resourcePath, smallImage, smallMask);
+      levels[level] = created;
+    }
+    // Outside this template's lock, since the cache lock is always taken first
+    TemplateCache.levelAdded(this, created.nativeBytes());
+    return created;
+  }
+
+  /**
+   * Native memory held by this template, counted against the cache budget.
+   *
+   * @return The size of the image and mask data in bytes, including every downscaled level
+   *     computed so far.
+   */
+  public synchronized long nativeBytes() {
+    return nativeBytes;
+  }
+
+  /**
+   * Adds the size of a new downscaled level to {@link #nativeBytes()}. Called by {@link
+   * TemplateCache} under its lock, so the cache total and this template's share change together.
+   *
+   * @param levelBytes The size of the level in bytes.
+   */
+  synchronized void addNativeBytes(long levelBytes) {
+    nativeBytes += levelBytes;
+  }
+}
@@ -1,7 +1,5 @@
 package com.chromascape.utils.core.screen.topology;
 
-import static org.bytedeco.opencv.global.opencv_core.CV_8UC1;
-import static org.bytedeco.opencv.global.opencv_core.inRange;
 import static org.bytedeco.opencv.global.opencv_imgproc.CHAIN_APPROX_SIMPLE;
 import static org.bytedeco.opencv.global.opencv_imgproc.COLOR_BGR2HSV;
 import static org.bytedeco.opencv.global.opencv_imgproc.CV_RETR_LIST;
@@ -11,13 +9,19 @@ import static org.bytedeco.opencv.global.opencv_imgproc.findContours;
 import static org.bytedeco.opencv.global.opencv_imgproc.pointPolygonTest;
 
 import com.chromascape.utils.core.screen.DisplayImage;
+import com.chromascape.utils.core.screen.capture.Frame;
 import com.chromascape.utils.core.screen.colour.ColourObj;
+import com.chromascape.utils.core.screen.kernel.ImageKernels;
+import com.chromascape.utils.core.screen.kernel.KernelBackend;
 import com.chromascape.utils.core.screen.window.ScreenManager;
+import com.chromascape.utils.core.screen.window.WindowGeometry;
 import java.awt.Point;
 import java.awt.Rectangle;
 import java.awt.image.BufferedImage;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import org.bytedeco.javacv.Java2DFrameUtils;
 import org.bytedeco.opencv.opencv_core.Mat;
 import org.bytedeco.opencv.opencv_core.MatVector;
@@ -33,6 +37,12 @@ public class ColourContours {
 
   public static boolean debug = false;
 
+  /** Half the side of the first region of interest searched by {@link #getNearestBlobsInColour}. */
+  private static final int ROI_START_RADIUS = 48;
+
+  /** Largest region, in pixels, thresholded by the Java kernels rather than OpenCV. */
+  private static final int KERNEL_MAX_PIXELS = 128 * 128;
+
   /**
    * Finds and returns a list of ChromaObj instances representing contours in the given image that
    * match the specified colour range.
@@ -42,10 +52,186 @@ public class ColourContours {
    * @return a list of ChromaObj objects representing detected contours of the specified colour
    */
   public static List<ChromaObj> getChromaObjsInColour(BufferedImage image, ColourObj colourObj) {
-    Mat mask = extractColours(image, colourObj);
+    try (Frame frame = Frame.of(image)) {
+      return getChromaObjsInColour(frame, colourObj);
+    }
+  }
+
+  /**
+   * Finds and returns a list of ChromaObj instances representing contours in the given frame that
+   * match the specified colour range. The frame's HSV representation is reused across calls, so
+   * looking for several colours in one frame converts it only once.
+   *
+   * @param frame the frame to process
+   * @param colourObj the ColourObj specifying the HSV colour range to extract
+   * @return a list of ChromaObj objects representing detected contours of the specified colour
+   */
+  public static List<ChromaObj> getChromaObjsInColour(Frame frame, ColourObj colourObj) {
+    Mat mask = extractColours(frame, colourObj);
     MatVector contours = extractContours(mask);
     mask.release();
-    return createChromaObjects(contours);
+    return createChromaObjects(contours, frame.geometry());
+  }
+
+  /**
+   * Finds the regions of a colour as {@link Blob}s, using one connected-components pass instead of
+   * tracing a contour per object. Prefer this over {@link #getChromaObjsInColour(Frame, ColourObj)}
+   * when only positions and sizes are needed.
+   *
+   * @param frame the frame to process
+   * @param colourObj the ColourObj specifying the HSV colour range to extract
+   * @param minArea the smallest number of pixels a region needs to be reported
+   * @return the regions of the colour, in screen co-ordinates
+   */
+  public static BlobSet getBlobsInColour(Frame frame, ColourObj colourObj, int minArea) {
+    Mat mask = extractColours(frame, colourObj);
+    BlobSet blobs = BlobSet.of(mask, minArea, frame.geometry());
+    mask.release();
+    return blobs;
+  }
+
+  /**
+   * Finds the regions of a colour inside one screen-space region of a frame, converting and
+   * thresholding only that region.
+   *
+   * @param frame the frame to process, covering the whole game view
+   * @param colourObj the ColourObj specifying the HSV colour range to extract
+   * @param minArea the smallest number of pixels a region needs to be reported
+   * @param screenRegion the region to search in screen co-ordinates, clipped to the frame
+   * @return the regions of the colour inside {@code screenRegion}, in screen co-ordinates
+   */
+  public static BlobSet getBlobsInColour(
+      Frame frame, ColourObj colourObj, int minArea, Rectangle screenRegion) {
+    WindowGeometry geometry = frame.geometry();
+    Rectangle region =
+        new Rectangle(
+                screenRegion.x - geometry.x(),
+                screenRegion.y - geometry.y(),
+                screenRegion.width,
+                screenRegion.height)
+            .intersection(new Rectangle(0, 0, frame.width(), frame.height()));
+    if (region.isEmpty()) {
+      return BlobSet.empty();
+    }
+    Mat hsv = frame.hsv(region);
+    Mat mask = threshold(hsv, colourObj);
+    hsv.release();
+    BlobSet blobs = BlobSet.of(mask, minArea, geometry, region.getLocation());
+    mask.release();
+    return blobs;
+  }
+
+  /**
+   * Finds the regions of a colour in an image as {@link Blob}s, see {@link #getBlobsInColour(Frame,
+   * ColourObj, int)}.
+   *
+   * @param image the BufferedImage to process
+   * @param colourObj the ColourObj specifying the HSV colour range to extract
+   * @param minArea the smallest number of pixels a region needs to be reported
+   * @return the regions of the colour, in screen co-ordinates
+   */
+  public static BlobSet getBlobsInColour(BufferedImage image, ColourObj colourObj, int minArea) {
+    try (Frame frame = Frame.of(image)) {
+      return getBlobsInColour(frame, colourObj, minArea);
+    }
+  }
+
+  /**
+   * Finds the objects of a colour nearest to a focal point, such as the player or the centre of the
+   * game view, without segmenting the whole frame.
+   *
+   * <p>A square region of interest centred on the focal point is thresholded first, and the square
+   * is doubled in size and searched again until it holds a complete object whose centroid lies
+   * within the square's half-side of the focal point, or until it covers the frame. Objects cut by
+   * the edge of the square are ignored until a larger square shows them whole, and the search also
+   * goes on while the visible part of a cut object is nearer than every complete one. Since any
+   * object nearer than the one found then has its centroid inside the square, the result is nearest
+   * first even when the first object turns up in a corner. Squares that miss the frame, because the
+   * focal point lies outside it, are skipped without converting any pixels. Since the squares grow
+   * geometrically, the pixels converted in total stay within a third more than the final square,
+   * which for an object near the focal point is a small fraction of the frame.
+   *
+   * @param frame the frame to process, covering the whole game view
+   * @param colourObj the ColourObj specifying the HSV colour range to extract
+   * @param focus the focal point in screen co-ordinates
+   * @param minArea the smallest number of pixels an object needs to be reported
+   * @return the complete objects in the final square, nearest centroid first
+   */
+  public static List<Blob> getNearestBlobsInColour(
+      Frame frame, ColourObj colourObj, Point focus, int minArea) {
+    WindowGeometry geometry = frame.geometry();
+    Point local = geometry.toClientCoords(focus);
+    Rectangle whole = new Rectangle(0, 0, frame.width(), frame.height());
+    Rectangle screenWhole = new Rectangle(geometry.x(), geometry.y(), whole.width, whole.height);
+    for (int radius = ROI_START_RADIUS; ; radius *= 2) {
+      Rectangle roi =
+          new Rectangle(local.x - radius, local.y - radius, radius * 2, radius * 2)
+              .intersection(whole);
+      boolean coversFrame = roi.equals(whole);
+      if (roi.isEmpty() && !coversFrame) {
+        continue;
+      }
+      Rectangle screenRoi = new Rectangle(roi);
+      screenRoi.translate(geometry.x(), geometry.y());
+      BlobSet blobs = getBlobsInColour(frame, colourObj, minArea, screenRoi);
+
+      List<Blob> complete = new ArrayList<>();
+      double nearestCut = Double.MAX_VALUE;
+      for (Blob blob : blobs.sortedByDistance(focus)) {
+        if (coversFrame || !touchesInnerEdge(blob.bounds(), screenRoi, screenWhole)) {
+          complete.add(blob);
+        } else {
+          nearestCut = Math.min(nearestCut, blob.distanceSq(focus));
+        }
+      }
+      if (coversFrame) {
+        return complete;
+      }
+      if (!complete.isEmpty()) {
+        double nearest = complete.get(0).distanceSq(focus);
+        if (nearest <= (double) radius * radius && nearest <= nearestCut) {
+          return complete;
+        }
+      }
+    }
+  }
+
+  /**
+   * Whether a blob reaches the edge of a region of interest anywhere the region does not coincide
+   * with the edge of the frame, meaning the blob may continue outside the region.
+   *
+   * @param blob the blob's bounds in screen co-ordinates
+   * @param roi the region of interest in screen co-ordinates
+   * @param frame the frame bounds in screen co-ordinates
+   * @return true if the blob may be cut off by the region
+   */
+  static boolean touchesInnerEdge(Rectangle blob, Rectangle roi, Rectangle frame) {
+    return (blob.x == roi.x && roi.x > frame.x)
+        || (blob.y == roi.y && roi.y > frame.y)
+        || (blob.x + blob.width == roi.x + roi.width && roi.x + roi.width < frame.x + frame.width)
+        || (blob.y + blob.height == roi.y + roi.height
+            && roi.y + roi.height < frame.y + frame.height);
+  }
+
+  /**
+   * Finds the ChromaObj instances of several colours at once. The frame is segmented for every
+   * colour of {@code segmenter} in one pass instead of one {@code inRange} per colour.
+   *
+   * @param frame the frame to process
+   * @param segmenter the compiled set of colours to look for
+   * @return colour names, in the segmenter's order, mapped to the contours found in that colour
+   */
+  public static Map<String, List<ChromaObj>> getChromaObjsInColours(
+      Frame frame, ColourSegmenter segmenter) {
+    WindowGeometry geometry = frame.geometry();
+    Map<String, List<ChromaObj>> result = new LinkedHashMap<>();
+    for (Map.Entry<String, Mat> entry : segmenter.segment(frame).masks().entrySet()) {
+      Mat mask = entry.getValue();
+      MatVector contours = extractContours(mask);
+      mask.release();
+      result.put(entry.getKey(), createChromaObjects(contours, geometry));
+    }
+    return result;
   }
 
   /**
@@ -57,15 +243,57 @@ public class ColourContours {
    * @return a Mat binary mask with pixels in range set to 255, others 0
    */
   public static Mat extractColours(BufferedImage image, ColourObj colourObj) {
-    Mat hsvImage = Java2DFrameUtils.toMat(image);
-    cvtColor(hsvImage, hsvImage, COLOR_BGR2HSV);
-    Mat result = new Mat(hsvImage.size(), CV_8UC1);
-    Mat hsvMin = new Mat(colourObj.hsvMin());
-    Mat hsvMax = new Mat(colourObj.hsvMax());
-    inRange(hsvImage, hsvMin, hsvMax, result);
+    try (Frame frame = Frame.of(image)) {
+      return extractColours(frame, colourObj);
+    }
+  }
+
+  /**
+   * Extracts a binary mask of a frame where pixels within the HSV range specified by the colourObj
+   * are white (255), and others are black (0). The frame is converted to HSV at most once, however
+   * many colours are extracted from it.
+   *
+   * @param frame the frame to threshold
+   * @param colourObj the ColourObj specifying the HSV minimum and maximum bounds
+   * @return a Mat binary mask with pixels in range set to 255, others 0
+   */
+  public static Mat extractColours(Frame frame, ColourObj colourObj) {
+    return threshold(frame.hsv(), colourObj);
+  }
+
+  /**
+   * Converts a BGR {@link Mat} to HSV colour space and extracts a binary mask where pixels within
+   * the HSV range specified by the colourObj are white (255), and others are black (0).
+   *
+   * <p>The input {@link Mat} is left untouched, so a reusable capture buffer can be passed in
+   * directly.
+   *
+   * @param bgrImage the 3-channel BGR Mat to convert and threshold
+   * @param colourObj the ColourObj specifying the HSV minimum and maximum bounds
+   * @return a Mat binary mask with pixels in range set to 255, others 0
+   */
+  public static Mat extractColours(Mat bgrImage, ColourObj colourObj) {
+    Mat hsvImage = new Mat();
+    cvtColor(bgrImage, hsvImage, COLOR_BGR2HSV);
+    Mat result = threshold(hsvImage, colourObj);
     hsvImage.release();
-    hsvMin.release();
-    hsvMax.release();
+    return result;
+  }
+
+  /**
+   * Thresholds an HSV image by the range of a colour.
+   *
+   * @param hsvImage the 3-channel HSV Mat, left untouched
+   * @param colourObj the ColourObj specifying the HSV minimum and maximum bounds
+   * @return a Mat binary mask with pixels in range set to 255, others 0
+   */
+  private static Mat threshold(Mat hsvImage, ColourObj colourObj) {
+    // Small regions skip the JNI round trip; whole frames are faster in OpenCV
+    KernelBackend backend =
+        hsvImage.total() <= KERNEL_MAX_PIXELS
+            ? ImageKernels.defaultBackend()
+            : KernelBackend.OPENCV;
+    Mat result = ImageKernels.inRange(hsvImage, colourObj.hsvMin(), colourObj.hsvMax(), backend);
 
     // if debugging, display the mask
     if (debug) {
@@ -91,31 +319,62 @@ public class ColourContours {
    * Creates a list of ChromaObj objects from the given contours. Each ChromaObj contains the
    * contour index, the contour Mat itself, and its bounding rectangle as a Java AWT Rectangle.
    *
+   * <p>All bounding boxes are offset using the current {@link ScreenManager#geometry()}, so the
+   * contours must come from a capture of the whole game view taken at the current window
+   * placement. Prefer {@link #createChromaObjects(MatVector, WindowGeometry)} with the geometry of
+   * the frame the contours were found in.
+   *
    * @param contours MatVector containing contours detected in the image
    * @return list of ChromaObj objects representing each contour with bounding box
    */
   public static List<ChromaObj> createChromaObjects(MatVector contours) {
+    return createChromaObjects(contours, ScreenManager.geometry());
+  }
+
+  /**
+   * Creates a list of ChromaObj objects from contours found in an image placed on screen by {@code
+   * geometry}, such as a {@link Frame}'s {@link Frame#geometry()}.
+   *
+   * @param contours MatVector containing contours detected in the image
+   * @param geometry the screen placement of the image's top left pixel
+   * @return list of ChromaObj objects representing each contour with bounding box
+   */
+  public static List<ChromaObj> createChromaObjects(MatVector contours, WindowGeometry geometry) {
     List<ChromaObj> chromaObjects = new ArrayList<>();
     for (int i = 0; i < contours.size(); i++) {
       Mat contour = contours.get(i);
       Rect rect = boundingRect(contour);
-      Rectangle offset = ScreenManager.getWindowBounds();
       Rectangle contourBounds =
-          new Rectangle(rect.x() + offset.x, rect.y() + offset.y, rect.width(), rect.height());
+          geometry.toScreenBounds(rect.x(), rect.y(), rect.width(), rect.height());
       chromaObjects.add(new ChromaObj(i, contour, contourBounds));
     }
     return chromaObjects;
   }
 
   /**
-   * Checks whether a given point lies inside a specified contour.
+   * Checks whether a given point lies inside a specified contour found in a capture of the whole
+   * game view at the current window placement. Prefer {@link #isPointInContour(Point, Mat,
+   * WindowGeometry)} with the geometry of the frame the contour was found in.
    *
    * @param point the Point to test
    * @param contour the Mat representing the contour to test against
    * @return true if the point lies inside the contour; false otherwise
    */
   public static boolean isPointInContour(Point point, Mat contour) {
-    Point clientPoint = ScreenManager.toClientCoords(point);
+    return isPointInContour(point, contour, ScreenManager.geometry());
+  }
+
+  /**
+   * Checks whether a given point lies inside a specified contour, converting the point with a
+   * {@link WindowGeometry} snapshot held by the caller.
+   *
+   * @param point the screen-space Point to test
+   * @param contour the Mat representing the contour to test against
+   * @param geometry the window snapshot used to convert {@code point} to canvas co-ordinates
+   * @return true if the point lies inside the contour; false otherwise
+   */
+  public static boolean isPointInContour(Point point, Mat contour, WindowGeometry geometry) {
+    Point clientPoint = geometry.toClientCoords(point);
     try (Point2f point2f = new Point2f(clientPoint.x, clientPoint.y)) {
       return pointPolygonTest(contour, point2f, false) > 0;
     }
@@ -0,0 +1,53 @@
+package com.chromascape.utils.core.screen.topology;
+
+/**
+ * How {@link TemplateMatching#match(String, java.awt.image.BufferedImage, double, boolean,
+ * MatchStrategy)} searches the base image.
+ */
+public enum MatchStrategy {
+
+  /** Score the template at every position of the base image at full resolution. */
+  FULL(false, false),
+
+  /**
+   * Find candidates on downscaled copies of the base image and template, then score only the
+   * neighbourhood of each candidate at full resolution. Much cheaper for large templates such as UI
+   * panels, with the same score semantics as {@link #FULL}.
+   */
+  PYRAMID(true, false),
+
+  /**
+   * Check the location the template was last found at first, and only fall back to a {@link #FULL}
+   * search when it is no longer there. Suited to UI elements and sprites that rarely move.
+   */
+  HINTED(false, true),
+
+  /** Like {@link #HINTED}, falling back to a {@link #PYRAMID} search. */
+  HINTED_PYRAMID(true, true);
+
+  private final boolean pyramid;
+  private final boolean hinted;
+
+  MatchStrategy(boolean pyramid, boolean hinted) {
+    this.pyramid = pyramid;
+    this.hinted = hinted;
+  }
+
+  /**
+   * Whether a full search uses the coarse-to-fine pyramid.
+   *
+   * @return true for {@link #PYRAMID} and {@link #HINTED_PYRAMID}.
+   */
+  public boolean pyramid() {
+    return pyramid;
+  }
+
+  /**
+   * Whether the last known location is verified before searching.
+   *
+   * @return true for {@link #HINTED} and {@link #HINTED_PYRAMID}.
+   */
+  public boolean hinted() {
+    return hinted;
+  }
+}
@@ -0,0 +1,252 @@
+package com.chromascape.utils.core.screen.topology;
+
+import com.chromascape.utils.core.screen.capture.Frame;
+import com.chromascape.utils.core.screen.colour.ColourObj;
+import com.chromascape.utils.core.screen.window.WindowGeometry;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Follows the objects of one colour from frame to frame and gives each a persistent id.
+ *
+ * <p>{@link ChromaObj#id()} and {@link Blob#label()} only number the objects of a single frame, so
+ * a script cannot tell whether the rock it clicked last cycle is still the first object this cycle.
+ * The tracker associates every new detection with the object it most likely continues: first by the
+ * overlap between the detection and the object's predicted bounds, then, for objects that moved
+ * further than their own size, by centroid distance. Predictions use a smoothed constant-velocity
+ * model. Unmatched detections become new objects, and objects missing for a few updates in a row
+ * are dropped.
+ *
+ * <p>Most updates only segment a margin around each object's predicted position. The whole frame is
+ * segmented on the first update, every {@code rescanInterval} updates, and on the update after an
+ * object was lost or cut off by the edge of its search region, so new and fast-moving objects are
+ * still picked up.
+ */
+public class ObjectTracker {
+
+  /** Default number of updates between full-frame scans. */
+  public static final int DEFAULT_RESCAN_INTERVAL = 10;
+
+  /** Updates an object may go undetected before it is dropped. */
+  private static final int MAX_MISSED = 3;
+
+  /** Smallest overlap between prediction and detection that counts as a match by overlap. */
+  private static final double MIN_OVERLAP = 0.1;
+
+  /** Weight of the previous velocity when smoothing, between 0 and 1. */
+  private static final double SMOOTHING = 0.5;
+
+  /** Smallest margin, in pixels, searched around a predicted position. */
+  private static final int MIN_MARGIN = 8;
+
+  private final ColourObj colour;
+  private final int minArea;
+  private final int rescanInterval;
+  private final List<TrackedObject> tracks = new ArrayList<>();
+  private int nextId = 1;
+  private int sinceRescan;
+  private boolean rescanRequested = true;
+
+  /**
+   * Creates a tracker.
+   *
+   * @param colour The colour of the objects to track.
+   * @param minArea The smallest number of pixels a detection needs.
+   * @param rescanInterval Number of updates between full-frame scans, at least 1.
+   */
+  public ObjectTracker(ColourObj colour, int minArea, int rescanInterval) {
+    if (rescanInterval < 1) {
+      throw new IllegalArgumentException("Rescan interval must be positive: " + rescanInterval);
+    }
+    this.colour = colour;
+    this.minArea = minArea;
+    this.rescanInterval = rescanInterval;
+  }
+
+  /**
+   * Creates a tracker that scans the whole frame every {@link #DEFAULT_RESCAN_INTERVAL} updates.
+   *
+   * @param colour The colour of the objects to track.
+   * @param minArea The smallest number of pixels a detection needs.
+   */
+  public ObjectTracker(ColourObj colour, int minArea) {
+    this(colour, minArea, DEFAULT_RESCAN_INTERVAL);
+  }
+
+  /**
+   * Detects the objects in a new frame and associates them with the tracked ones.
+   *
+   * @param frame The next frame, covering the whole game view.
+   * @return Every tracked object, including ones missed in this frame, in order of id.
+   */
+  public synchronized List<TrackedObject> update(Frame frame) {
+    List<Blob> detections;
+    if (rescanRequested || tracks.isEmpty() || sinceRescan + 1 >= rescanInterval) {
+      detections = ColourContours.getBlobsInColour(frame, colour, minArea).blobs();
+      rescanRequested = false;
+      sinceRescan = 0;
+    } else {
+      detections = detectAroundPredictions(frame);
+      sinceRescan++;
+    }
+    associate(detections);
+    return tracks();
+  }
+
+  /**
+   * The objects currently tracked.
+   *
+   * @return Every tracked object, in order of id.
+   */
+  public synchronized List<TrackedObject> tracks() {
+    return List.copyOf(tracks);
+  }
+
+  /**
+   * Looks up an object by id.
+   *
+   * @param id The object's id.
+   * @return The object, or {@code null} if it is no longer tracked.
+   */
+  public synchronized TrackedObject get(int id) {
+    for (TrackedObject track : tracks) {
+      if (track.id() == id) {
+        return track;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * The visible object nearest to a point.
+   *
+   * @param screenPoint The point in screen co-ordinates, for example the player.
+   * @return The nearest object seen in the latest update, or {@code null} if there is none.
+   */
+  public synchronized TrackedObject nearest(Point screenPoint) {
+    return tracks.stream()
+        .filter(TrackedObject::isVisible)
+        .min(Comparator.comparingDouble(track -> track.blob().distanceSq(screenPoint)))
+        .orElse(null);
+  }
+
+  /** Forgets every object; the next update scans the whole frame. */
+  public synchronized void reset() {
+    tracks.clear();
+    rescanRequested = true;
+  }
+
+  /**
+   * Segments a margin around the predicted position of every tracked object.
+   *
+   * @param frame The frame to search.
+   * @return The distinct detections found in the search regions.
+   */
+  private List<Blob> detectAroundPredictions(Frame frame) {
+    WindowGeometry geometry = frame.geometry();
+    Rectangle frameBounds =
+        new Rectangle(geometry.x(), geometry.y(), frame.width(), frame.height());
+    List<Blob> detections = new ArrayList<>();
+    for (TrackedObject track : tracks) {
+      Rectangle predicted = track.predictedBounds();
+      int speed = (int) Math.ceil(Math.hypot(track.velocityX(), track.velocityY()));
+      int margin = Math.max(MIN_MARGIN, Math.max(predicted.width, predicted.height) / 2 + speed);
+      Rectangle region = new Rectangle(predicted);
+      region.grow(margin, margin);
+      Rectangle searched = region.intersection(frameBounds);
+      for (Blob blob : ColourContours.getBlobsInColour(frame, colour, minArea, region).blobs()) {
+        if (ColourContours.touchesInnerEdge(blob.bounds(), searched, frameBounds)) {
+          rescanRequested = true;
+        }
+        if (detections.stream().noneMatch(seen -> seen.bounds().equals(blob.bounds()))) {
+          detections.add(blob);
+        }
+      }
+    }
+    return detections;
+  }
+
+  /**
+   * Matches detections to tracked objects greedily, best match first, then updates, ages, drops and
+   * creates objects accordingly.
+   *
+   * @param detections The detections of the current frame.
+   */
+  private void associate(List<Blob> detections) {
+    List<double[]> pairs = new ArrayList<>();
+    for (int t = 0; t < tracks.size(); t++) {
+      TrackedObject track = tracks.get(t);
+      Rectangle predicted = track.predictedBounds();
+      double gate = Math.max(predicted.width, predicted.height);
+      for (int d = 0; d < detections.size(); d++) {
+        Blob detection = detections.get(d);
+        double score = TemplateMatching.overlap(predicted, detection.bounds());
+        if (score < MIN_OVERLAP) {
+          double dx = detection.centroidX() - predicted.getCenterX();
+          double dy = detection.centroidY() - predicted.getCenterY();
+          double distance = Math.hypot(dx, dy);
+          score = distance <= gate ? MIN_OVERLAP * (1 - distance / (gate + 1)) : 0;
+        }
+        if (score > 0) {
+          pairs.add(new double[] {score, t, d});
+        }
+      }
+    }
+    pairs.sort(Comparator.comparingDouble((double[] pair) -> pair[0]).reversed());
+
+    TrackedObject[] updated = new TrackedObject[tracks.size()];
+    boolean[] used = new boolean[detections.size()];
+    for (double[] pair : pairs) {
+      int t = (int) pair[1];
+      int d = (int) pair[2];
+      if (updated[t] != null || used[d]) {
+        continue;
+      }
+      updated[t] = follow(tracks.get(t), detections.get(d));
+      used[d] = true;
+    }
+
+    List<TrackedObject> next = new ArrayList<>();
+    for (int t = 0; t < tracks.size(); t++) {
+      TrackedObject track = tracks.get(t);
+      if (updated[t] != null) {
+        next.add(updated[t]);
+      } else if (track.missed() < MAX_MISSED) {
+        next.add(
+            new TrackedObject(
+                track.id(),
+                track.blob(),
+                track.velocityX(),
+                track.velocityY(),
+                track.age() + 1,
+                track.missed() + 1));
+        rescanRequested = true;
+      }
+    }
+    for (int d = 0; d < detections.size(); d++) {
+      if (!used[d]) {
+        next.add(new TrackedObject(nextId++, detections.get(d), 0, 0, 0, 0));
+      }
+    }
+    tracks.clear();
+    tracks.addAll(next);
+  }
+
+  /**
+   * Moves a tracked object to its new detection, updating the smoothed velocity.
+   *
+   * @param track The tracked object.
+   * @param detection The detection it was matched with.
+   * @return The updated object.
+   */
+  private static TrackedObject follow(TrackedObject track, Blob detection) {
+    double dx = detection.centroidX() - track.blob().centroidX();
+    double dy = detection.centroidY() - track.blob().centroidY();
+    double velocityX = SMOOTHING * track.velocityX() + (1 - SMOOTHING) * dx;
+    double velocityY = SMOOTHING * track.velocityY() + (1 - SMOOTHING) * dy;
+    return new TrackedObject(track.id(), detection, velocityX, velocityY, track.age() + 1, 0);
+  }
+}
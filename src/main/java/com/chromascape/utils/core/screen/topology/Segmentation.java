@@ -0,0 +1,136 @@
+package com.chromascape.utils.core.screen.topology;
+
+import static org.bytedeco.opencv.global.opencv_core.CV_8UC1;
+
+import com.chromascape.utils.core.screen.colour.ColourObj;
+import java.nio.ByteBuffer;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.bytedeco.opencv.opencv_core.Mat;
+
+/**
+ * The result of a {@link ColourSegmenter} pass: for every pixel, a bitmask of the colours it
+ * matched.
+ *
+ * <p>Per-colour binary masks in the format of {@link ColourContours#extractColours} can be taken
+ * from it one at a time, or all at once with a single further pass over the labels.
+ */
+public final class Segmentation {
+
+  private final List<ColourObj> colours;
+  private final int width;
+  private final int height;
+  private final long[] labels;
+
+  /**
+   * Creates a segmentation. Takes ownership of {@code labels}.
+   *
+   * @param colours The segmented colours, in bit order.
+   * @param width Image width.
+   * @param height Image height.
+   * @param labels One colour bitmask per pixel, row-major.
+   */
+  Segmentation(List<ColourObj> colours, int width, int height, long[] labels) {
+    this.colours = colours;
+    this.width = width;
+    this.height = height;
+    this.labels = labels;
+  }
+
+  /**
+   * Image width.
+   *
+   * @return The width in pixels.
+   */
+  public int width() {
+    return width;
+  }
+
+  /**
+   * Image height.
+   *
+   * @return The height in pixels.
+   */
+  public int height() {
+    return height;
+  }
+
+  /**
+   * The colours of one pixel.
+   *
+   * @param x The x co-ordinate, relative to the segmented image.
+   * @param y The y co-ordinate, relative to the segmented image.
+   * @return Bit {@code i} is set if the pixel matched colour {@code i}.
+   */
+  public long labelAt(int x, int y) {
+    return labels[y * width + x];
+  }
+
+  /**
+   * Number of pixels matching a colour.
+   *
+   * @param index The colour's index in the segmenter.
+   * @return The pixel count.
+   */
+  public int count(int index) {
+    long bit = 1L << index;
+    int count = 0;
+    for (long label : labels) {
+      if ((label & bit) != 0) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Binary mask of one colour.
+   *
+   * @param index The colour's index in the segmenter.
+   * @return A new CV_8UC1 Mat with matching pixels set to 255, others 0, owned by the caller.
+   */
+  public Mat mask(int index) {
+    long bit = 1L << index;
+    byte[] mask = new byte[labels.length];
+    for (int p = 0; p < labels.length; p++) {
+      if ((labels[p] & bit) != 0) {
+        mask[p] = (byte) 255;
+      }
+    }
+    return toMat(mask);
+  }
+
+  /**
+   * Binary masks of every segmented colour, built in one pass over the labels.
+   *
+   * @return Colour names, in bit order, mapped to new CV_8UC1 masks owned by the caller.
+   */
+  public Map<String, Mat> masks() {
+    byte[][] masks = new byte[colours.size()][labels.length];
+    for (int p = 0; p < labels.length; p++) {
+      long label = labels[p];
+      while (label != 0) {
+        masks[Long.numberOfTrailingZeros(label)][p] = (byte) 255;
+        label &= label - 1;
+      }
+    }
+    Map<String, Mat> result = new LinkedHashMap<>();
+    for (int i = 0; i < masks.length; i++) {
+      result.put(colours.get(i).name(), toMat(masks[i]));
+    }
+    return result;
+  }
+
+  /**
+   * Copies a mask into a new Mat.
+   *
+   * @param mask One byte per pixel, row-major.
+   * @return The CV_8UC1 Mat.
+   */
+  private Mat toMat(byte[] mask) {
+    Mat mat = new Mat(height, width, CV_8UC1);
+    ((ByteBuffer) mat.createBuffer()).put(mask);
+    return mat;
+  }
+}
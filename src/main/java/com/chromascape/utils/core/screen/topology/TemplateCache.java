@@ -0,0 +1,181 @@
+package com.chromascape.utils.core.screen.topology;
+
+import static org.bytedeco.opencv.global.opencv_core.extractChannel;
+import static org.bytedeco.opencv.global.opencv_imgproc.COLOR_BGR2BGRA;
+import static org.bytedeco.opencv.global.opencv_imgproc.COLOR_GRAY2BGRA;
+import static org.bytedeco.opencv.global.opencv_imgproc.cvtColor;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.bytedeco.opencv.opencv_core.Mat;
+
+/**
+ * Bounded, thread-safe cache of decoded template images keyed by classpath resource path.
+ *
+ * <p>{@link TemplateMatching#match} and the UI lookups in {@code ZoneManager} are called in tight
+ * loops with a handful of templates. Without a cache every call reads the PNG from the classpath,
+ * decodes it, converts it to BGRA and extracts the alpha mask again. With it, each template is
+ * decoded once and later lookups are a map access.
+ *
+ * <p>Entries are evicted least-recently-used first once the native memory held by all templates
+ * exceeds the budget set with {@link #setMaxBytes(long)}. Evicted templates are not released
+ * explicitly, since another thread may still be matching against them; their native memory is freed
+ * by JavaCPP once they become unreachable.
+ */
+public class TemplateCache {
+
+  private static final Logger logger = LogManager.getLogger(TemplateCache.class);
+
+  /** Default native memory budget for cached templates, 64 MiB. */
+  public static final long DEFAULT_MAX_BYTES = 64L << 20;
+
+  private static final Map<String, CachedTemplate> entries = new LinkedHashMap<>(16, 0.75f, true);
+  private static long maxBytes = DEFAULT_MAX_BYTES;
+  private static long bytes;
+  private static long hits;
+  private static long misses;
+
+  /**
+   * Returns the decoded template for a classpath resource, decoding and caching it on first use.
+   *
+   * <p>Decoding happens outside the cache lock, so concurrent readers of other templates are never
+   * blocked by a decode. If two threads miss the same template at once both decode it and the first
+   * one to finish wins.
+   *
+   * @param resourcePath Path to the image resource, e.g. "/images/user/myTemplate.png" (first "/"
+   *     is necessary).
+   * @return The shared, read-only template.
+   * @throws IOException if the resource cannot be read.
+   * @throws IllegalArgumentException if the resource does not exist.
+   */
+  public static CachedTemplate get(String resourcePath) throws IOException {
+    synchronized (entries) {
+      CachedTemplate cached = entries.get(resourcePath);
+      if (cached != null) {
+        hits++;
+        return cached;
+      }
+      misses++;
+    }
+    CachedTemplate decoded = decode(resourcePath);
+    synchronized (entries) {
+      CachedTemplate raced = entries.get(resourcePath);
+      if (raced != null) {
+        return raced;
+      }
+      entries.put(resourcePath, decoded);
+      bytes += decoded.nativeBytes();
+      evict();
+      return decoded;
+    }
+  }
+
+  /**
+   * Sets the native memory budget and evicts templates until the cache fits in it.
+   *
+   * @param budget Maximum number of bytes of template data to keep decoded.
+   */
+  public static void setMaxBytes(long budget) {
+    if (budget < 0) {
+      throw new IllegalArgumentException("Template cache budget must not be negative: " + budget);
+    }
+    synchronized (entries) {
+      maxBytes = budget;
+      evict();
+    }
+  }
+
+  /** Drops every cached template. */
+  public static void clear() {
+    synchronized (entries) {
+      entries.clear();
+      bytes = 0;
+    }
+  }
+
+  /**
+   * Number of templates currently cached.
+   *
+   * @return The entry count.
+   */
+  public static int size() {
+    synchronized (entries) {
+      return entries.size();
+    }
+  }
+
+  /**
+   * Native memory held by the cached templates.
+   *
+   * @return The total size in bytes, including the downscaled levels of every cached template.
+   */
+  public static long bytes() {
+    synchronized (entries) {
+      return bytes;
+    }
+  }
+
+  /**
+   * Fraction of lookups served from the cache since startup.
+   *
+   * @return The hit ratio between 0 and 1, or 0 if nothing was looked up yet.
+   */
+  public static double hitRatio() {
+    synchronized (entries) {
+      long total = hits + misses;
+      return total == 0 ? 0 : (double) hits / total;
+    }
+  }
+
+  /**
+   * Counts a downscaled level computed by {@link CachedTemplate#downscaled(int)} against the
+   * budget. The level is only added to the total while its template is still cached; an evicted
+   * template's levels are freed together with it.
+   *
+   * @param template The template the level was computed for.
+   * @param levelBytes The size of the level in bytes.
+   */
+  static void levelAdded(CachedTemplate template, long levelBytes) {
+    synchronized (entries) {
+      template.addNativeBytes(levelBytes);
+      if (entries.get(template.resourcePath()) == template) {
+        bytes += levelBytes;
+        evict();
+      }
+    }
+  }
+
+  /**
+   * Decodes a resource into a BGRA template and its alpha mask.
+   *
+   * @param resourcePath The classpath resource.
+   * @return The decoded template.
+   * @throws IOException if the resource cannot be read.
+   */
+  private static CachedTemplate decode(String resourcePath) throws IOException {
+    Mat image = TemplateMatching.loadMatFromResource(resourcePath);
+    if (image.channels() == 3) {
+      cvtColor(image, image, COLOR_BGR2BGRA);
+    } else if (image.channels() == 1) {
+      cvtColor(image, image, COLOR_GRAY2BGRA);
+    }
+    Mat mask = new Mat();
+    extractChannel(image, mask, 3);
+    return new CachedTemplate(resourcePath, image, mask);
+  }
+
+  /** Drops least recently used templates until the cache fits its budget. Caller holds the lock. */
+  private static void evict() {
+    Iterator<CachedTemplate> iterator = entries.values().iterator();
+    while (bytes > maxBytes && iterator.hasNext()) {
+      CachedTemplate eldest = iterator.next();
+      iterator.remove();
+      bytes -= eldest.nativeBytes();
+      logger.debug("Evicted template {}", eldest.resourcePath());
+    }
+  }
+}
@@ -0,0 +1,12 @@
+package com.chromascape.utils.core.screen.topology;
+
+import java.awt.Rectangle;
+
+/**
+ * One occurrence of a template found by {@link TemplateMatching#matchAll}.
+ *
+ * @param bounds Position and size of the matched area.
+ * @param score The {@code matchTemplate} score at this position. For {@code TM_SQDIFF_NORMED} lower
+ *     is better, for correlation methods higher is better.
+ */
+public record TemplateMatch(Rectangle bounds, double score) {}
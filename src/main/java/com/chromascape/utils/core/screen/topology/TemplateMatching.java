@@ -1,45 +1,82 @@
 package com.chromascape.utils.core.screen.topology;
 
-import static org.bytedeco.opencv.global.opencv_core.extractChannel;
 import static org.bytedeco.opencv.global.opencv_core.minMaxLoc;
-import static org.bytedeco.opencv.global.opencv_imgproc.COLOR_BGR2BGRA;
+import static org.bytedeco.opencv.global.opencv_imgproc.INTER_AREA;
 import static org.bytedeco.opencv.global.opencv_imgproc.TM_SQDIFF_NORMED;
-import static org.bytedeco.opencv.global.opencv_imgproc.cvtColor;
 import static org.bytedeco.opencv.global.opencv_imgproc.matchTemplate;
+import static org.bytedeco.opencv.global.opencv_imgproc.resize;
 
-import com.chromascape.utils.core.screen.window.ScreenManager;
+import com.chromascape.utils.core.screen.capture.Frame;
+import com.chromascape.utils.core.screen.capture.PixelHash;
+import com.chromascape.utils.core.screen.window.WindowGeometry;
 import java.awt.Rectangle;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.io.InputStream;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.StandardCopyOption;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.stream.IntStream;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.bytedeco.javacpp.BytePointer;
 import org.bytedeco.javacpp.DoublePointer;
-import org.bytedeco.javacv.Java2DFrameUtils;
 import org.bytedeco.opencv.global.opencv_imgcodecs;
 import org.bytedeco.opencv.opencv_core.Mat;
 import org.bytedeco.opencv.opencv_core.Point;
+import org.bytedeco.opencv.opencv_core.Rect;
+import org.bytedeco.opencv.opencv_core.Size;
 
 /**
  * Utility class for performing alpha-aware template matching using OpenCV and JavaCV.
  *
- * <p>This class provides a single static method, {@link #match}, which uses the TM_SQDIFF_NORMED
- * algorithm to locate a template image within a larger base image. It uses an alpha mask to ignore
- * transparent pixels in the template, allowing for accurate matching even with irregular shapes.
+ * <p>{@link #match} uses the TM_SQDIFF_NORMED algorithm to locate the best occurrence of a template
+ * image within a larger base image, and {@link #matchAll} finds every occurrence in a single pass.
+ * Both use an alpha mask to ignore transparent pixels in the template, allowing for accurate
+ * matching even with irregular shapes.
  *
  * <p>This is commonly used in ChromaScape to locate UI elements or patterns in the client window,
  * based on screen captures and template assets.
  *
- * <p>All memory allocated in native OpenCV (Mats and pointers) is explicitly released before
- * return.
+ * <p>Templates are decoded once and shared through {@link TemplateCache}. All other memory
+ * allocated in native OpenCV (Mats and pointers) is explicitly released before return.
  */
 public class TemplateMatching {
 
   private static final Logger logger = LogManager.getLogger(TemplateMatching.class.getName());
 
+  /** Most times the images are halved for {@link MatchStrategy#PYRAMID}. */
+  private static final int PYRAMID_MAX_LEVELS = 2;
+
+  /** Smallest template side, in pixels, worth matching at a coarser pyramid level. */
+  private static final int PYRAMID_MIN_TEMPLATE_SIDE = 8;
+
+  /** Number of coarse candidates re-scored at full resolution. */
+  private static final int PYRAMID_CANDIDATES = 5;
+
+  /** How far, in pixels, a hinted template may move before a full search is needed. */
+  private static final int HINT_RADIUS = 3;
+
+  /** Most location hints kept; the least recently used one is dropped beyond this. */
+  private static final int MAX_HINTS = 256;
+
+  /**
+   * Last known location per template and base image size, for the hinted strategies. Guarded by
+   * itself.
+   */
+  private static final Map<String, LocationHint> hints =
+      new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, LocationHint> eldest) {
+          return size() > MAX_HINTS;
+        }
+      };
+
   /**
    * Performs template matching to locate a smaller image (template) within a larger image (base),
    * using normalized squared difference matching with an alpha channel mask to ignore transparent
@@ -47,13 +84,13 @@ public class TemplateMatching {
    *
    * <p>The method requires both images to have 4 channels (BGRA). If they do not, they are
    * converted internally. The matching ignores fully transparent pixels in the template by applying
-   * a mask based on its alpha channel.
+   * a mask based on its alpha channel. The template is looked up in {@link TemplateCache}, so only
+   * the first match against a given template pays for reading and decoding it.
    *
    * <p>The method returns the bounding rectangle of the best match if its matching score is below
    * the given threshold. If no match satisfies the threshold, the method returns {@code null}.
    *
-   * <p>Note: The method releases the native OpenCV memory of the input and intermediate matrices,
-   * so the caller should not use the input Mats after this call.
+   * <p>Note: The method releases the native OpenCV memory of the intermediate matrices it creates.
    *
    * @param templateImg The template image (smaller), expected as a BufferedImage in BGRA format or
    *     convertible to it.
@@ -70,11 +107,66 @@ public class TemplateMatching {
   public static Rectangle match(
       String templateImg, BufferedImage baseImg, double threshold, boolean debugMsg)
       throws Exception {
+    return match(templateImg, baseImg, threshold, debugMsg, MatchStrategy.FULL);
+  }
+
+  /**
+   * Performs template matching like {@link #match(String, BufferedImage, double, boolean)}, using
+   * the given search strategy.
+   *
+   * <p>{@link MatchStrategy#PYRAMID} finds candidate positions on downscaled copies of both images
+   * and only scores them at full resolution, so the returned score, and therefore {@code
+   * threshold}, means exactly the same as with {@link MatchStrategy#FULL}.
+   *
+   * <p>The hinted strategies remember where each template was last found in a base image of the
+   * same size. If the pixels under that location are unchanged the match is returned without any
+   * matching at all; otherwise a few pixels around it are re-scored, and only if the template has
+   * moved further is the whole image searched.
+   *
+   * @param templateImg Path to the template image resource.
+   * @param baseImg The base image (larger) where the template is searched.
+   * @param threshold The maximum allowed normalized squared difference score for a valid match.
+   * @param debugMsg Set this to true if you want detailed messages useful when debugging.
+   * @param strategy How to search the base image.
+   * @return The bounds of the best match in screen co-ordinates, or {@code null} if no match meets
+   *     the threshold criteria.
+   * @throws Exception If the template is larger than the base image.
+   */
+  public static Rectangle match(
+      String templateImg,
+      BufferedImage baseImg,
+      double threshold,
+      boolean debugMsg,
+      MatchStrategy strategy)
+      throws Exception {
+    try (Frame frame = Frame.of(baseImg)) {
+      return match(templateImg, frame, threshold, debugMsg, strategy);
+    }
+  }
+
+  /**
+   * Performs template matching like {@link #match(String, BufferedImage, double, boolean,
+   * MatchStrategy)} against a {@link Frame}. The frame's BGRA representation is computed once and
+   * shared by every template matched against the same frame.
+   *
+   * @param templateImg Path to the template image resource.
+   * @param frame The frame where the template is searched.
+   * @param threshold The maximum allowed normalized squared difference score for a valid match.
+   * @param debugMsg Set this to true if you want detailed messages useful when debugging.
+   * @param strategy How to search the frame.
+   * @return The bounds of the best match in screen co-ordinates, or {@code null} if no match meets
+   *     the threshold criteria.
+   * @throws Exception If the template is larger than the frame.
+   */
+  public static Rectangle match(
+      String templateImg, Frame frame, double threshold, boolean debugMsg, MatchStrategy strategy)
+      throws Exception {
 
     debug(">> Entered patternMatch()", debugMsg);
 
-    Mat template = loadMatFromResource(templateImg);
-    Mat base = Java2DFrameUtils.toMat(baseImg);
+    CachedTemplate cached = TemplateCache.get(templateImg);
+    Mat template = cached.image();
+    Mat base = frame.bgra();
 
     if (template.empty()) {
       throw new IllegalArgumentException("Template image is empty");
@@ -100,39 +192,324 @@ public class TemplateMatching {
             + base.channels(),
         debugMsg);
 
-    if (template.channels() != 4) {
-      debug("Converting template to BGRA...", debugMsg);
-      cvtColor(template, template, COLOR_BGR2BGRA);
+    if (template.cols() > base.cols() || template.rows() > base.rows()) {
+      throw new Exception("Template is larger than base image");
     }
 
-    if (base.channels() != 4) {
-      debug("Converting base to BGRA...", debugMsg);
-      cvtColor(base, base, COLOR_BGR2BGRA);
+    TemplateMatch best = search(templateImg, cached, base, threshold, strategy, debugMsg);
+
+    if (best == null || best.score() > threshold) {
+      System.out.println(
+          "No match: minVal above threshold ("
+              + (best == null ? "none" : best.score())
+              + " > "
+              + threshold
+              + ")");
+      return null;
     }
+    Rectangle local = best.bounds();
+    Rectangle match = frame.geometry().toScreenBounds(local.x, local.y, local.width, local.height);
 
-    if (template.cols() > base.cols() || template.rows() > base.rows()) {
-      throw new Exception("Template is larger than base image");
+    debug("Match found at: " + match, debugMsg);
+
+    debug("<< Exiting patternMatch()", debugMsg);
+    return match;
+  }
+
+  /**
+   * Matches several templates against the same base image at once.
+   *
+   * <p>The base image is converted to BGRA once and shared, read-only, by every search, and the
+   * templates are matched in parallel on the common fork-join pool. Checking a handful of templates
+   * against one game view therefore costs roughly as much as the slowest of them rather than the
+   * sum of all. Each template is searched exactly as {@link #match(String, BufferedImage, double,
+   * boolean, MatchStrategy)} would.
+   *
+   * @param baseImg The base image where the templates are searched.
+   * @param templates Template resource paths mapped to the maximum score accepted for each.
+   * @param strategy How to search the base image for each template.
+   * @return Every requested template path, in the iteration order of {@code templates}, mapped to
+   *     the bounds of its best match in screen co-ordinates, or to {@code null} if it was not
+   *     found.
+   * @throws Exception If a template cannot be loaded or is larger than the base image.
+   */
+  public static Map<String, Rectangle> matchBatch(
+      BufferedImage baseImg, Map<String, Double> templates, MatchStrategy strategy)
+      throws Exception {
+    try (Frame frame = Frame.of(baseImg)) {
+      return matchBatch(frame, templates, strategy);
     }
+  }
 
-    int convRows = base.rows() - template.rows() + 1;
-    int convCols = base.cols() - template.cols() + 1;
-    debug("Convolution matrix size: " + convCols + "x" + convRows, debugMsg);
+  /**
+   * Matches several templates against the same {@link Frame} at once, like {@link
+   * #matchBatch(BufferedImage, Map, MatchStrategy)}.
+   *
+   * @param frame The frame where the templates are searched.
+   * @param templates Template resource paths mapped to the maximum score accepted for each.
+   * @param strategy How to search the frame for each template.
+   * @return Every requested template path, in the iteration order of {@code templates}, mapped to
+   *     the bounds of its best match in screen co-ordinates, or to {@code null} if it was not
+   *     found.
+   * @throws Exception If a template cannot be loaded or is larger than the frame.
+   */
+  public static Map<String, Rectangle> matchBatch(
+      Frame frame, Map<String, Double> templates, MatchStrategy strategy) throws Exception {
+    List<String> paths = new ArrayList<>(templates.keySet());
+    CachedTemplate[] cached = new CachedTemplate[paths.size()];
+    Mat base = frame.bgra();
+    // Load every template before forking, so a missing resource fails the whole batch up front
+    for (int i = 0; i < cached.length; i++) {
+      cached[i] = TemplateCache.get(paths.get(i));
+      if (cached[i].width() > base.cols() || cached[i].height() > base.rows()) {
+        throw new Exception("Template is larger than base image: " + paths.get(i));
+      }
+    }
 
-    Mat alpha = new Mat();
-    extractChannel(template, alpha, 3);
-    debug(
-        "Alpha mask size: "
-            + alpha.size().width()
-            + "x"
-            + alpha.size().height()
-            + ", channels: "
-            + alpha.channels(),
-        debugMsg);
+    TemplateMatch[] best = new TemplateMatch[cached.length];
+    IntStream.range(0, cached.length)
+        .parallel()
+        .forEach(
+            i -> {
+              String path = paths.get(i);
+              best[i] = search(path, cached[i], base, templates.get(path), strategy, false);
+            });
+
+    WindowGeometry geometry = frame.geometry();
+    Map<String, Rectangle> results = new LinkedHashMap<>();
+    for (int i = 0; i < best.length; i++) {
+      String path = paths.get(i);
+      Rectangle match = null;
+      if (best[i] != null && best[i].score() <= templates.get(path)) {
+        Rectangle local = best[i].bounds();
+        match = geometry.toScreenBounds(local.x, local.y, local.width, local.height);
+      }
+      results.put(path, match);
+    }
+    return results;
+  }
+
+  /**
+   * Matches several templates inside each of several regions of the same {@link Frame} at once.
+   *
+   * <p>The frame is converted to BGRA once, and every template is scored only at the positions
+   * where it lies fully inside a region, so classifying a grid of cells, such as the inventory
+   * slots, costs one conversion and one small {@code matchTemplate} per cell and template instead
+   * of a conversion per cell. All region and template pairs are matched in parallel on the common
+   * fork-join pool.
+   *
+   * @param frame The frame where the templates are searched.
+   * @param regions The regions to search, in frame co-ordinates, each inside the frame.
+   * @param templates Template resource paths mapped to the maximum score accepted for each.
+   * @return One map per region, in the order of {@code regions}, mapping every requested template
+   *     path in the iteration order of {@code templates} to the bounds of its best match in screen
+   *     co-ordinates, or to {@code null} if it was not found in that region.
+   * @throws Exception If a template cannot be loaded or is larger than a region.
+   */
+  public static List<Map<String, Rectangle>> matchBatch(
+      Frame frame, List<Rectangle> regions, Map<String, Double> templates) throws Exception {
+    List<String> paths = new ArrayList<>(templates.keySet());
+    CachedTemplate[] cached = new CachedTemplate[paths.size()];
+    Mat base = frame.bgra();
+    Rectangle whole = new Rectangle(0, 0, base.cols(), base.rows());
+    for (Rectangle region : regions) {
+      if (!whole.contains(region)) {
+        throw new IllegalArgumentException("Region " + region + " is outside the frame " + whole);
+      }
+    }
+    for (int i = 0; i < cached.length; i++) {
+      cached[i] = TemplateCache.get(paths.get(i));
+      for (Rectangle region : regions) {
+        if (cached[i].width() > region.width || cached[i].height() > region.height) {
+          throw new Exception("Template is larger than region " + region + ": " + paths.get(i));
+        }
+      }
+    }
+
+    int count = paths.size();
+    TemplateMatch[] best = new TemplateMatch[regions.size() * count];
+    IntStream.range(0, best.length)
+        .parallel()
+        .forEach(i -> best[i] = searchRegion(base, cached[i % count], regions.get(i / count)));
+
+    WindowGeometry geometry = frame.geometry();
+    List<Map<String, Rectangle>> results = new ArrayList<>(regions.size());
+    for (int r = 0; r < regions.size(); r++) {
+      Map<String, Rectangle> matches = new LinkedHashMap<>();
+      for (int t = 0; t < count; t++) {
+        TemplateMatch match = best[r * count + t];
+        String path = paths.get(t);
+        Rectangle bounds = null;
+        if (match != null && match.score() <= templates.get(path)) {
+          Rectangle local = match.bounds();
+          bounds = geometry.toScreenBounds(local.x, local.y, local.width, local.height);
+        }
+        matches.put(path, bounds);
+      }
+      results.add(matches);
+    }
+    return results;
+  }
+
+  /**
+   * Searches a prepared base image for one template with the given strategy, consulting and
+   * updating the location hints if the strategy uses them.
+   *
+   * @param templateImg Path to the template image resource, used as the hint key.
+   * @param cached The decoded template.
+   * @param base The BGRA image to search. Only read, so it may be shared between threads.
+   * @param threshold The maximum accepted score, used to decide whether to keep a hint.
+   * @param strategy How to search the base image.
+   * @param debugMsg Whether to log intermediate results.
+   * @return The best position relative to {@code base}, which may be above the threshold, or {@code
+   *     null} if there is none.
+   */
+  static TemplateMatch search(
+      String templateImg,
+      CachedTemplate cached,
+      Mat base,
+      double threshold,
+      MatchStrategy strategy,
+      boolean debugMsg) {
+    String hintKey = strategy.hinted() ? hintKey(templateImg, base) : null;
+    TemplateMatch best = hintKey != null ? verifyHint(hintKey, base, cached, threshold) : null;
+    if (best != null) {
+      debug("Match confirmed at last known location", debugMsg);
+      return best;
+    }
+    if (strategy.pyramid()) {
+      debug("Searching image pyramid...", debugMsg);
+      best = pyramidSearch(base, cached);
+    } else {
+      best = fullSearch(base, cached, debugMsg);
+    }
+    if (hintKey != null) {
+      rememberHint(hintKey, base, best, threshold);
+    }
+    return best;
+  }
+
+  /**
+   * Forgets every last known template location used by the hinted strategies.
+   *
+   * <p>Call this when the client layout changes in a way the pixel checks cannot notice, for
+   * example after switching between fixed and resizable mode.
+   */
+  public static void clearHints() {
+    synchronized (hints) {
+      hints.clear();
+    }
+  }
+
+  /**
+   * Builds the key hints are stored under. Locations are only meaningful within base images of the
+   * same size, so the size is part of the key.
+   *
+   * @param templateImg Path to the template image resource.
+   * @param base The image being searched.
+   * @return The hint key.
+   */
+  private static String hintKey(String templateImg, Mat base) {
+    return templateImg + "@" + base.cols() + "x" + base.rows();
+  }
+
+  /**
+   * Checks whether a template is still at its last known location. A hint whose pixels are
+   * unchanged is only trusted while its score is within {@code threshold}, since the same hint can
+   * be consulted by callers with different thresholds.
+   *
+   * @param key The hint key.
+   * @param base The BGRA image being searched.
+   * @param template The template to look for.
+   * @param threshold The maximum accepted score.
+   * @return The confirmed match relative to {@code base}, or {@code null} if the hint is missing or
+   *     the template has moved out of the neighbourhood.
+   */
+  private static TemplateMatch verifyHint(
+      String key, Mat base, CachedTemplate template, double threshold) {
+    LocationHint hint;
+    synchronized (hints) {
+      hint = hints.get(key);
+    }
+    if (hint == null) {
+      return null;
+    }
+    Rectangle last = hint.match().bounds();
+    if (hashRegion(base, last) == hint.pixelHash()) {
+      return hint.match().score() <= threshold ? hint.match() : null;
+    }
+    TemplateMatch nearby = searchAround(base, template, last.x, last.y, HINT_RADIUS);
+    if (nearby == null || nearby.score() > threshold) {
+      return null;
+    }
+    LocationHint moved = new LocationHint(nearby, hashRegion(base, nearby.bounds()));
+    synchronized (hints) {
+      hints.put(key, moved);
+    }
+    return nearby;
+  }
+
+  /**
+   * Stores the result of a full search as the next hint, or drops the hint if nothing was found.
+   *
+   * @param key The hint key.
+   * @param base The BGRA image that was searched.
+   * @param best The best match of the search, possibly {@code null}.
+   * @param threshold The maximum accepted score.
+   */
+  private static void rememberHint(String key, Mat base, TemplateMatch best, double threshold) {
+    if (best == null || best.score() > threshold) {
+      synchronized (hints) {
+        hints.remove(key);
+      }
+      return;
+    }
+    LocationHint found = new LocationHint(best, hashRegion(base, best.bounds()));
+    synchronized (hints) {
+      hints.put(key, found);
+    }
+  }
+
+  /**
+   * Hashes the pixels of a region of an image.
+   *
+   * @param image The image.
+   * @param region The region to hash, inside the image.
+   * @return A 64-bit hash of the region's pixels.
+   */
+  private static long hashRegion(Mat image, Rectangle region) {
+    try (Rect rect = new Rect(region.x, region.y, region.width, region.height);
+        Mat view = new Mat(image, rect);
+        Mat copy = view.clone()) {
+      return PixelHash.of((ByteBuffer) copy.createBuffer());
+    }
+  }
+
+  /**
+   * Last known location of a template together with a hash of the pixels it was found on.
+   *
+   * @param match The last accepted match, relative to the base image.
+   * @param pixelHash Hash of the base image pixels under the match.
+   */
+  private record LocationHint(TemplateMatch match, long pixelHash) {}
+
+  /**
+   * Scores every position of the base image and returns the best one.
+   *
+   * @param base The BGRA image to search.
+   * @param template The template to look for.
+   * @param debugMsg Whether to log intermediate results.
+   * @return The best position, relative to {@code base}.
+   */
+  private static TemplateMatch fullSearch(Mat base, CachedTemplate template, boolean debugMsg) {
+    int convRows = base.rows() - template.height() + 1;
+    int convCols = base.cols() - template.width() + 1;
+    debug("Convolution matrix size: " + convCols + "x" + convRows, debugMsg);
 
     Mat convolution = new Mat(convRows, convCols);
 
     debug("Calling matchTemplate()...", debugMsg);
-    matchTemplate(base, template, convolution, TM_SQDIFF_NORMED, alpha);
+    matchTemplate(base, template.image(), convolution, TM_SQDIFF_NORMED, template.mask());
     debug("matchTemplate() done.", debugMsg);
     debug("Convolution empty: " + convolution.empty(), debugMsg);
 
@@ -160,28 +537,333 @@ public class TemplateMatching {
             + maxLoc.y()
             + ")",
         debugMsg);
+    convolution.release();
 
-    if (minVal.get() > threshold) {
-      System.out.println(
-          "No match: minVal above threshold (" + minVal.get() + " > " + threshold + ")");
+    return new TemplateMatch(
+        new Rectangle(minLoc.x(), minLoc.y(), template.width(), template.height()), minVal.get());
+  }
+
+  /**
+   * Coarse-to-fine search: matches a downscaled template against a downscaled base image, then
+   * re-scores the best few candidates at full resolution in a small window around each.
+   *
+   * <p>The final score is computed by the same full-resolution, alpha-masked {@code matchTemplate}
+   * as {@link #fullSearch}, so it is directly comparable to a full search score. Templates too
+   * small to survive downscaling fall back to a full search.
+   *
+   * @param base The BGRA image to search.
+   * @param template The template to look for.
+   * @return The best refined position relative to {@code base}, or {@code null} if there is none.
+   */
+  private static TemplateMatch pyramidSearch(Mat base, CachedTemplate template) {
+    int levels = 0;
+    while (levels < PYRAMID_MAX_LEVELS
+        && Math.min(template.width(), template.height()) >> (levels + 1)
+            >= PYRAMID_MIN_TEMPLATE_SIDE) {
+      levels++;
+    }
+    if (levels == 0) {
+      return fullSearch(base, template, false);
+    }
+    int scale = 1 << levels;
+    CachedTemplate coarseTemplate = template.downscaled(levels);
+    List<TemplateMatch> candidates;
+    try (Mat coarseBase = new Mat();
+        Mat scores = new Mat()) {
+      Size coarseSize = new Size(base.cols() / scale, base.rows() / scale);
+      resize(base, coarseBase, coarseSize, 0, 0, INTER_AREA);
+      if (coarseTemplate.width() > coarseBase.cols()
+          || coarseTemplate.height() > coarseBase.rows()) {
+        return fullSearch(base, template, false);
+      }
+      matchTemplate(
+          coarseBase, coarseTemplate.image(), scores, TM_SQDIFF_NORMED, coarseTemplate.mask());
+      candidates =
+          findPeaks(
+              scores,
+              coarseTemplate.width(),
+              coarseTemplate.height(),
+              Double.MAX_VALUE,
+              true,
+              0.5,
+              PYRAMID_CANDIDATES);
+    }
+
+    TemplateMatch best = null;
+    for (TemplateMatch candidate : candidates) {
+      Rectangle coarse = candidate.bounds();
+      TemplateMatch refined =
+          searchAround(base, template, coarse.x * scale, coarse.y * scale, scale);
+      if (refined != null && (best == null || refined.score() < best.score())) {
+        best = refined;
+      }
+    }
+    return best;
+  }
+
+  /**
+   * Scores the template at every position within {@code radius} pixels of {@code (x, y)}, using
+   * only the part of the base image those positions can touch.
+   *
+   * @param base The BGRA image to search.
+   * @param template The template to look for.
+   * @param x Expected column of the template's top left corner.
+   * @param y Expected row of the template's top left corner.
+   * @param radius How far from the expected position to search.
+   * @return The best position relative to {@code base}, or {@code null} if the neighbourhood lies
+   *     outside the image.
+   */
+  static TemplateMatch searchAround(Mat base, CachedTemplate template, int x, int y, int radius) {
+    int left = Math.max(0, x - radius);
+    int top = Math.max(0, y - radius);
+    int right = Math.min(base.cols() - template.width(), x + radius);
+    int bottom = Math.min(base.rows() - template.height(), y + radius);
+    if (right < left || bottom < top) {
       return null;
     }
-    // offset for screen cords
-    Rectangle offset = ScreenManager.getWindowBounds();
+    Rectangle region =
+        new Rectangle(left, top, right - left + template.width(), bottom - top + template.height());
+    return searchRegion(base, template, region);
+  }
 
-    Rectangle match =
-        new Rectangle(
-            offset.x + minLoc.x(), offset.y + minLoc.y(), template.cols(), template.rows());
+  /**
+   * Scores the template at every position where it lies fully inside a region of the base image.
+   *
+   * @param base The BGRA image to search.
+   * @param template The template to look for.
+   * @param region The region to search, inside the image and at least as large as the template.
+   * @return The best position relative to {@code base}.
+   */
+  private static TemplateMatch searchRegion(Mat base, CachedTemplate template, Rectangle region) {
+    try (Rect roi = new Rect(region.x, region.y, region.width, region.height);
+        Mat window = new Mat(base, roi);
+        Mat scores = new Mat();
+        DoublePointer minVal = new DoublePointer(1);
+        Point minLoc = new Point()) {
+      matchTemplate(window, template.image(), scores, TM_SQDIFF_NORMED, template.mask());
+      minMaxLoc(scores, minVal, null, minLoc, null, null);
+      return new TemplateMatch(
+          new Rectangle(
+              region.x + minLoc.x(), region.y + minLoc.y(), template.width(), template.height()),
+          minVal.get());
+    }
+  }
 
-    debug("Match found at: " + match, debugMsg);
+  /**
+   * Finds every occurrence of a template within a larger image with a single {@code matchTemplate}
+   * pass.
+   *
+   * <p>Uses the same alpha-masked TM_SQDIFF_NORMED matching as {@link #match}. The result map is
+   * thresholded once, every local minimum below the threshold becomes a candidate, and overlapping
+   * candidates are resolved by non-maximum suppression so each occurrence is reported once. This
+   * replaces repeatedly matching and masking the image to find several items, for example all
+   * stacks of an item in the bank.
+   *
+   * @param templateImg Path to the template image resource.
+   * @param baseImg The image to search, in BGR or BGRA format.
+   * @param threshold The maximum allowed normalized squared difference score for a valid match.
+   * @param maxOverlap Largest intersection-over-union two reported matches may share, between 0 (no
+   *     overlap at all) and 1 (no suppression).
+   * @return All matches in screen co-ordinates, best (lowest) score first. Empty if none meets the
+   *     threshold.
+   * @throws Exception If the template is larger than the base image.
+   */
+  public static List<TemplateMatch> matchAll(
+      String templateImg, BufferedImage baseImg, double threshold, double maxOverlap)
+      throws Exception {
+    try (Frame frame = Frame.of(baseImg)) {
+      return matchAll(templateImg, frame, threshold, maxOverlap);
+    }
+  }
 
-    template.release();
-    base.release();
+  /**
+   * Finds every occurrence of a template in a {@link Frame}, like {@link #matchAll(String,
+   * BufferedImage, double, double)}.
+   *
+   * @param templateImg Path to the template image resource.
+   * @param frame The frame to search.
+   * @param threshold The maximum allowed normalized squared difference score for a valid match.
+   * @param maxOverlap Largest intersection-over-union two reported matches may share.
+   * @return All matches in screen co-ordinates, best (lowest) score first.
+   * @throws Exception If the template is larger than the frame.
+   */
+  public static List<TemplateMatch> matchAll(
+      String templateImg, Frame frame, double threshold, double maxOverlap) throws Exception {
+    CachedTemplate cached = TemplateCache.get(templateImg);
+    Mat base = frame.bgra();
+    if (cached.width() > base.cols() || cached.height() > base.rows()) {
+      throw new Exception("Template is larger than base image");
+    }
+
+    Mat convolution = new Mat();
+    matchTemplate(base, cached.image(), convolution, TM_SQDIFF_NORMED, cached.mask());
+    List<TemplateMatch> peaks =
+        findPeaks(convolution, cached.width(), cached.height(), threshold, true, maxOverlap);
     convolution.release();
-    alpha.release();
 
-    debug("<< Exiting patternMatch()", debugMsg);
-    return match;
+    WindowGeometry geometry = frame.geometry();
+    List<TemplateMatch> matches = new ArrayList<>(peaks.size());
+    for (TemplateMatch peak : peaks) {
+      Rectangle local = peak.bounds();
+      Rectangle bounds = geometry.toScreenBounds(local.x, local.y, local.width, local.height);
+      matches.add(new TemplateMatch(bounds, peak.score()));
+    }
+    return matches;
+  }
+
+  /**
+   * Extracts every distinct match from a {@code matchTemplate} result map.
+   *
+   * <p>A position is a candidate when its score passes {@code threshold} and is at least as good as
+   * each of its eight neighbours. Candidates are ranked by score and greedily accepted, dropping
+   * any candidate whose intersection-over-union with an already accepted match exceeds {@code
+   * maxOverlap}.
+   *
+   * @param scores The single-channel {@code CV_32F} result of {@code matchTemplate}.
+   * @param width Width of the template, used for the match rectangles.
+   * @param height Height of the template, used for the match rectangles.
+   * @param threshold Worst score still accepted.
+   * @param lowerIsBetter true for squared-difference methods (minima are matches), false for
+   *     correlation methods (maxima are matches).
+   * @param maxOverlap Largest intersection-over-union two accepted matches may share.
+   * @return Matches relative to the searched image, best score first.
+   */
+  public static List<TemplateMatch> findPeaks(
+      Mat scores,
+      int width,
+      int height,
+      double threshold,
+      boolean lowerIsBetter,
+      double maxOverlap) {
+    return findPeaks(
+        scores, width, height, threshold, lowerIsBetter, maxOverlap, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Extracts the best distinct matches from a {@code matchTemplate} result map, like {@link
+   * #findPeaks(Mat, int, int, double, boolean, double)}, for callers that only use the first few.
+   *
+   * <p>Only the {@code maxResults} best candidates are kept, in a bounded heap, so a loose
+   * threshold costs one comparison per position rather than sorting and suppressing every local
+   * optimum of the map. Suppression runs among the kept candidates, so fewer than {@code
+   * maxResults} matches are returned when some of them overlap.
+   *
+   * @param scores The single-channel {@code CV_32F} result of {@code matchTemplate}.
+   * @param width Width of the template, used for the match rectangles.
+   * @param height Height of the template, used for the match rectangles.
+   * @param threshold Worst score still accepted.
+   * @param lowerIsBetter true for squared-difference methods (minima are matches), false for
+   *     correlation methods (maxima are matches).
+   * @param maxOverlap Largest intersection-over-union two accepted matches may share.
+   * @param maxResults Largest number of candidates considered.
+   * @return At most {@code maxResults} matches relative to the searched image, best score first.
+   */
+  public static List<TemplateMatch> findPeaks(
+      Mat scores,
+      int width,
+      int height,
+      double threshold,
+      boolean lowerIsBetter,
+      double maxOverlap,
+      int maxResults) {
+    int cols = scores.cols();
+    int rows = scores.rows();
+    float[] map = new float[cols * rows];
+    FloatBuffer buffer = scores.createBuffer();
+    buffer.get(0, map);
+    // Fold both orderings into "lower is better" so a single comparison works for both
+    float sign = lowerIsBetter ? 1f : -1f;
+    float limit = (float) (sign * threshold);
+
+    Comparator<TemplateMatch> best =
+        lowerIsBetter
+            ? Comparator.comparingDouble(TemplateMatch::score)
+            : Comparator.comparingDouble(TemplateMatch::score).reversed();
+    // Worst kept candidate at the head, so it is the one replaced by a better one
+    PriorityQueue<TemplateMatch> kept = new PriorityQueue<>(best.reversed());
+    for (int y = 0; y < rows; y++) {
+      for (int x = 0; x < cols; x++) {
+        float value = sign * map[y * cols + x];
+        if (!(value <= limit) || Float.isInfinite(value)) {
+          continue;
+        }
+        boolean full = kept.size() >= maxResults;
+        if (full && value >= sign * kept.peek().score()) {
+          continue;
+        }
+        if (isLocalMinimum(map, cols, rows, x, y, value, sign)) {
+          if (full) {
+            kept.poll();
+          }
+          kept.add(new TemplateMatch(new Rectangle(x, y, width, height), map[y * cols + x]));
+        }
+      }
+    }
+    List<TemplateMatch> candidates = new ArrayList<>(kept);
+    candidates.sort(best);
+
+    List<TemplateMatch> accepted = new ArrayList<>();
+    for (TemplateMatch candidate : candidates) {
+      boolean suppressed = false;
+      for (TemplateMatch match : accepted) {
+        if (overlap(candidate.bounds(), match.bounds()) > maxOverlap) {
+          suppressed = true;
+          break;
+        }
+      }
+      if (!suppressed) {
+        accepted.add(candidate);
+      }
+    }
+    return accepted;
+  }
+
+  /**
+   * Checks whether a result map entry is no worse than any of its eight neighbours.
+   *
+   * @param map The result map, row-major.
+   * @param cols Width of the map.
+   * @param rows Height of the map.
+   * @param x Column of the entry.
+   * @param y Row of the entry.
+   * @param value The entry, already multiplied by {@code sign}.
+   * @param sign 1 if lower scores are better, -1 otherwise.
+   * @return true if the entry is a local optimum.
+   */
+  private static boolean isLocalMinimum(
+      float[] map, int cols, int rows, int x, int y, float value, float sign) {
+    for (int dy = -1; dy <= 1; dy++) {
+      int ny = y + dy;
+      if (ny < 0 || ny >= rows) {
+        continue;
+      }
+      for (int dx = -1; dx <= 1; dx++) {
+        int nx = x + dx;
+        if (nx < 0 || nx >= cols || (dx == 0 && dy == 0)) {
+          continue;
+        }
+        if (sign * map[ny * cols + nx] < value) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Intersection-over-union of two rectangles.
+   *
+   * @param a The first rectangle.
+   * @param b The second rectangle.
+   * @return The overlap ratio between 0 (disjoint) and 1 (identical).
+   */
+  static double overlap(Rectangle a, Rectangle b) {
+    Rectangle intersection = a.intersection(b);
+    if (intersection.isEmpty()) {
+      return 0;
+    }
+    double shared = (double) intersection.width * intersection.height;
+    return shared / ((double) a.width * a.height + (double) b.width * b.height - shared);
   }
 
   /**
@@ -199,29 +881,33 @@ public class TemplateMatching {
   /**
    * Loads an image as a Mat from a resource path, preserving alpha channel.
    *
+   * <p>The resource bytes are decoded in memory with {@code imdecode}; nothing is written to disk.
+   * The returned {@link Mat} is owned by the caller. {@link #match} does not call this directly but
+   * goes through {@link TemplateCache}, which decodes each template only once.
+   *
    * @param resourcePath path to image resource, e.g. "/images/user/myTemplate.png" (first "/" is
    *     necessary)
    * @return Mat with image data including alpha
-   * @throws IOException if resource not found or temp file write fails
+   * @throws IOException if the resource cannot be read
    */
   public static Mat loadMatFromResource(String resourcePath) throws IOException {
     // Get resource as stream from classpath
-    InputStream is = TemplateMatching.class.getResourceAsStream(resourcePath);
-    if (is == null) {
-      throw new IllegalArgumentException("Resource not found: " + resourcePath);
+    byte[] encoded;
+    try (InputStream is = TemplateMatching.class.getResourceAsStream(resourcePath)) {
+      if (is == null) {
+        throw new IllegalArgumentException("Resource not found: " + resourcePath);
+      }
+      encoded = is.readAllBytes();
     }
 
-    // Create a temp file to write the resource contents (OpenCV imread needs a file path)
-    Path tempFile = Files.createTempFile("opencv-temp-", ".png");
-    tempFile.toFile().deleteOnExit();
-
-    // Copy resource stream to temp file
-    Files.copy(is, tempFile, StandardCopyOption.REPLACE_EXISTING);
-
-    // Load with imread and IMREAD_UNCHANGED to keep alpha
-    Mat mat = opencv_imgcodecs.imread(tempFile.toString(), opencv_imgcodecs.IMREAD_UNCHANGED);
+    // Decode with IMREAD_UNCHANGED to keep alpha
+    Mat mat;
+    try (BytePointer data = new BytePointer(encoded);
+        Mat buffer = new Mat(data)) {
+      mat = opencv_imgcodecs.imdecode(buffer, opencv_imgcodecs.IMREAD_UNCHANGED);
+    }
 
-    if (mat.empty()) {
+    if (mat == null || mat.empty()) {
       throw new IllegalStateException("Failed to load Mat from resource: " + resourcePath);
     }
 
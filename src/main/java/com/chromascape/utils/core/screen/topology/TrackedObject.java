@@ -0,0 +1,39 @@
+package com.chromascape.utils.core.screen.topology;
+
+import java.awt.Rectangle;
+
+/**
+ * An object followed across frames by an {@link ObjectTracker}.
+ *
+ * @param id Identifier that stays the same for as long as the tracker follows the object.
+ * @param blob The object's most recent detection, in screen co-ordinates.
+ * @param velocityX Smoothed horizontal movement of the centroid, in pixels per update.
+ * @param velocityY Smoothed vertical movement of the centroid, in pixels per update.
+ * @param age Number of updates since the object was first seen.
+ * @param missed Number of consecutive updates in which the object was not detected, 0 if it was
+ *     seen in the latest one.
+ */
+public record TrackedObject(
+    int id, Blob blob, double velocityX, double velocityY, int age, int missed) {
+
+  /**
+   * Where the object is expected to be after the next update, assuming it keeps moving at its
+   * current velocity.
+   *
+   * @return The predicted bounds in screen co-ordinates.
+   */
+  public Rectangle predictedBounds() {
+    Rectangle bounds = blob.bounds();
+    bounds.translate((int) Math.round(velocityX), (int) Math.round(velocityY));
+    return bounds;
+  }
+
+  /**
+   * Whether the object was detected in the latest update.
+   *
+   * @return true if it was seen, false if only its prediction remains.
+   */
+  public boolean isVisible() {
+    return missed == 0;
+  }
+}
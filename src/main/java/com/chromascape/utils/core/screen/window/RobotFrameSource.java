@@ -0,0 +1,107 @@
+package com.chromascape.utils.core.screen.window;
+
+import com.chromascape.utils.core.screen.capture.FrameSource;
+import com.chromascape.utils.core.screen.capture.RasterConverter;
+import com.chromascape.utils.core.screen.window.ScreenManager.User32Extended;
+import com.sun.jna.platform.win32.User32;
+import com.sun.jna.platform.win32.WinDef;
+import com.sun.jna.platform.win32.WinDef.HWND;
+import com.sun.jna.platform.win32.WinUser;
+import java.awt.AWTException;
+import java.awt.Rectangle;
+import java.awt.Robot;
+import org.bytedeco.opencv.opencv_core.Mat;
+
+/**
+ * The live {@link FrameSource}: captures the RuneLite game view with {@link Robot} and locates it
+ * through its Win32 window handle using JNA.
+ *
+ * <p>This is the default source of {@link ScreenManager}. The window handle and the {@link Robot}
+ * are resolved when the source is constructed, so headless machines that install a recorded or
+ * synthetic source never touch AWT or User32.
+ */
+public class RobotFrameSource implements FrameSource {
+
+  private final Robot robot;
+
+  /**
+   * The HWND of the second child of the RuneLite window - The game view portion. This is prone to
+   * breaking if RuneLite add more canvas elements, but this is not likely.
+   */
+  private final HWND canvasHwnd;
+
+  /**
+   * Resolves the RuneLite canvas and creates the {@link Robot} used for capturing.
+   *
+   * @throws IllegalStateException if the {@link Robot} cannot be created, e.g. on a headless JVM.
+   */
+  public RobotFrameSource() {
+    try {
+      robot = new Robot();
+    } catch (AWTException e) {
+      throw new IllegalStateException("Failed to create Robot instance", e);
+    }
+    canvasHwnd =
+        WindowHandler.findNthChildWindow(WindowHandler.getTargetWindow(), "SunAwtCanvas", 2);
+  }
+
+  /**
+   * Reads the bounds of the game view canvas from the window.
+   *
+   * <p>Converts the client-relative origin to screen coordinates using {@code ClientToScreen}.
+   *
+   * @return The on-screen client area of the canvas.
+   */
+  @Override
+  public Rectangle queryBounds() {
+    WinDef.RECT dimensions = new WinDef.RECT();
+    User32.INSTANCE.GetClientRect(canvasHwnd, dimensions);
+
+    WinDef.POINT clientTopLeft = new WinDef.POINT();
+    clientTopLeft.x = 0;
+    clientTopLeft.y = 0;
+
+    User32Extended uex = User32Extended.INSTANCE;
+    uex.ClientToScreen(canvasHwnd, clientTopLeft);
+
+    return new Rectangle(
+        clientTopLeft.x,
+        clientTopLeft.y,
+        dimensions.right - dimensions.left,
+        dimensions.bottom - dimensions.top);
+  }
+
+  /**
+   * Checks which monitor contains the target application's top left corner and returns the
+   * monitor's {@link Rectangle} bounds.
+   *
+   * @return the monitor's bounds.
+   */
+  @Override
+  public Rectangle monitorBounds() {
+    WinUser.HMONITOR monitor =
+        User32.INSTANCE.MonitorFromWindow(canvasHwnd, WinUser.MONITOR_DEFAULTTONEAREST);
+
+    WinUser.MONITORINFO mi = new WinUser.MONITORINFO();
+    mi.cbSize = mi.size();
+    User32.INSTANCE.GetMonitorInfo(monitor, mi);
+
+    WinDef.RECT monitorRect = mi.rcMonitor;
+
+    return new Rectangle(
+        monitorRect.left,
+        monitorRect.top,
+        monitorRect.right - monitorRect.left,
+        monitorRect.bottom - monitorRect.top);
+  }
+
+  @Override
+  public void grab(Rectangle region, byte[] dst) {
+    RasterConverter.toBgr(robot.createScreenCapture(region), dst);
+  }
+
+  @Override
+  public Mat grab(Rectangle region, Mat dst) {
+    return RasterConverter.toBgr(robot.createScreenCapture(region), dst);
+  }
+}
@@ -1,39 +1,55 @@
 package com.chromascape.utils.core.screen.window;
 
+import com.chromascape.utils.core.screen.capture.CaptureService;
+import com.chromascape.utils.core.screen.capture.CapturedFrame;
+import com.chromascape.utils.core.screen.capture.FrameSource;
 import com.sun.jna.Native;
 import com.sun.jna.platform.win32.User32;
-import com.sun.jna.platform.win32.WinDef;
 import com.sun.jna.platform.win32.WinDef.HWND;
-import com.sun.jna.platform.win32.WinUser;
-import java.awt.AWTException;
-import java.awt.Graphics;
 import java.awt.Point;
 import java.awt.Rectangle;
-import java.awt.Robot;
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.time.Duration;
+import org.bytedeco.opencv.opencv_core.Mat;
 
 /**
  * Utility class for capturing screen regions, retrieving window bounds, and interacting with native
  * window functionality using JNA.
  *
+ * <p>Pixels and window bounds come from a pluggable {@link FrameSource}. By default this is the
+ * live {@link RobotFrameSource}; recorded or synthetic sources can be installed with {@link
+ * #setFrameSource(FrameSource)} to run the vision stack without a client.
+ *
  * <p>Provides methods for:
  *
  * <ul>
- *   <li>Capturing the content of a target window or any screen region (zone).
- *   <li>Determining window bounds using native window handles.
+ *   <li>Capturing the content of a target window or any screen region (zone), either directly or
+ *       from the latest frame of an attached {@link CaptureService}.
+ *   <li>Determining window bounds using native window handles, cached as a {@link WindowGeometry}
+ *       snapshot.
  *   <li>Focusing or checking fullscreen status of a given window.
  * </ul>
  */
 public class ScreenManager {
 
-  private static final Robot robot;
+  /** Default lifetime of a cached {@link WindowGeometry} before the window is queried again. */
+  public static final Duration DEFAULT_GEOMETRY_TTL = Duration.ofMillis(250);
 
-  /**
-   * Grabs the HWND of the second child of the RuneLite window - The game view portion. This is
-   * prone to breaking if RuneLite add more canvas elements, but this is not likely.
-   */
-  private static final HWND canvasHwnd =
-      WindowHandler.findNthChildWindow(WindowHandler.getTargetWindow(), "SunAwtCanvas", 2);
+  /** Last geometry read from the window, or {@code null} if it must be re-read. */
+  private static volatile WindowGeometry geometry;
+
+  /** How long, in nanoseconds, a cached geometry is served before it is refreshed. */
+  private static volatile long geometryTtlNanos = DEFAULT_GEOMETRY_TTL.toNanos();
+
+  /** Guards refreshes of {@link #geometry} so concurrent callers make a single native lookup. */
+  private static final Object geometryLock = new Object();
+
+  /** Shared background capture, or {@code null} to capture on every call. */
+  private static volatile CaptureService captureService;
+
+  /** Where pixels and bounds come from; created lazily so nothing native loads until needed. */
+  private static volatile FrameSource frameSource;
 
   /**
    * JNA extension interface to allow calling {@code ClientToScreen} which converts window-relative
@@ -68,75 +84,272 @@ public class ScreenManager {
     User32Extended INSTANCE = Native.load("user32", User32Extended.class);
   }
 
-  static {
-    try {
-      robot = new Robot();
-    } catch (AWTException e) {
-      throw new RuntimeException("Failed to create Robot instance", e);
+  /**
+   * Returns the active {@link FrameSource}, creating the live {@link RobotFrameSource} on first use
+   * if no other source has been installed.
+   *
+   * @return The active source.
+   */
+  public static FrameSource getFrameSource() {
+    FrameSource source = frameSource;
+    if (source == null) {
+      synchronized (ScreenManager.class) {
+        source = frameSource;
+        if (source == null) {
+          source = new RobotFrameSource();
+          frameSource = source;
+        }
+      }
     }
+    return source;
+  }
+
+  /**
+   * Installs the {@link FrameSource} every capture and bounds lookup goes through, closing the
+   * previous one. The cached {@link WindowGeometry} is discarded.
+   *
+   * @param source The new source, or {@code null} to fall back to the live {@link RobotFrameSource}
+   *     on next use.
+   */
+  public static void setFrameSource(FrameSource source) {
+    FrameSource previous;
+    synchronized (ScreenManager.class) {
+      previous = frameSource;
+      frameSource = source;
+    }
+    if (previous != null && previous != source) {
+      previous.close();
+    }
+    invalidateGeometry();
   }
 
   /**
    * Captures the Canvas object of the RuneLite GameView.
    *
-   * <p>Converts the ARGB screenshot into a BGR BufferedImage for OpenCV compatibility.
+   * <p>The active {@link FrameSource} writes the screenshot straight into a BGR BufferedImage for
+   * OpenCV compatibility. When a {@link CaptureService} is attached and running, the image is
+   * copied out of its latest frame instead of grabbing the screen again.
    *
    * @return BufferedImage of the captured window contents in BGR format.
    */
   public static BufferedImage captureWindow() {
-    BufferedImage argb = robot.createScreenCapture(getWindowBounds());
-    BufferedImage bgr =
-        new BufferedImage(argb.getWidth(), argb.getHeight(), BufferedImage.TYPE_3BYTE_BGR);
-
-    Graphics g = bgr.getGraphics();
-    g.drawImage(argb, 0, 0, null);
-    g.dispose();
-    return bgr;
+    CapturedFrame frame = sharedFrame();
+    if (frame != null) {
+      return frame.toBufferedImage();
+    }
+    return grabImage(getWindowBounds());
   }
 
   /**
    * Captures a specific rectangular screen region.
    *
-   * <p>Converts the ARGB capture to BGR format for OpenCV usage.
+   * <p>The capture is written straight into a BGR BufferedImage for OpenCV usage. When a {@link
+   * CaptureService} is attached and the zone lies inside its latest frame, the zone is cropped out
+   * of that frame instead of grabbing the screen again.
    *
    * @param zone The screen rectangle to capture.
    * @return BufferedImage of the captured zone in BGR format.
    */
   public static BufferedImage captureZone(Rectangle zone) {
-    BufferedImage argb = robot.createScreenCapture(zone);
-    BufferedImage bgr =
-        new BufferedImage(argb.getWidth(), argb.getHeight(), BufferedImage.TYPE_3BYTE_BGR);
+    CapturedFrame frame = sharedFrame();
+    if (frame != null && frame.contains(zone)) {
+      return frame.crop(zone);
+    }
+    return grabImage(zone);
+  }
+
+  /**
+   * Captures the Canvas object of the RuneLite GameView directly into an OpenCV {@link Mat}.
+   *
+   * <p>The captured raster is read once and written as BGR bytes into {@code dst}, skipping the
+   * intermediate BGR {@link BufferedImage} and the {@code Java2DFrameUtils.toMat} conversion. Pass
+   * the same {@link Mat} on every call to avoid allocating native memory per capture.
+   *
+   * @param dst A reusable 3-channel BGR {@link Mat}, or {@code null} to allocate a new one.
+   * @return {@code dst} (or the new {@link Mat}) holding the window contents in BGR format.
+   */
+  public static Mat captureWindowMat(Mat dst) {
+    CapturedFrame frame = sharedFrame();
+    if (frame != null) {
+      return frame.toMat(dst);
+    }
+    return getFrameSource().grab(getWindowBounds(), dst);
+  }
 
-    Graphics g = bgr.getGraphics();
-    g.drawImage(argb, 0, 0, null);
-    g.dispose();
-    return bgr;
+  /**
+   * Captures a specific rectangular screen region directly into an OpenCV {@link Mat}.
+   *
+   * @param zone The screen rectangle to capture.
+   * @param dst A reusable 3-channel BGR {@link Mat}, or {@code null} to allocate a new one.
+   * @return {@code dst} (or the new {@link Mat}) holding the zone contents in BGR format.
+   * @see #captureWindowMat(Mat)
+   */
+  public static Mat captureZoneMat(Rectangle zone, Mat dst) {
+    CapturedFrame frame = sharedFrame();
+    if (frame != null && frame.contains(zone)) {
+      return frame.cropMat(zone, dst);
+    }
+    return getFrameSource().grab(zone, dst);
+  }
+
+  /**
+   * Grabs the game view into a new {@link CapturedFrame}, bypassing any attached {@link
+   * CaptureService}. This is the capture primitive the service itself runs on.
+   *
+   * @param sequence The sequence number to stamp on the frame.
+   * @return A freshly captured frame.
+   */
+  public static CapturedFrame grabFrame(long sequence) {
+    WindowGeometry snapshot = geometry();
+    Rectangle bounds = snapshot.bounds();
+    byte[] bgr = new byte[bounds.width * bounds.height * 3];
+    long timestamp = System.nanoTime();
+    getFrameSource().grab(bounds, bgr);
+    return new CapturedFrame(sequence, timestamp, snapshot, bgr);
+  }
+
+  /**
+   * Grabs a screen region from the active source into a new BGR image.
+   *
+   * @param zone The screen rectangle to capture.
+   * @return A {@code TYPE_3BYTE_BGR} image of the zone.
+   */
+  private static BufferedImage grabImage(Rectangle zone) {
+    BufferedImage image = new BufferedImage(zone.width, zone.height, BufferedImage.TYPE_3BYTE_BGR);
+    getFrameSource().grab(zone, ((DataBufferByte) image.getRaster().getDataBuffer()).getData());
+    return image;
+  }
+
+  /**
+   * Returns one frame that every decision of a cycle can refer to.
+   *
+   * <p>This is the latest frame of the attached {@link CaptureService} when one is running, or a
+   * frame grabbed on the spot otherwise.
+   *
+   * @return The current frame.
+   */
+  public static CapturedFrame latestFrame() {
+    CapturedFrame frame = sharedFrame();
+    return frame != null ? frame : grabFrame(-1);
+  }
+
+  /**
+   * Attaches a shared {@link CaptureService}. While it is running, every capture method in this
+   * class is served from its latest frame. Pass {@code null} to go back to capturing on every call.
+   *
+   * @param service The service to attach, or {@code null} to detach.
+   */
+  public static void setCaptureService(CaptureService service) {
+    captureService = service;
+  }
+
+  /**
+   * Whether a screen-space zone may have changed since frame {@code sequence} of the attached
+   * {@link CaptureService}. Without a running service nothing is tracked and every zone is reported
+   * as changed.
+   *
+   * @param sequence Sequence number of a frame the caller has already processed.
+   * @param screenZone The zone in absolute screen co-ordinates.
+   * @return true if the zone changed, or may have changed, since that frame.
+   */
+  public static boolean changedSince(long sequence, Rectangle screenZone) {
+    CaptureService service = captureService;
+    if (service == null || !service.isRunning() || sequence < 0) {
+      return true;
+    }
+    return service.changedSince(sequence, screenZone);
+  }
+
+  /**
+   * The latest frame of the attached capture service, if any.
+   *
+   * @return The shared frame, or {@code null} if no running service is attached.
+   */
+  private static CapturedFrame sharedFrame() {
+    CaptureService service = captureService;
+    if (service == null || !service.isRunning()) {
+      return null;
+    }
+    return service.latest();
   }
 
   /**
    * Gets the bounds of the (game view) RuneLite AWT Canvas object.
    *
-   * <p>Converts the client-relative origin to screen coordinates using {@code ClientToScreen}.
+   * <p>Served from the cached {@link #geometry()} snapshot, so calling this in a loop does not make
+   * a native call per iteration.
    *
    * @return A {@link Rectangle} representing the on-screen position and size of RuneLite's client
    *     area excluding possible window borders, title or scrollbars.
    */
   public static Rectangle getWindowBounds() {
-    WinDef.RECT dimensions = new WinDef.RECT();
-    User32.INSTANCE.GetClientRect(canvasHwnd, dimensions);
+    return geometry().bounds();
+  }
 
-    WinDef.POINT clientTopLeft = new WinDef.POINT();
-    clientTopLeft.x = 0;
-    clientTopLeft.y = 0;
+  /**
+   * Returns a snapshot of the canvas position on screen.
+   *
+   * <p>The snapshot is cached and re-read from the window once it is older than the configured TTL
+   * (see {@link #setGeometryTtl(Duration)}) or after {@link #invalidateGeometry()}. Whenever a
+   * re-read observes different bounds, the snapshot's {@link WindowGeometry#generation()} is
+   * incremented so holders can tell the window has moved or been resized.
+   *
+   * <p>Hold the returned snapshot for the length of a cycle to keep every coordinate conversion in
+   * that cycle consistent.
+   *
+   * @return The current {@link WindowGeometry}.
+   */
+  public static WindowGeometry geometry() {
+    WindowGeometry current = geometry;
+    if (current != null && System.nanoTime() - current.capturedAtNanos() < geometryTtlNanos) {
+      return current;
+    }
+    synchronized (geometryLock) {
+      current = geometry;
+      if (current != null && System.nanoTime() - current.capturedAtNanos() < geometryTtlNanos) {
+        return current;
+      }
+      Rectangle bounds = queryWindowBounds();
+      long generation = 0;
+      if (current != null) {
+        generation =
+            current.bounds().equals(bounds) ? current.generation() : current.generation() + 1;
+      }
+      current = new WindowGeometry(bounds, generation, System.nanoTime());
+      geometry = current;
+      return current;
+    }
+  }
+
+  /**
+   * Discards the cached {@link WindowGeometry} so the next call re-reads it from the window. Call
+   * this after anything that is known to move or resize the client.
+   */
+  public static void invalidateGeometry() {
+    geometry = null;
+  }
 
-    User32Extended uex = User32Extended.INSTANCE;
-    uex.ClientToScreen(canvasHwnd, clientTopLeft);
+  /**
+   * Sets how long a cached {@link WindowGeometry} is served before the window is queried again.
+   * {@link Duration#ZERO} disables caching.
+   *
+   * @param ttl The new time to live, defaults to {@link #DEFAULT_GEOMETRY_TTL}.
+   * @throws IllegalArgumentException if {@code ttl} is negative.
+   */
+  public static void setGeometryTtl(Duration ttl) {
+    if (ttl.isNegative()) {
+      throw new IllegalArgumentException("Geometry TTL must not be negative: " + ttl);
+    }
+    geometryTtlNanos = ttl.toNanos();
+  }
 
-    return new Rectangle(
-        clientTopLeft.x,
-        clientTopLeft.y,
-        dimensions.right - dimensions.left,
-        dimensions.bottom - dimensions.top);
+  /**
+   * Reads the bounds of the game view canvas from the active {@link FrameSource}.
+   *
+   * @return The on-screen client area of the canvas.
+   */
+  private static Rectangle queryWindowBounds() {
+    return getFrameSource().queryBounds();
   }
 
   /**
@@ -146,20 +359,7 @@ public class ScreenManager {
    * @return the monitor's bounds.
    */
   public static Rectangle getMonitorBounds() {
-    WinUser.HMONITOR monitor =
-        User32.INSTANCE.MonitorFromWindow(canvasHwnd, WinUser.MONITOR_DEFAULTTONEAREST);
-
-    WinUser.MONITORINFO mi = new WinUser.MONITORINFO();
-    mi.cbSize = mi.size();
-    User32.INSTANCE.GetMonitorInfo(monitor, mi);
-
-    WinDef.RECT monitorRect = mi.rcMonitor;
-
-    return new Rectangle(
-        monitorRect.left,
-        monitorRect.top,
-        monitorRect.right - monitorRect.left,
-        monitorRect.bottom - monitorRect.top);
+    return getFrameSource().monitorBounds();
   }
 
   /**
@@ -176,9 +376,9 @@ public class ScreenManager {
    * @return the same rectangle, now adjusted to canvas-local coordinates
    */
   public static Rectangle toClientBounds(Rectangle screenBounds) {
-    Rectangle offset = ScreenManager.getWindowBounds();
-    screenBounds.x -= offset.x;
-    screenBounds.y -= offset.y;
+    WindowGeometry offset = geometry();
+    screenBounds.x -= offset.x();
+    screenBounds.y -= offset.y();
     return screenBounds;
   }
 
@@ -194,7 +394,6 @@ public class ScreenManager {
    * @return a new {@code Point} adjusted to canvas-local coordinates
    */
   public static Point toClientCoords(Point screenPoint) {
-    Rectangle offset = ScreenManager.getWindowBounds();
-    return new Point(screenPoint.x - offset.x, screenPoint.y - offset.y);
+    return geometry().toClientCoords(screenPoint);
   }
 }
@@ -0,0 +1,127 @@
+package com.chromascape.utils.core.screen.window;
+
+import java.awt.Point;
+import java.awt.Rectangle;
+
+/**
+ * Immutable snapshot of the RuneLite game-view canvas position on screen.
+ *
+ * <p>Obtained from {@link ScreenManager#geometry()}. Hot loops (contour offsetting, rejection
+ * sampling, mouse paths) are intended to take one snapshot and hold it for the length of a cycle,
+ * so every coordinate conversion in a single decision uses the same window origin and no native
+ * calls are made per point.
+ *
+ * @param bounds The on-screen client area of the canvas, as returned by {@link
+ *     ScreenManager#getWindowBounds()}.
+ * @param generation Incremented by {@link ScreenManager} every time the observed bounds change. Two
+ *     snapshots with the same generation describe the same window placement.
+ * @param capturedAtNanos {@link System#nanoTime()} at which the bounds were read from the window.
+ */
+public record WindowGeometry(Rectangle bounds, long generation, long capturedAtNanos) {
+
+  /**
+   * Creates a snapshot holding a defensive copy of {@code bounds}.
+   *
+   * @param bounds The on-screen client area of the canvas.
+   * @param generation The change counter at the time of the read.
+   * @param capturedAtNanos {@link System#nanoTime()} at which the bounds were read.
+   */
+  public WindowGeometry {
+    bounds = new Rectangle(bounds);
+  }
+
+  /**
+   * Returns the on-screen client area of the canvas.
+   *
+   * @return A copy of the bounds, safe to mutate.
+   */
+  @Override
+  public Rectangle bounds() {
+    return new Rectangle(bounds);
+  }
+
+  /**
+   * Screen x co-ordinate of the canvas' top left corner.
+   *
+   * @return The x origin.
+   */
+  public int x() {
+    return bounds.x;
+  }
+
+  /**
+   * Screen y co-ordinate of the canvas' top left corner.
+   *
+   * @return The y origin.
+   */
+  public int y() {
+    return bounds.y;
+  }
+
+  /**
+   * Width of the canvas client area.
+   *
+   * @return The width in pixels.
+   */
+  public int width() {
+    return bounds.width;
+  }
+
+  /**
+   * Height of the canvas client area.
+   *
+   * @return The height in pixels.
+   */
+  public int height() {
+    return bounds.height;
+  }
+
+  /**
+   * Converts a screen-space point to canvas local co-ordinates.
+   *
+   * @param screenPoint The point in absolute screen co-ordinates.
+   * @return A new {@link Point} relative to the canvas origin.
+   */
+  public Point toClientCoords(Point screenPoint) {
+    return new Point(screenPoint.x - bounds.x, screenPoint.y - bounds.y);
+  }
+
+  /**
+   * Converts a screen-space rectangle to canvas local co-ordinates.
+   *
+   * <p>Unlike {@link ScreenManager#toClientBounds(Rectangle)}, the argument is left untouched, so
+   * rectangles that are cached in screen space can be converted repeatedly.
+   *
+   * @param screenBounds The rectangle in absolute screen co-ordinates.
+   * @return A new {@link Rectangle} relative to the canvas origin.
+   */
+  public Rectangle toClientBounds(Rectangle screenBounds) {
+    return new Rectangle(
+        screenBounds.x - bounds.x,
+        screenBounds.y - bounds.y,
+        screenBounds.width,
+        screenBounds.height);
+  }
+
+  /**
+   * Converts a canvas-local rectangle, such as an OpenCV bounding box, to screen co-ordinates.
+   *
+   * @param x The canvas-local x co-ordinate.
+   * @param y The canvas-local y co-ordinate.
+   * @param width The rectangle width.
+   * @param height The rectangle height.
+   * @return A new {@link Rectangle} in absolute screen co-ordinates.
+   */
+  public Rectangle toScreenBounds(int x, int y, int width, int height) {
+    return new Rectangle(bounds.x + x, bounds.y + y, width, height);
+  }
+
+  /**
+   * Age of this snapshot.
+   *
+   * @return Milliseconds elapsed since the bounds were read from the window.
+   */
+  public long ageMillis() {
+    return (System.nanoTime() - capturedAtNanos) / 1_000_000L;
+  }
+}
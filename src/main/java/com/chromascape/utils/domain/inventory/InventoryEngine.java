@@ -0,0 +1,258 @@
+package com.chromascape.utils.domain.inventory;
+
+import com.chromascape.utils.core.screen.capture.CapturedFrame;
+import com.chromascape.utils.core.screen.capture.Frame;
+import com.chromascape.utils.core.screen.capture.PixelHash;
+import com.chromascape.utils.core.screen.topology.TemplateMatching;
+import com.chromascape.utils.core.screen.window.ScreenManager;
+import com.chromascape.utils.domain.zones.ZoneManager;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Classifies every inventory slot against a set of registered items from a single capture.
+ *
+ * <p>Checking the inventory one slot and one item at a time costs a capture and a template match
+ * per check. The engine instead takes one frame, copies all 28 slots out of it and hashes each
+ * slot's pixels. A slot whose hash equals the one seen in the previous snapshot keeps its previous
+ * classification, so in the common case of an inventory that changes one slot at a time only that
+ * slot is matched again. Changed slots are first tested for emptiness, and all occupied ones are
+ * then matched against every registered item in one {@link TemplateMatching#matchBatch(Frame,
+ * List, Map)} call over a single conversion of the inventory area.
+ *
+ * <p>Item sprites carry a near-black outline that the plain inventory background never contains, so
+ * a slot with no near-black pixels is treated as empty without matching anything.
+ */
+public class InventoryEngine {
+
+  private static final Logger logger = LogManager.getLogger(InventoryEngine.class);
+
+  /** Highest channel value of a pixel counted as part of an item outline. */
+  static final int OUTLINE_MAX = 8;
+
+  /** Number of outline pixels a slot needs before it is considered occupied. */
+  static final int OUTLINE_MIN_PIXELS = 6;
+
+  private final ZoneManager zones;
+  private final Map<String, Item> items = new LinkedHashMap<>();
+
+  private long[] slotHashes;
+  private String[] slotItems;
+  private InventorySnapshot last;
+  private ItemHashIndex index;
+  private double indexThreshold;
+
+  /**
+   * Creates an engine reading the inventory slots mapped by a zone manager.
+   *
+   * @param zones The zone manager of the running script.
+   */
+  public InventoryEngine(ZoneManager zones) {
+    this.zones = zones;
+  }
+
+  /**
+   * Registers an item to recognise. Registering an id again replaces its template and threshold.
+   * Items are tried in registration order, and the first one that matches a slot wins; items
+   * sharing a template are matched at the most lenient of their thresholds.
+   *
+   * @param itemId The id reported in snapshots for slots holding the item.
+   * @param templatePath Classpath resource of the item sprite, e.g. "/images/user/Iron_ore.png".
+   * @param threshold Maximum match score accepted for the item, see {@link TemplateMatching}.
+   */
+  public synchronized void register(String itemId, String templatePath, double threshold) {
+    Item item = new Item(templatePath, threshold);
+    if (!item.equals(items.put(itemId, item))) {
+      slotHashes = null;
+    }
+  }
+
+  /**
+   * Forgets a registered item.
+   *
+   * @param itemId The item id.
+   */
+  public synchronized void unregister(String itemId) {
+    if (items.remove(itemId) != null) {
+      slotHashes = null;
+    }
+  }
+
+  /**
+   * Falls back to a perceptual-hash index for occupied slots that match none of the registered
+   * items. Such slots are reported under the template path of the identified item instead of {@link
+   * InventorySnapshot#UNKNOWN}.
+   *
+   * @param index The index to consult, or {@code null} to stop using one.
+   * @param threshold Maximum score accepted by the index's confirming match.
+   */
+  public synchronized void useIndex(ItemHashIndex index, double threshold) {
+    this.index = index;
+    this.indexThreshold = threshold;
+    slotHashes = null;
+  }
+
+  /**
+   * Classifies every inventory slot in the current frame.
+   *
+   * <p>If the frame is the one the previous snapshot was taken from, that snapshot is returned
+   * as-is.
+   *
+   * @return The contents of the inventory at the time of the latest capture.
+   * @throws Exception If an item template cannot be loaded or is larger than a slot.
+   */
+  public synchronized InventorySnapshot snapshot() throws Exception {
+    CapturedFrame frame = ScreenManager.latestFrame();
+    if (slotHashes != null && last != null && isSameFrame(frame, last)) {
+      return last;
+    }
+    List<Rectangle> slots = zones.getInventorySlots();
+    if (slotHashes == null || slotHashes.length != slots.size()) {
+      slotHashes = new long[slots.size()];
+      slotItems = new String[slots.size()];
+      Arrays.fill(slotHashes, Long.MIN_VALUE);
+    }
+    int changed = 0;
+    Map<Integer, BufferedImage> occupied = new LinkedHashMap<>();
+    for (int slot = 0; slot < slots.size(); slot++) {
+      Rectangle zone = slots.get(slot);
+      BufferedImage image =
+          new BufferedImage(zone.width, zone.height, BufferedImage.TYPE_3BYTE_BGR);
+      byte[] bgr = ((DataBufferByte) image.getRaster().getDataBuffer()).getData();
+      frame.copy(zone, bgr);
+      long hash = PixelHash.of(bgr);
+      if (hash != slotHashes[slot]) {
+        slotHashes[slot] = hash;
+        slotItems[slot] = null;
+        changed++;
+        if (isOccupied(bgr)) {
+          occupied.put(slot, image);
+        }
+      }
+    }
+    if (!occupied.isEmpty()) {
+      try {
+        classify(frame, slots, occupied);
+      } catch (Exception e) {
+        // The new hashes are already stored; forget them so the slots are classified again
+        slotHashes = null;
+        throw e;
+      }
+    }
+    logger.debug(
+        "Classified {} of {} inventory slots, {} occupied", changed, slots.size(), occupied.size());
+    last = new InventorySnapshot(frame.sequence(), slotItems.clone());
+    return last;
+  }
+
+  /**
+   * Identifies the content of the changed, occupied slots and stores it in {@link #slotItems}.
+   *
+   * <p>The area spanned by the slots is converted once and every slot is matched against every
+   * registered template in a single batch. A slot holding none of the registered items is given to
+   * the index, if there is one.
+   *
+   * @param frame The captured frame.
+   * @param slots Every inventory slot, in screen co-ordinates.
+   * @param occupied Indices of the slots to classify, mapped to a copy of their pixels.
+   * @throws Exception If an item template cannot be loaded or is larger than a slot.
+   */
+  private void classify(
+      CapturedFrame frame, List<Rectangle> slots, Map<Integer, BufferedImage> occupied)
+      throws Exception {
+    Map<String, Double> templates = new LinkedHashMap<>();
+    for (Item item : items.values()) {
+      templates.merge(item.templatePath(), item.threshold(), Math::max);
+    }
+    List<Map<String, Rectangle>> matches = null;
+    if (!templates.isEmpty()) {
+      Rectangle area = null;
+      for (int slot : occupied.keySet()) {
+        area = area == null ? new Rectangle(slots.get(slot)) : area.union(slots.get(slot));
+      }
+      List<Rectangle> regions = new ArrayList<>(occupied.size());
+      for (int slot : occupied.keySet()) {
+        Rectangle region = new Rectangle(slots.get(slot));
+        region.translate(-area.x, -area.y);
+        regions.add(region);
+      }
+      try (Frame inventory = Frame.of(frame, area)) {
+        matches = TemplateMatching.matchBatch(inventory, regions, templates);
+      }
+    }
+
+    int region = 0;
+    for (Map.Entry<Integer, BufferedImage> slot : occupied.entrySet()) {
+      String found = null;
+      if (matches != null) {
+        Map<String, Rectangle> slotMatches = matches.get(region++);
+        for (Map.Entry<String, Item> entry : items.entrySet()) {
+          if (slotMatches.get(entry.getValue().templatePath()) != null) {
+            found = entry.getKey();
+            break;
+          }
+        }
+      }
+      if (found == null && index != null) {
+        found = index.identify(slot.getValue(), indexThreshold);
+      }
+      slotItems[slot.getKey()] = found != null ? found : InventorySnapshot.UNKNOWN;
+    }
+  }
+
+  /**
+   * Whether a frame is the one a snapshot was taken from. Frames grabbed outside a capture service
+   * carry no sequence number and never compare equal.
+   *
+   * @param frame The current frame.
+   * @param snapshot The previous snapshot.
+   * @return true if both refer to the same capture.
+   */
+  private static boolean isSameFrame(CapturedFrame frame, InventorySnapshot snapshot) {
+    return frame.sequence() >= 0 && frame.sequence() == snapshot.sequence();
+  }
+
+  /**
+   * Whether a slot contains an item, judged by the number of near-black outline pixels.
+   *
+   * @param bgr The packed BGR pixels of the slot.
+   * @return true if the slot holds something.
+   */
+  static boolean isOccupied(byte[] bgr) {
+    int outline = 0;
+    for (int i = 0; i + 2 < bgr.length; i += 3) {
+      if (isOutline(bgr[i], bgr[i + 1], bgr[i + 2]) && ++outline >= OUTLINE_MIN_PIXELS) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Whether a pixel is dark enough to be part of an item sprite's outline.
+   *
+   * @param b Blue channel.
+   * @param g Green channel.
+   * @param r Red channel.
+   * @return true if every channel is near black.
+   */
+  static boolean isOutline(byte b, byte g, byte r) {
+    return (b & 0xFF) <= OUTLINE_MAX && (g & 0xFF) <= OUTLINE_MAX && (r & 0xFF) <= OUTLINE_MAX;
+  }
+
+  /**
+   * A registered item.
+   *
+   * @param templatePath Classpath resource of the item sprite.
+   * @param threshold Maximum accepted match score.
+   */
+  private record Item(String templatePath, double threshold) {}
+}
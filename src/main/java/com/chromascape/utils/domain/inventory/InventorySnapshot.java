@@ -0,0 +1,176 @@
+package com.chromascape.utils.domain.inventory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable view of what every inventory slot held at the moment of one capture.
+ *
+ * <p>Produced by {@link InventoryEngine#snapshot()}. Slots are numbered 0-27, left to right - top
+ * to bottom, matching {@code ZoneManager.getInventorySlots()}. Each slot holds the id of a
+ * registered item, {@link #UNKNOWN} when something is there but no registered item matched, or
+ * {@code null} when the slot is empty.
+ */
+public final class InventorySnapshot {
+
+  /** Item id reported for occupied slots that match none of the registered items. */
+  public static final String UNKNOWN = "unknown";
+
+  private final long sequence;
+  private final String[] slots;
+
+  /**
+   * Creates a snapshot. Takes ownership of {@code slots}.
+   *
+   * @param sequence Sequence number of the frame the snapshot was classified from.
+   * @param slots The item id of every slot, {@code null} for empty slots.
+   */
+  InventorySnapshot(long sequence, String[] slots) {
+    this.sequence = sequence;
+    this.slots = slots;
+  }
+
+  /**
+   * Sequence number of the frame this snapshot was taken from.
+   *
+   * @return The frame sequence number, or -1 if the frame was grabbed outside a capture service.
+   */
+  public long sequence() {
+    return sequence;
+  }
+
+  /**
+   * Number of slots in the snapshot.
+   *
+   * @return The slot count, 28 for a regular inventory.
+   */
+  public int size() {
+    return slots.length;
+  }
+
+  /**
+   * The item in a slot.
+   *
+   * @param slot The slot index.
+   * @return The registered item id, {@link #UNKNOWN}, or {@code null} if the slot is empty.
+   */
+  public String itemAt(int slot) {
+    return slots[slot];
+  }
+
+  /**
+   * Whether a slot is empty.
+   *
+   * @param slot The slot index.
+   * @return true if nothing is in the slot.
+   */
+  public boolean isEmpty(int slot) {
+    return slots[slot] == null;
+  }
+
+  /**
+   * Whether a slot holds a given item.
+   *
+   * @param slot The slot index.
+   * @param itemId The item id.
+   * @return true if the slot was classified as {@code itemId}.
+   */
+  public boolean contains(int slot, String itemId) {
+    return itemId.equals(slots[slot]);
+  }
+
+  /**
+   * Number of slots holding a given item.
+   *
+   * @param itemId The item id, or {@link #UNKNOWN}.
+   * @return The number of matching slots.
+   */
+  public int count(String itemId) {
+    int count = 0;
+    for (String item : slots) {
+      if (itemId.equals(item)) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Number of slots holding each item present in the inventory.
+   *
+   * @return Item ids in order of first appearance mapped to their slot counts.
+   */
+  public Map<String, Integer> counts() {
+    Map<String, Integer> counts = new LinkedHashMap<>();
+    for (String item : slots) {
+      if (item != null) {
+        counts.merge(item, 1, Integer::sum);
+      }
+    }
+    return Collections.unmodifiableMap(counts);
+  }
+
+  /**
+   * The slots holding a given item.
+   *
+   * @param itemId The item id, or {@link #UNKNOWN}.
+   * @return The matching slot indices in ascending order.
+   */
+  public List<Integer> slotsOf(String itemId) {
+    List<Integer> result = new ArrayList<>();
+    for (int slot = 0; slot < slots.length; slot++) {
+      if (itemId.equals(slots[slot])) {
+        result.add(slot);
+      }
+    }
+    return Collections.unmodifiableList(result);
+  }
+
+  /**
+   * The empty slots.
+   *
+   * @return The empty slot indices in ascending order.
+   */
+  public List<Integer> emptySlots() {
+    List<Integer> result = new ArrayList<>();
+    for (int slot = 0; slot < slots.length; slot++) {
+      if (slots[slot] == null) {
+        result.add(slot);
+      }
+    }
+    return Collections.unmodifiableList(result);
+  }
+
+  /**
+   * Number of empty slots.
+   *
+   * @return The empty slot count.
+   */
+  public int emptyCount() {
+    int count = 0;
+    for (String item : slots) {
+      if (item == null) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Whether every slot is occupied.
+   *
+   * @return true if there are no empty slots.
+   */
+  public boolean isFull() {
+    return emptyCount() == 0;
+  }
+
+  @Override
+  public String toString() {
+    return "InventorySnapshot[sequence=" + sequence + ", slots=" + Arrays.toString(slots) + "]";
+  }
+}
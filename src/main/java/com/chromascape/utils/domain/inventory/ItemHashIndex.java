@@ -0,0 +1,422 @@
+package com.chromascape.utils.domain.inventory;
+
+import com.chromascape.utils.core.screen.capture.Frame;
+import com.chromascape.utils.core.screen.capture.RasterConverter;
+import com.chromascape.utils.core.screen.topology.CachedTemplate;
+import com.chromascape.utils.core.screen.topology.MatchStrategy;
+import com.chromascape.utils.core.screen.topology.TemplateCache;
+import com.chromascape.utils.core.screen.topology.TemplateMatching;
+import com.chromascape.utils.core.screen.window.WindowGeometry;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Identifies item sprites by perceptual hash instead of template matching every candidate.
+ *
+ * <p>Every indexed template is reduced once to a 64-bit difference hash of its sprite and a mean
+ * colour. A captured slot or bank cell is reduced the same way and compared with every entry by
+ * Hamming distance plus a colour penalty, which for hundreds of templates is a few hundred integer
+ * operations. Only the nearest candidate is then confirmed with a single {@link
+ * TemplateMatching#match} call, so identifying a cell costs one convolution however many items are
+ * indexed.
+ *
+ * <p>Hashes are computed over the bounding box of the sprite so templates cropped tighter or looser
+ * than the slot still line up with the captured cell: for templates this is the box of their opaque
+ * pixels, and for cells the box of the near-black outline every item sprite is drawn with. The
+ * stack count is printed over the top-left corner of a cell with a black drop shadow that is
+ * indistinguishable from outline pixels. When a cell shows stack-count text, that corner is left
+ * out when bounding it, and it is compared with a second signature of every template bounded by
+ * the same rule. Transparent template pixels are filled with the inventory background colour
+ * before hashing.
+ */
+public class ItemHashIndex {
+
+  private static final Logger logger = LogManager.getLogger(ItemHashIndex.class);
+
+  /** Classpath directory scanned by {@link #load()}. */
+  public static final String DEFAULT_DIRECTORY = "/images/user";
+
+  /** Largest combined distance at which a candidate is still considered. */
+  public static final int MAX_DISTANCE = 16;
+
+  /** Inventory background colour, packed 0xRRGGBB, used in place of transparent pixels. */
+  private static final int BACKGROUND = 0x3E3529;
+
+  /** Mean colour difference, per channel, that costs one bit of hash distance. */
+  private static final int COLOUR_STEP = 12;
+
+  /** Rows at the top of a cell where the stack count and its shadow may be drawn. */
+  private static final int STACK_BAND_HEIGHT = 10;
+
+  /** Columns at the left of a cell where the stack count and its shadow may be drawn. */
+  private static final int STACK_BAND_WIDTH = 30;
+
+  /** Number of stack-count coloured pixels in the band that mark a cell as stacked. */
+  private static final int STACK_TEXT_MIN_PIXELS = 4;
+
+  private static final int GRID_WIDTH = 9;
+  private static final int GRID_HEIGHT = 8;
+
+  private final List<Entry> entries = new ArrayList<>();
+
+  /**
+   * Builds an index of every PNG under {@link #DEFAULT_DIRECTORY}.
+   *
+   * @return The index.
+   * @throws IOException if the directory or a template cannot be read.
+   */
+  public static ItemHashIndex load() throws IOException {
+    return load(DEFAULT_DIRECTORY);
+  }
+
+  /**
+   * Builds an index of every PNG under a classpath directory, whether the classpath is a directory
+   * tree or a jar.
+   *
+   * @param directory The classpath directory, e.g. "/images/user" (first "/" is necessary).
+   * @return The index, empty if the directory does not exist.
+   * @throws IOException if the directory or a template cannot be read.
+   */
+  public static ItemHashIndex load(String directory) throws IOException {
+    ItemHashIndex index = new ItemHashIndex();
+    URL url = ItemHashIndex.class.getResource(directory);
+    if (url == null) {
+      logger.warn("Item directory {} not found on the classpath", directory);
+      return index;
+    }
+    URI uri;
+    try {
+      uri = url.toURI();
+    } catch (URISyntaxException e) {
+      throw new IOException("Invalid resource URI " + url, e);
+    }
+    if ("jar".equals(uri.getScheme())) {
+      try (FileSystem jar = FileSystems.newFileSystem(uri, Map.of())) {
+        index.addAll(jar.getPath(directory), directory);
+      }
+    } else {
+      index.addAll(Paths.get(uri), directory);
+    }
+    logger.info("Indexed {} item templates from {}", index.size(), directory);
+    return index;
+  }
+
+  /**
+   * Adds one template to the index.
+   *
+   * @param templatePath Classpath resource of the item sprite.
+   * @throws IOException if the template cannot be read.
+   */
+  public synchronized void add(String templatePath) throws IOException {
+    CachedTemplate template = TemplateCache.get(templatePath);
+    int width = template.width();
+    int height = template.height();
+    byte[] bgra = new byte[width * height * 4];
+    ((ByteBuffer) template.image().createBuffer()).get(bgra);
+    Signature signature = signature(bgra, 4, width, height, false);
+    if (signature == null) {
+      logger.warn("Template {} is fully transparent, not indexed", templatePath);
+      return;
+    }
+    Signature banded = signature(bgra, 4, width, height, true);
+    entries.add(new Entry(templatePath, width, height, signature, banded));
+  }
+
+  /**
+   * Number of indexed templates.
+   *
+   * @return The entry count.
+   */
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  /**
+   * Ranks the indexed templates by similarity to a captured cell.
+   *
+   * @param cell The captured slot or bank cell.
+   * @param limit Maximum number of candidates to return.
+   * @return Up to {@code limit} candidates within {@link #MAX_DISTANCE}, nearest first; empty if
+   *     the cell shows no item.
+   */
+  public synchronized List<Candidate> nearest(BufferedImage cell, int limit) {
+    int width = cell.getWidth();
+    int height = cell.getHeight();
+    byte[] bgr = new byte[width * height * 3];
+    RasterConverter.toBgr(cell, bgr);
+    boolean stacked = hasStackCount(bgr, width, height);
+    Signature query = signature(bgr, 3, width, height, stacked);
+    if (query == null) {
+      return List.of();
+    }
+    List<Candidate> candidates = new ArrayList<>();
+    for (Entry entry : entries) {
+      Signature indexed = stacked ? entry.banded() : entry.signature();
+      if (indexed == null || entry.width() > width || entry.height() > height) {
+        continue;
+      }
+      int distance = indexed.distance(query);
+      if (distance <= MAX_DISTANCE) {
+        candidates.add(new Candidate(entry.templatePath(), distance));
+      }
+    }
+    candidates.sort(Comparator.comparingInt(Candidate::distance));
+    return candidates.size() > limit ? List.copyOf(candidates.subList(0, limit)) : candidates;
+  }
+
+  /**
+   * Identifies the item shown in a captured cell.
+   *
+   * <p>The nearest candidate by hash is confirmed with one template match; if the match fails the
+   * cell is reported as unidentified rather than trying further candidates.
+   *
+   * @param cell The captured slot or bank cell.
+   * @param threshold Maximum match score accepted by the confirming match.
+   * @return The template path of the identified item, or {@code null} if none was confirmed.
+   * @throws Exception If the confirming template match fails.
+   */
+  public String identify(BufferedImage cell, double threshold) throws Exception {
+    List<Candidate> candidates = nearest(cell, 1);
+    if (candidates.isEmpty()) {
+      return null;
+    }
+    String templatePath = candidates.get(0).templatePath();
+    // Only whether the template matches matters, so the cell needs no screen position
+    WindowGeometry origin =
+        new WindowGeometry(new Rectangle(cell.getWidth(), cell.getHeight()), 0, System.nanoTime());
+    Rectangle match;
+    try (Frame frame = Frame.wrap(RasterConverter.toMat(cell), origin)) {
+      match = TemplateMatching.match(templatePath, frame, threshold, false, MatchStrategy.FULL);
+    }
+    return match != null ? templatePath : null;
+  }
+
+  /**
+   * Adds every PNG below a directory.
+   *
+   * @param root The directory to walk.
+   * @param prefix The classpath path of {@code root}.
+   * @throws IOException if the directory or a template cannot be read.
+   */
+  private void addAll(Path root, String prefix) throws IOException {
+    List<String> templates;
+    try (Stream<Path> stream = Files.walk(root)) {
+      templates =
+          stream
+              .filter(Files::isRegularFile)
+              .map(path -> root.relativize(path).toString().replace("\\", "/"))
+              .filter(name -> name.toLowerCase().endsWith(".png"))
+              .sorted()
+              .map(name -> prefix + "/" + name)
+              .toList();
+    }
+    for (String template : templates) {
+      add(template);
+    }
+  }
+
+  /**
+   * Computes the difference hash and mean colour of the sprite in an image.
+   *
+   * <p>The sprite's bounding box is averaged down to a 9x8 grid of luminance values and each bit of
+   * the hash records whether a cell is darker than its right-hand neighbour.
+   *
+   * @param pixels Packed BGR or BGRA pixels.
+   * @param channels 3 for BGR, where the sprite is bounded by its outline, or 4 for BGRA, where it
+   *     is bounded by its opaque pixels.
+   * @param width Image width.
+   * @param height Image height.
+   * @param skipBand Whether to ignore the stack-count band when bounding the sprite.
+   * @return The signature, or {@code null} if the image contains no sprite.
+   */
+  private static Signature signature(
+      byte[] pixels, int channels, int width, int height, boolean skipBand) {
+    int minX = width;
+    int minY = height;
+    int maxX = -1;
+    int maxY = -1;
+    for (int y = 0; y < height; y++) {
+      for (int x = 0; x < width; x++) {
+        int i = (y * width + x) * channels;
+        boolean sprite =
+            channels == 4
+                ? (pixels[i + 3] & 0xFF) >= 128
+                : InventoryEngine.isOutline(pixels[i], pixels[i + 1], pixels[i + 2]);
+        if (sprite && !(skipBand && inStackBand(x, y))) {
+          minX = Math.min(minX, x);
+          minY = Math.min(minY, y);
+          maxX = Math.max(maxX, x);
+          maxY = Math.max(maxY, y);
+        }
+      }
+    }
+    if (maxX < minX + 1 || maxY < minY + 1) {
+      return null;
+    }
+
+    int boxWidth = maxX - minX + 1;
+    int boxHeight = maxY - minY + 1;
+    double[] luma = new double[GRID_WIDTH * GRID_HEIGHT];
+    int[] weights = new int[luma.length];
+    long sumB = 0;
+    long sumG = 0;
+    long sumR = 0;
+    for (int y = minY; y <= maxY; y++) {
+      int row = (y - minY) * GRID_HEIGHT / boxHeight;
+      for (int x = minX; x <= maxX; x++) {
+        int i = (y * width + x) * channels;
+        int alpha = channels == 4 ? pixels[i + 3] & 0xFF : 255;
+        int b = blend(pixels[i] & 0xFF, BACKGROUND & 0xFF, alpha);
+        int g = blend(pixels[i + 1] & 0xFF, (BACKGROUND >> 8) & 0xFF, alpha);
+        int r = blend(pixels[i + 2] & 0xFF, (BACKGROUND >> 16) & 0xFF, alpha);
+        int cell = row * GRID_WIDTH + (x - minX) * GRID_WIDTH / boxWidth;
+        luma[cell] += 0.114 * b + 0.587 * g + 0.299 * r;
+        weights[cell]++;
+        sumB += b;
+        sumG += g;
+        sumR += r;
+      }
+    }
+
+    long hash = 0;
+    for (int row = 0; row < GRID_HEIGHT; row++) {
+      for (int column = 0; column < GRID_WIDTH - 1; column++) {
+        int left = row * GRID_WIDTH + column;
+        double leftLuma = luma[left] / Math.max(1, weights[left]);
+        double rightLuma = luma[left + 1] / Math.max(1, weights[left + 1]);
+        hash = (hash << 1) | (leftLuma < rightLuma ? 1 : 0);
+      }
+    }
+    long count = (long) boxWidth * boxHeight;
+    int colour = (int) (sumR / count) << 16 | (int) (sumG / count) << 8 | (int) (sumB / count);
+    return new Signature(hash, colour);
+  }
+
+  /**
+   * Whether a cell shows a stack count, judged by the yellow, white or green text pixels in the
+   * band where it is printed.
+   *
+   * @param bgr Packed BGR pixels of the cell.
+   * @param width Cell width.
+   * @param height Cell height.
+   * @return {@code true} if the band holds stack-count text.
+   */
+  private static boolean hasStackCount(byte[] bgr, int width, int height) {
+    int text = 0;
+    for (int y = 0; y < Math.min(height, STACK_BAND_HEIGHT); y++) {
+      for (int x = 0; x < Math.min(width, STACK_BAND_WIDTH); x++) {
+        int i = (y * width + x) * 3;
+        if (isStackText(bgr[i] & 0xFF, bgr[i + 1] & 0xFF, bgr[i + 2] & 0xFF)
+            && ++text >= STACK_TEXT_MIN_PIXELS) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Whether a pixel has one of the stack-count text colours: yellow below 100K, white below 10M and
+   * green above.
+   *
+   * @param b Blue channel.
+   * @param g Green channel.
+   * @param r Red channel.
+   * @return {@code true} if the pixel may be stack-count text.
+   */
+  private static boolean isStackText(int b, int g, int r) {
+    if (g < 0xF0) {
+      return false;
+    }
+    boolean yellowOrWhite = r >= 0xF0 && (b <= 0x20 || b >= 0xF0);
+    boolean green = r <= 0x20 && b >= 0x60 && b <= 0xA0;
+    return yellowOrWhite || green;
+  }
+
+  /**
+   * Whether a cell pixel lies in the top-left band where the stack count is printed.
+   *
+   * @param x The cell-local x co-ordinate.
+   * @param y The cell-local y co-ordinate.
+   * @return {@code true} if the pixel may belong to the stack count or its shadow.
+   */
+  private static boolean inStackBand(int x, int y) {
+    return y < STACK_BAND_HEIGHT && x < STACK_BAND_WIDTH;
+  }
+
+  /**
+   * Blends a channel value over the background by alpha.
+   *
+   * @param value The foreground value.
+   * @param background The background value.
+   * @param alpha The foreground opacity, 0-255.
+   * @return The composited value.
+   */
+  private static int blend(int value, int background, int alpha) {
+    return (value * alpha + background * (255 - alpha)) / 255;
+  }
+
+  /**
+   * An indexed template that resembles a captured cell.
+   *
+   * @param templatePath Classpath resource of the template.
+   * @param distance Hamming distance between the hashes plus the colour penalty; lower is closer.
+   */
+  public record Candidate(String templatePath, int distance) {}
+
+  /**
+   * Perceptual hash and mean colour of a sprite.
+   *
+   * @param hash The 64-bit difference hash.
+   * @param colour The mean colour, packed 0xRRGGBB.
+   */
+  private record Signature(long hash, int colour) {
+
+    /**
+     * Distance to another signature.
+     *
+     * @param other The other signature.
+     * @return Differing hash bits plus one per {@code COLOUR_STEP} of the largest channel
+     *     difference.
+     */
+    int distance(Signature other) {
+      int channel = 0;
+      for (int shift = 0; shift <= 16; shift += 8) {
+        int a = (colour >> shift) & 0xFF;
+        int b = (other.colour >> shift) & 0xFF;
+        channel = Math.max(channel, Math.abs(a - b));
+      }
+      return Long.bitCount(hash ^ other.hash) + channel / COLOUR_STEP;
+    }
+  }
+
+  /**
+   * One indexed template.
+   *
+   * @param templatePath Classpath resource of the template.
+   * @param width Template width.
+   * @param height Template height.
+   * @param signature The template's signature.
+   * @param banded The signature with the stack-count band left out of the bounding box, compared
+   *     with stacked cells; {@code null} if the sprite lies entirely in the band.
+   */
+  private record Entry(
+      String templatePath, int width, int height, Signature signature, Signature banded) {}
+}
@@ -0,0 +1,31 @@
+package com.chromascape.utils.domain.ocr;
+
+import org.bytedeco.opencv.opencv_core.Mat;
+
+/**
+ * One character of a font, ready to be template matched.
+ *
+ * @param character The character the glyph draws.
+ * @param image The grayscale glyph bitmap with the font's crop already applied. Shared between
+ *     every caller and thread, so it must not be modified or released.
+ */
+public record Glyph(String character, Mat image) {
+
+  /**
+   * Glyph width.
+   *
+   * @return The width in pixels.
+   */
+  public int width() {
+    return image.cols();
+  }
+
+  /**
+   * Glyph height.
+   *
+   * @return The height in pixels.
+   */
+  public int height() {
+    return image.rows();
+  }
+}
@@ -0,0 +1,61 @@
+package com.chromascape.utils.domain.ocr;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The ink of a {@link Glyph} trimmed to its bounding box and packed into bits, see {@link
+ * GlyphClassifier} for the layout.
+ *
+ * @param glyph The glyph.
+ * @param left Columns between the glyph image's left edge and its first ink column.
+ * @param top Rows between the glyph image's top edge and its first ink row.
+ * @param width Width of the ink bounding box.
+ * @param height Height of the ink bounding box.
+ * @param rows The packed rows of the bounding box.
+ */
+record GlyphBitmap(Glyph glyph, int left, int top, int width, int height, long[] rows) {
+
+  /**
+   * Trims a glyph image to its ink and packs it.
+   *
+   * @param glyph The glyph; pixels brighter than mid-grey are ink.
+   * @return The bitmap, or null if the glyph has no ink.
+   */
+  static GlyphBitmap of(Glyph glyph) {
+    int cols = glyph.width();
+    int rows = glyph.height();
+    byte[] pixels = new byte[cols * rows];
+    ByteBuffer data = glyph.image().createBuffer();
+    data.get(0, pixels);
+
+    int minX = cols;
+    int minY = rows;
+    int maxX = -1;
+    int maxY = -1;
+    for (int y = 0; y < rows; y++) {
+      for (int x = 0; x < cols; x++) {
+        if ((pixels[y * cols + x] & 0xFF) > 127) {
+          minX = Math.min(minX, x);
+          minY = Math.min(minY, y);
+          maxX = Math.max(maxX, x);
+          maxY = Math.max(maxY, y);
+        }
+      }
+    }
+    if (maxX < 0) {
+      return null;
+    }
+    int width = maxX - minX + 1;
+    int height = maxY - minY + 1;
+    int words = GlyphClassifier.words(width);
+    long[] packed = new long[height * words];
+    for (int y = 0; y < height; y++) {
+      for (int x = 0; x < width; x++) {
+        if ((pixels[(minY + y) * cols + minX + x] & 0xFF) > 127) {
+          packed[y * words + (x >>> 6)] |= 1L << x;
+        }
+      }
+    }
+    return new GlyphBitmap(glyph, minX, minY, width, height, packed);
+  }
+}
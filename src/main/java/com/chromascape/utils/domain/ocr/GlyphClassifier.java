@@ -0,0 +1,192 @@
+package com.chromascape.utils.domain.ocr;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Recognises single characters of a pixel font by comparing packed bitmasks.
+ *
+ * <p>Every glyph of a {@link GlyphSet} is trimmed to its ink and packed once, one bit per pixel:
+ * row {@code y} of a shape {@code width} pixels wide occupies {@link #words(int)} longs starting at
+ * {@code y * words(width)}, and column {@code x} is bit {@code x & 63} of word {@code x >>> 6}. A
+ * character cell packed the same way is looked up in two tiers. Cells identical to a glyph, which
+ * for the game's pixel-exact fonts is nearly all of them, are found with one hash lookup. Anything
+ * else is scored against the glyphs of the same size by Hamming distance, an XOR and a {@link
+ * Long#bitCount} per row, and accepted if no more than the tolerance of its pixels differ. Neither
+ * tier calls into OpenCV, so a character costs nanoseconds rather than a {@code matchTemplate}.
+ *
+ * <p>A classifier is immutable and can be shared between threads.
+ */
+public final class GlyphClassifier {
+
+  /** Default fraction of a cell's pixels allowed to differ from a glyph. */
+  public static final double DEFAULT_TOLERANCE = 0.05;
+
+  private final double tolerance;
+  private final Map<Shape, List<GlyphBitmap>> exact = new HashMap<>();
+  private final Map<Long, List<GlyphBitmap>> bySize = new HashMap<>();
+  private final int maxWidth;
+
+  /**
+   * Packs every glyph of a font.
+   *
+   * @param glyphs The font's glyphs.
+   * @param tolerance Fraction of a cell's pixels, from 0 up to but excluding 1, that may differ
+   *     from a glyph for it to still match. 0 accepts exact matches only.
+   * @throws IllegalArgumentException if the tolerance is out of range.
+   */
+  public GlyphClassifier(GlyphSet glyphs, double tolerance) {
+    if (tolerance < 0 || tolerance >= 1) {
+      throw new IllegalArgumentException("Tolerance must be in [0, 1): " + tolerance);
+    }
+    this.tolerance = tolerance;
+    int widest = 0;
+    for (Glyph glyph : glyphs.glyphs()) {
+      GlyphBitmap bitmap = GlyphBitmap.of(glyph);
+      if (bitmap == null) {
+        continue;
+      }
+      exact
+          .computeIfAbsent(
+              new Shape(bitmap.width(), bitmap.height(), bitmap.rows()), s -> new ArrayList<>())
+          .add(bitmap);
+      bySize
+          .computeIfAbsent(size(bitmap.width(), bitmap.height()), s -> new ArrayList<>())
+          .add(bitmap);
+      widest = Math.max(widest, bitmap.width());
+    }
+    this.maxWidth = widest;
+  }
+
+  /**
+   * Recognises a character cell.
+   *
+   * @param rows The cell's ink, trimmed to its bounding box and packed as described above.
+   * @param width Width of the bounding box.
+   * @param height Height of the bounding box.
+   * @return The closest glyph within the tolerance, or null if there is none.
+   */
+  public Glyph classify(long[] rows, int width, int height) {
+    List<GlyphBitmap> candidates = candidates(rows, width, height);
+    return candidates.isEmpty() ? null : candidates.get(0).glyph();
+  }
+
+  /**
+   * Fraction of a cell's pixels allowed to differ from a glyph.
+   *
+   * @return The tolerance.
+   */
+  public double tolerance() {
+    return tolerance;
+  }
+
+  /**
+   * Width of the widest glyph's ink; no cell wider than this can match.
+   *
+   * @return The width in pixels.
+   */
+  public int maxWidth() {
+    return maxWidth;
+  }
+
+  /**
+   * Number of longs one packed row of a shape takes.
+   *
+   * @param width Shape width in pixels.
+   * @return The words per row.
+   */
+  public static int words(int width) {
+    return (width + 63) >>> 6;
+  }
+
+  /**
+   * Every glyph that matches a cell equally best.
+   *
+   * @param rows The cell's packed ink.
+   * @param width Width of the bounding box.
+   * @param height Height of the bounding box.
+   * @return The glyphs, usually one, or several with identical shapes; empty if none matches. Must
+   *     not be modified.
+   */
+  List<GlyphBitmap> candidates(long[] rows, int width, int height) {
+    List<GlyphBitmap> hit = exact.get(new Shape(width, height, rows));
+    if (hit != null) {
+      return hit;
+    }
+    int best = (int) (width * height * tolerance);
+    if (best == 0) {
+      return List.of();
+    }
+    List<GlyphBitmap> result = new ArrayList<>();
+    for (GlyphBitmap bitmap : bySize.getOrDefault(size(width, height), List.of())) {
+      int distance = distance(rows, bitmap.rows(), best);
+      if (distance > best) {
+        continue;
+      }
+      if (distance < best) {
+        best = distance;
+        result.clear();
+      }
+      result.add(bitmap);
+    }
+    return result;
+  }
+
+  /**
+   * Hamming distance between two packed shapes of the same size, giving up once it exceeds a limit.
+   *
+   * @param a The first shape.
+   * @param b The second shape.
+   * @param limit Distance beyond which the exact value no longer matters.
+   * @return The number of differing pixels, or some value above {@code limit}.
+   */
+  static int distance(long[] a, long[] b, int limit) {
+    int distance = 0;
+    for (int i = 0; i < a.length && distance <= limit; i++) {
+      distance += Long.bitCount(a[i] ^ b[i]);
+    }
+    return distance;
+  }
+
+  /**
+   * Combines a width and height into one map key.
+   *
+   * @param width Shape width.
+   * @param height Shape height.
+   * @return The key.
+   */
+  private static long size(int width, int height) {
+    return (long) width << 32 | height;
+  }
+
+  /**
+   * A packed shape compared by content, the key of the exact-match tier.
+   *
+   * @param width Shape width.
+   * @param height Shape height.
+   * @param rows The packed rows.
+   */
+  private record Shape(int width, int height, long[] rows) {
+
+    @Override
+    public boolean equals(Object o) {
+      return o instanceof Shape other
+          && width == other.width
+          && height == other.height
+          && Arrays.equals(rows, other.rows);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * (31 * width + height) + Arrays.hashCode(rows);
+    }
+
+    @Override
+    public String toString() {
+      return "Shape[" + width + "x" + height + "]";
+    }
+  }
+}
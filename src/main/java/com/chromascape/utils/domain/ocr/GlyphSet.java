@@ -0,0 +1,172 @@
+package com.chromascape.utils.domain.ocr;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.bytedeco.opencv.opencv_core.Mat;
+import org.bytedeco.opencv.opencv_core.Rect;
+
+/**
+ * The matchable glyphs of a font, loaded once per process and shared.
+ *
+ * <p>Reading a font means parsing its index and decoding a few hundred BMPs, and OCR is called in
+ * polling loops such as {@code Walker.getPlayerPosition}. Each font is therefore decoded the first
+ * time it is asked for and kept for the lifetime of the process, with the font's crop applied and
+ * blank or unreliable characters already removed, so later OCR calls do no I/O at all. A set and
+ * its glyphs are immutable and can be used from any thread.
+ */
+public final class GlyphSet {
+
+  private static final Logger logger = LogManager.getLogger(GlyphSet.class);
+
+  /**
+   * A set of characters that are known to cause issues with Ocr matching. These are excluded during
+   * glyph matching. Thank you to Kell and the team at OSBC for putting in all the hard work!
+   */
+  private static final Set<String> problemChars =
+      Set.of(
+          "Ì", "Í", "Î", "Ï", "ì", "í", "î", "ï", "Ĺ", "Ļ", "Ľ", "Ŀ", "Ł", "ĺ", "ļ", "ľ", "ŀ", "ł",
+          "|", "¦", "!", "ĵ", "ǰ", "ȷ", "ɉ", "Ĵ", "Ĩ", "Ī", "Ĭ", "Į", "İ", "Ɨ", "Ỉ", "Ị", "ĩ", "ī",
+          "ĭ", "į", "ı", "ƚ", "ỉ", "ị", "ˈ", "ˌ", "ʻ", "ʼ", "ʽ", "˚", "ʾ", "ʿ", "˙", "`", "¨", "¯",
+          "´", "¹", " ", "\t", "\n", "·");
+
+  private static final Map<String, GlyphSet> loaded = new HashMap<>();
+
+  private final String font;
+  private final List<Glyph> glyphs;
+  private final int lineHeight;
+  private GlyphClassifier classifier;
+
+  /**
+   * Creates a glyph set.
+   *
+   * @param font The font name.
+   * @param glyphs The glyphs, taken over by the set.
+   */
+  GlyphSet(String font, List<Glyph> glyphs) {
+    this.font = font;
+    this.glyphs = List.copyOf(glyphs);
+    int tallest = 0;
+    for (Glyph glyph : this.glyphs) {
+      tallest = Math.max(tallest, glyph.height());
+    }
+    this.lineHeight = tallest;
+  }
+
+  /**
+   * Returns the glyphs of a font, decoding them on first use.
+   *
+   * <p>Decoding happens outside the lock, like {@code TemplateCache}; if two threads load the same
+   * font at once, the first one to finish wins.
+   *
+   * @param font Name of the font folder inside resources, e.g. "Plain 12".
+   * @return The shared glyph set.
+   * @throws IOException if font data cannot be read.
+   */
+  public static GlyphSet of(String font) throws IOException {
+    synchronized (loaded) {
+      GlyphSet cached = loaded.get(font);
+      if (cached != null) {
+        return cached;
+      }
+    }
+    GlyphSet decoded = load(font);
+    synchronized (loaded) {
+      GlyphSet raced = loaded.putIfAbsent(font, decoded);
+      return raced != null ? raced : decoded;
+    }
+  }
+
+  /**
+   * The font these glyphs belong to.
+   *
+   * @return The font name.
+   */
+  public String font() {
+    return font;
+  }
+
+  /**
+   * Every matchable glyph of the font, in a stable order.
+   *
+   * @return An unmodifiable list of glyphs.
+   */
+  public List<Glyph> glyphs() {
+    return glyphs;
+  }
+
+  /**
+   * Number of matchable glyphs.
+   *
+   * @return The glyph count.
+   */
+  public int size() {
+    return glyphs.size();
+  }
+
+  /**
+   * The bit-packed classifier for this font with {@link GlyphClassifier#DEFAULT_TOLERANCE}, built
+   * on first use and kept with the set.
+   *
+   * @return The shared classifier.
+   */
+  public synchronized GlyphClassifier classifier() {
+    if (classifier == null) {
+      classifier = new GlyphClassifier(this, GlyphClassifier.DEFAULT_TOLERANCE);
+    }
+    return classifier;
+  }
+
+  /**
+   * Height of the tallest glyph image, the most a line of text in this font can span.
+   *
+   * @return The height in pixels.
+   */
+  int lineHeight() {
+    return lineHeight;
+  }
+
+  /**
+   * Decodes a font and crops its glyphs.
+   *
+   * @param font The font name.
+   * @return The new glyph set.
+   * @throws IOException if font data cannot be read.
+   */
+  private static GlyphSet load(String font) throws IOException {
+    int cropModifier = getCropModifierForFont(font);
+    Map<String, Mat> fontMap = Ocr.loadFont(font);
+    List<Glyph> glyphs = new ArrayList<>(fontMap.size());
+    for (Map.Entry<String, Mat> entry : fontMap.entrySet()) {
+      String character = entry.getKey();
+      Mat image = entry.getValue();
+      if (!character.trim().isEmpty()
+          && !problemChars.contains(character)
+          && image.rows() > cropModifier) {
+        try (Rect roi = new Rect(0, cropModifier, image.cols(), image.rows() - cropModifier);
+            Mat cropped = new Mat(image, roi)) {
+          glyphs.add(new Glyph(character, cropped.clone()));
+        }
+      }
+      image.release();
+    }
+    logger.debug("Loaded {} glyphs of font {}", glyphs.size(), font);
+    return new GlyphSet(font, glyphs);
+  }
+
+  /**
+   * Returns a vertical crop offset used when slicing glyph images, depending on font type.
+   *
+   * @param font Font name.
+   * @return Crop offset in pixels.
+   */
+  private static int getCropModifierForFont(String font) {
+    return Objects.equals(font, "Plain 12") ? 2 : 1;
+  }
+}
@@ -1,7 +1,6 @@
 package com.chromascape.utils.domain.ocr;
 
 import static org.bytedeco.opencv.global.opencv_core.CV_8UC1;
-import static org.bytedeco.opencv.global.opencv_core.minMaxLoc;
 import static org.bytedeco.opencv.global.opencv_imgproc.COLOR_BGR2GRAY;
 import static org.bytedeco.opencv.global.opencv_imgproc.FILLED;
 import static org.bytedeco.opencv.global.opencv_imgproc.LINE_8;
@@ -10,8 +9,11 @@ import static org.bytedeco.opencv.global.opencv_imgproc.cvtColor;
 import static org.bytedeco.opencv.global.opencv_imgproc.matchTemplate;
 import static org.bytedeco.opencv.global.opencv_imgproc.rectangle;
 
+import com.chromascape.utils.core.screen.capture.Frame;
 import com.chromascape.utils.core.screen.colour.ColourObj;
 import com.chromascape.utils.core.screen.topology.ColourContours;
+import com.chromascape.utils.core.screen.topology.TemplateMatch;
+import com.chromascape.utils.core.screen.topology.TemplateMatching;
 import com.chromascape.utils.core.screen.window.ScreenManager;
 import com.chromascape.utils.domain.zones.MaskZones;
 import java.awt.AWTException;
@@ -28,9 +30,10 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import javax.imageio.ImageIO;
-import org.bytedeco.javacpp.DoublePointer;
 import org.bytedeco.javacv.Java2DFrameUtils;
 import org.bytedeco.opencv.opencv_core.Mat;
 import org.bytedeco.opencv.opencv_core.Point;
@@ -43,22 +46,9 @@ import org.bytedeco.opencv.opencv_core.Scalar;
  */
 public class Ocr {
 
-  /** Stores successful character matches during Ocr extraction. */
-  private static final List<CharMatch> matches = new ArrayList<>();
-
   /**
-   * A set of characters that are known to cause issues with Ocr matching. These are excluded during
-   * glyph matching. Thank you to Kell and the team at OSBC for putting in all the hard work!
-   */
-  private static final Set<String> problemChars =
-      Set.of(
-          "Ì", "Í", "Î", "Ï", "ì", "í", "î", "ï", "Ĺ", "Ļ", "Ľ", "Ŀ", "Ł", "ĺ", "ļ", "ľ", "ŀ", "ł",
-          "|", "¦", "!", "ĵ", "ǰ", "ȷ", "ɉ", "Ĵ", "Ĩ", "Ī", "Ĭ", "Į", "İ", "Ɨ", "Ỉ", "Ị", "ĩ", "ī",
-          "ĭ", "į", "ı", "ƚ", "ỉ", "ị", "ˈ", "ˌ", "ʻ", "ʼ", "ʽ", "˚", "ʾ", "ʿ", "˙", "`", "¨", "¯",
-          "´", "¹", " ", "\t", "\n", "·");
-
-  /**
-   * Loads a font glyph set from disk, converts each glyph to grayscale, and stores in a map.
+   * Loads a font glyph set from disk, converts each glyph to grayscale, and stores in a map. Every
+   * call decodes the font again; matching code should use the shared {@link GlyphSet#of(String)}.
    *
    * @param font Name of the font folder inside resources.
    * @return A map from character string to Mat (glyph image).
@@ -95,94 +85,126 @@ public class Ocr {
   }
 
   /**
-   * Extracts a string of text from a screen region by template-matching glyphs from a font. Note:
-   * this will not include any spaces.
+   * Reads the text in a screen region by template-matching glyphs from a font. Note: the text will
+   * not include any spaces.
+   *
+   * <p>Each call works on its own capture and returns its own result, so it is safe to call from
+   * several threads at once.
    *
    * @param zone Rectangle on screen to extract text from.
    * @param font Font name to use for glyph matching.
    * @param colour ColourObj specifying the color to isolate.
-   * @param clean Whether to clear internal match storage after use.
-   * @return The extracted text string from the zone.
+   * @return The text and the location of every character read.
    * @throws IOException if font images cannot be read.
    */
-  public static String extractText(Rectangle zone, String font, ColourObj colour, boolean clean)
-      throws IOException {
-    Map<String, Mat> fontMap = loadFont(font); // Loading the font as the user's input.
-    matches.clear();
-    BufferedImage zoneImage = ScreenManager.captureZone(zone);
-    double threshold = 0.99;
-    // Masking the zone by the colour and loading it as an 8 bit unsigned 1 channel (CV_8UC1) binary
-    // greyscale.
-    Mat zoneMat = ColourContours.extractColours(zoneImage, colour);
-    // Template match each glyph in the font to the zoneMat.
-    for (String glyph : fontMap.keySet()) {
-      // Make sure none of the elements are a space or a problem character.
-      if (glyph.trim().isEmpty() || problemChars.contains(glyph)) {
-        continue;
-      }
-
-      Mat correlation = new Mat(); // This Mat will be the output for image template matching.
+  public static OcrResult read(Rectangle zone, String font, ColourObj colour) throws IOException {
+    return read(zone, font, colour, OcrMode.TEMPLATE);
+  }
 
-      int glyphImgRows; // These are to store the glyph sizes outside of try with resources scope.
-      int glyphImgCols;
-
-      // We are trimming the font images and template matching -
-      // Based on the font type and how the image is stored.
-
-      int ycropModifier = getCropModifierForFont(font);
-
-      try (Rect roi =
-              new Rect(
-                  0,
-                  ycropModifier,
-                  fontMap.get(glyph).arrayWidth(),
-                  fontMap.get(glyph).arrayHeight() - ycropModifier);
-          Mat croppedGlyph = new Mat(fontMap.get(glyph), roi)) {
-        // Match template with cropped glyph and store size outside try-with-resources.
-        matchTemplate(zoneMat, croppedGlyph, correlation, TM_CCOEFF_NORMED);
-        glyphImgRows = croppedGlyph.rows();
-        glyphImgCols = croppedGlyph.cols();
-      }
-      // Call minMaxLoc repeatedly, zero out the area based on glyph size, save locations as
-      // CharMatch objs.
-      while (true) { // Loop breaks when threshold is not met.
-        try (DoublePointer minVal = new DoublePointer(1);
-            DoublePointer maxVal = new DoublePointer(1);
-            Point minLoc = new Point();
-            Point maxLoc = new Point()) {
-
-          minMaxLoc(correlation, minVal, maxVal, minLoc, maxLoc, null);
-
-          if (maxVal.get() < threshold) {
-            break;
-          }
+  /**
+   * Reads the text in a screen region with the given engine, see {@link #read(Rectangle, String,
+   * ColourObj)}.
+   *
+   * @param zone Rectangle on screen to extract text from.
+   * @param font Font name to use for glyph matching.
+   * @param colour ColourObj specifying the color to isolate.
+   * @param mode How to find the characters.
+   * @return The text and the location of every character read.
+   * @throws IOException if font images cannot be read.
+   */
+  public static OcrResult read(Rectangle zone, String font, ColourObj colour, OcrMode mode)
+      throws IOException {
+    return read(zone, GlyphSet.of(font), colour, mode);
+  }
 
-          Rectangle matchLocation =
-              new Rectangle(maxLoc.x(), maxLoc.y(), glyphImgCols, glyphImgRows);
-          matches.add(
-              new CharMatch(glyph, matchLocation.x, matchLocation.y, glyphImgCols, glyphImgRows));
+  /**
+   * Reads several screen regions in the same font and colour in parallel.
+   *
+   * @param zones Rectangles on screen to extract text from.
+   * @param font Font name to use for glyph matching.
+   * @param colour ColourObj specifying the color to isolate.
+   * @param executor Pool to run the reads on.
+   * @return One result per zone, in the order of {@code zones}.
+   * @throws IOException if font images cannot be read.
+   */
+  public static List<OcrResult> readAll(
+      List<Rectangle> zones, String font, ColourObj colour, Executor executor) throws IOException {
+    return readAll(zones, font, colour, OcrMode.TEMPLATE, executor);
+  }
 
-          zeroOutRegion(correlation, matchLocation);
-          zoneMat = MaskZones.maskZonesMat(zoneMat.clone(), matchLocation);
-        }
-      }
-      correlation.release();
+  /**
+   * Reads several screen regions in the same font and colour in parallel with the given engine.
+   *
+   * @param zones Rectangles on screen to extract text from.
+   * @param font Font name to use for glyph matching.
+   * @param colour ColourObj specifying the color to isolate.
+   * @param mode How to find the characters.
+   * @param executor Pool to run the reads on.
+   * @return One result per zone, in the order of {@code zones}.
+   * @throws IOException if font images cannot be read.
+   */
+  public static List<OcrResult> readAll(
+      List<Rectangle> zones, String font, ColourObj colour, OcrMode mode, Executor executor)
+      throws IOException {
+    GlyphSet glyphs = GlyphSet.of(font); // Loaded up front so the workers never do I/O.
+    List<CompletableFuture<OcrResult>> pending = new ArrayList<>(zones.size());
+    for (Rectangle zone : zones) {
+      pending.add(CompletableFuture.supplyAsync(() -> read(zone, glyphs, colour, mode), executor));
     }
-    zoneMat.release();
-
-    // Sort CharMatch objects based on left-most positions.
-    matches.sort(Comparator.comparingInt(CharMatch::y).thenComparingInt(CharMatch::x));
-
-    StringBuilder result = new StringBuilder();
-    for (CharMatch match : matches) {
-      result.append(match.character());
+    List<OcrResult> results = new ArrayList<>(pending.size());
+    for (CompletableFuture<OcrResult> future : pending) {
+      results.add(future.join());
     }
+    return results;
+  }
 
-    if (clean) {
-      matches.clear();
-    }
+  /**
+   * Reads several screen regions in parallel on the common fork-join pool, see {@link
+   * #readAll(List, String, ColourObj, Executor)}.
+   *
+   * @param zones Rectangles on screen to extract text from.
+   * @param font Font name to use for glyph matching.
+   * @param colour ColourObj specifying the color to isolate.
+   * @return One result per zone, in the order of {@code zones}.
+   * @throws IOException if font images cannot be read.
+   */
+  public static List<OcrResult> readAll(List<Rectangle> zones, String font, ColourObj colour)
+      throws IOException {
+    return readAll(zones, font, colour, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Extracts a string of text from a screen region, see {@link #read(Rectangle, String,
+   * ColourObj)}.
+   *
+   * @param zone Rectangle on screen to extract text from.
+   * @param font Font name to use for glyph matching.
+   * @param colour ColourObj specifying the color to isolate.
+   * @return The extracted text string from the zone.
+   * @throws IOException if font images cannot be read.
+   */
+  public static String extractText(Rectangle zone, String font, ColourObj colour)
+      throws IOException {
+    return read(zone, font, colour).text();
+  }
 
-    return result.toString();
+  /**
+   * Extracts a string of text from a screen region.
+   *
+   * @param zone Rectangle on screen to extract text from.
+   * @param font Font name to use for glyph matching.
+   * @param colour ColourObj specifying the color to isolate.
+   * @param clean Ignored.
+   * @return The extracted text string from the zone.
+   * @throws IOException if font images cannot be read.
+   * @deprecated Matches are no longer stored between calls, so there is nothing to clean; use
+   *     {@link #extractText(Rectangle, String, ColourObj)}, or {@link #read(Rectangle, String,
+   *     ColourObj)} to get the matches.
+   */
+  @Deprecated
+  public static String extractText(Rectangle zone, String font, ColourObj colour, boolean clean)
+      throws IOException {
+    return extractText(zone, font, colour);
   }
 
   /**
@@ -200,22 +222,35 @@ public class Ocr {
    */
   public static BufferedImage extractTextLocationMask(
       Rectangle zone, String font, String text, ColourObj colour) throws IOException, AWTException {
+    OcrResult result = read(zone, font, colour);
+
+    // Early exit: text doesn't match expected
+    if (!result.text().equals(text)) {
+      return null;
+    }
+    return locationMask(result);
+  }
+
+  /**
+   * Draws the characters of a result into a window-sized mask.
+   *
+   * @param result The OCR result.
+   * @return A BufferedImage mask with the character boxes white and everything else black.
+   * @throws AWTException if the window bounds cannot be determined.
+   */
+  public static BufferedImage locationMask(OcrResult result) throws AWTException {
+    Rectangle zone = result.zone();
     // Get the full window bounds (this must match the screen capture bounds)
     Rectangle window = ScreenManager.getWindowBounds();
 
     // Create a black mask matching the window size
     Mat fullScreenMask = new Mat(window.height, window.width, CV_8UC1, new Scalar(0));
 
-    // Early exit: text doesn't match expected
-    if (!extractText(zone, font, colour, false).equals(text)) {
-      return null;
-    }
-
     // Create a zone-sized mask where matched characters will be drawn
     Mat zoneMask = new Mat(zone.height, zone.width, CV_8UC1, new Scalar(0));
 
     // Draw rectangles for matched characters
-    for (CharMatch match : matches) {
+    for (CharMatch match : result.matches()) {
       rectangle(
           zoneMask,
           new Point(match.x(), match.y()),
@@ -237,6 +272,86 @@ public class Ocr {
     return Java2DFrameUtils.toBufferedImage(fullScreenMask);
   }
 
+  /**
+   * Reads a screen region with an already loaded glyph set. All state is local to the call.
+   *
+   * @param zone Rectangle on screen to extract text from.
+   * @param glyphs The font's glyphs.
+   * @param colour ColourObj specifying the color to isolate.
+   * @param mode How to find the characters.
+   * @return The text and the location of every character read.
+   */
+  private static OcrResult read(Rectangle zone, GlyphSet glyphs, ColourObj colour, OcrMode mode) {
+    // Masking the zone by the colour and loading it as an 8 bit unsigned 1 channel (CV_8UC1) binary
+    // greyscale.
+    Mat zoneMat;
+    try (Frame zoneFrame = Frame.wrap(ScreenManager.captureZoneMat(zone, null))) {
+      zoneMat = ColourContours.extractColours(zoneFrame, colour);
+    }
+    // An unchanged mask reads as the same text, so only changed zones are matched again.
+    OcrCache.Key key = OcrCache.key(zone, glyphs.font(), colour, mode, zoneMat);
+    OcrResult result = OcrCache.get(key);
+    if (result != null) {
+      zoneMat.release();
+      return result;
+    }
+    if (mode == OcrMode.SEGMENTED) {
+      result = SegmentedOcr.read(zoneMat, zone, glyphs);
+      zoneMat.release();
+    } else {
+      result = matchGlyphs(zoneMat, zone, glyphs);
+    }
+    OcrCache.put(key, result);
+    return result;
+  }
+
+  /**
+   * Reads a binarised zone by template-matching every glyph of the font over it.
+   *
+   * @param zoneMat The binarised zone; released by this method.
+   * @param zone Rectangle on screen the zone was captured from.
+   * @param glyphs The font's glyphs.
+   * @return The text and the location of every character read.
+   */
+  static OcrResult matchGlyphs(Mat zoneMat, Rectangle zone, GlyphSet glyphs) {
+    List<CharMatch> matches = new ArrayList<>();
+    double threshold = 0.99;
+    // Template match each glyph in the font to the zoneMat.
+    for (Glyph glyph : glyphs.glyphs()) {
+      Mat correlation = new Mat(); // This Mat will be the output for image template matching.
+      matchTemplate(zoneMat, glyph.image(), correlation, TM_CCOEFF_NORMED);
+      int glyphImgRows = glyph.height();
+      int glyphImgCols = glyph.width();
+
+      // Every distinct peak above the threshold is one occurrence of the glyph; overlapping peaks
+      // are suppressed so each character is only read once.
+      List<TemplateMatch> peaks =
+          TemplateMatching.findPeaks(
+              correlation, glyphImgCols, glyphImgRows, threshold, false, 0.0);
+      for (TemplateMatch peak : peaks) {
+        Rectangle matchLocation = peak.bounds();
+        matches.add(
+            new CharMatch(
+                glyph.character(), matchLocation.x, matchLocation.y, glyphImgCols, glyphImgRows));
+
+        Mat masked = MaskZones.maskZonesMat(zoneMat, matchLocation);
+        zoneMat.release();
+        zoneMat = masked;
+      }
+      correlation.release();
+    }
+    zoneMat.release();
+
+    // Sort CharMatch objects based on left-most positions.
+    matches.sort(Comparator.comparingInt(CharMatch::y).thenComparingInt(CharMatch::x));
+
+    StringBuilder result = new StringBuilder();
+    for (CharMatch match : matches) {
+      result.append(match.character());
+    }
+    return new OcrResult(zone, result.toString(), matches);
+  }
+
   /**
    * Converts a zone-relative rectangle to a window-relative Mat region for masking.
    *
@@ -288,14 +403,4 @@ public class Ocr {
     subMat.setTo(new Mat(new Scalar(0)));
     subMat.release();
   }
-
-  /**
-   * Returns a vertical crop offset used when slicing glyph images, depending on font type.
-   *
-   * @param font Font name.
-   * @return Crop offset in pixels.
-   */
-  private static int getCropModifierForFont(String font) {
-    return Objects.equals(font, "Plain 12") ? 2 : 1;
-  }
 }
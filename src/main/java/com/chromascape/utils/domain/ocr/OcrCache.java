@@ -0,0 +1,213 @@
+package com.chromascape.utils.domain.ocr;
+
+import com.chromascape.utils.core.screen.capture.PixelHash;
+import com.chromascape.utils.core.screen.colour.ColourObj;
+import java.awt.Rectangle;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import org.bytedeco.opencv.opencv_core.Mat;
+import org.bytedeco.opencv.opencv_core.Scalar;
+
+/**
+ * Bounded, thread-safe cache of OCR results keyed by what was read and the exact pixels it was read
+ * from.
+ *
+ * <p>Scripts poll the same zones over and over, such as the GridInfo "Tile" zone while walking or
+ * the latest chat message while idling, and most of the time the text has not changed. {@link Ocr}
+ * still captures and binarises the zone on every call, but then hashes the binary mask and looks up
+ * the zone, font, colour, engine and hash here. Only when the mask differs from every cached one
+ * does it run glyph matching, so an unchanged zone costs a hash of a few thousand bytes instead of
+ * a full OCR pass. Every key keeps a copy of its mask, which for an OCR zone is a few kilobytes,
+ * and a hit is only returned once the masks compare equal, so two masks whose hashes collide never
+ * share a result.
+ *
+ * <p>Entries are evicted least-recently-used first once there are more than {@link
+ * #setMaxEntries(int)} of them. Cached {@link OcrResult}s are immutable, so the same result can be
+ * handed to any number of callers.
+ */
+public class OcrCache {
+
+  /** Default number of results to keep. */
+  public static final int DEFAULT_MAX_ENTRIES = 256;
+
+  private static final Map<Key, OcrResult> entries = new LinkedHashMap<>(16, 0.75f, true);
+  private static int maxEntries = DEFAULT_MAX_ENTRIES;
+  private static long hits;
+  private static long misses;
+
+  /**
+   * Builds the cache key of one read.
+   *
+   * @param zone The screen zone read.
+   * @param font The font name.
+   * @param colour The text colour.
+   * @param mode The OCR engine.
+   * @param binary The zone binarised by {@code colour}, continuous.
+   * @return The key.
+   */
+  static Key key(Rectangle zone, String font, ColourObj colour, OcrMode mode, Mat binary) {
+    List<Double> bounds;
+    try (Scalar min = colour.hsvMin();
+        Scalar max = colour.hsvMax()) {
+      bounds = List.of(min.get(0), min.get(1), min.get(2), max.get(0), max.get(1), max.get(2));
+    }
+    ByteBuffer buffer = binary.createBuffer();
+    byte[] pixels = new byte[buffer.limit()];
+    buffer.get(0, pixels);
+    return new Key(
+        new Rectangle(zone), font, colour.name(), bounds, mode, PixelHash.of(pixels), pixels);
+  }
+
+  /**
+   * Returns the cached result of a read, counting the lookup.
+   *
+   * @param key The read's key.
+   * @return The earlier result, or null if there is none.
+   */
+  static OcrResult get(Key key) {
+    synchronized (entries) {
+      OcrResult cached = entries.get(key);
+      if (cached != null) {
+        hits++;
+      } else {
+        misses++;
+      }
+      return cached;
+    }
+  }
+
+  /**
+   * Stores the result of a read.
+   *
+   * @param key The read's key.
+   * @param result The result.
+   */
+  static void put(Key key, OcrResult result) {
+    synchronized (entries) {
+      entries.put(key, result);
+      evict();
+    }
+  }
+
+  /**
+   * Sets the number of results to keep and evicts results until the cache fits.
+   *
+   * @param max Maximum number of entries, 0 to disable caching.
+   */
+  public static void setMaxEntries(int max) {
+    if (max < 0) {
+      throw new IllegalArgumentException("OCR cache size must not be negative: " + max);
+    }
+    synchronized (entries) {
+      maxEntries = max;
+      evict();
+    }
+  }
+
+  /** Drops every cached result and resets the hit and miss counts. */
+  public static void clear() {
+    synchronized (entries) {
+      entries.clear();
+      hits = 0;
+      misses = 0;
+    }
+  }
+
+  /**
+   * Number of results currently cached.
+   *
+   * @return The entry count.
+   */
+  public static int size() {
+    synchronized (entries) {
+      return entries.size();
+    }
+  }
+
+  /**
+   * Number of reads answered from the cache since startup or the last {@link #clear()}.
+   *
+   * @return The hit count.
+   */
+  public static long hits() {
+    synchronized (entries) {
+      return hits;
+    }
+  }
+
+  /**
+   * Number of reads that had to run glyph matching since startup or the last {@link #clear()}.
+   *
+   * @return The miss count.
+   */
+  public static long misses() {
+    synchronized (entries) {
+      return misses;
+    }
+  }
+
+  /**
+   * Fraction of reads served from the cache since startup or the last {@link #clear()}.
+   *
+   * @return The hit ratio between 0 and 1, or 0 if nothing was read yet.
+   */
+  public static double hitRatio() {
+    synchronized (entries) {
+      long total = hits + misses;
+      return total == 0 ? 0 : (double) hits / total;
+    }
+  }
+
+  /** Drops least recently used results until the cache fits its size. Caller holds the lock. */
+  private static void evict() {
+    Iterator<OcrResult> iterator = entries.values().iterator();
+    while (entries.size() > maxEntries && iterator.hasNext()) {
+      iterator.next();
+      iterator.remove();
+    }
+  }
+
+  /**
+   * Identifies one read: where, how and of which pixels. Keys hash by {@code pixelHash} alone and
+   * compare equal only when their masks match byte for byte.
+   *
+   * @param zone The screen zone read.
+   * @param font The font name.
+   * @param colour The text colour's name.
+   * @param bounds The text colour's HSV bounds, minimum then maximum.
+   * @param mode The OCR engine.
+   * @param pixelHash {@link PixelHash} of the binarised zone.
+   * @param pixels The binarised zone, owned by the key.
+   */
+  record Key(
+      Rectangle zone,
+      String font,
+      String colour,
+      List<Double> bounds,
+      OcrMode mode,
+      long pixelHash,
+      byte[] pixels) {
+
+    @Override
+    public boolean equals(Object other) {
+      return other instanceof Key key
+          && pixelHash == key.pixelHash
+          && mode == key.mode
+          && zone.equals(key.zone)
+          && font.equals(key.font)
+          && colour.equals(key.colour)
+          && bounds.equals(key.bounds)
+          && Arrays.equals(pixels, key.pixels);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(zone, font, colour, bounds, mode, pixelHash);
+    }
+  }
+}
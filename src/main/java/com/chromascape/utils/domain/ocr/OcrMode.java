@@ -0,0 +1,16 @@
+package com.chromascape.utils.domain.ocr;
+
+/** How {@link Ocr} finds characters in a zone. */
+public enum OcrMode {
+  /**
+   * Template-matches every glyph of the font over the whole zone. Tolerates noise and overlapping
+   * characters, but costs one correlation per glyph regardless of how much text there is.
+   */
+  TEMPLATE,
+  /**
+   * Splits the zone into character cells by row and column projections and compares each cell once
+   * with the glyphs of the same size. Cost grows with the number of characters rather than the size
+   * of the font. Suited to the game's pixel-exact bitmap fonts.
+   */
+  SEGMENTED
+}
@@ -0,0 +1,58 @@
+package com.chromascape.utils.domain.ocr;
+
+import java.awt.Rectangle;
+import java.util.List;
+
+/**
+ * The outcome of one OCR call: the text read from a zone and where each character was found.
+ *
+ * <p>Results are immutable and belong to the call that produced them, so any number of threads can
+ * read zones at once without seeing each other's matches.
+ *
+ * @param zone The screen zone that was read.
+ * @param text The characters read, top to bottom and left to right, without spaces.
+ * @param matches The matched characters in reading order, in co-ordinates relative to {@code zone}.
+ */
+public record OcrResult(Rectangle zone, String text, List<CharMatch> matches) {
+
+  /**
+   * Creates a result, copying the zone and the match list.
+   *
+   * @param zone The screen zone that was read.
+   * @param text The characters read.
+   * @param matches The matched characters in reading order.
+   */
+  public OcrResult {
+    zone = new Rectangle(zone);
+    matches = List.copyOf(matches);
+  }
+
+  /**
+   * The screen zone that was read.
+   *
+   * @return A copy of the zone, so callers cannot move this result.
+   */
+  @Override
+  public Rectangle zone() {
+    return new Rectangle(zone);
+  }
+
+  /**
+   * Whether no character was read.
+   *
+   * @return true if the text is empty.
+   */
+  public boolean isEmpty() {
+    return matches.isEmpty();
+  }
+
+  /**
+   * Screen-space bounds of a matched character.
+   *
+   * @param match One of this result's matches.
+   * @return The character's bounds in absolute screen co-ordinates.
+   */
+  public Rectangle screenBounds(CharMatch match) {
+    return new Rectangle(zone.x + match.x(), zone.y + match.y(), match.width(), match.height());
+  }
+}
@@ -0,0 +1,329 @@
+package com.chromascape.utils.domain.ocr;
+
+import java.awt.Rectangle;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.bytedeco.opencv.opencv_core.Mat;
+
+/**
+ * The {@link OcrMode#SEGMENTED} engine: reads a binarised zone by cutting it into character cells
+ * instead of sliding every glyph over it.
+ *
+ * <p>Rows without ink separate lines of text and columns without ink separate characters. Each
+ * resulting cell is trimmed to its ink, packed into bits and recognised by the font's {@link
+ * GlyphClassifier}. Glyphs made of several column runs, such as a double quote, are found by first
+ * trying to merge a cell with its neighbours, and characters that touch are peeled off left to
+ * right. Glyphs with the same shape at different heights, such as a comma and an apostrophe, are
+ * told apart by which one puts the glyph's top where the rest of the line's glyphs have theirs.
+ */
+final class SegmentedOcr {
+
+  private SegmentedOcr() {}
+
+  /**
+   * Reads the text in a binarised zone.
+   *
+   * @param binary The zone as a continuous single-channel mask, non-zero where the text colour is.
+   * @param zone The screen zone the mask was taken from.
+   * @param glyphs The font's glyphs.
+   * @return The text and the location of every character read.
+   */
+  static OcrResult read(Mat binary, Rectangle zone, GlyphSet glyphs) {
+    int cols = binary.cols();
+    int rows = binary.rows();
+    Mask mask = new Mask(cols, rows);
+    ByteBuffer data = binary.createBuffer();
+    for (int y = 0; y < rows; y++) {
+      for (int x = 0; x < cols; x++) {
+        if (data.get(y * cols + x) != 0) {
+          mask.bits[y * mask.words + (x >>> 6)] |= 1L << x;
+        }
+      }
+    }
+    GlyphClassifier classifier = glyphs.classifier();
+
+    List<CharMatch> matches = new ArrayList<>();
+    StringBuilder text = new StringBuilder();
+    for (int[] line : lines(mask, glyphs.lineHeight())) {
+      for (Cell cell : readLine(mask, line[0], line[1], classifier)) {
+        GlyphBitmap bitmap = cell.chosen;
+        Glyph glyph = bitmap.glyph();
+        matches.add(
+            new CharMatch(
+                glyph.character(),
+                cell.x - bitmap.left(),
+                cell.y - bitmap.top(),
+                glyph.width(),
+                glyph.height()));
+        text.append(glyph.character());
+      }
+    }
+    return new OcrResult(zone, text.toString(), matches);
+  }
+
+  /**
+   * Splits the mask into horizontal bands of text by its row projection. Bands closer together than
+   * a line of the font allows, as left by characters with a gap such as a colon, are joined.
+   *
+   * @param mask The mask.
+   * @param lineHeight The tallest a line of the font can be.
+   * @return The bands as {@code [top, bottom)} row ranges, top to bottom.
+   */
+  private static List<int[]> lines(Mask mask, int lineHeight) {
+    List<int[]> bands = new ArrayList<>();
+    int start = -1;
+    for (int y = 0; y <= mask.rows; y++) {
+      boolean inked = y < mask.rows && mask.rowHasInk(y, 0, mask.cols);
+      if (inked && start < 0) {
+        start = y;
+      } else if (!inked && start >= 0) {
+        int[] last = bands.isEmpty() ? null : bands.get(bands.size() - 1);
+        if (last != null && y - last[0] <= lineHeight) {
+          last[1] = y;
+        } else {
+          bands.add(new int[] {start, y});
+        }
+        start = -1;
+      }
+    }
+    return bands;
+  }
+
+  /**
+   * Reads the characters of one band, left to right.
+   *
+   * @param mask The mask.
+   * @param top First row of the band.
+   * @param bottom Row after the last row of the band.
+   * @param classifier The font's classifier.
+   * @return The classified cells in reading order.
+   */
+  private static List<Cell> readLine(Mask mask, int top, int bottom, GlyphClassifier classifier) {
+    List<int[]> runs = new ArrayList<>();
+    int start = -1;
+    for (int x = 0; x <= mask.cols; x++) {
+      boolean inked = x < mask.cols && mask.columnHasInk(x, top, bottom);
+      if (inked && start < 0) {
+        start = x;
+      } else if (!inked && start >= 0) {
+        runs.add(new int[] {start, x});
+        start = -1;
+      }
+    }
+
+    int maxWidth = classifier.maxWidth();
+    List<Cell> cells = new ArrayList<>();
+    int i = 0;
+    while (i < runs.size()) {
+      // Try the widest group of runs that could still be one glyph first
+      int last = i;
+      while (last + 1 < runs.size() && runs.get(last + 1)[1] - runs.get(i)[0] <= maxWidth) {
+        last++;
+      }
+      Cell cell = null;
+      for (; last >= i; last--) {
+        cell = classify(mask, top, bottom, runs.get(i)[0], runs.get(last)[1], classifier);
+        if (cell != null) {
+          break;
+        }
+      }
+      if (cell != null) {
+        cells.add(cell);
+        i = last + 1;
+        continue;
+      }
+      split(mask, top, bottom, runs.get(i), classifier, cells);
+      i++;
+    }
+    chooseByBaseline(cells);
+    return cells;
+  }
+
+  /**
+   * Peels touching characters off a run from the left, each time taking the widest glyph that
+   * matches at the run's left edge. Columns nothing matches are skipped.
+   *
+   * @param mask The mask.
+   * @param top First row of the band.
+   * @param bottom Row after the last row of the band.
+   * @param run The run of inked columns, {@code [start, end)}.
+   * @param classifier The font's classifier.
+   * @param cells Receives the classified cells.
+   */
+  private static void split(
+      Mask mask, int top, int bottom, int[] run, GlyphClassifier classifier, List<Cell> cells) {
+    int x = run[0];
+    while (x < run[1]) {
+      int width = Math.min(classifier.maxWidth(), run[1] - x);
+      Cell cell = classify(mask, top, bottom, x, x + width, classifier);
+      while (cell == null && width > 1) {
+        width--;
+        cell = classify(mask, top, bottom, x, x + width, classifier);
+      }
+      if (cell == null) {
+        x++;
+      } else {
+        cells.add(cell);
+        x += width;
+      }
+    }
+  }
+
+  /**
+   * Packs the ink of a column range and classifies it.
+   *
+   * @param mask The mask.
+   * @param top First row of the band.
+   * @param bottom Row after the last row of the band.
+   * @param left First column of the cell.
+   * @param right Column after the last column of the cell.
+   * @param classifier The font's classifier.
+   * @return The cell with every glyph that matches equally best, or null if none matches.
+   */
+  private static Cell classify(
+      Mask mask, int top, int bottom, int left, int right, GlyphClassifier classifier) {
+    int minY = -1;
+    int maxY = -1;
+    for (int y = top; y < bottom; y++) {
+      if (mask.rowHasInk(y, left, right)) {
+        if (minY < 0) {
+          minY = y;
+        }
+        maxY = y;
+      }
+    }
+    if (minY < 0) {
+      return null;
+    }
+    int width = right - left;
+    int height = maxY - minY + 1;
+    int words = GlyphClassifier.words(width);
+    long[] rows = new long[height * words];
+    for (int y = 0; y < height; y++) {
+      for (int w = 0; w < words; w++) {
+        int x = left + (w << 6);
+        rows[y * words + w] = mask.extract(minY + y, x, Math.min(64, right - x));
+      }
+    }
+    List<GlyphBitmap> candidates = classifier.candidates(rows, width, height);
+    if (candidates.isEmpty()) {
+      return null;
+    }
+    Cell cell = new Cell(left, minY);
+    cell.candidates.addAll(candidates);
+    cell.chosen = candidates.get(0);
+    return cell;
+  }
+
+  /**
+   * Resolves cells that several glyphs match equally well. The glyph images of one line share a top
+   * edge, so each such cell takes the candidate that puts its image top where the unambiguous cells
+   * put theirs.
+   *
+   * @param cells The cells of one line.
+   */
+  private static void chooseByBaseline(List<Cell> cells) {
+    Map<Integer, Integer> votes = new HashMap<>();
+    for (Cell cell : cells) {
+      if (cell.candidates.size() == 1) {
+        votes.merge(cell.y - cell.chosen.top(), 1, Integer::sum);
+      }
+    }
+    if (votes.isEmpty()) {
+      return;
+    }
+    int imageTop = votes.entrySet().stream().max(Map.Entry.comparingByValue()).get().getKey();
+    for (Cell cell : cells) {
+      for (GlyphBitmap candidate : cell.candidates) {
+        int offset = Math.abs(cell.y - candidate.top() - imageTop);
+        if (offset < Math.abs(cell.y - cell.chosen.top() - imageTop)) {
+          cell.chosen = candidate;
+        }
+      }
+    }
+  }
+
+  /** A binarised zone packed one bit per pixel, in the same layout as {@link GlyphClassifier}. */
+  private static final class Mask {
+    private final int cols;
+    private final int rows;
+    private final int words;
+    private final long[] bits;
+
+    private Mask(int cols, int rows) {
+      this.cols = cols;
+      this.rows = rows;
+      this.words = GlyphClassifier.words(cols);
+      this.bits = new long[rows * words];
+    }
+
+    /**
+     * Reads up to 64 consecutive pixels of a row.
+     *
+     * @param y The row.
+     * @param x The first column.
+     * @param count Number of pixels, 1 to 64, ending inside the row.
+     * @return The pixels, column {@code x} in bit 0.
+     */
+    private long extract(int y, int x, int count) {
+      int word = y * words + (x >>> 6);
+      int shift = x & 63;
+      long value = bits[word] >>> shift;
+      if (shift != 0 && shift + count > 64) {
+        value |= bits[word + 1] << (64 - shift);
+      }
+      return count == 64 ? value : value & ((1L << count) - 1);
+    }
+
+    /**
+     * Whether part of a row has any ink.
+     *
+     * @param y The row.
+     * @param left First column to look at.
+     * @param right Column after the last one to look at.
+     * @return true if any pixel in the range is set.
+     */
+    private boolean rowHasInk(int y, int left, int right) {
+      for (int x = left; x < right; x += 64) {
+        if (extract(y, x, Math.min(64, right - x)) != 0) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    /**
+     * Whether part of a column has any ink.
+     *
+     * @param x The column.
+     * @param top First row to look at.
+     * @param bottom Row after the last one to look at.
+     * @return true if any pixel in the range is set.
+     */
+    private boolean columnHasInk(int x, int top, int bottom) {
+      long bit = 1L << x;
+      for (int y = top; y < bottom; y++) {
+        if ((bits[y * words + (x >>> 6)] & bit) != 0) {
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+
+  /** A character cell: the top-left of its ink and the glyphs that match it. */
+  private static final class Cell {
+    private final int x;
+    private final int y;
+    private final List<GlyphBitmap> candidates = new ArrayList<>();
+    private GlyphBitmap chosen;
+
+    private Cell(int x, int y) {
+      this.x = x;
+      this.y = y;
+    }
+  }
+}
@@ -9,14 +9,12 @@ import com.chromascape.utils.core.screen.topology.Similarity;
 import com.chromascape.utils.core.screen.topology.TemplateMatching;
 import com.chromascape.utils.core.screen.window.ScreenManager;
 import java.awt.Rectangle;
-import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.stream.IntStream;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import org.bytedeco.javacv.Java2DFrameUtils;
 import org.bytedeco.opencv.opencv_core.Mat;
 import org.bytedeco.opencv.opencv_core.Scalar;
 
@@ -105,10 +103,9 @@ public class Compass {
    */
   public int getCompassAngle() {
     Rectangle zone = controller.zones().getMinimap().get("compassSimilarity");
-    BufferedImage img = ScreenManager.captureZone(zone);
     double[] similarities = new double[360];
     // Parallel similarity checks
-    try (Mat compass = Java2DFrameUtils.toMat(img)) {
+    try (Mat compass = ScreenManager.captureZoneMat(zone, null)) {
       cvtColor(compass, compass, COLOR_RGB2BGR);
       IntStream.range(0, 360)
           .parallel()
@@ -94,7 +94,7 @@ public class Walker {
     ColourObj colour = ColourInstances.getByName("White");
     // Extracts the position using OCR and splits it into a 3 value list (x, y, z)
     List<String> stringPos =
-        Arrays.asList(Ocr.extractText(zone, "Plain 12", colour, true).split(","));
+        Arrays.asList(Ocr.extractText(zone, "Plain 12", colour).split(","));
     return new Tile(
         Integer.parseInt(stringPos.get(0)),
         Integer.parseInt(stringPos.get(1)),
@@ -1,8 +1,9 @@
 package com.chromascape.utils.domain.zones;
 
+import com.chromascape.utils.core.screen.capture.RasterConverter;
+import com.chromascape.utils.core.screen.kernel.ImageKernels;
 import java.awt.Rectangle;
 import java.awt.image.BufferedImage;
-import org.bytedeco.javacpp.indexer.UByteRawIndexer;
 import org.bytedeco.javacv.Java2DFrameUtils;
 import org.bytedeco.opencv.opencv_core.Mat;
 import org.bytedeco.opencv.opencv_core.Rect;
@@ -26,7 +27,7 @@ public class MaskZones {
    * @throws IllegalArgumentException If the rectangle is out of image bounds or invalid.
    */
   public static BufferedImage maskZones(BufferedImage originalImg, Rectangle maskArea) {
-    Mat original = Java2DFrameUtils.toMat(originalImg);
+    Mat original = RasterConverter.toMat(originalImg);
     Mat output = maskZonesMat(original, maskArea);
     BufferedImage outImg = Java2DFrameUtils.toBufferedImage(output);
     original.release();
@@ -57,29 +58,7 @@ public class MaskZones {
       throw new IllegalArgumentException("Mask rectangle out of bounds: " + rect);
     }
 
-    Mat roi = new Mat(output, rect);
-
-    if (output.channels() == 1) {
-      UByteRawIndexer indexer = roi.createIndexer();
-      for (int y = 0; y < rect.height(); y++) {
-        for (int x = 0; x < rect.width(); x++) {
-          indexer.put(y, x, 0);
-        }
-      }
-      indexer.release();
-    } else if (output.channels() == 3) {
-      UByteRawIndexer indexer = roi.createIndexer();
-      for (int y = 0; y < rect.height(); y++) {
-        for (int x = 0; x < rect.width(); x++) {
-          indexer.put(y, x, 0, 0); // B
-          indexer.put(y, x, 1, 0); // G
-          indexer.put(y, x, 2, 0); // R
-        }
-      }
-      indexer.release();
-    }
-
-    roi.release();
+    ImageKernels.fill(output, maskArea, (byte) 0);
     return output;
   }
 }
@@ -1,7 +1,10 @@
 package com.chromascape.utils.domain.zones;
 
+import com.chromascape.utils.core.screen.capture.CapturedFrame;
+import com.chromascape.utils.core.screen.topology.MatchStrategy;
 import com.chromascape.utils.core.screen.topology.TemplateMatching;
 import com.chromascape.utils.core.screen.window.ScreenManager;
+import com.chromascape.utils.core.screen.window.WindowGeometry;
 import java.awt.Rectangle;
 import java.awt.image.BufferedImage;
 import java.util.List;
@@ -50,6 +53,12 @@ public class ZoneManager {
   /** Threshold values corresponding to template matching sensitivity for each UI element. */
   private final double[] zoneThresholds = {0.025, 0.100, 0.035, 0.020};
 
+  /** Screen-space UI elements last masked out of the game view, {@code null} until first use. */
+  private Rectangle[] maskedElements;
+
+  /** Sequence number of the frame {@link #maskedElements} were located in. */
+  private long maskedElementsSequence = -1;
+
   private static final Logger logger = LogManager.getLogger(ZoneManager.class.getName());
 
   /**
@@ -107,35 +116,60 @@ public class ZoneManager {
    * Captures a screenshot of the current game viewport area.
    *
    * <p>Captures the full window and masks out UI zones such as minimap, control panel, and chat to
-   * isolate the game viewport.
+   * isolate the game viewport. The viewport and the UI element lookups all use the same frame.
+   *
+   * <p>The located UI elements are remembered together with the frame they were found in. While the
+   * attached capture service reports that none of their pixels changed, they are reused instead of
+   * being template matched again, so on a static interface only the masking is repeated.
    *
    * <p>You are intended to use template matching on this image directly for sprite matching You are
    * also intended to use this as the image for colour detection.
    *
    * @return A {@link BufferedImage} representing the game viewport screenshot.
    */
-  public BufferedImage getGameView() throws Exception {
-    BufferedImage gameViewMask = ScreenManager.captureWindow();
-
-    if (isFixed) {
-      // inv (1), chat (2), minimap_fixed (3)
-      int[] fixedIndices = {1, 2, 3};
-      for (int i : fixedIndices) {
-        Rectangle element = locateUiElement(zoneTemplates[i], zoneThresholds[i]);
-        gameViewMask = MaskZones.maskZones(gameViewMask, ScreenManager.toClientBounds(element));
-      }
-    } else {
-      // inv (1), chat (2), minimap (0)
-      int[] resizableIndices = {1, 2, 0};
-      for (int i : resizableIndices) {
-        Rectangle element = locateUiElement(zoneTemplates[i], zoneThresholds[i]);
-        gameViewMask = MaskZones.maskZones(gameViewMask, ScreenManager.toClientBounds(element));
+  public synchronized BufferedImage getGameView() throws Exception {
+    CapturedFrame frame = ScreenManager.latestFrame();
+    BufferedImage window = frame.toBufferedImage();
+
+    // inv (1), chat (2), then minimap_fixed (3) or minimap (0)
+    int[] indices = isFixed ? new int[] {1, 2, 3} : new int[] {1, 2, 0};
+    if (!uiElementsUnchangedSince(maskedElementsSequence)) {
+      Rectangle[] elements = new Rectangle[indices.length];
+      for (int i = 0; i < indices.length; i++) {
+        int template = indices[i];
+        elements[i] = locateUiElement(zoneTemplates[template], zoneThresholds[template], window);
       }
+      maskedElements = elements;
+      maskedElementsSequence = frame.sequence();
     }
 
+    // Convert copies with the captured frame's own origin; maskedElements stay in screen space
+    WindowGeometry geometry = frame.geometry();
+    BufferedImage gameViewMask = window;
+    for (Rectangle element : maskedElements) {
+      gameViewMask = MaskZones.maskZones(gameViewMask, geometry.toClientBounds(element));
+    }
     return gameViewMask;
   }
 
+  /**
+   * Checks whether the UI elements masked by {@link #getGameView()} are still valid.
+   *
+   * @param sequence The frame the elements were located in.
+   * @return true if every element's pixels are unchanged since that frame.
+   */
+  private boolean uiElementsUnchangedSince(long sequence) {
+    if (maskedElements == null) {
+      return false;
+    }
+    for (Rectangle element : maskedElements) {
+      if (ScreenManager.changedSince(sequence, element)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
   /**
    * Locates the bounding rectangle of a UI element by matching a template image within the current
    * game window capture.
@@ -146,7 +180,27 @@ public class ZoneManager {
    * @throws Exception if the template matching fails or no match is found.
    */
   public Rectangle locateUiElement(String templatePath, double threshold) throws Exception {
-    return TemplateMatching.match(templatePath, ScreenManager.captureWindow(), threshold, false);
+    return locateUiElement(templatePath, threshold, ScreenManager.captureWindow());
+  }
+
+  /**
+   * Locates the bounding rectangle of a UI element by matching a template image within an already
+   * captured window image, so several lookups can share one capture.
+   *
+   * <p>UI panels rarely move, so their last known location is checked first; when they have moved
+   * they are large templates and are searched with the image pyramid. The thresholds are unaffected
+   * since the final score is always computed at full resolution.
+   *
+   * @param templatePath The file path to the template image to match.
+   * @param threshold The matching threshold (lower values mean stricter matching).
+   * @param window A capture of the full game window, in BGR format.
+   * @return A {@link Rectangle} representing the bounds of the matched UI element.
+   * @throws Exception if the template matching fails or no match is found.
+   */
+  public Rectangle locateUiElement(String templatePath, double threshold, BufferedImage window)
+      throws Exception {
+    return TemplateMatching.match(
+        templatePath, window, threshold, false, MatchStrategy.HINTED_PYRAMID);
   }
 
   /**
@@ -0,0 +1,112 @@
+package com.chromascape.utils.core.input.distribution;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+
+/** Test class for {@link MaskDistribution}. */
+class MaskDistributionTest {
+
+  private static final int SAMPLES = 20_000;
+
+  @Test
+  void testSamplesOnlyLandOnRingPixels() {
+    Rectangle bounds = new Rectangle(300, 200, 41, 41);
+    byte[] mask = new byte[bounds.width * bounds.height];
+    for (int y = 0; y < bounds.height; y++) {
+      for (int x = 0; x < bounds.width; x++) {
+        double radius = Math.hypot(x - 20, y - 20);
+        if (radius >= 15 && radius <= 20) {
+          mask[y * bounds.width + x] = (byte) 255;
+        }
+      }
+    }
+
+    assertOnlyMaskPixels(bounds, mask);
+  }
+
+  @Test
+  void testSamplesOnlyLandOnThinDiagonal() {
+    Rectangle bounds = new Rectangle(-10, 5, 30, 30);
+    byte[] mask = new byte[bounds.width * bounds.height];
+    for (int i = 0; i < bounds.width; i++) {
+      mask[i * bounds.width + i] = 1;
+    }
+
+    MaskDistribution distribution = assertOnlyMaskPixels(bounds, mask);
+    assertEquals(bounds.width, distribution.size());
+  }
+
+  @Test
+  void testSamplesOnlyLandOnScatteredPixels() {
+    Rectangle bounds = new Rectangle(0, 0, 17, 13);
+    byte[] mask = new byte[bounds.width * bounds.height];
+    for (int i = 0; i < mask.length; i += 7) {
+      mask[i] = (byte) 0x80;
+    }
+
+    assertOnlyMaskPixels(bounds, mask);
+  }
+
+  @Test
+  void testSinglePixelIsAlwaysSampled() {
+    Rectangle bounds = new Rectangle(50, 60, 5, 4);
+    byte[] mask = new byte[bounds.width * bounds.height];
+    mask[2 * bounds.width + 3] = (byte) 255;
+
+    MaskDistribution distribution = new MaskDistribution(bounds, mask);
+    assertEquals(1, distribution.size());
+    for (int i = 0; i < 100; i++) {
+      assertEquals(new Point(53, 62), distribution.sample());
+    }
+  }
+
+  @Test
+  void testSamplesCentreOnSymmetricObject() {
+    Rectangle bounds = new Rectangle(100, 100, 21, 21);
+    byte[] mask = new byte[bounds.width * bounds.height];
+    Arrays.fill(mask, (byte) 255);
+    MaskDistribution distribution = new MaskDistribution(bounds, mask);
+
+    double sumX = 0;
+    double sumY = 0;
+    for (int i = 0; i < SAMPLES; i++) {
+      Point point = distribution.sample();
+      sumX += point.x;
+      sumY += point.y;
+    }
+    assertEquals(110, sumX / SAMPLES, 0.5);
+    assertEquals(110, sumY / SAMPLES, 0.5);
+  }
+
+  @Test
+  void testInvalidMasksAreRejected() {
+    Rectangle bounds = new Rectangle(0, 0, 4, 4);
+    assertThrows(IllegalArgumentException.class, () -> new MaskDistribution(bounds, new byte[15]));
+    assertThrows(IllegalArgumentException.class, () -> new MaskDistribution(bounds, new byte[16]));
+  }
+
+  /**
+   * Samples a mask many times and checks that every point lies on one of its pixels.
+   *
+   * @param bounds The screen-space rectangle the mask covers.
+   * @param mask One byte per pixel of {@code bounds}; non-zero pixels belong to the object.
+   * @return The distribution that was sampled.
+   */
+  private static MaskDistribution assertOnlyMaskPixels(Rectangle bounds, byte[] mask) {
+    MaskDistribution distribution = new MaskDistribution(bounds, mask);
+    for (int i = 0; i < SAMPLES; i++) {
+      Point point = distribution.sample();
+      assertTrue(bounds.contains(point), "Sample " + point + " outside " + bounds);
+      int pixel = (point.y - bounds.y) * bounds.width + point.x - bounds.x;
+      assertNotEquals(0, mask[pixel], "Sample " + point + " is not on the mask");
+    }
+    return distribution;
+  }
+}
@@ -0,0 +1,179 @@
+package com.chromascape.utils.core.screen.capture;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.chromascape.utils.core.screen.window.WindowGeometry;
+import java.awt.Rectangle;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** Test class for {@link FrameRecorder} read back through {@link RecordingFrameSource}. */
+class FrameRecorderTest {
+
+  private static final int MAX_WIDTH = 8;
+  private static final int MAX_HEIGHT = 6;
+
+  @TempDir Path tempDir;
+
+  private final Random random = new Random(42);
+
+  @Test
+  void testRecordedFramesReplayUnchanged() throws IOException {
+    Path file = tempDir.resolve("session" + FrameRecorder.EXTENSION);
+    List<CapturedFrame> frames = new ArrayList<>();
+    frames.add(frame(1, new Rectangle(100, 200, MAX_WIDTH, MAX_HEIGHT)));
+    frames.add(frame(2, new Rectangle(105, 200, MAX_WIDTH, MAX_HEIGHT)));
+    frames.add(frame(3, new Rectangle(0, 0, 4, 3)));
+
+    try (FrameRecorder recorder = new FrameRecorder(file, MAX_WIDTH, MAX_HEIGHT, 4)) {
+      frames.forEach(recorder);
+      assertEquals(3, recorder.written());
+    }
+
+    try (RecordingFrameSource source = new RecordingFrameSource(file, false)) {
+      assertEquals(frames.size(), source.frameCount());
+      for (int i = 0; i < frames.size(); i++) {
+        assertSameFrame(frames.get(i), source.current());
+        assertEquals(i + 1 < frames.size(), source.advance());
+      }
+    }
+  }
+
+  @Test
+  void testRingKeepsNewestFramesOldestFirst() throws IOException {
+    Path file = tempDir.resolve("ring" + FrameRecorder.EXTENSION);
+    Rectangle bounds = new Rectangle(10, 10, MAX_WIDTH, MAX_HEIGHT);
+    List<CapturedFrame> frames = new ArrayList<>();
+    try (FrameRecorder recorder = new FrameRecorder(file, MAX_WIDTH, MAX_HEIGHT, 3)) {
+      for (int sequence = 1; sequence <= 7; sequence++) {
+        CapturedFrame frame = frame(sequence, bounds);
+        frames.add(frame);
+        recorder.accept(frame);
+      }
+    }
+
+    try (RecordingFrameSource source = new RecordingFrameSource(file, true)) {
+      assertEquals(3, source.frameCount());
+      for (int i = 4; i < 7; i++) {
+        assertSameFrame(frames.get(i), source.current());
+        assertTrue(source.advance());
+      }
+      assertEquals(5, source.current().sequence(), "A looping replay should restart");
+    }
+  }
+
+  @Test
+  void testOversizedFramesAreDropped() throws IOException {
+    Path file = tempDir.resolve("dropped" + FrameRecorder.EXTENSION);
+    CapturedFrame kept = frame(2, new Rectangle(0, 0, MAX_WIDTH, MAX_HEIGHT));
+    try (FrameRecorder recorder = new FrameRecorder(file, MAX_WIDTH, MAX_HEIGHT, 2)) {
+      recorder.accept(frame(1, new Rectangle(0, 0, MAX_WIDTH + 1, MAX_HEIGHT)));
+      recorder.accept(kept);
+      assertEquals(1, recorder.written());
+      assertEquals(1, recorder.dropped());
+    }
+
+    try (RecordingFrameSource source = new RecordingFrameSource(file, false)) {
+      assertEquals(1, source.frameCount());
+      assertSameFrame(kept, source.current());
+      assertFalse(source.advance());
+    }
+  }
+
+  @Test
+  void testCompressedRecordingReplaysUnchanged() throws Exception {
+    Path file = tempDir.resolve("compressed" + FrameRecorder.EXTENSION);
+    CapturedFrame first = frame(1, new Rectangle(0, 0, MAX_WIDTH, MAX_HEIGHT));
+    CapturedFrame second = frame(2, new Rectangle(0, 0, MAX_WIDTH, MAX_HEIGHT));
+    // A ring with free slots left: only the header and the two written slots are compressed
+    FrameRecorder recorder = new FrameRecorder(file, MAX_WIDTH, MAX_HEIGHT, 5);
+    recorder.accept(first);
+    recorder.accept(second);
+    Path compressed = recorder.compressAsync().get();
+
+    assertTrue(compressed.getFileName().toString().endsWith(FrameRecorder.EXTENSION + ".gz"));
+    assertFalse(Files.exists(file), "The raw file should be deleted once compressed");
+    try (RecordingFrameSource source = new RecordingFrameSource(compressed, false)) {
+      long slot = FrameRecorder.SLOT_HEADER_BYTES + MAX_WIDTH * MAX_HEIGHT * 3;
+      assertEquals(FrameRecorder.HEADER_BYTES + 2 * slot, Files.size(source.file()));
+      assertEquals(2, source.frameCount());
+      assertSameFrame(first, source.current());
+      source.advance();
+      assertSameFrame(second, source.current());
+    }
+  }
+
+  @Test
+  void testCapacityFitsByteBudget() {
+    long slot = FrameRecorder.SLOT_HEADER_BYTES + 1920 * 1080 * 3;
+    long budget = 1L << 30;
+
+    int capacity = FrameRecorder.capacityFor(1920, 1080, budget);
+
+    assertTrue(FrameRecorder.HEADER_BYTES + capacity * slot <= budget);
+    assertTrue(FrameRecorder.HEADER_BYTES + (capacity + 1) * slot > budget);
+    assertEquals(1, FrameRecorder.capacityFor(1920, 1080, 1024));
+  }
+
+  @Test
+  void testEmptyRecordingIsRejected() throws IOException {
+    Path file = tempDir.resolve("empty" + FrameRecorder.EXTENSION);
+    new FrameRecorder(file, MAX_WIDTH, MAX_HEIGHT, 2).close();
+    assertThrows(IOException.class, () -> new RecordingFrameSource(file, false));
+
+    Path other = tempDir.resolve("other" + FrameRecorder.EXTENSION);
+    Files.writeString(other, "x".repeat(64));
+    assertThrows(IOException.class, () -> new RecordingFrameSource(other, false));
+  }
+
+  /**
+   * Creates a frame filled with random pixels.
+   *
+   * @param sequence The frame's sequence number.
+   * @param bounds The frame's screen placement.
+   * @return The frame.
+   */
+  private CapturedFrame frame(long sequence, Rectangle bounds) {
+    byte[] bgr = new byte[bounds.width * bounds.height * 3];
+    random.nextBytes(bgr);
+    long timestamp = 1_000_000L * sequence;
+    return new CapturedFrame(sequence, timestamp, new WindowGeometry(bounds, 0, timestamp), bgr);
+  }
+
+  /**
+   * Asserts that a replayed frame matches the recorded one.
+   *
+   * @param expected The frame that was recorded.
+   * @param actual The frame that was replayed.
+   */
+  private static void assertSameFrame(CapturedFrame expected, CapturedFrame actual) {
+    assertEquals(expected.sequence(), actual.sequence());
+    assertEquals(expected.timestampNanos(), actual.timestampNanos());
+    assertEquals(expected.bounds(), actual.bounds());
+    assertArrayEquals(bytes(expected), bytes(actual));
+  }
+
+  /**
+   * Copies a frame's pixels.
+   *
+   * @param frame The frame.
+   * @return Its BGR bytes.
+   */
+  private static byte[] bytes(CapturedFrame frame) {
+    ByteBuffer pixels = frame.pixels();
+    byte[] bgr = new byte[pixels.remaining()];
+    pixels.get(bgr);
+    return bgr;
+  }
+}
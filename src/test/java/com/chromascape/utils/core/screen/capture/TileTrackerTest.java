@@ -0,0 +1,165 @@
+package com.chromascape.utils.core.screen.capture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.chromascape.utils.core.screen.window.WindowGeometry;
+import java.awt.Rectangle;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Test class for {@link TileTracker} and the {@link DirtyTiles} it reports. */
+class TileTrackerTest {
+
+  private static final int TILE = 32;
+
+  /** 100x70 pixels: 4 columns and 3 rows of tiles, the last ones partial. */
+  private static final Rectangle BOUNDS = new Rectangle(10, 20, 100, 70);
+
+  private TileTracker tracker;
+  private byte[] pixels;
+  private long sequence;
+
+  @BeforeEach
+  void setUp() {
+    tracker = new TileTracker(TILE);
+    pixels = new byte[BOUNDS.width * BOUNDS.height * 3];
+    sequence = 0;
+  }
+
+  @Test
+  void testFirstFrameMarksEveryTileDirty() {
+    DirtyTiles dirty = update();
+
+    assertEquals(4, dirty.columns());
+    assertEquals(3, dirty.rows());
+    assertEquals(12, dirty.tileCount());
+    assertEquals(12, dirty.dirtyCount());
+    assertEquals(
+        List.of(
+            new Rectangle(10, 20, 100, 32),
+            new Rectangle(10, 52, 100, 32),
+            new Rectangle(10, 84, 100, 6)),
+        dirty.dirtyRegions());
+  }
+
+  @Test
+  void testIdenticalFrameIsClean() {
+    update();
+    DirtyTiles dirty = update();
+
+    assertTrue(dirty.isClean());
+    assertTrue(dirty.dirtyRegions().isEmpty());
+    assertFalse(dirty.intersects(BOUNDS));
+  }
+
+  @Test
+  void testSinglePixelChangeMarksOnlyItsTile() {
+    update();
+    setPixel(40, 35);
+    DirtyTiles dirty = update();
+
+    assertEquals(1, dirty.dirtyCount());
+    assertTrue(dirty.isDirty(1, 1));
+    assertEquals(List.of(new Rectangle(42, 52, 32, 32)), dirty.dirtyRegions());
+    assertTrue(dirty.intersects(new Rectangle(BOUNDS.x + 40, BOUNDS.y + 35, 1, 1)));
+    assertTrue(dirty.intersects(new Rectangle(BOUNDS.x + 20, BOUNDS.y + 20, 30, 30)));
+    assertFalse(dirty.intersects(new Rectangle(BOUNDS.x, BOUNDS.y, 32, 32)));
+    assertFalse(dirty.intersects(new Rectangle(BOUNDS.x + 64, BOUNDS.y + 32, 36, 38)));
+  }
+
+  @Test
+  void testDirtyRegionsAreClippedToPartialTiles() {
+    update();
+    setPixel(99, 69);
+    DirtyTiles dirty = update();
+
+    assertTrue(dirty.isDirty(3, 2));
+    assertEquals(List.of(new Rectangle(106, 84, 4, 6)), dirty.dirtyRegions());
+  }
+
+  @Test
+  void testAdjacentDirtyTilesMergeIntoOneRun() {
+    update();
+    setPixel(5, 5);
+    setPixel(40, 5);
+    setPixel(99, 5);
+    DirtyTiles dirty = update();
+
+    assertEquals(3, dirty.dirtyCount());
+    assertEquals(
+        List.of(new Rectangle(10, 20, 64, 32), new Rectangle(106, 20, 4, 32)),
+        dirty.dirtyRegions());
+  }
+
+  @Test
+  void testChangedSinceTracksChangesPerZone() {
+    update();
+    long first = update().sequence();
+    setPixel(70, 10);
+    long changed = update().sequence();
+    update();
+
+    Rectangle changedZone = new Rectangle(BOUNDS.x + 64, BOUNDS.y, 10, 10);
+    Rectangle quietZone = new Rectangle(BOUNDS.x, BOUNDS.y + 40, 50, 20);
+    assertTrue(tracker.changedSince(first, changedZone));
+    assertFalse(tracker.changedSince(first, quietZone));
+    assertFalse(tracker.changedSince(changed, changedZone));
+    assertTrue(tracker.changedSince(first));
+    assertFalse(tracker.changedSince(changed));
+  }
+
+  @Test
+  void testChangedSinceIsConservativeOutsideKnownFrames() {
+    update();
+    long first = update().sequence();
+
+    assertTrue(tracker.changedSince(first - 5, new Rectangle(BOUNDS.x, BOUNDS.y, 1, 1)));
+    assertTrue(tracker.changedSince(first, new Rectangle(0, 0, 5, 5)));
+    assertTrue(new TileTracker(TILE).changedSince(first));
+  }
+
+  @Test
+  void testMovedWindowMarksEveryTileDirty() {
+    update();
+    Rectangle moved = new Rectangle(BOUNDS);
+    moved.translate(5, 0);
+    DirtyTiles dirty = tracker.update(frame(moved));
+
+    assertEquals(dirty.tileCount(), dirty.dirtyCount());
+    assertTrue(tracker.changedSince(dirty.sequence() - 1, moved));
+  }
+
+  /**
+   * Feeds the current pixels to the tracker as the next frame.
+   *
+   * @return The tiles that changed since the previous frame.
+   */
+  private DirtyTiles update() {
+    return tracker.update(frame(BOUNDS));
+  }
+
+  /**
+   * Wraps a copy of the current pixels in a frame with the next sequence number.
+   *
+   * @param bounds The screen placement of the frame; must have the size of {@link #BOUNDS}.
+   * @return The frame.
+   */
+  private CapturedFrame frame(Rectangle bounds) {
+    WindowGeometry geometry = new WindowGeometry(bounds, 0, System.nanoTime());
+    return new CapturedFrame(++sequence, System.nanoTime(), geometry, pixels.clone());
+  }
+
+  /**
+   * Changes one pixel of the next frame.
+   *
+   * @param x The frame-local x co-ordinate.
+   * @param y The frame-local y co-ordinate.
+   */
+  private void setPixel(int x, int y) {
+    int offset = (y * BOUNDS.width + x) * 3;
+    pixels[offset] = (byte) (pixels[offset] + 99);
+  }
+}
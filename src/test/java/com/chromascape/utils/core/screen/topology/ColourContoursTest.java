@@ -0,0 +1,127 @@
+package com.chromascape.utils.core.screen.topology;
+
+import static org.bytedeco.opencv.global.opencv_core.CV_8UC3;
+import static org.bytedeco.opencv.global.opencv_imgproc.boundingRect;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.chromascape.utils.core.screen.capture.Frame;
+import com.chromascape.utils.core.screen.colour.ColourObj;
+import com.chromascape.utils.core.screen.window.WindowGeometry;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.util.List;
+import org.bytedeco.opencv.opencv_core.Mat;
+import org.bytedeco.opencv.opencv_core.Rect;
+import org.bytedeco.opencv.opencv_core.Scalar;
+import org.junit.jupiter.api.Test;
+
+/** Test class for {@link ColourContours}. */
+class ColourContoursTest {
+
+  private static final ColourObj RED =
+      new ColourObj("red", new Scalar(0, 200, 200, 0), new Scalar(10, 255, 255, 0));
+
+  private static final Rectangle ZONE = new Rectangle(500, 300, 60, 40);
+  private static final Rectangle VIEW = new Rectangle(100, 50, 400, 300);
+
+  @Test
+  void testObjectsInZoneFrameAreOffsetByTheZone() {
+    Mat image = blank(ZONE.width, ZONE.height);
+    fill(image, new Rectangle(10, 12, 8, 6));
+
+    try (Frame frame = Frame.wrap(image, new WindowGeometry(ZONE, 0, 0))) {
+      List<ChromaObj> objects = ColourContours.getChromaObjsInColour(frame, RED);
+
+      assertEquals(1, objects.size());
+      ChromaObj object = objects.get(0);
+      assertEquals(new Rectangle(510, 312, 8, 6), object.boundingBox());
+      assertTrue(
+          ColourContours.isPointInContour(new Point(513, 315), object.contour(), frame.geometry()));
+      assertFalse(
+          ColourContours.isPointInContour(new Point(13, 15), object.contour(), frame.geometry()));
+    }
+  }
+
+  @Test
+  void testBlobContoursAreRelativeToTheZoneFrame() {
+    Mat image = blank(ZONE.width, ZONE.height);
+    fill(image, new Rectangle(30, 4, 5, 9));
+
+    try (Frame frame = Frame.wrap(image, new WindowGeometry(ZONE, 0, 0))) {
+      BlobSet blobs = ColourContours.getBlobsInColour(frame, RED, 1);
+      BlobSet region =
+          ColourContours.getBlobsInColour(frame, RED, 1, new Rectangle(520, 300, 40, 20));
+
+      for (BlobSet set : List.of(blobs, region)) {
+        assertEquals(1, set.blobs().size());
+        Blob blob = set.blobs().get(0);
+        assertEquals(new Rectangle(530, 304, 5, 9), blob.bounds());
+        ChromaObj object = set.toChromaObj(blob);
+        try (Rect rect = boundingRect(object.contour())) {
+          assertEquals(
+              new Rectangle(30, 4, 5, 9),
+              new Rectangle(rect.x(), rect.y(), rect.width(), rect.height()));
+        }
+        object.contour().release();
+      }
+    }
+  }
+
+  @Test
+  void testNearestBlobsAreNearestEvenInTheFirstSquaresCorner() {
+    Mat image = blank(VIEW.width, VIEW.height);
+    // The first square spans 152-248 by 102-198: one blob sits in its corner, 58.7 px from the
+    // focus, and a nearer one, 54.5 px away, lies just past its right edge
+    fill(image, new Rectangle(240, 190, 4, 4));
+    fill(image, new Rectangle(253, 148, 4, 4));
+
+    try (Frame frame = Frame.wrap(image, new WindowGeometry(VIEW, 0, 0))) {
+      List<Blob> blobs =
+          ColourContours.getNearestBlobsInColour(frame, RED, new Point(300, 200), 1);
+
+      assertEquals(
+          List.of(new Rectangle(353, 198, 4, 4), new Rectangle(340, 240, 4, 4)),
+          blobs.stream().map(Blob::bounds).toList());
+    }
+  }
+
+  @Test
+  void testNearestBlobsFromFocusOutsideTheFrame() {
+    Mat image = blank(VIEW.width, VIEW.height);
+    fill(image, new Rectangle(20, 140, 6, 6));
+
+    try (Frame frame = Frame.wrap(image, new WindowGeometry(VIEW, 0, 0))) {
+      List<Blob> blobs =
+          ColourContours.getNearestBlobsInColour(frame, RED, new Point(-100, 200), 1);
+
+      assertEquals(
+          List.of(new Rectangle(120, 190, 6, 6)), blobs.stream().map(Blob::bounds).toList());
+    }
+  }
+
+  /**
+   * Creates a black BGR image.
+   *
+   * @param width The image width.
+   * @param height The image height.
+   * @return The image, owned by the caller.
+   */
+  static Mat blank(int width, int height) {
+    return new Mat(height, width, CV_8UC3, new Scalar(0, 0, 0, 0));
+  }
+
+  /**
+   * Paints a rectangle of an image pure red.
+   *
+   * @param image The BGR image.
+   * @param bounds The rectangle, inside the image.
+   */
+  static void fill(Mat image, Rectangle bounds) {
+    try (Rect rect = new Rect(bounds.x, bounds.y, bounds.width, bounds.height);
+        Mat target = new Mat(image, rect)) {
+      target.put(new Scalar(0, 0, 255, 0));
+    }
+  }
+}
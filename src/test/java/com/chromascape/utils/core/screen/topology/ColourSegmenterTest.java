@@ -0,0 +1,178 @@
+package com.chromascape.utils.core.screen.topology;
+
+import static org.bytedeco.opencv.global.opencv_core.CV_8UC3;
+import static org.bytedeco.opencv.global.opencv_core.inRange;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.chromascape.utils.core.screen.capture.Frame;
+import com.chromascape.utils.core.screen.colour.ColourObj;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.bytedeco.opencv.opencv_core.Mat;
+import org.bytedeco.opencv.opencv_core.Scalar;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Test class for {@link ColourSegmenter} and the {@link Segmentation} it produces. */
+class ColourSegmenterTest {
+
+  private static final int WIDTH = 64;
+  private static final int HEIGHT = 48;
+
+  private static final List<ColourObj> COLOURS =
+      List.of(
+          colour("red", 0, 100, 100, 10, 255, 255),
+          colour("green", 35, 50, 50, 85, 255, 255),
+          colour("dark", 0, 0, 0, 179, 255, 60),
+          colour("grey", 0, 0, 40, 179, 30, 220),
+          colour("single", 90, 128, 128, 90, 255, 255),
+          colour("wide", 0, 0, 0, 255, 300, 300),
+          colour("empty", 50, 0, 0, 40, 255, 255));
+
+  private Frame frame;
+
+  @BeforeEach
+  void setUp() {
+    byte[] bgr = new byte[WIDTH * HEIGHT * 3];
+    new Random(3).nextBytes(bgr);
+    Mat image = new Mat(HEIGHT, WIDTH, CV_8UC3);
+    ((ByteBuffer) image.createBuffer()).put(bgr);
+    frame = Frame.wrap(image);
+  }
+
+  @AfterEach
+  void tearDown() {
+    frame.close();
+  }
+
+  @Test
+  void testMasksAgreeWithInRange() {
+    Segmentation segmentation = new ColourSegmenter(COLOURS).segment(frame);
+
+    assertEquals(WIDTH, segmentation.width());
+    assertEquals(HEIGHT, segmentation.height());
+    for (int i = 0; i < COLOURS.size(); i++) {
+      byte[] expected = inRangeMask(COLOURS.get(i));
+      Mat mask = segmentation.mask(i);
+      assertArrayEquals(expected, bytes(mask), COLOURS.get(i).name());
+      assertEquals(setPixels(expected), segmentation.count(i), COLOURS.get(i).name());
+      mask.release();
+    }
+  }
+
+  @Test
+  void testAllMasksMatchSingleMasks() {
+    Segmentation segmentation = new ColourSegmenter(COLOURS).segment(frame);
+    Map<String, Mat> masks = segmentation.masks();
+
+    assertEquals(COLOURS.stream().map(ColourObj::name).toList(), List.copyOf(masks.keySet()));
+    for (int i = 0; i < COLOURS.size(); i++) {
+      Mat mask = segmentation.mask(i);
+      assertArrayEquals(bytes(mask), bytes(masks.get(COLOURS.get(i).name())));
+      mask.release();
+    }
+    masks.values().forEach(Mat::release);
+  }
+
+  @Test
+  void testClassifyAgreesWithLabels() {
+    ColourSegmenter segmenter = new ColourSegmenter(COLOURS);
+    Segmentation segmentation = segmenter.segment(frame);
+    byte[] hsv = bytes(frame.hsv());
+
+    for (int y = 0; y < HEIGHT; y++) {
+      for (int x = 0; x < WIDTH; x++) {
+        int i = (y * WIDTH + x) * 3;
+        long expected = segmenter.classify(hsv[i] & 0xFF, hsv[i + 1] & 0xFF, hsv[i + 2] & 0xFF);
+        assertEquals(expected, segmentation.labelAt(x, y));
+      }
+    }
+  }
+
+  @Test
+  void testIndexOfFollowsBitOrder() {
+    ColourSegmenter segmenter = new ColourSegmenter(COLOURS);
+
+    assertEquals(0, segmenter.indexOf("red"));
+    assertEquals(4, segmenter.indexOf("single"));
+    assertEquals(-1, segmenter.indexOf("missing"));
+    assertEquals(0, segmenter.classify(45, 128, 128) & (1L << segmenter.indexOf("empty")));
+  }
+
+  @Test
+  void testTooManyColoursAreRejected() {
+    List<ColourObj> colours =
+        new ArrayList<>(Collections.nCopies(ColourSegmenter.MAX_COLOURS, COLOURS.get(0)));
+    new ColourSegmenter(colours);
+
+    colours.add(COLOURS.get(1));
+    assertThrows(IllegalArgumentException.class, () -> new ColourSegmenter(colours));
+  }
+
+  /**
+   * Masks the test frame with OpenCV's {@code inRange}.
+   *
+   * @param colour The colour range.
+   * @return The CV_8UC1 mask bytes.
+   */
+  private byte[] inRangeMask(ColourObj colour) {
+    try (Mat low = new Mat(colour.hsvMin());
+        Mat high = new Mat(colour.hsvMax());
+        Mat mask = new Mat()) {
+      inRange(frame.hsv(), low, high, mask);
+      return bytes(mask);
+    }
+  }
+
+  /**
+   * Copies the pixels of a continuous 8-bit image.
+   *
+   * @param image The image.
+   * @return Its bytes, row-major.
+   */
+  private static byte[] bytes(Mat image) {
+    byte[] bytes = new byte[(int) (image.total() * image.channels())];
+    ((ByteBuffer) image.createBuffer()).get(bytes);
+    return bytes;
+  }
+
+  /**
+   * Counts the set pixels of a mask.
+   *
+   * @param mask The mask bytes.
+   * @return The number of non-zero bytes.
+   */
+  private static int setPixels(byte[] mask) {
+    int count = 0;
+    for (byte pixel : mask) {
+      if (pixel != 0) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Creates a colour with whole-number HSV bounds.
+   *
+   * @param name The colour name.
+   * @param minH The lowest hue.
+   * @param minS The lowest saturation.
+   * @param minV The lowest value.
+   * @param maxH The highest hue.
+   * @param maxS The highest saturation.
+   * @param maxV The highest value.
+   * @return The colour.
+   */
+  private static ColourObj colour(
+      String name, int minH, int minS, int minV, int maxH, int maxS, int maxV) {
+    return new ColourObj(name, new Scalar(minH, minS, minV, 0), new Scalar(maxH, maxS, maxV, 0));
+  }
+}
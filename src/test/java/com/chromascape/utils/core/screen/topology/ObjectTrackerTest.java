@@ -0,0 +1,163 @@
+package com.chromascape.utils.core.screen.topology;
+
+import static org.bytedeco.opencv.global.opencv_core.CV_8UC3;
+import static org.bytedeco.opencv.global.opencv_imgproc.FILLED;
+import static org.bytedeco.opencv.global.opencv_imgproc.LINE_8;
+import static org.bytedeco.opencv.global.opencv_imgproc.rectangle;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.chromascape.utils.core.screen.capture.Frame;
+import com.chromascape.utils.core.screen.colour.ColourObj;
+import com.chromascape.utils.core.screen.window.WindowGeometry;
+import java.awt.Rectangle;
+import java.util.List;
+import org.bytedeco.opencv.opencv_core.Mat;
+import org.bytedeco.opencv.opencv_core.Rect;
+import org.bytedeco.opencv.opencv_core.Scalar;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Test class for {@link ObjectTracker}. */
+class ObjectTrackerTest {
+
+  private static final int WIDTH = 200;
+  private static final int HEIGHT = 150;
+  private static final int SIZE = 20;
+  private static final int MIN_AREA = 50;
+
+  /** Screen placement of every test frame; blobs are reported relative to this origin. */
+  private static final WindowGeometry GEOMETRY =
+      new WindowGeometry(new Rectangle(100, 50, WIDTH, HEIGHT), 0, System.nanoTime());
+
+  private static final ColourObj RED =
+      new ColourObj("red", new Scalar(0, 200, 200, 0), new Scalar(10, 255, 255, 0));
+
+  private ObjectTracker tracker;
+
+  @BeforeEach
+  void setUp() {
+    tracker = new ObjectTracker(RED, MIN_AREA);
+  }
+
+  @Test
+  void testFirstUpdateReportsObjectsInScreenCoordinates() {
+    List<TrackedObject> tracks = update(new Rectangle(20, 30, SIZE, SIZE));
+
+    assertEquals(1, tracks.size());
+    assertEquals(1, tracks.get(0).id());
+    assertEquals(
+        new Rectangle(GEOMETRY.x() + 20, GEOMETRY.y() + 30, SIZE, SIZE),
+        tracks.get(0).blob().bounds());
+  }
+
+  @Test
+  void testIdsStayWithObjectsAcrossMoves() {
+    Rectangle first = new Rectangle(20, 20, SIZE, SIZE);
+    Rectangle second = new Rectangle(140, 90, SIZE, SIZE);
+    update(first, second);
+    int firstId = trackAt(first).id();
+    int secondId = trackAt(second).id();
+    assertNotEquals(firstId, secondId);
+
+    for (int step = 0; step < 5; step++) {
+      first.translate(6, 4);
+      second.translate(-5, -3);
+      List<TrackedObject> tracks = update(first, second);
+
+      assertEquals(2, tracks.size(), "No object should be lost or duplicated");
+      assertEquals(firstId, trackAt(first).id());
+      assertEquals(secondId, trackAt(second).id());
+    }
+  }
+
+  @Test
+  void testIdsStayWithObjectsWhenTheyPassEachOther() {
+    Rectangle left = new Rectangle(40, 20, SIZE, SIZE);
+    Rectangle right = new Rectangle(140, 110, SIZE, SIZE);
+    update(left, right);
+    int leftId = trackAt(left).id();
+    int rightId = trackAt(right).id();
+
+    for (int step = 0; step < 8; step++) {
+      left.translate(8, 0);
+      right.translate(-8, 0);
+      update(left, right);
+      assertEquals(leftId, trackAt(left).id());
+      assertEquals(rightId, trackAt(right).id());
+    }
+    assertTrue(left.x > right.x, "The objects should have swapped sides");
+  }
+
+  @Test
+  void testNewObjectGetsNewIdAndLostObjectIsDropped() {
+    // Scan the whole frame on every update so the new object is found straight away
+    tracker = new ObjectTracker(RED, MIN_AREA, 1);
+    Rectangle kept = new Rectangle(20, 20, SIZE, SIZE);
+    Rectangle lost = new Rectangle(140, 90, SIZE, SIZE);
+    update(kept, lost);
+    int keptId = trackAt(kept).id();
+    int lostId = trackAt(lost).id();
+
+    update(kept);
+    TrackedObject missing = tracker.get(lostId);
+    assertNotNull(missing, "A missed object should be kept for a few updates");
+    assertEquals(1, missing.missed());
+
+    for (int i = 0; i < 3; i++) {
+      update(kept);
+    }
+    assertNull(tracker.get(lostId), "An object missed repeatedly should be dropped");
+
+    Rectangle added = new Rectangle(100, 40, SIZE, SIZE);
+    update(kept, added);
+    assertEquals(keptId, trackAt(kept).id());
+    assertTrue(trackAt(added).id() > lostId, "Ids should never be reused");
+  }
+
+  /**
+   * Runs one tracker update on a frame holding red squares.
+   *
+   * @param squares The squares in frame co-ordinates.
+   * @return The tracked objects after the update.
+   */
+  private List<TrackedObject> update(Rectangle... squares) {
+    try (Frame frame = frame(squares)) {
+      return tracker.update(frame);
+    }
+  }
+
+  /**
+   * Finds the visible tracked object at a square's position.
+   *
+   * @param square The square in frame co-ordinates.
+   * @return The object whose detection matches the square.
+   */
+  private TrackedObject trackAt(Rectangle square) {
+    Rectangle screen = new Rectangle(square);
+    screen.translate(GEOMETRY.x(), GEOMETRY.y());
+    return tracker.tracks().stream()
+        .filter(track -> track.isVisible() && track.blob().bounds().equals(screen))
+        .findFirst()
+        .orElseThrow(() -> new AssertionError("No object tracked at " + screen));
+  }
+
+  /**
+   * Draws filled red squares on a black BGR image placed at {@link #GEOMETRY}.
+   *
+   * @param squares The squares in frame co-ordinates.
+   * @return The frame, owned by the caller.
+   */
+  private static Frame frame(Rectangle... squares) {
+    Mat image = new Mat(HEIGHT, WIDTH, CV_8UC3, Scalar.all(0));
+    for (Rectangle square : squares) {
+      try (Rect rect = new Rect(square.x, square.y, square.width, square.height)) {
+        rectangle(image, rect, new Scalar(0, 0, 255, 0), FILLED, LINE_8, 0);
+      }
+    }
+    return Frame.wrap(image, GEOMETRY);
+  }
+}
@@ -0,0 +1,305 @@
+package com.chromascape.utils.core.screen.topology;
+
+import static org.bytedeco.opencv.global.opencv_core.CV_32FC1;
+import static org.bytedeco.opencv.global.opencv_core.CV_8UC4;
+import static org.bytedeco.opencv.global.opencv_core.extractChannel;
+import static org.bytedeco.opencv.global.opencv_imgproc.COLOR_BGR2BGRA;
+import static org.bytedeco.opencv.global.opencv_imgproc.INTER_LINEAR;
+import static org.bytedeco.opencv.global.opencv_imgproc.cvtColor;
+import static org.bytedeco.opencv.global.opencv_imgproc.resize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.chromascape.utils.core.screen.capture.Frame;
+import com.chromascape.utils.core.screen.window.WindowGeometry;
+import java.awt.Rectangle;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.bytedeco.opencv.opencv_core.Mat;
+import org.bytedeco.opencv.opencv_core.Rect;
+import org.bytedeco.opencv.opencv_core.Scalar;
+import org.bytedeco.opencv.opencv_core.Size;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Test class for {@link TemplateMatching}. */
+class TemplateMatchingTest {
+
+  private static final int BASE_WIDTH = 200;
+  private static final int BASE_HEIGHT = 150;
+  private static final int TEMPLATE_SIZE = 32;
+  private static final String ZONE_TEMPLATE = "/test/zone-template.png";
+
+  private CachedTemplate template;
+
+  @BeforeEach
+  void setUp() {
+    TemplateMatching.clearHints();
+    Mat image = texture(TEMPLATE_SIZE, TEMPLATE_SIZE, 1);
+    Mat mask = new Mat();
+    extractChannel(image, mask, 3);
+    template = new CachedTemplate("/test/template.png", image, mask);
+  }
+
+  @AfterEach
+  void tearDown() {
+    TemplateMatching.clearHints();
+  }
+
+  @Test
+  void testFindPeaksReportsLocalMinimaBelowThreshold() {
+    Mat scores = scoreMap(1f);
+    set(scores, 5, 5, 0.1f);
+    set(scores, 6, 5, 0.15f);
+    set(scores, 30, 15, 0.2f);
+    set(scores, 45, 3, 0.5f);
+
+    List<TemplateMatch> peaks = TemplateMatching.findPeaks(scores, 10, 10, 0.3, true, 0.5);
+
+    assertEquals(
+        List.of(
+            new TemplateMatch(new Rectangle(5, 5, 10, 10), 0.1f),
+            new TemplateMatch(new Rectangle(30, 15, 10, 10), 0.2f)),
+        peaks);
+    scores.release();
+  }
+
+  @Test
+  void testFindPeaksSuppressesOverlappingMatches() {
+    Mat scores = scoreMap(1f);
+    set(scores, 20, 8, 0.2f);
+    set(scores, 22, 8, 0.05f);
+    set(scores, 40, 10, 0.1f);
+    set(scores, 41, 10, 0.1f);
+
+    List<TemplateMatch> suppressed = TemplateMatching.findPeaks(scores, 10, 10, 0.3, true, 0.5);
+    assertEquals(2, suppressed.size());
+    assertEquals(new Rectangle(22, 8, 10, 10), suppressed.get(0).bounds());
+    assertEquals(10, suppressed.get(1).bounds().y);
+
+    List<TemplateMatch> all = TemplateMatching.findPeaks(scores, 10, 10, 0.3, true, 1.0);
+    assertEquals(4, all.size(), "Nothing should be suppressed with a maximum overlap of 1");
+    assertEquals(0.05f, all.get(0).score(), 1e-6);
+    scores.release();
+  }
+
+  @Test
+  void testFindPeaksHandlesHigherIsBetterScores() {
+    Mat scores = scoreMap(0f);
+    set(scores, 5, 5, 0.9f);
+    set(scores, 30, 15, 0.95f);
+    set(scores, 45, 3, 0.5f);
+
+    List<TemplateMatch> peaks = TemplateMatching.findPeaks(scores, 10, 10, 0.8, false, 0.5);
+
+    assertEquals(2, peaks.size());
+    assertEquals(new Rectangle(30, 15, 10, 10), peaks.get(0).bounds());
+    assertEquals(new Rectangle(5, 5, 10, 10), peaks.get(1).bounds());
+    scores.release();
+  }
+
+  @Test
+  void testFindPeaksKeepsOnlyTheBestResults() {
+    Mat scores = scoreMap(1f);
+    set(scores, 5, 5, 0.4f);
+    set(scores, 30, 15, 0.1f);
+    set(scores, 45, 3, 0.3f);
+    set(scores, 60, 20, 0.2f);
+
+    List<TemplateMatch> peaks =
+        TemplateMatching.findPeaks(scores, 10, 10, Double.MAX_VALUE, true, 0.5, 2);
+
+    assertEquals(
+        List.of(
+            new TemplateMatch(new Rectangle(30, 15, 10, 10), 0.1f),
+            new TemplateMatch(new Rectangle(60, 20, 10, 10), 0.2f)),
+        peaks);
+    scores.release();
+  }
+
+  @Test
+  void testPyramidSearchAgreesWithFullSearch() {
+    int[][] positions = {{37, 53}, {0, 0}, {101, 90}, {BASE_WIDTH - 32, BASE_HEIGHT - 32}, {66, 7}};
+    for (int[] position : positions) {
+      Rectangle bounds = new Rectangle(position[0], position[1], TEMPLATE_SIZE, TEMPLATE_SIZE);
+      Mat base = texture(BASE_WIDTH, BASE_HEIGHT, 3);
+      paste(base, template.image(), bounds);
+
+      TemplateMatch full = search(base, 0.05, MatchStrategy.FULL);
+      TemplateMatch pyramid = search(base, 0.05, MatchStrategy.PYRAMID);
+
+      assertEquals(bounds, full.bounds());
+      assertEquals(full.bounds(), pyramid.bounds(), "Pyramid search at " + bounds);
+      assertEquals(full.score(), pyramid.score(), 1e-4);
+      base.release();
+    }
+  }
+
+  @Test
+  void testUnchangedHintAboveThresholdFallsBackToSearch() {
+    Rectangle approximate = new Rectangle(20, 30, TEMPLATE_SIZE, TEMPLATE_SIZE);
+    Rectangle exact = new Rectangle(140, 100, TEMPLATE_SIZE, TEMPLATE_SIZE);
+    Mat base = texture(BASE_WIDTH, BASE_HEIGHT, 2);
+    paste(base, noisy(template.image(), 8), approximate);
+
+    TemplateMatch first = search(base, 0.05, MatchStrategy.HINTED);
+    assertEquals(approximate, first.bounds());
+    assertTrue(first.score() > 1e-4, "The noisy copy should not be a near-perfect match");
+
+    // The noisy copy is untouched, so its hint still hashes the same, but fails the new threshold
+    paste(base, template.image(), exact);
+    TemplateMatch second = search(base, 1e-4, MatchStrategy.HINTED);
+    assertEquals(exact, second.bounds());
+    base.release();
+  }
+
+  @Test
+  void testUnchangedHintWithinThresholdIsReused() {
+    Rectangle bounds = new Rectangle(50, 40, TEMPLATE_SIZE, TEMPLATE_SIZE);
+    Mat base = texture(BASE_WIDTH, BASE_HEIGHT, 2);
+    paste(base, template.image(), bounds);
+
+    TemplateMatch first = search(base, 0.05, MatchStrategy.HINTED);
+    TemplateMatch second = search(base, 0.05, MatchStrategy.HINTED);
+    assertEquals(bounds, second.bounds());
+    assertEquals(first.score(), second.score());
+    base.release();
+  }
+
+  @Test
+  void testHintFollowsSmallMoves() {
+    Mat base = texture(BASE_WIDTH, BASE_HEIGHT, 2);
+    paste(base, template.image(), new Rectangle(50, 40, TEMPLATE_SIZE, TEMPLATE_SIZE));
+    search(base, 0.05, MatchStrategy.HINTED);
+    base.release();
+
+    Rectangle moved = new Rectangle(52, 39, TEMPLATE_SIZE, TEMPLATE_SIZE);
+    Mat next = texture(BASE_WIDTH, BASE_HEIGHT, 2);
+    paste(next, template.image(), moved);
+    assertEquals(moved, search(next, 0.05, MatchStrategy.HINTED).bounds());
+    next.release();
+  }
+
+  @Test
+  void testMatchesInZoneFrameAreOffsetByTheZone() throws Exception {
+    Rectangle zone = new Rectangle(640, 360, 120, 90);
+    Mat base = texture(zone.width, zone.height, 3);
+    Mat image = TemplateMatching.loadMatFromResource(ZONE_TEMPLATE);
+    cvtColor(image, image, COLOR_BGR2BGRA);
+    paste(base, image, new Rectangle(41, 27, image.cols(), image.rows()));
+    Rectangle expected = new Rectangle(681, 387, image.cols(), image.rows());
+    image.release();
+
+    // The zone is nowhere near the window origin, so only the frame's geometry can place the match
+    try (Frame frame = Frame.wrap(base, new WindowGeometry(zone, 0, 0))) {
+      assertEquals(
+          expected,
+          TemplateMatching.match(ZONE_TEMPLATE, frame, 0.05, false, MatchStrategy.FULL));
+      assertEquals(
+          expected,
+          TemplateMatching.matchBatch(frame, Map.of(ZONE_TEMPLATE, 0.05), MatchStrategy.FULL)
+              .get(ZONE_TEMPLATE));
+      assertEquals(
+          expected, TemplateMatching.matchAll(ZONE_TEMPLATE, frame, 0.05, 0.5).get(0).bounds());
+    }
+  }
+
+  /**
+   * Searches a base image for the test template.
+   *
+   * @param base The BGRA image to search.
+   * @param threshold The maximum accepted score.
+   * @param strategy How to search.
+   * @return The best position found.
+   */
+  private TemplateMatch search(Mat base, double threshold, MatchStrategy strategy) {
+    return TemplateMatching.search(
+        template.resourcePath(), template, base, threshold, strategy, false);
+  }
+
+  /**
+   * Creates a 64x24 {@code matchTemplate} style score map.
+   *
+   * @param fill The score of every position.
+   * @return The map, owned by the caller.
+   */
+  private static Mat scoreMap(float fill) {
+    return new Mat(24, 64, CV_32FC1, new Scalar(fill));
+  }
+
+  /**
+   * Sets one score of a map.
+   *
+   * @param scores The map.
+   * @param x The column.
+   * @param y The row.
+   * @param value The score.
+   */
+  private static void set(Mat scores, int x, int y, float value) {
+    FloatBuffer buffer = scores.createBuffer();
+    buffer.put(y * scores.cols() + x, value);
+  }
+
+  /**
+   * Creates an opaque BGRA image of smooth random colour blobs, distinctive at every pyramid level.
+   *
+   * @param width The image width.
+   * @param height The image height.
+   * @param seed The random seed.
+   * @return The image, owned by the caller.
+   */
+  private static Mat texture(int width, int height, long seed) {
+    int cellsX = width / 8 + 1;
+    int cellsY = height / 8 + 1;
+    byte[] cells = new byte[cellsX * cellsY * 4];
+    new Random(seed).nextBytes(cells);
+    for (int i = 3; i < cells.length; i += 4) {
+      cells[i] = (byte) 255;
+    }
+    Mat coarse = new Mat(cellsY, cellsX, CV_8UC4);
+    ByteBuffer buffer = coarse.createBuffer();
+    buffer.put(0, cells);
+    Mat image = new Mat();
+    resize(coarse, image, new Size(width, height), 0, 0, INTER_LINEAR);
+    coarse.release();
+    return image;
+  }
+
+  /**
+   * Copies an image with every colour channel shifted by up to {@code amount} at random.
+   *
+   * @param image The opaque BGRA image.
+   * @param amount The largest change per channel.
+   * @return The noisy copy, owned by the caller.
+   */
+  private static Mat noisy(Mat image, int amount) {
+    Mat copy = image.clone();
+    ByteBuffer buffer = copy.createBuffer();
+    Random random = new Random(7);
+    for (int i = 0; i < buffer.capacity(); i++) {
+      if (i % 4 != 3) {
+        int value = (buffer.get(i) & 0xFF) + random.nextInt(2 * amount + 1) - amount;
+        buffer.put(i, (byte) Math.max(0, Math.min(255, value)));
+      }
+    }
+    return copy;
+  }
+
+  /**
+   * Draws an image onto another.
+   *
+   * @param base The image drawn on.
+   * @param image The image to draw.
+   * @param bounds Where to draw it; must have the image's size.
+   */
+  private static void paste(Mat base, Mat image, Rectangle bounds) {
+    try (Rect rect = new Rect(bounds.x, bounds.y, bounds.width, bounds.height);
+        Mat target = new Mat(base, rect)) {
+      image.copyTo(target);
+    }
+  }
+}
@@ -0,0 +1,274 @@
+package com.chromascape.utils.domain.inventory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.chromascape.utils.core.screen.capture.CaptureService;
+import com.chromascape.utils.core.screen.capture.SyntheticFrameSource;
+import com.chromascape.utils.core.screen.window.ScreenManager;
+import com.chromascape.utils.domain.zones.ZoneManager;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/** Test class for {@link InventoryEngine}. */
+class InventoryEngineTest {
+
+  /** Size of an inventory slot in pixels. */
+  private static final int SLOT_WIDTH = 36;
+
+  private static final int SLOT_HEIGHT = 32;
+
+  /** A typical inventory background colour, in BGR order. */
+  private static final byte[] BACKGROUND = {(byte) 0x2e, (byte) 0x38, (byte) 0x3e};
+
+  /** Screen bounds of a two-row inventory of eight slots. */
+  private static final Rectangle INVENTORY =
+      new Rectangle(100, 200, SLOT_WIDTH * 4, SLOT_HEIGHT * 2);
+
+  /**
+   * Outline pixels of every slot in each synthetic frame. From the first frame to the second, slot
+   * 1 changes and an item appears in slot 5.
+   */
+  private static final int[][] OUTLINES = {
+    {6, 8, 10, 0, 0, 0, 0, 0},
+    {6, 12, 10, 0, 0, 7, 0, 0}
+  };
+
+  private static final String TEMPLATE = "/test/item-rising.png";
+
+  private CaptureService capture;
+
+  @AfterEach
+  void tearDown() {
+    if (capture != null) {
+      capture.stop();
+    }
+    ScreenManager.setCaptureService(null);
+    ScreenManager.setFrameSource(null);
+  }
+
+  @Test
+  void testOnlyChangedSlotsAreReclassified() throws Exception {
+    SyntheticFrameSource source = install();
+    CountingIndex index = new CountingIndex();
+    InventoryEngine engine = engine(index);
+
+    InventorySnapshot first = engine.snapshot();
+    assertEquals(List.of(6, 8, 10), index.identified);
+    assertEquals("outline-8", first.itemAt(1));
+    assertTrue(first.isEmpty(5));
+
+    engine.snapshot();
+    assertEquals(3, index.identified.size(), "Unchanged slots should keep their classification");
+
+    source.advance();
+    InventorySnapshot second = engine.snapshot();
+    assertEquals(List.of(6, 8, 10, 12, 7), index.identified);
+    assertEquals("outline-6", second.itemAt(0));
+    assertEquals("outline-12", second.itemAt(1));
+    assertEquals("outline-7", second.itemAt(5));
+  }
+
+  @Test
+  void testSnapshotIsReusedForTheSameFrame() throws Exception {
+    install();
+    capture = new CaptureService(Duration.ofHours(1));
+    ScreenManager.setCaptureService(capture);
+    capture.start();
+    // The capture thread moves on to the second frame at once and then sleeps for the interval
+    assertNotNull(capture.awaitNewerThan(0, Duration.ofSeconds(10)));
+    CountingIndex index = new CountingIndex();
+    InventoryEngine engine = engine(index);
+
+    InventorySnapshot first = engine.snapshot();
+    assertSame(first, engine.snapshot());
+    assertEquals(1, first.sequence());
+    assertEquals(List.of(6, 12, 10, 7), index.identified);
+  }
+
+  @Test
+  void testChangingItemsOrIndexReclassifiesEverySlot() throws Exception {
+    install();
+    CountingIndex index = new CountingIndex();
+    InventoryEngine engine = engine(index);
+    engine.snapshot();
+    assertEquals(3, index.identified.size());
+
+    // The registered sprite is not in any slot, so every slot still falls through to the index
+    engine.register("ore", TEMPLATE, 0.01);
+    engine.snapshot();
+    assertEquals(6, index.identified.size());
+
+    engine.register("ore", TEMPLATE, 0.01);
+    engine.unregister("unknown");
+    engine.snapshot();
+    assertEquals(6, index.identified.size(), "Unchanged items should not invalidate the slots");
+
+    engine.unregister("ore");
+    engine.snapshot();
+    assertEquals(9, index.identified.size());
+
+    engine.useIndex(index, 0.1);
+    engine.snapshot();
+    assertEquals(12, index.identified.size());
+
+    engine.useIndex(null, 0);
+    InventorySnapshot unindexed = engine.snapshot();
+    assertEquals(12, index.identified.size());
+    assertEquals(InventorySnapshot.UNKNOWN, unindexed.itemAt(0));
+    assertNull(unindexed.itemAt(3));
+  }
+
+  @Test
+  void testEmptySlotIsNotOccupied() {
+    assertFalse(InventoryEngine.isOccupied(slot(0)));
+  }
+
+  @Test
+  void testSlotNeedsMinimumOutlinePixels() {
+    assertFalse(InventoryEngine.isOccupied(slot(InventoryEngine.OUTLINE_MIN_PIXELS - 1)));
+    assertTrue(InventoryEngine.isOccupied(slot(InventoryEngine.OUTLINE_MIN_PIXELS)));
+  }
+
+  @Test
+  void testDarkButNotBlackPixelsAreIgnored() {
+    byte[] bgr = slot(0);
+    byte dark = (byte) (InventoryEngine.OUTLINE_MAX + 1);
+    for (int i = 0; i < bgr.length; i += 3) {
+      bgr[i] = dark;
+      bgr[i + 1] = dark;
+      bgr[i + 2] = dark;
+    }
+    assertFalse(InventoryEngine.isOccupied(bgr));
+  }
+
+  @Test
+  void testOutlineNeedsEveryChannelNearBlack() {
+    byte max = (byte) InventoryEngine.OUTLINE_MAX;
+    byte over = (byte) (InventoryEngine.OUTLINE_MAX + 1);
+    assertTrue(InventoryEngine.isOutline((byte) 0, (byte) 0, (byte) 0));
+    assertTrue(InventoryEngine.isOutline(max, max, max));
+    assertFalse(InventoryEngine.isOutline(over, (byte) 0, (byte) 0));
+    assertFalse(InventoryEngine.isOutline((byte) 0, over, (byte) 0));
+    assertFalse(InventoryEngine.isOutline((byte) 0, (byte) 0, over));
+    // Bytes are unsigned; a bright channel must not wrap around to a small value
+    assertFalse(InventoryEngine.isOutline((byte) 0xFF, (byte) 0, (byte) 0));
+  }
+
+  @Test
+  void testTrailingPartialPixelIsIgnored() {
+    byte[] bgr = new byte[InventoryEngine.OUTLINE_MIN_PIXELS * 3 - 1];
+    assertFalse(InventoryEngine.isOccupied(bgr));
+  }
+
+  /**
+   * Installs a two-frame synthetic inventory, drawn from {@link #OUTLINES}, as the frame source.
+   *
+   * @return The source, showing the first frame.
+   */
+  private static SyntheticFrameSource install() {
+    SyntheticFrameSource source =
+        new SyntheticFrameSource(
+            INVENTORY,
+            OUTLINES.length,
+            false,
+            (frame, bgr) -> {
+              for (int slot = 0; slot < OUTLINES[frame].length; slot++) {
+                byte[] pixels = slot(OUTLINES[frame][slot]);
+                int left = slot % 4 * SLOT_WIDTH;
+                int top = slot / 4 * SLOT_HEIGHT;
+                for (int y = 0; y < SLOT_HEIGHT; y++) {
+                  System.arraycopy(
+                      pixels,
+                      y * SLOT_WIDTH * 3,
+                      bgr,
+                      ((top + y) * INVENTORY.width + left) * 3,
+                      SLOT_WIDTH * 3);
+                }
+              }
+            });
+    ScreenManager.setFrameSource(source);
+    return source;
+  }
+
+  /**
+   * Creates an engine over the synthetic inventory that falls back to an index.
+   *
+   * @param index The index identifying every occupied slot.
+   * @return The engine.
+   */
+  private static InventoryEngine engine(ItemHashIndex index) {
+    List<Rectangle> slots = new ArrayList<>();
+    for (int slot = 0; slot < OUTLINES[0].length; slot++) {
+      slots.add(
+          new Rectangle(
+              INVENTORY.x + slot % 4 * SLOT_WIDTH,
+              INVENTORY.y + slot / 4 * SLOT_HEIGHT,
+              SLOT_WIDTH,
+              SLOT_HEIGHT));
+    }
+    ZoneManager zones =
+        new ZoneManager(true) {
+          @Override
+          public void mapper() {}
+
+          @Override
+          public List<Rectangle> getInventorySlots() {
+            return slots;
+          }
+        };
+    InventoryEngine engine = new InventoryEngine(zones);
+    engine.useIndex(index, 0.1);
+    return engine;
+  }
+
+  /** Index that names every cell by its number of outline pixels and records each call. */
+  private static class CountingIndex extends ItemHashIndex {
+
+    private final List<Integer> identified = new ArrayList<>();
+
+    @Override
+    public String identify(BufferedImage cell, double threshold) {
+      int outline = 0;
+      for (int y = 0; y < cell.getHeight(); y++) {
+        for (int x = 0; x < cell.getWidth(); x++) {
+          if ((cell.getRGB(x, y) & 0xFFFFFF) == 0) {
+            outline++;
+          }
+        }
+      }
+      identified.add(outline);
+      return "outline-" + outline;
+    }
+  }
+
+  /**
+   * Creates the packed BGR pixels of a slot showing the background with some outline pixels.
+   *
+   * @param outlinePixels Number of black pixels, spread over the slot.
+   * @return The pixels.
+   */
+  private static byte[] slot(int outlinePixels) {
+    int pixels = SLOT_WIDTH * SLOT_HEIGHT;
+    byte[] bgr = new byte[pixels * 3];
+    for (int i = 0; i < pixels; i++) {
+      System.arraycopy(BACKGROUND, 0, bgr, i * 3, 3);
+    }
+    for (int i = 0; i < outlinePixels; i++) {
+      int pixel = i * (pixels / Math.max(1, outlinePixels)) * 3;
+      bgr[pixel] = 0;
+      bgr[pixel + 1] = 0;
+      bgr[pixel + 2] = 0;
+    }
+    return bgr;
+  }
+}
@@ -0,0 +1,108 @@
+package com.chromascape.utils.domain.inventory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.List;
+import javax.imageio.ImageIO;
+import org.junit.jupiter.api.Test;
+
+/** Test class for {@link ItemHashIndex}. */
+class ItemHashIndexTest {
+
+  // Both sprites reach into the stack-count band and differ only in the direction of their stripes
+  private static final String RISING = "/test/item-rising.png";
+  private static final String FALLING = "/test/item-falling.png";
+  private static final int BACKGROUND = 0x3E3529;
+  private static final int CELL_WIDTH = 36;
+  private static final int CELL_HEIGHT = 32;
+
+  /** Pixels of a "5" in the stack-count font, drawn from the cell's top left corner. */
+  private static final int[][] DIGIT = {
+    {1, 1}, {2, 1}, {3, 1}, {1, 2}, {1, 3}, {2, 3}, {3, 4}, {3, 5}, {1, 6}, {2, 6}
+  };
+
+  @Test
+  void testIdentifiesCellRenderedFromTemplate() throws Exception {
+    ItemHashIndex index = index();
+    BufferedImage cell = cell(RISING, false);
+
+    assertEquals(List.of(new ItemHashIndex.Candidate(RISING, 0)), index.nearest(cell, 2));
+    assertEquals(RISING, index.identify(cell, 0.05));
+  }
+
+  @Test
+  void testIdentifiesCellWithStackCount() throws Exception {
+    ItemHashIndex index = index();
+    BufferedImage cell = cell(RISING, true);
+
+    assertEquals(List.of(new ItemHashIndex.Candidate(RISING, 0)), index.nearest(cell, 2));
+    assertEquals(RISING, index.identify(cell, 0.05));
+  }
+
+  @Test
+  void testEmptyCellIsNotIdentified() throws Exception {
+    ItemHashIndex index = index();
+    BufferedImage cell = new BufferedImage(CELL_WIDTH, CELL_HEIGHT, BufferedImage.TYPE_INT_RGB);
+    fill(cell);
+
+    assertEquals(List.of(), index.nearest(cell, 2));
+    assertNull(index.identify(cell, 0.05));
+  }
+
+  /**
+   * Indexes both test sprites.
+   *
+   * @return The index.
+   * @throws IOException if a sprite cannot be read.
+   */
+  private static ItemHashIndex index() throws IOException {
+    ItemHashIndex index = new ItemHashIndex();
+    index.add(RISING);
+    index.add(FALLING);
+    assertEquals(2, index.size());
+    return index;
+  }
+
+  /**
+   * Renders an inventory cell showing a sprite, the way the client draws it.
+   *
+   * @param templatePath Classpath resource of the sprite.
+   * @param stacked Whether to print a yellow stack count with its shadow over the top left corner.
+   * @return The cell.
+   * @throws IOException if the sprite cannot be read.
+   */
+  private static BufferedImage cell(String templatePath, boolean stacked) throws IOException {
+    BufferedImage sprite = ImageIO.read(ItemHashIndexTest.class.getResource(templatePath));
+    BufferedImage cell = new BufferedImage(CELL_WIDTH, CELL_HEIGHT, BufferedImage.TYPE_INT_RGB);
+    fill(cell);
+    Graphics2D graphics = cell.createGraphics();
+    graphics.drawImage(sprite, 0, 0, null);
+    graphics.dispose();
+    if (stacked) {
+      for (int[] pixel : DIGIT) {
+        cell.setRGB(pixel[0] + 1, pixel[1] + 1, 0x000000);
+      }
+      for (int[] pixel : DIGIT) {
+        cell.setRGB(pixel[0], pixel[1], 0xFFFF00);
+      }
+    }
+    return cell;
+  }
+
+  /**
+   * Paints a cell with the inventory background.
+   *
+   * @param cell The cell.
+   */
+  private static void fill(BufferedImage cell) {
+    for (int y = 0; y < cell.getHeight(); y++) {
+      for (int x = 0; x < cell.getWidth(); x++) {
+        cell.setRGB(x, y, BACKGROUND);
+      }
+    }
+  }
+}
@@ -0,0 +1,187 @@
+package com.chromascape.utils.domain.ocr;
+
+import static com.chromascape.utils.domain.ocr.TestFont.A;
+import static com.chromascape.utils.domain.ocr.TestFont.APOSTROPHE;
+import static com.chromascape.utils.domain.ocr.TestFont.B;
+import static com.chromascape.utils.domain.ocr.TestFont.COMMA;
+import static org.bytedeco.opencv.global.opencv_core.CV_8UC1;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import org.bytedeco.opencv.opencv_core.Mat;
+import org.junit.jupiter.api.Test;
+
+/** Test class for {@link GlyphClassifier}. */
+class GlyphClassifierTest {
+
+  private static final String[] A_INK = {
+    ".###.", "#...#", "#...#", "#####", "#...#", "#...#", "#...#"
+  };
+
+  private static final String[] H_INK = {
+    "#...#", "#...#", "#...#", "#####", "#...#", "#...#", "#...#"
+  };
+
+  private static final Glyph H = TestFont.glyph("H", 1, H_INK);
+
+  @Test
+  void testExactTierFindsEveryGlyph() {
+    GlyphSet glyphs = TestFont.of(TestFont.ALL.toArray(new Glyph[0]));
+    GlyphClassifier classifier = new GlyphClassifier(glyphs, 0);
+
+    for (Glyph glyph : TestFont.ALL) {
+      GlyphBitmap bitmap = GlyphBitmap.of(glyph);
+      // The comma has the apostrophe's shape; only its height on the line tells them apart
+      Glyph expected = glyph == COMMA ? APOSTROPHE : glyph;
+      assertSame(expected, classifier.classify(bitmap.rows(), bitmap.width(), bitmap.height()));
+    }
+  }
+
+  @Test
+  void testExactTierReportsEveryGlyphOfTheSameShape() {
+    GlyphClassifier classifier = new GlyphClassifier(TestFont.of(A, APOSTROPHE, COMMA), 0);
+    long[] rows = pack(".#", ".#", "#.");
+
+    List<GlyphBitmap> candidates = classifier.candidates(rows, 2, 3);
+
+    assertEquals(List.of(APOSTROPHE, COMMA), candidates.stream().map(GlyphBitmap::glyph).toList());
+    assertSame(APOSTROPHE, classifier.classify(rows, 2, 3));
+  }
+
+  @Test
+  void testHammingTierAcceptsCellsWithinTolerance() {
+    GlyphClassifier classifier = new GlyphClassifier(TestFont.of(A, B), 0.05);
+    // 5% of 35 pixels: one pixel may differ
+    assertSame(A, classifier.classify(pack(flip(A_INK, 2, 2)), 5, 7));
+    assertNull(classifier.classify(pack(flip(flip(A_INK, 2, 2), 0, 0)), 5, 7));
+
+    GlyphClassifier lenient = new GlyphClassifier(TestFont.of(A, B), 0.1);
+    assertSame(A, lenient.classify(pack(flip(flip(A_INK, 2, 2), 0, 0)), 5, 7));
+  }
+
+  @Test
+  void testHammingTierPicksTheNearestGlyph() {
+    GlyphClassifier classifier = new GlyphClassifier(TestFont.of(H, A), 0.15);
+
+    // Each cell is one pixel from one glyph and four from the other; both are within 5 pixels
+    assertSame(A, classifier.classify(pack(flip(A_INK, 0, 0)), 5, 7));
+    assertSame(H, classifier.classify(pack(flip(H_INK, 0, 2)), 5, 7));
+  }
+
+  @Test
+  void testZeroToleranceOnlyAcceptsExactCells() {
+    GlyphClassifier classifier = new GlyphClassifier(TestFont.of(A, B), 0);
+
+    assertSame(A, classifier.classify(pack(A_INK), 5, 7));
+    assertNull(classifier.classify(pack(flip(A_INK, 2, 2)), 5, 7));
+  }
+
+  @Test
+  void testCellsOfOtherSizesDoNotMatch() {
+    GlyphClassifier classifier = new GlyphClassifier(TestFont.of(A, B), 0.2);
+    String[] wider = new String[A_INK.length];
+    for (int y = 0; y < wider.length; y++) {
+      wider[y] = A_INK[y] + ".";
+    }
+
+    assertNull(classifier.classify(pack(wider), 6, 7));
+    assertEquals(5, classifier.maxWidth());
+  }
+
+  @Test
+  void testGlyphsWiderThanOneWordArePacked() {
+    Glyph wide = wideGlyph(70);
+    GlyphClassifier classifier = new GlyphClassifier(TestFont.of(wide, A), 0.01);
+    String[] ink = new String[2];
+    ink[0] = "#" + ".".repeat(68) + "#";
+    ink[1] = "#".repeat(70);
+
+    assertEquals(2, GlyphClassifier.words(70));
+    assertEquals(70, classifier.maxWidth());
+    assertSame(wide, classifier.classify(pack(ink), 70, 2));
+    // 1% of 140 pixels: one pixel may differ, here in the second word of the row
+    assertSame(wide, classifier.classify(pack(flip(ink, 0, 66)), 70, 2));
+    assertNull(classifier.classify(pack(flip(flip(ink, 0, 66), 1, 3)), 70, 2));
+  }
+
+  @Test
+  void testWordsAndDistance() {
+    assertEquals(1, GlyphClassifier.words(1));
+    assertEquals(1, GlyphClassifier.words(64));
+    assertEquals(2, GlyphClassifier.words(65));
+
+    long[] a = {0b1011L, -1L};
+    long[] b = {0b0001L, 0L};
+    assertEquals(66, GlyphClassifier.distance(a, b, 100));
+    // Stops after the first word, which already differs by more than the limit
+    assertEquals(2, GlyphClassifier.distance(a, b, 1));
+    assertEquals(0, GlyphClassifier.distance(a, a.clone(), 0));
+  }
+
+  @Test
+  void testToleranceOutOfRangeIsRejected() {
+    GlyphSet glyphs = TestFont.of(A);
+    assertThrows(IllegalArgumentException.class, () -> new GlyphClassifier(glyphs, -0.01));
+    assertThrows(IllegalArgumentException.class, () -> new GlyphClassifier(glyphs, 1));
+  }
+
+  /**
+   * Packs ink drawn with {@code '#'} characters in the layout the classifier expects.
+   *
+   * @param rows The ink, one string per row, all of the same length.
+   * @return The packed rows.
+   */
+  private static long[] pack(String... rows) {
+    int width = rows[0].length();
+    int words = GlyphClassifier.words(width);
+    long[] packed = new long[rows.length * words];
+    for (int y = 0; y < rows.length; y++) {
+      for (int x = 0; x < width; x++) {
+        if (rows[y].charAt(x) == '#') {
+          packed[y * words + (x >>> 6)] |= 1L << (x & 63);
+        }
+      }
+    }
+    return packed;
+  }
+
+  /**
+   * Copies ink with one pixel toggled.
+   *
+   * @param rows The ink.
+   * @param y The row of the pixel.
+   * @param x The column of the pixel.
+   * @return The changed copy.
+   */
+  private static String[] flip(String[] rows, int y, int x) {
+    String[] copy = rows.clone();
+    char[] row = copy[y].toCharArray();
+    row[x] = row[x] == '#' ? '.' : '#';
+    copy[y] = new String(row);
+    return copy;
+  }
+
+  /**
+   * Creates a two-row glyph wider than one packed word: a hollow bar over a full bar.
+   *
+   * @param width The ink width.
+   * @return The glyph, its image one pixel larger than the ink on every side.
+   */
+  private static Glyph wideGlyph(int width) {
+    int cols = width + 2;
+    byte[] pixels = new byte[cols * 4];
+    for (int x = 0; x < width; x++) {
+      if (x == 0 || x == width - 1) {
+        pixels[cols + 1 + x] = (byte) 255;
+      }
+      pixels[2 * cols + 1 + x] = (byte) 255;
+    }
+    Mat image = new Mat(4, cols, CV_8UC1);
+    ((ByteBuffer) image.createBuffer()).put(pixels);
+    return new Glyph("=", image);
+  }
+}
@@ -0,0 +1,145 @@
+package com.chromascape.utils.domain.ocr;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.awt.Rectangle;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/** Test class for {@link OcrCache}. */
+class OcrCacheTest {
+
+  private static final Rectangle ZONE = new Rectangle(10, 20, 120, 14);
+  private static final List<Double> BOUNDS = List.of(0.0, 0.0, 200.0, 180.0, 30.0, 255.0);
+
+  @AfterEach
+  void tearDown() {
+    OcrCache.setMaxEntries(OcrCache.DEFAULT_MAX_ENTRIES);
+    OcrCache.clear();
+  }
+
+  @Test
+  void testCountsHitsAndMisses() {
+    OcrCache.clear();
+    OcrResult result = result("Tile");
+
+    assertNull(OcrCache.get(key(1)));
+    OcrCache.put(key(1), result);
+    assertSame(result, OcrCache.get(key(1)));
+    assertSame(result, OcrCache.get(key(1)));
+    assertNull(OcrCache.get(key(2)));
+
+    assertEquals(2, OcrCache.hits());
+    assertEquals(2, OcrCache.misses());
+    assertEquals(0.5, OcrCache.hitRatio());
+  }
+
+  @Test
+  void testReadsOfOtherModesDoNotHit() {
+    OcrCache.clear();
+    OcrCache.put(key(1), result("Tile"));
+
+    OcrCache.Key segmented =
+        new OcrCache.Key(ZONE, "Plain 12", "White", BOUNDS, OcrMode.SEGMENTED, 1, new byte[] {1});
+
+    assertNull(OcrCache.get(segmented));
+  }
+
+  @Test
+  void testCollidingHashesDoNotHit() {
+    OcrCache.clear();
+    OcrCache.put(key(7, new byte[] {0, 1, 1, 0}), result("Tile"));
+
+    assertNull(OcrCache.get(key(7, new byte[] {1, 0, 0, 1})));
+    assertEquals("Tile", OcrCache.get(key(7, new byte[] {0, 1, 1, 0})).text());
+  }
+
+  @Test
+  void testClearResetsEntriesAndCounts() {
+    OcrCache.put(key(1), result("Tile"));
+    OcrCache.get(key(1));
+    OcrCache.get(key(2));
+
+    OcrCache.clear();
+
+    assertEquals(0, OcrCache.size());
+    assertEquals(0, OcrCache.hits());
+    assertEquals(0, OcrCache.misses());
+    assertEquals(0.0, OcrCache.hitRatio());
+  }
+
+  @Test
+  void testEvictsLeastRecentlyUsed() {
+    OcrCache.clear();
+    OcrCache.setMaxEntries(2);
+    OcrResult first = result("1");
+    OcrResult third = result("3");
+
+    OcrCache.put(key(1), first);
+    OcrCache.put(key(2), result("2"));
+    OcrCache.get(key(1));
+    OcrCache.put(key(3), third);
+
+    assertEquals(2, OcrCache.size());
+    assertNull(OcrCache.get(key(2)));
+    assertSame(first, OcrCache.get(key(1)));
+    assertSame(third, OcrCache.get(key(3)));
+  }
+
+  @Test
+  void testShrinkingEvictsAndZeroDisables() {
+    OcrCache.clear();
+    for (int i = 0; i < 5; i++) {
+      OcrCache.put(key(i), result(Integer.toString(i)));
+    }
+
+    OcrCache.setMaxEntries(3);
+    assertEquals(3, OcrCache.size());
+    assertNull(OcrCache.get(key(0)));
+    assertNull(OcrCache.get(key(1)));
+
+    OcrCache.setMaxEntries(0);
+    OcrCache.put(key(5), result("5"));
+    assertEquals(0, OcrCache.size());
+  }
+
+  @Test
+  void testNegativeSizeIsRejected() {
+    assertThrows(IllegalArgumentException.class, () -> OcrCache.setMaxEntries(-1));
+  }
+
+  /**
+   * Creates the key of a read of {@link #ZONE} whose binarised pixels hash to a value.
+   *
+   * @param pixelHash The pixel hash.
+   * @return The key.
+   */
+  private static OcrCache.Key key(long pixelHash) {
+    return key(pixelHash, new byte[] {(byte) pixelHash});
+  }
+
+  /**
+   * Creates the key of a read of {@link #ZONE} with the given binarised pixels.
+   *
+   * @param pixelHash The hash claimed for the pixels.
+   * @param pixels The binarised pixels.
+   * @return The key.
+   */
+  private static OcrCache.Key key(long pixelHash, byte[] pixels) {
+    return new OcrCache.Key(ZONE, "Plain 12", "White", BOUNDS, OcrMode.TEMPLATE, pixelHash, pixels);
+  }
+
+  /**
+   * Creates a result without character positions.
+   *
+   * @param text The text read.
+   * @return The result.
+   */
+  private static OcrResult result(String text) {
+    return new OcrResult(ZONE, text, List.of());
+  }
+}
@@ -0,0 +1,46 @@
+package com.chromascape.utils.domain.ocr;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/** Test class for {@link OcrResult}. */
+class OcrResultTest {
+
+  @Test
+  void testZoneCannotBeChangedFromOutside() {
+    Rectangle zone = new Rectangle(10, 20, 120, 14);
+    OcrResult result = new OcrResult(zone, "", List.of());
+
+    zone.translate(5, 5);
+    result.zone().translate(5, 5);
+
+    assertEquals(new Rectangle(10, 20, 120, 14), result.zone());
+  }
+
+  @Test
+  void testMatchesCannotBeChangedFromOutside() {
+    List<CharMatch> matches = new ArrayList<>(List.of(new CharMatch("7", 2, 3, 6, 9)));
+    OcrResult result = new OcrResult(new Rectangle(10, 20, 120, 14), "7", matches);
+
+    matches.clear();
+
+    assertFalse(result.isEmpty());
+    assertThrows(UnsupportedOperationException.class, () -> result.matches().clear());
+  }
+
+  @Test
+  void testScreenBoundsAreOffsetByTheZone() {
+    CharMatch match = new CharMatch("7", 2, 3, 6, 9);
+    OcrResult result = new OcrResult(new Rectangle(10, 20, 120, 14), "7", List.of(match));
+
+    assertEquals(new Rectangle(12, 23, 6, 9), result.screenBounds(match));
+    assertTrue(new OcrResult(new Rectangle(), "", List.of()).isEmpty());
+  }
+}
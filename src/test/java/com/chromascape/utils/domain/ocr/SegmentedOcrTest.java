@@ -0,0 +1,100 @@
+package com.chromascape.utils.domain.ocr;
+
+import static com.chromascape.utils.domain.ocr.TestFont.A;
+import static com.chromascape.utils.domain.ocr.TestFont.APOSTROPHE;
+import static com.chromascape.utils.domain.ocr.TestFont.B;
+import static com.chromascape.utils.domain.ocr.TestFont.C;
+import static com.chromascape.utils.domain.ocr.TestFont.COMMA;
+import static com.chromascape.utils.domain.ocr.TestFont.ONE;
+import static com.chromascape.utils.domain.ocr.TestFont.QUOTE;
+import static com.chromascape.utils.domain.ocr.TestFont.SEVEN;
+import static com.chromascape.utils.domain.ocr.TestFont.X;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.Rectangle;
+import java.util.List;
+import org.bytedeco.opencv.opencv_core.Mat;
+import org.junit.jupiter.api.Test;
+
+/** Test class for {@link SegmentedOcr}, checked against the template engine of {@link Ocr}. */
+class SegmentedOcrTest {
+
+  private static final Rectangle ZONE = new Rectangle(300, 400, 80, 22);
+
+  @Test
+  void testAgreesWithTemplateOcr() {
+    GlyphSet glyphs = TestFont.of(A, B, C, ONE, SEVEN, X);
+    Mat zone =
+        TestFont.render(
+            ZONE.width,
+            ZONE.height,
+            TestFont.WIDTH,
+            new int[] {0, 11},
+            List.of(List.of(C, A, B, ONE, SEVEN), List.of(X, SEVEN, A, C)));
+
+    OcrResult segmented = SegmentedOcr.read(zone, ZONE, glyphs);
+    OcrResult template = Ocr.matchGlyphs(zone.clone(), ZONE, glyphs);
+
+    assertEquals("CAB17x7AC", segmented.text());
+    assertEquals(template, segmented);
+    assertEquals(
+        new CharMatch("1", 19, 0, TestFont.WIDTH, TestFont.HEIGHT), segmented.matches().get(3));
+    assertEquals(
+        new CharMatch("x", 1, 11, TestFont.WIDTH, TestFont.HEIGHT), segmented.matches().get(5));
+    zone.release();
+  }
+
+  @Test
+  void testBlankZoneReadsNothing() {
+    Mat zone = TestFont.render(ZONE.width, ZONE.height, TestFont.WIDTH, new int[0], List.of());
+
+    OcrResult result = SegmentedOcr.read(zone, ZONE, TestFont.of(A, B));
+
+    assertTrue(result.isEmpty());
+    assertEquals("", result.text());
+    zone.release();
+  }
+
+  @Test
+  void testTouchingCharactersAreSplit() {
+    Mat zone =
+        TestFont.render(ZONE.width, ZONE.height, 5, new int[] {2}, List.of(List.of(A, B, C, A)));
+
+    OcrResult result = SegmentedOcr.read(zone, ZONE, TestFont.of(A, B, C));
+
+    assertEquals("ABCA", result.text());
+    assertEquals(16, result.matches().get(3).x());
+    zone.release();
+  }
+
+  @Test
+  void testGlyphOfSeveralColumnRunsIsMerged() {
+    Mat zone =
+        TestFont.render(
+            ZONE.width, ZONE.height, TestFont.WIDTH, new int[] {0}, List.of(List.of(A, QUOTE, B)));
+
+    OcrResult result = SegmentedOcr.read(zone, ZONE, TestFont.of(A, B, QUOTE));
+
+    assertEquals("A\"B", result.text());
+    zone.release();
+  }
+
+  @Test
+  void testSameShapeAtDifferentHeightsIsToldApartByTheLine() {
+    Mat zone =
+        TestFont.render(
+            ZONE.width,
+            ZONE.height,
+            TestFont.WIDTH,
+            new int[] {4},
+            List.of(List.of(A, APOSTROPHE, B, COMMA, C)));
+
+    OcrResult result = SegmentedOcr.read(zone, ZONE, TestFont.of(A, B, C, APOSTROPHE, COMMA));
+
+    assertEquals("A'B,C", result.text());
+    assertEquals(4, result.matches().get(1).y());
+    assertEquals(4, result.matches().get(3).y());
+    zone.release();
+  }
+}
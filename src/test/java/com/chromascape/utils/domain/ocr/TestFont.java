@@ -0,0 +1,101 @@
+package com.chromascape.utils.domain.ocr;
+
+import static org.bytedeco.opencv.global.opencv_core.CV_8UC1;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import org.bytedeco.opencv.opencv_core.Mat;
+
+/**
+ * A small hand-drawn bitmap font for the OCR tests. Glyph images are {@link #WIDTH} by {@link
+ * #HEIGHT} pixels, 255 on ink and 0 elsewhere, with the ink drawn from {@code '#'} characters.
+ */
+final class TestFont {
+
+  static final int WIDTH = 6;
+  static final int HEIGHT = 9;
+
+  static final Glyph A =
+      glyph("A", 1, ".###.", "#...#", "#...#", "#####", "#...#", "#...#", "#...#");
+  static final Glyph B =
+      glyph("B", 1, "####.", "#...#", "#...#", "####.", "#...#", "#...#", "####.");
+  static final Glyph C =
+      glyph("C", 1, ".####", "#....", "#....", "#....", "#....", "#....", ".####");
+  static final Glyph ONE =
+      glyph("1", 1, "..#..", ".##..", "..#..", "..#..", "..#..", "..#..", ".###.");
+  static final Glyph SEVEN =
+      glyph("7", 1, "#####", "....#", "...#.", "..#..", "..#..", "..#..", "..#..");
+  static final Glyph X = glyph("x", 3, "#...#", ".#.#.", "..#..", ".#.#.", "#...#");
+  static final Glyph QUOTE = glyph("\"", 1, "#.#", "#.#");
+  static final Glyph APOSTROPHE = glyph("'", 1, ".#", ".#", "#.");
+  static final Glyph COMMA = glyph(",", 6, ".#", ".#", "#.");
+
+  static final List<Glyph> ALL = List.of(A, B, C, ONE, SEVEN, X, QUOTE, APOSTROPHE, COMMA);
+
+  private TestFont() {}
+
+  /**
+   * Creates a glyph set of some of the test glyphs.
+   *
+   * @param glyphs The glyphs.
+   * @return The set.
+   */
+  static GlyphSet of(Glyph... glyphs) {
+    return new GlyphSet("Test", List.of(glyphs));
+  }
+
+  /**
+   * Draws a glyph image with its ink at the left edge.
+   *
+   * @param character The character the glyph draws.
+   * @param top Row of the image the ink starts at.
+   * @param rows The ink, one string per row, {@code '#'} for ink.
+   * @return The glyph.
+   */
+  static Glyph glyph(String character, int top, String... rows) {
+    byte[] pixels = new byte[WIDTH * HEIGHT];
+    for (int y = 0; y < rows.length; y++) {
+      for (int x = 0; x < rows[y].length(); x++) {
+        if (rows[y].charAt(x) == '#') {
+          pixels[(top + y) * WIDTH + x] = (byte) 255;
+        }
+      }
+    }
+    Mat image = new Mat(HEIGHT, WIDTH, CV_8UC1);
+    ((ByteBuffer) image.createBuffer()).put(pixels);
+    return new Glyph(character, image);
+  }
+
+  /**
+   * Renders lines of glyphs into a binarised zone, each glyph image placed {@code advance} pixels
+   * after the previous one.
+   *
+   * @param width Zone width.
+   * @param height Zone height.
+   * @param advance Distance between the left edges of neighbouring glyph images.
+   * @param lineTops The top row of each line.
+   * @param lines The glyphs of each line.
+   * @return The zone, owned by the caller.
+   */
+  static Mat render(int width, int height, int advance, int[] lineTops, List<List<Glyph>> lines) {
+    Mat zone = new Mat(height, width, CV_8UC1);
+    ByteBuffer pixels = zone.createBuffer();
+    pixels.put(0, new byte[width * height]);
+    for (int line = 0; line < lines.size(); line++) {
+      int x = 1;
+      for (Glyph glyph : lines.get(line)) {
+        ByteBuffer ink = glyph.image().createBuffer();
+        for (int y = 0; y < HEIGHT; y++) {
+          for (int dx = 0; dx < WIDTH; dx++) {
+            byte value = ink.get(y * WIDTH + dx);
+            if (value != 0) {
+              pixels.put((lineTops[line] + y) * width + x + dx, value);
+            }
+          }
+        }
+        x += advance;
+      }
+    }
+    return zone;
+  }
+}
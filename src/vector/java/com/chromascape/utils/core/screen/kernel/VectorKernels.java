@@ -0,0 +1,180 @@
+package com.chromascape.utils.core.screen.kernel;
+
+import java.awt.Rectangle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShuffle;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Vector API implementations of the {@link ImageKernels} operations.
+ *
+ * <p>Loaded reflectively by {@link KernelBackend} when the Vector API module is present; see {@link
+ * SimdKernels}. Unsigned byte comparisons are done on signed lanes after flipping the top bit,
+ * which maps 0-255 onto -128-127 in order.
+ */
+final class VectorKernels implements SimdKernels {
+
+  private static final VectorSpecies<Byte> BYTES = ByteVector.SPECIES_PREFERRED;
+  private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+  private static final ByteOrder ORDER = ByteOrder.nativeOrder();
+  private static final byte SIGN = (byte) 0x80;
+  private static final long PRIME = 0x9E3779B97F4A7C15L;
+
+  /**
+   * Gathers channel {@code c} of {@code lanes} interleaved pixels: lane {@code j} takes byte {@code
+   * 3j + c} of the three vectors loaded from them, at this index within its vector.
+   */
+  private static final VectorShuffle<Byte>[] CHANNEL_SHUFFLES = channelShuffles();
+
+  /**
+   * For channel {@code c} and vector {@code k}, the lanes whose byte comes from vector {@code k}.
+   * Gathering starts from vector 0, so only the masks of vectors 1 and 2 are blended in.
+   */
+  private static final VectorMask<Byte>[][] CHANNEL_SOURCES = channelSources();
+
+  VectorKernels() {}
+
+  @Override
+  public void inRange(ByteBuffer src, ByteBuffer dst, int pixels, int[] lower, int[] upper) {
+    int lanes = BYTES.length();
+    ByteVector[] low = new ByteVector[3];
+    ByteVector[] high = new ByteVector[3];
+    for (int c = 0; c < 3; c++) {
+      low[c] = ByteVector.broadcast(BYTES, (byte) (lower[c] ^ SIGN));
+      high[c] = ByteVector.broadcast(BYTES, (byte) (upper[c] ^ SIGN));
+    }
+
+    int p = 0;
+    for (; p + lanes <= pixels; p += lanes) {
+      int i = p * 3;
+      ByteVector v0 = ByteVector.fromByteBuffer(BYTES, src, i, ORDER);
+      ByteVector v1 = ByteVector.fromByteBuffer(BYTES, src, i + lanes, ORDER);
+      ByteVector v2 = ByteVector.fromByteBuffer(BYTES, src, i + 2 * lanes, ORDER);
+      VectorMask<Byte> in = null;
+      for (int c = 0; c < 3; c++) {
+        VectorShuffle<Byte> shuffle = CHANNEL_SHUFFLES[c];
+        ByteVector channel =
+            v0.rearrange(shuffle)
+                .blend(v1.rearrange(shuffle), CHANNEL_SOURCES[c][1])
+                .blend(v2.rearrange(shuffle), CHANNEL_SOURCES[c][2])
+                .lanewise(VectorOperators.XOR, SIGN);
+        VectorMask<Byte> inChannel =
+            channel
+                .compare(VectorOperators.GE, low[c])
+                .and(channel.compare(VectorOperators.LE, high[c]));
+        in = in == null ? inChannel : in.and(inChannel);
+      }
+      // Set lanes become -1, which is 255 read back as unsigned
+      in.toVector().reinterpretAsBytes().intoByteBuffer(dst, p, ORDER);
+    }
+    ScalarKernels.inRange(src, dst, p, pixels, lower, upper);
+  }
+
+  @Override
+  public void bitwiseAnd(ByteBuffer a, ByteBuffer b, ByteBuffer dst, int length) {
+    int i = 0;
+    for (int bound = BYTES.loopBound(length); i < bound; i += BYTES.length()) {
+      ByteVector va = ByteVector.fromByteBuffer(BYTES, a, i, ORDER);
+      ByteVector vb = ByteVector.fromByteBuffer(BYTES, b, i, ORDER);
+      va.and(vb).intoByteBuffer(dst, i, ORDER);
+    }
+    ScalarKernels.bitwiseAnd(a, b, dst, i, length);
+  }
+
+  @Override
+  public void absDiff(ByteBuffer a, ByteBuffer b, ByteBuffer dst, int length) {
+    int i = 0;
+    for (int bound = BYTES.loopBound(length); i < bound; i += BYTES.length()) {
+      ByteVector va =
+          ByteVector.fromByteBuffer(BYTES, a, i, ORDER).lanewise(VectorOperators.XOR, SIGN);
+      ByteVector vb =
+          ByteVector.fromByteBuffer(BYTES, b, i, ORDER).lanewise(VectorOperators.XOR, SIGN);
+      // max - min wraps into 0-255 when read back as unsigned
+      va.max(vb).sub(va.min(vb)).intoByteBuffer(dst, i, ORDER);
+    }
+    ScalarKernels.absDiff(a, b, dst, i, length);
+  }
+
+  @Override
+  public void fill(ByteBuffer image, int from, int to, byte value) {
+    ByteVector broadcast = ByteVector.broadcast(BYTES, value);
+    int i = from;
+    for (; i + BYTES.length() <= to; i += BYTES.length()) {
+      broadcast.intoByteBuffer(image, i, ORDER);
+    }
+    ScalarKernels.fill(image, i, to, value);
+  }
+
+  @Override
+  public long hash(ByteBuffer image, int width, int channels, Rectangle region) {
+    int rowBytes = region.width * channels;
+    int chunk = LONGS.vectorByteSize();
+    LongVector lanes = LongVector.zero(LONGS);
+    long tail = 0;
+    for (int y = region.y; y < region.y + region.height; y++) {
+      int i = (y * width + region.x) * channels;
+      int end = i + rowBytes;
+      for (; i + chunk <= end; i += chunk) {
+        LongVector v = LongVector.fromByteBuffer(LONGS, image, i, ByteOrder.LITTLE_ENDIAN);
+        LongVector mixed = lanes.lanewise(VectorOperators.XOR, v).mul(PRIME);
+        lanes =
+            mixed
+                .lanewise(VectorOperators.LSHL, 31)
+                .or(mixed.lanewise(VectorOperators.LSHR, 33));
+      }
+      for (; i < end; i++) {
+        tail = Long.rotateLeft((tail ^ image.get(i)) * PRIME, 31);
+      }
+    }
+    long h = tail;
+    for (int lane = 0; lane < LONGS.length(); lane++) {
+      h = Long.rotateLeft((h ^ lanes.lane(lane)) * PRIME, 31);
+    }
+    return h;
+  }
+
+  /**
+   * Builds {@link #CHANNEL_SHUFFLES}.
+   *
+   * @return One shuffle per channel.
+   */
+  @SuppressWarnings("unchecked")
+  private static VectorShuffle<Byte>[] channelShuffles() {
+    int lanes = BYTES.length();
+    VectorShuffle<Byte>[] shuffles = new VectorShuffle[3];
+    for (int c = 0; c < 3; c++) {
+      int[] indexes = new int[lanes];
+      for (int j = 0; j < lanes; j++) {
+        indexes[j] = (3 * j + c) % lanes;
+      }
+      shuffles[c] = VectorShuffle.fromArray(BYTES, indexes, 0);
+    }
+    return shuffles;
+  }
+
+  /**
+   * Builds {@link #CHANNEL_SOURCES}.
+   *
+   * @return For every channel, one mask per source vector.
+   */
+  @SuppressWarnings("unchecked")
+  private static VectorMask<Byte>[][] channelSources() {
+    int lanes = BYTES.length();
+    VectorMask<Byte>[][] sources = new VectorMask[3][3];
+    for (int c = 0; c < 3; c++) {
+      for (int k = 0; k < 3; k++) {
+        boolean[] bits = new boolean[lanes];
+        for (int j = 0; j < lanes; j++) {
+          bits[j] = (3 * j + c) / lanes == k;
+        }
+        sources[c][k] = VectorMask.fromArray(BYTES, bits, 0);
+      }
+    }
+    return sources;
+  }
+}